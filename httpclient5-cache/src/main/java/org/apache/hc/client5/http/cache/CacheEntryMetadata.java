@@ -0,0 +1,270 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.cache;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.hc.client5.http.utils.DateUtils;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Internal;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.MessageHeaders;
+import org.apache.hc.core5.http.message.MessageSupport;
+
+/**
+ * Cache control directives and validators of a cached response parsed once
+ * when the {@link HttpCacheEntry} is created, so that freshness and
+ * suitability checks do not need to re-parse the response headers on
+ * every cache hit.
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.IMMUTABLE)
+@Internal
+public final class CacheEntryMetadata {
+
+    /**
+     * Value used for absent or unusable delta-seconds values.
+     */
+    public static final long UNDEFINED = -1;
+
+    private static final long MAX_AGE_VALUE = Integer.MAX_VALUE + 1L;
+
+    private final Set<String> directives;
+    private final long maxAge;
+    private final long staleWhileRevalidate;
+    private final long staleIfError;
+    private final long ageValue;
+    private final Instant expires;
+    private final Instant lastModified;
+    private final String etag;
+    private final boolean variant;
+    private final List<String> varyHeaderNames;
+
+    private CacheEntryMetadata(
+            final Set<String> directives,
+            final long maxAge,
+            final long staleWhileRevalidate,
+            final long staleIfError,
+            final long ageValue,
+            final Instant expires,
+            final Instant lastModified,
+            final String etag,
+            final boolean variant,
+            final List<String> varyHeaderNames) {
+        this.directives = directives;
+        this.maxAge = maxAge;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.staleIfError = staleIfError;
+        this.ageValue = ageValue;
+        this.expires = expires;
+        this.lastModified = lastModified;
+        this.etag = etag;
+        this.variant = variant;
+        this.varyHeaderNames = varyHeaderNames;
+    }
+
+    /**
+     * Parses cache metadata from the given response headers.
+     */
+    public static CacheEntryMetadata parse(final MessageHeaders headers) {
+        Set<String> directives = Collections.emptySet();
+        long maxAge = UNDEFINED;
+        long staleWhileRevalidate = UNDEFINED;
+        long staleIfError = UNDEFINED;
+        final Iterator<HeaderElement> it = MessageSupport.iterate(headers, HeaderConstants.CACHE_CONTROL);
+        while (it.hasNext()) {
+            final HeaderElement elt = it.next();
+            final String name = elt.getName();
+            if (directives.isEmpty()) {
+                directives = new HashSet<>();
+            }
+            directives.add(name.toLowerCase(Locale.ROOT));
+            if (HeaderConstants.CACHE_CONTROL_MAX_AGE.equals(name) || "s-maxage".equals(name)) {
+                try {
+                    final long currMaxAge = Long.parseLong(elt.getValue());
+                    if (maxAge == UNDEFINED || currMaxAge < maxAge) {
+                        maxAge = currMaxAge;
+                    }
+                } catch (final NumberFormatException nfe) {
+                    // be conservative if can't parse
+                    maxAge = 0;
+                }
+            }
+            if (HeaderConstants.STALE_WHILE_REVALIDATE.equalsIgnoreCase(name)) {
+                staleWhileRevalidate = Math.max(staleWhileRevalidate, parseDeltaSeconds(elt.getValue()));
+            }
+            if (HeaderConstants.STALE_IF_ERROR.equals(name)) {
+                staleIfError = Math.max(staleIfError, parseDeltaSeconds(elt.getValue()));
+            }
+        }
+
+        long ageValue = 0;
+        for (final Iterator<Header> ageIt = headers.headerIterator(HeaderConstants.AGE); ageIt.hasNext(); ) {
+            long hdrAge;
+            try {
+                hdrAge = Long.parseLong(ageIt.next().getValue());
+                if (hdrAge < 0) {
+                    hdrAge = MAX_AGE_VALUE;
+                }
+            } catch (final NumberFormatException nfe) {
+                hdrAge = MAX_AGE_VALUE;
+            }
+            ageValue = Math.max(hdrAge, ageValue);
+        }
+
+        final boolean variant = headers.getFirstHeader(HeaderConstants.VARY) != null;
+        List<String> varyHeaderNames = Collections.emptyList();
+        if (variant) {
+            varyHeaderNames = new ArrayList<>();
+            final Iterator<HeaderElement> varyIt = MessageSupport.iterate(headers, HeaderConstants.VARY);
+            while (varyIt.hasNext()) {
+                varyHeaderNames.add(varyIt.next().getName());
+            }
+            Collections.sort(varyHeaderNames);
+            varyHeaderNames = Collections.unmodifiableList(varyHeaderNames);
+        }
+
+        final Header etagHeader = headers.getFirstHeader(HeaderConstants.ETAG);
+        return new CacheEntryMetadata(
+                directives,
+                maxAge,
+                staleWhileRevalidate,
+                staleIfError,
+                ageValue,
+                DateUtils.parseStandardDate(headers, HeaderConstants.EXPIRES),
+                DateUtils.parseStandardDate(headers, HeaderConstants.LAST_MODIFIED),
+                etagHeader != null ? etagHeader.getValue() : null,
+                variant,
+                varyHeaderNames);
+    }
+
+    private static long parseDeltaSeconds(final String value) {
+        try {
+            final int seconds = Integer.parseInt(value);
+            return seconds >= 0 ? seconds : UNDEFINED;
+        } catch (final NumberFormatException nfe) {
+            // skip malformed directive
+            return UNDEFINED;
+        }
+    }
+
+    /**
+     * Determines whether the {@code Cache-Control} header contains the given
+     * directive. Directive names are matched case-insensitively.
+     */
+    public boolean hasDirective(final String directive) {
+        return directive != null && directives.contains(directive.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the smallest of the {@code max-age} and {@code s-maxage} values
+     * in seconds, {@code 0} if any of them is malformed or {@link #UNDEFINED}
+     * if neither is present.
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Returns the largest valid {@code stale-while-revalidate} value
+     * in seconds or {@link #UNDEFINED}.
+     */
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Returns the largest valid {@code stale-if-error} value
+     * in seconds or {@link #UNDEFINED}.
+     */
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+
+    /**
+     * Returns the largest {@code Age} header value in seconds. Malformed or
+     * negative values count as {@code 2^31} seconds.
+     */
+    public long getAgeValue() {
+        return ageValue;
+    }
+
+    /**
+     * Returns the value of the {@code Expires} header or {@code null}
+     * if missing or invalid.
+     */
+    public Instant getExpires() {
+        return expires;
+    }
+
+    /**
+     * Returns the value of the {@code Last-Modified} header or {@code null}
+     * if missing or invalid.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the value of the {@code ETag} header or {@code null}.
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * Returns {@code true} if the response has a {@code Vary} header.
+     */
+    public boolean hasVariants() {
+        return variant;
+    }
+
+    /**
+     * Returns the header names listed in {@code Vary} headers
+     * in ascending order.
+     */
+    public List<String> getVaryHeaderNames() {
+        return varyHeaderNames;
+    }
+
+    @Override
+    public String toString() {
+        return "[directives=" + directives + "; max-age=" + maxAge + "; age=" + ageValue
+                + "; expires=" + expires + "; last-modified=" + lastModified + "; etag=" + etag + "]";
+    }
+
+}
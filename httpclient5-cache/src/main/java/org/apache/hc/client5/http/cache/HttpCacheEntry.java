@@ -26,6 +26,8 @@
  */
 package org.apache.hc.client5.http.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Date;
@@ -66,6 +68,7 @@ public class HttpCacheEntry implements MessageHeaders, Serializable {
     private final Resource resource;
     private final Map<String, String> variantMap;
     private final Date date;
+    private transient CacheEntryMetadata metadata;
 
     /**
      * Create a new {@link HttpCacheEntry} with variants.
@@ -105,6 +108,7 @@ public HttpCacheEntry(
         this.resource = resource;
         this.variantMap = variantMap != null ? new HashMap<>(variantMap) : null;
         this.date = parseDate();
+        this.metadata = CacheEntryMetadata.parse(this);
     }
 
     /**
@@ -256,6 +260,16 @@ public Date getDate() {
         return date;
     }
 
+    /**
+     * Returns cache control directives and validators of the origin response
+     * parsed when this entry was created.
+     *
+     * @since 5.2
+     */
+    public CacheEntryMetadata getMetadata() {
+        return metadata;
+    }
+
     /**
      * Returns the {@link Resource} containing the origin response body.
      */
@@ -270,7 +284,7 @@ public Resource getResource() {
      * @return {@code true} if this cached response was a variant
      */
     public boolean hasVariants() {
-        return getFirstHeader(HeaderConstants.VARY) != null;
+        return metadata.hasVariants();
     }
 
     /**
@@ -300,6 +314,11 @@ public String getRequestMethod() {
         return HeaderConstants.GET_METHOD;
     }
 
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.metadata = CacheEntryMetadata.parse(this);
+    }
+
     /**
      * Provides a string representation of this instance suitable for
      * human consumption.
@@ -26,16 +26,17 @@
  */
 package org.apache.hc.client5.http.impl.cache;
 
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.hc.client5.http.cache.CacheEntryMetadata;
 import org.apache.hc.client5.http.cache.HeaderConstants;
 import org.apache.hc.client5.http.cache.HttpCacheEntry;
 import org.apache.hc.core5.annotation.Contract;
@@ -48,18 +49,79 @@
 import org.apache.hc.core5.http.message.MessageSupport;
 
 /**
+ * Generates cache keys for request URIs and request variants.
+ * <p>
+ * By default cache keys are normalized request URIs and variant keys are
+ * URL-encoded lists of varying request headers, which is the form used by
+ * earlier versions. Optionally both keys can be represented as fixed width
+ * 128-bit hashes of the same data. Hashed keys are shorter and cheaper to
+ * generate but are not compatible with keys of entries stored by earlier
+ * versions.
+ * </p>
+ * <p>
+ * Keys generated from a host and a request are memoized in a small least
+ * recently used cache of each generator, so that requests to frequently used
+ * URIs do not need to parse and normalize the request URI every time.
+ * </p>
+ *
  * @since 4.1
  */
-@Contract(threading = ThreadingBehavior.STATELESS)
+@Contract(threading = ThreadingBehavior.SAFE)
 public class CacheKeyGenerator implements Resolver<URI, String> {
 
     public static final CacheKeyGenerator INSTANCE = new CacheKeyGenerator();
 
+    private static final int KEY_CACHE_SEGMENTS = 16;
+    private static final int MAX_CACHED_KEYS_PER_SEGMENT = 64;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final boolean hashKeys;
+    private final KeyCacheSegment[] keyCache;
+
+    /**
+     * @param hashKeys if {@code true} cache keys and variant keys are generated
+     *                 as fixed width hashes.
+     *
+     * @since 5.2
+     */
+    public CacheKeyGenerator(final boolean hashKeys) {
+        super();
+        this.hashKeys = hashKeys;
+        this.keyCache = new KeyCacheSegment[KEY_CACHE_SEGMENTS];
+        for (int i = 0; i < keyCache.length; i++) {
+            keyCache[i] = new KeyCacheSegment(MAX_CACHED_KEYS_PER_SEGMENT);
+        }
+    }
+
+    public CacheKeyGenerator() {
+        this(false);
+    }
+
+    /**
+     * @since 5.2
+     */
+    public boolean isHashKeys() {
+        return hashKeys;
+    }
+
     @Override
     public String resolve(final URI uri) {
         return generateKey(uri);
     }
 
+    private String normalizeKey(final URI requestUri) {
+        try {
+            final URI normalizeRequestUri = HttpCacheSupport.normalize(requestUri);
+            return normalizeRequestUri.toASCIIString();
+        } catch (final URISyntaxException ex) {
+            return requestUri.toASCIIString();
+        }
+    }
+
+    private String finalizeKey(final String key) {
+        return hashKeys ? new KeyHasher().update(key, 0, key.length()).digest() : key;
+    }
+
     /**
      * Computes a key for the given request {@link URI} that can be used as
      * a unique identifier for cached resources. The URI is expected to
@@ -69,12 +131,7 @@ public String resolve(final URI uri) {
      * @return cache key
      */
     public String generateKey(final URI requestUri) {
-        try {
-            final URI normalizeRequestUri = HttpCacheSupport.normalize(requestUri);
-            return normalizeRequestUri.toASCIIString();
-        } catch (final URISyntaxException ex) {
-            return requestUri.toASCIIString();
-        }
+        return finalizeKey(normalizeKey(requestUri));
     }
 
     /**
@@ -87,26 +144,26 @@ public String generateKey(final URI requestUri) {
      */
     public String generateKey(final HttpHost host, final HttpRequest request) {
         final String s = HttpCacheSupport.getRequestUri(request, host);
+        // URI parsing and normalization dominate the cost of key generation
+        final int h = s.hashCode();
+        final KeyCacheSegment segment = keyCache[((h ^ (h >>> 16)) & 0x7fffffff) % keyCache.length];
+        synchronized (segment) {
+            final String cachedKey = segment.get(s);
+            if (cachedKey != null) {
+                return cachedKey;
+            }
+        }
+        String key;
         try {
-            return generateKey(new URI(s));
+            key = normalizeKey(new URI(s));
         } catch (final URISyntaxException ex) {
-            return s;
+            key = s;
         }
-    }
-
-    private String getFullHeaderValue(final Header[] headers) {
-        if (headers == null) {
-            return "";
+        key = finalizeKey(key);
+        synchronized (segment) {
+            segment.put(s, key);
         }
-        final StringBuilder buf = new StringBuilder();
-        for (int i = 0; i < headers.length; i++) {
-            final Header hdr = headers[i];
-            if (i > 0) {
-                buf.append(", ");
-            }
-            buf.append(hdr.getValue().trim());
-        }
-        return buf.toString();
+        return key;
     }
 
     /**
@@ -126,6 +183,21 @@ public String generateKey(final HttpHost host, final HttpRequest request, final
         return generateVariantKey(request, entry) + generateKey(host, request);
     }
 
+    private static List<String> getVariantHeaderNames(final HttpCacheEntry entry) {
+        final CacheEntryMetadata metadata = entry.getMetadata();
+        if (metadata != null) {
+            return metadata.getVaryHeaderNames();
+        }
+        final List<String> variantHeaderNames = new ArrayList<>();
+        final Iterator<HeaderElement> it = MessageSupport.iterate(entry, HeaderConstants.VARY);
+        while (it.hasNext()) {
+            final HeaderElement elt = it.next();
+            variantHeaderNames.add(elt.getName());
+        }
+        Collections.sort(variantHeaderNames);
+        return variantHeaderNames;
+    }
+
     /**
      * Computes a "variant key" from the headers of a given request that are
      * covered by the Vary header of a given cache entry. Any request whose
@@ -136,33 +208,127 @@ public String generateKey(final HttpHost host, final HttpRequest request, final
      * @return variant key
      */
     public String generateVariantKey(final HttpRequest req, final HttpCacheEntry entry) {
-        final List<String> variantHeaderNames = new ArrayList<>();
-        final Iterator<HeaderElement> it = MessageSupport.iterate(entry, HeaderConstants.VARY);
-        while (it.hasNext()) {
-            final HeaderElement elt = it.next();
-            variantHeaderNames.add(elt.getName());
+        final List<String> variantHeaderNames = getVariantHeaderNames(entry);
+        if (hashKeys) {
+            final KeyHasher hasher = new KeyHasher();
+            for (int i = 0; i < variantHeaderNames.size(); i++) {
+                final String headerName = variantHeaderNames.get(i);
+                hasher.update(headerName, 0, headerName.length()).update('\0');
+                final Header[] headers = req.getHeaders(headerName);
+                for (int n = 0; headers != null && n < headers.length; n++) {
+                    if (n > 0) {
+                        hasher.update(',').update(' ');
+                    }
+                    final String value = headers[n].getValue();
+                    if (value != null) {
+                        hasher.update(value, trimStart(value), trimEnd(value));
+                    }
+                }
+                hasher.update('\0');
+            }
+            return "{" + hasher.digest() + "}";
         }
-        Collections.sort(variantHeaderNames);
-
-        final StringBuilder buf;
-        try {
-            buf = new StringBuilder("{");
-            boolean first = true;
-            for (final String headerName : variantHeaderNames) {
-                if (!first) {
-                    buf.append("&");
+        final StringBuilder buf = new StringBuilder(64);
+        buf.append('{');
+        for (int i = 0; i < variantHeaderNames.size(); i++) {
+            final String headerName = variantHeaderNames.get(i);
+            if (i > 0) {
+                buf.append('&');
+            }
+            encode(buf, headerName, 0, headerName.length());
+            buf.append('=');
+            final Header[] headers = req.getHeaders(headerName);
+            for (int n = 0; headers != null && n < headers.length; n++) {
+                if (n > 0) {
+                    // encoded ", "
+                    buf.append("%2C+");
+                }
+                final String value = headers[n].getValue();
+                if (value != null) {
+                    encode(buf, value, trimStart(value), trimEnd(value));
                 }
-                buf.append(URLEncoder.encode(headerName, StandardCharsets.UTF_8.name()));
-                buf.append("=");
-                buf.append(URLEncoder.encode(getFullHeaderValue(req.getHeaders(headerName)),
-                        StandardCharsets.UTF_8.name()));
-                first = false;
             }
-            buf.append("}");
-        } catch (final UnsupportedEncodingException uee) {
-            throw new RuntimeException("couldn't encode to UTF-8", uee);
         }
+        buf.append('}');
         return buf.toString();
     }
 
+    private static int trimStart(final String s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(final String s) {
+        int i = s.length();
+        while (i > 0 && s.charAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isUnreserved(final char ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9'
+                || ch == '-' || ch == '_' || ch == '.' || ch == '*';
+    }
+
+    /**
+     * Encodes the given range of characters the same way as
+     * {@link java.net.URLEncoder#encode(String, String)} does with
+     * the UTF-8 charset.
+     */
+    static void encode(final StringBuilder buf, final String s, final int start, final int end) {
+        int i = start;
+        while (i < end) {
+            final char ch = s.charAt(i);
+            if (isUnreserved(ch)) {
+                buf.append(ch);
+                i++;
+            } else if (ch == ' ') {
+                buf.append('+');
+                i++;
+            } else if (ch < 0x80) {
+                appendPercentEncoded(buf, ch);
+                i++;
+            } else {
+                int j = i + 1;
+                while (j < end && s.charAt(j) >= 0x80) {
+                    j++;
+                }
+                final byte[] bytes = s.substring(i, j).getBytes(StandardCharsets.UTF_8);
+                for (final byte b : bytes) {
+                    appendPercentEncoded(buf, b & 0xff);
+                }
+                i = j;
+            }
+        }
+    }
+
+    private static void appendPercentEncoded(final StringBuilder buf, final int b) {
+        buf.append('%').append(HEX_DIGITS[b >> 4]).append(HEX_DIGITS[b & 0x0f]);
+    }
+
+    /**
+     * Segment of the least recently used cache of generated keys.
+     */
+    private static final class KeyCacheSegment extends LinkedHashMap<String, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        KeyCacheSegment(final int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > maxEntries;
+        }
+
+    }
+
 }
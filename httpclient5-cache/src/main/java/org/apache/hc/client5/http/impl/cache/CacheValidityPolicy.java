@@ -26,13 +26,14 @@
  */
 package org.apache.hc.client5.http.impl.cache;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.Iterator;
 
+import org.apache.hc.client5.http.cache.CacheEntryMetadata;
 import org.apache.hc.client5.http.cache.HeaderConstants;
 import org.apache.hc.client5.http.cache.HttpCacheEntry;
 import org.apache.hc.client5.http.cache.Resource;
-import org.apache.hc.client5.http.utils.DateUtils;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HeaderElement;
 import org.apache.hc.core5.http.HttpHeaders;
@@ -64,11 +65,11 @@ public TimeValue getFreshnessLifetime(final HttpCacheEntry entry) {
             return TimeValue.ZERO_MILLISECONDS;
         }
 
-        final Date expiry = DateUtils.parseDate(entry, HeaderConstants.EXPIRES);
+        final Instant expiry = entry.getMetadata().getExpires();
         if (expiry == null) {
             return TimeValue.ZERO_MILLISECONDS;
         }
-        final long diff = expiry.getTime() - dateValue.getTime();
+        final long diff = expiry.toEpochMilli() - dateValue.getTime();
         return TimeValue.ofSeconds(diff / 1000);
     }
 
@@ -98,10 +99,10 @@ public boolean isResponseHeuristicallyFresh(final HttpCacheEntry entry,
     public TimeValue getHeuristicFreshnessLifetime(final HttpCacheEntry entry,
             final float coefficient, final TimeValue defaultLifetime) {
         final Date dateValue = entry.getDate();
-        final Date lastModifiedValue = DateUtils.parseDate(entry, HeaderConstants.LAST_MODIFIED);
+        final Instant lastModifiedValue = entry.getMetadata().getLastModified();
 
         if (dateValue != null && lastModifiedValue != null) {
-            final long diff = dateValue.getTime() - lastModifiedValue.getTime();
+            final long diff = dateValue.getTime() - lastModifiedValue.toEpochMilli();
             if (diff < 0) {
                 return TimeValue.ZERO_MILLISECONDS;
             }
@@ -112,7 +113,7 @@ public TimeValue getHeuristicFreshnessLifetime(final HttpCacheEntry entry,
     }
 
     public boolean isRevalidatable(final HttpCacheEntry entry) {
-        return entry.getFirstHeader(HeaderConstants.ETAG) != null
+        return entry.getMetadata().getETag() != null
                 || entry.getFirstHeader(HeaderConstants.LAST_MODIFIED) != null;
     }
 
@@ -125,29 +126,21 @@ public boolean proxyRevalidate(final HttpCacheEntry entry) {
     }
 
     public boolean mayReturnStaleWhileRevalidating(final HttpCacheEntry entry, final Date now) {
-        final Iterator<HeaderElement> it = MessageSupport.iterate(entry, HeaderConstants.CACHE_CONTROL);
-        while (it.hasNext()) {
-            final HeaderElement elt = it.next();
-            if (HeaderConstants.STALE_WHILE_REVALIDATE.equalsIgnoreCase(elt.getName())) {
-                try {
-                    // in seconds
-                    final int allowedStalenessLifetime = Integer.parseInt(elt.getValue());
-                    if (getStaleness(entry, now).compareTo(TimeValue.ofSeconds(allowedStalenessLifetime)) <= 0) {
-                        return true;
-                    }
-                } catch (final NumberFormatException nfe) {
-                    // skip malformed directive
-                }
-            }
-        }
-
-        return false;
+        // in seconds
+        final long allowedStalenessLifetime = entry.getMetadata().getStaleWhileRevalidate();
+        return allowedStalenessLifetime != CacheEntryMetadata.UNDEFINED
+                && getStaleness(entry, now).compareTo(TimeValue.ofSeconds(allowedStalenessLifetime)) <= 0;
     }
 
     public boolean mayReturnStaleIfError(final HttpRequest request, final HttpCacheEntry entry, final Date now) {
         final TimeValue staleness = getStaleness(entry, now);
-        return mayReturnStaleIfError(request, HeaderConstants.CACHE_CONTROL, staleness)
-                || mayReturnStaleIfError(entry, HeaderConstants.CACHE_CONTROL, staleness);
+        if (mayReturnStaleIfError(request, HeaderConstants.CACHE_CONTROL, staleness)) {
+            return true;
+        }
+        // in seconds
+        final long staleIfError = entry.getMetadata().getStaleIfError();
+        return staleIfError != CacheEntryMetadata.UNDEFINED
+                && staleness.compareTo(TimeValue.ofSeconds(staleIfError)) <= 0;
     }
 
     private boolean mayReturnStaleIfError(final MessageHeaders headers, final String name, final TimeValue staleness) {
@@ -209,21 +202,7 @@ protected TimeValue getApparentAge(final HttpCacheEntry entry) {
     }
 
     protected long getAgeValue(final HttpCacheEntry entry) {
-        // This is a header value, we leave as-is
-        long ageValue = 0;
-        for (final Header hdr : entry.getHeaders(HeaderConstants.AGE)) {
-            long hdrAge;
-            try {
-                hdrAge = Long.parseLong(hdr.getValue());
-                if (hdrAge < 0) {
-                    hdrAge = MAX_AGE.toSeconds();
-                }
-            } catch (final NumberFormatException nfe) {
-                hdrAge = MAX_AGE.toSeconds();
-            }
-            ageValue = (hdrAge > ageValue) ? hdrAge : ageValue;
-        }
-        return ageValue;
+        return entry.getMetadata().getAgeValue();
     }
 
     protected TimeValue getCorrectedReceivedAge(final HttpCacheEntry entry) {
@@ -247,35 +226,11 @@ protected TimeValue getResidentTime(final HttpCacheEntry entry, final Date now)
     }
 
     protected long getMaxAge(final HttpCacheEntry entry) {
-        // This is a header value, we leave as-is
-        long maxAge = -1;
-        final Iterator<HeaderElement> it = MessageSupport.iterate(entry, HeaderConstants.CACHE_CONTROL);
-        while (it.hasNext()) {
-            final HeaderElement elt = it.next();
-            if (HeaderConstants.CACHE_CONTROL_MAX_AGE.equals(elt.getName()) || "s-maxage".equals(elt.getName())) {
-                try {
-                    final long currMaxAge = Long.parseLong(elt.getValue());
-                    if (maxAge == -1 || currMaxAge < maxAge) {
-                        maxAge = currMaxAge;
-                    }
-                } catch (final NumberFormatException nfe) {
-                    // be conservative if can't parse
-                    maxAge = 0;
-                }
-            }
-        }
-        return maxAge;
+        return entry.getMetadata().getMaxAge();
     }
 
     public boolean hasCacheControlDirective(final HttpCacheEntry entry, final String directive) {
-        final Iterator<HeaderElement> it = MessageSupport.iterate(entry, HeaderConstants.CACHE_CONTROL);
-        while (it.hasNext()) {
-            final HeaderElement elt = it.next();
-            if (directive.equalsIgnoreCase(elt.getName())) {
-                return true;
-            }
-        }
-        return false;
+        return entry.getMetadata().hasDirective(directive);
     }
 
     public TimeValue getStaleness(final HttpCacheEntry entry, final Date now) {
@@ -26,6 +26,7 @@
  */
 package org.apache.hc.client5.http.impl.cache;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.Iterator;
 
@@ -311,8 +312,7 @@ private boolean hasSupportedLastModifiedValidator(final HttpRequest request) {
      * @return boolean does the etag validator match
      */
     private boolean etagValidatorMatches(final HttpRequest request, final HttpCacheEntry entry) {
-        final Header etagHeader = entry.getFirstHeader(HeaderConstants.ETAG);
-        final String etag = (etagHeader != null) ? etagHeader.getValue() : null;
+        final String etag = entry.getMetadata().getETag();
         final Iterator<HeaderElement> it = MessageSupport.iterate(request, HeaderConstants.IF_NONE_MATCH);
         while (it.hasNext()) {
             final HeaderElement elt = it.next();
@@ -333,15 +333,15 @@ private boolean etagValidatorMatches(final HttpRequest request, final HttpCacheE
      * @return  boolean Does the last modified header match
      */
     private boolean lastModifiedValidatorMatches(final HttpRequest request, final HttpCacheEntry entry, final Date now) {
-        final Date lastModified = DateUtils.parseDate(entry, HeaderConstants.LAST_MODIFIED);
+        final Instant lastModified = entry.getMetadata().getLastModified();
         if (lastModified == null) {
             return false;
         }
 
         for (final Header h : request.getHeaders(HeaderConstants.IF_MODIFIED_SINCE)) {
-            final Date ifModifiedSince = DateUtils.parseDate(h.getValue());
+            final Instant ifModifiedSince = DateUtils.parseStandardDate(h.getValue());
             if (ifModifiedSince != null) {
-                if (ifModifiedSince.after(now) || lastModified.after(ifModifiedSince)) {
+                if (ifModifiedSince.toEpochMilli() > now.getTime() || lastModified.isAfter(ifModifiedSince)) {
                     return false;
                 }
             }
@@ -351,7 +351,7 @@ private boolean lastModifiedValidatorMatches(final HttpRequest request, final Ht
 
     private boolean hasValidDateField(final HttpRequest request, final String headerName) {
         for(final Header h : request.getHeaders(headerName)) {
-            final Date date = DateUtils.parseDate(h.getValue());
+            final Instant date = DateUtils.parseStandardDate(h.getValue());
             return date != null;
         }
         return false;
@@ -59,6 +59,7 @@ public class CachingH2AsyncClientBuilder extends H2AsyncClientBuilder {
     private CacheConfig cacheConfig;
     private HttpAsyncCacheInvalidator httpCacheInvalidator;
     private boolean deleteCache;
+    private CacheKeyGenerator cacheKeyGenerator;
 
     public static CachingH2AsyncClientBuilder create() {
         return new CachingH2AsyncClientBuilder();
@@ -104,6 +105,14 @@ public final CachingH2AsyncClientBuilder setHttpCacheInvalidator(final HttpAsync
         return this;
     }
 
+    /**
+     * @since 5.2
+     */
+    public final CachingH2AsyncClientBuilder setCacheKeyGenerator(final CacheKeyGenerator cacheKeyGenerator) {
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        return this;
+    }
+
     public CachingH2AsyncClientBuilder setDeleteCache(final boolean deleteCache) {
         this.deleteCache = deleteCache;
         return this;
@@ -138,7 +147,7 @@ protected void customizeExecChain(final NamedElementChain<AsyncExecChainHandler>
         final HttpAsyncCache httpCache = new BasicHttpAsyncCache(
                 resourceFactoryCopy,
                 storageCopy,
-                CacheKeyGenerator.INSTANCE,
+                this.cacheKeyGenerator != null ? this.cacheKeyGenerator : CacheKeyGenerator.INSTANCE,
                 this.httpCacheInvalidator != null ? this.httpCacheInvalidator : new DefaultAsyncCacheInvalidator());
 
         DefaultAsyncCacheRevalidator cacheRevalidator = null;
@@ -59,6 +59,7 @@ public class CachingHttpAsyncClientBuilder extends HttpAsyncClientBuilder {
     private CacheConfig cacheConfig;
     private HttpAsyncCacheInvalidator httpCacheInvalidator;
     private boolean deleteCache;
+    private CacheKeyGenerator cacheKeyGenerator;
 
     public static CachingHttpAsyncClientBuilder create() {
         return new CachingHttpAsyncClientBuilder();
@@ -104,6 +105,14 @@ public final CachingHttpAsyncClientBuilder setHttpCacheInvalidator(final HttpAsy
         return this;
     }
 
+    /**
+     * @since 5.2
+     */
+    public final CachingHttpAsyncClientBuilder setCacheKeyGenerator(final CacheKeyGenerator cacheKeyGenerator) {
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        return this;
+    }
+
     public CachingHttpAsyncClientBuilder setDeleteCache(final boolean deleteCache) {
         this.deleteCache = deleteCache;
         return this;
@@ -138,7 +147,7 @@ protected void customizeExecChain(final NamedElementChain<AsyncExecChainHandler>
         final HttpAsyncCache httpCache = new BasicHttpAsyncCache(
                 resourceFactoryCopy,
                 storageCopy,
-                CacheKeyGenerator.INSTANCE,
+                this.cacheKeyGenerator != null ? this.cacheKeyGenerator : CacheKeyGenerator.INSTANCE,
                 this.httpCacheInvalidator != null ? this.httpCacheInvalidator : new DefaultAsyncCacheInvalidator());
 
         DefaultAsyncCacheRevalidator cacheRevalidator = null;
@@ -55,6 +55,7 @@ public class CachingHttpClientBuilder extends HttpClientBuilder {
     private CacheConfig cacheConfig;
     private HttpCacheInvalidator httpCacheInvalidator;
     private boolean deleteCache;
+    private CacheKeyGenerator cacheKeyGenerator;
 
     public static CachingHttpClientBuilder create() {
         return new CachingHttpClientBuilder();
@@ -96,6 +97,14 @@ public final CachingHttpClientBuilder setHttpCacheInvalidator(final HttpCacheInv
         return this;
     }
 
+    /**
+     * @since 5.2
+     */
+    public final CachingHttpClientBuilder setCacheKeyGenerator(final CacheKeyGenerator cacheKeyGenerator) {
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        return this;
+    }
+
     public final CachingHttpClientBuilder setDeleteCache(final boolean deleteCache) {
         this.deleteCache = deleteCache;
         return this;
@@ -130,7 +139,7 @@ protected void customizeExecChain(final NamedElementChain<ExecChainHandler> exec
         final HttpCache httpCache = new BasicHttpCache(
                 resourceFactoryCopy,
                 storageCopy,
-                CacheKeyGenerator.INSTANCE,
+                this.cacheKeyGenerator != null ? this.cacheKeyGenerator : CacheKeyGenerator.INSTANCE,
                 this.httpCacheInvalidator != null ? this.httpCacheInvalidator : new DefaultCacheInvalidator());
 
         DefaultCacheRevalidator cacheRevalidator = null;
@@ -0,0 +1,135 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.cache;
+
+/**
+ * Incremental 128-bit MurmurHash3 (x64 variant) of a sequence of characters.
+ * Characters are hashed as UTF-16LE code units, so the digest equals that of
+ * MurmurHash3_x64_128 with seed 0 applied to the UTF-16LE encoding of the
+ * input, without the need to encode it first.
+ */
+final class KeyHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private long h1;
+    private long h2;
+    private long k1;
+    private long k2;
+    private int count;
+    private long length;
+
+    KeyHasher update(final char ch) {
+        final long v = ch;
+        if (count < 4) {
+            k1 |= v << (count << 4);
+        } else {
+            k2 |= v << ((count - 4) << 4);
+        }
+        count++;
+        length += 2;
+        if (count == 8) {
+            mixBlock();
+            k1 = 0;
+            k2 = 0;
+            count = 0;
+        }
+        return this;
+    }
+
+    KeyHasher update(final CharSequence s, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            update(s.charAt(i));
+        }
+        return this;
+    }
+
+    private void mixBlock() {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private static long mixK1(final long k) {
+        return Long.rotateLeft(k * C1, 31) * C2;
+    }
+
+    private static long mixK2(final long k) {
+        return Long.rotateLeft(k * C2, 33) * C1;
+    }
+
+    private static long fmix(final long k) {
+        long h = k;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Returns both 64-bit halves of the hash as 32 hex digits. The hasher
+     * must not be used afterwards.
+     */
+    String digest() {
+        if (count > 4) {
+            h2 ^= mixK2(k2);
+        }
+        if (count > 0) {
+            h1 ^= mixK1(k1);
+        }
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+
+        final char[] buf = new char[32];
+        appendHex(buf, 0, h1);
+        appendHex(buf, 16, h2);
+        return new String(buf);
+    }
+
+    private static void appendHex(final char[] buf, final int off, final long v) {
+        for (int i = 0; i < 16; i++) {
+            buf[off + i] = HEX_DIGITS[(int) (v >>> (60 - (i << 2))) & 0x0f];
+        }
+    }
+
+}
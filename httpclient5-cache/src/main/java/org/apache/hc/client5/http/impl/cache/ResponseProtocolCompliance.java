@@ -27,6 +27,7 @@
 package org.apache.hc.client5.http.impl.cache;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -153,7 +154,7 @@ private void identityIsNotUsedInContentEncoding(final HttpResponse response) {
 
     private void ensure206ContainsDateHeader(final HttpResponse response) {
         if (response.getFirstHeader(HttpHeaders.DATE) == null) {
-            response.addHeader(HttpHeaders.DATE, DateUtils.formatDate(new Date()));
+            response.addHeader(HttpHeaders.DATE, DateUtils.formatStandardDate(Instant.now()));
         }
 
     }
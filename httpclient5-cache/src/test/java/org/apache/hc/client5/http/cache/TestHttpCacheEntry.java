@@ -36,6 +36,10 @@
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -302,4 +306,64 @@ public void testGetMethodReturnsCorrectRequestMethod() {
         entry = makeEntry(headers);
         assertEquals(HeaderConstants.GET_METHOD, entry.getRequestMethod());
     }
+
+    @Test
+    public void testMetadataIsParsedFromHeaders() {
+        final Header[] headers = {
+                new BasicHeader("Cache-Control", "max-age=20, Must-Revalidate"),
+                new BasicHeader("Cache-Control", "s-maxage=10, stale-while-revalidate=15, stale-if-error=abc"),
+                new BasicHeader("Age", "5"),
+                new BasicHeader("Age", "7"),
+                new BasicHeader("Expires", DateUtils.formatDate(now)),
+                new BasicHeader("Last-Modified", "asdf"),
+                new BasicHeader("ETag", "\"etag\""),
+                new BasicHeader("Vary", "User-Agent")
+        };
+        entry = makeEntry(headers);
+        final CacheEntryMetadata metadata = entry.getMetadata();
+        assertEquals(10, metadata.getMaxAge());
+        assertTrue(metadata.hasDirective("must-revalidate"));
+        assertTrue(metadata.hasDirective("S-MAXAGE"));
+        assertFalse(metadata.hasDirective("proxy-revalidate"));
+        assertEquals(15, metadata.getStaleWhileRevalidate());
+        assertEquals(CacheEntryMetadata.UNDEFINED, metadata.getStaleIfError());
+        assertEquals(7, metadata.getAgeValue());
+        assertEquals(now.getTime() / 1000, metadata.getExpires().getEpochSecond());
+        assertNull(metadata.getLastModified());
+        assertEquals("\"etag\"", metadata.getETag());
+        assertTrue(metadata.hasVariants());
+    }
+
+    @Test
+    public void testMetadataDefaults() {
+        entry = makeEntry(new Header[] {});
+        final CacheEntryMetadata metadata = entry.getMetadata();
+        assertEquals(CacheEntryMetadata.UNDEFINED, metadata.getMaxAge());
+        assertEquals(CacheEntryMetadata.UNDEFINED, metadata.getStaleWhileRevalidate());
+        assertEquals(CacheEntryMetadata.UNDEFINED, metadata.getStaleIfError());
+        assertEquals(0, metadata.getAgeValue());
+        assertNull(metadata.getExpires());
+        assertNull(metadata.getETag());
+        assertFalse(metadata.hasVariants());
+    }
+
+    @Test
+    public void testMetadataIsRestoredOnDeserialization() throws Exception {
+        final Header[] headers = {
+                new BasicHeader("Cache-Control", "max-age=20"),
+                new BasicHeader("ETag", "\"etag\"")
+        };
+        entry = new HttpCacheEntry(elevenSecondsAgo, nineSecondsAgo, HttpStatus.SC_OK, headers, null);
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(buf)) {
+            out.writeObject(entry);
+        }
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buf.toByteArray()))) {
+            final HttpCacheEntry copy = (HttpCacheEntry) in.readObject();
+            assertNotNull(copy.getMetadata());
+            assertEquals(20, copy.getMetadata().getMaxAge());
+            assertEquals("\"etag\"", copy.getMetadata().getETag());
+        }
+    }
+
 }
@@ -30,6 +30,11 @@
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 import org.apache.hc.client5.http.cache.HttpCacheEntry;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.core5.http.Header;
@@ -417,4 +422,70 @@ public void testEquivalentExtraPathEncodingsWithPercentAreEquivalent() {
         final HttpRequest req2 = new BasicHttpRequest("GET", "/%7Esmith/home%20folder.html");
         Assert.assertEquals(extractor.generateKey(host, req1), extractor.generateKey(host, req2));
     }
+
+    @Test
+    public void testVariantKeyOfCacheEntry() {
+        final HttpCacheEntry entry = HttpTestUtils.makeCacheEntry(
+                new BasicHeader("Vary", "Accept-Language, Accept-Encoding"));
+        final HttpRequest req = new BasicHttpRequest("GET", "/");
+        req.addHeader("Accept-Encoding", " gzip, br ");
+        req.addHeader("Accept-Language", "en-US");
+        req.addHeader("Accept-Language", "fr;q=0.5");
+        Assert.assertEquals("{Accept-Encoding=gzip%2C+br&Accept-Language=en-US%2C+fr%3Bq%3D0.5}",
+                extractor.generateVariantKey(req, entry));
+    }
+
+    @Test
+    public void testEncodingMatchesURLEncoder() throws Exception {
+        final Random random = new Random(1);
+        for (int n = 0; n < 1000; n++) {
+            final StringBuilder buf = new StringBuilder();
+            final int len = random.nextInt(20);
+            for (int i = 0; i < len; i++) {
+                buf.append(random.nextBoolean() ? (char) (32 + random.nextInt(96)) : (char) random.nextInt(0x10000));
+            }
+            final String s = buf.toString();
+            final StringBuilder encoded = new StringBuilder();
+            CacheKeyGenerator.encode(encoded, s, 0, s.length());
+            Assert.assertEquals(URLEncoder.encode(s, StandardCharsets.UTF_8.name()), encoded.toString());
+        }
+    }
+
+    @Test
+    public void testHashedKeys() {
+        final CacheKeyGenerator generator = new CacheKeyGenerator(true);
+        final HttpHost host = new HttpHost("foo.example.com");
+        final String key = generator.generateKey(host, new BasicHttpRequest("GET", "/~smith/home.html"));
+        Assert.assertEquals(32, key.length());
+        Assert.assertEquals(key, generator.generateKey(host, new BasicHttpRequest("GET", "/%7Esmith/home.html")));
+        Assert.assertEquals(key, generator.resolve(URI.create("http://foo.example.com:80/~smith/home.html")));
+        Assert.assertNotEquals(key, generator.generateKey(host, new BasicHttpRequest("GET", "/~smith/")));
+
+        final HttpCacheEntry entry = HttpTestUtils.makeCacheEntry(
+                new BasicHeader("Vary", "Accept-Encoding, Accept-Language"));
+        final HttpRequest req1 = new BasicHttpRequest("GET", "/");
+        req1.addHeader("Accept-Encoding", "gzip");
+        final HttpRequest req2 = new BasicHttpRequest("GET", "/");
+        req2.addHeader("Accept-Encoding", "gzip ");
+        final HttpRequest req3 = new BasicHttpRequest("GET", "/");
+        req3.addHeader("Accept-Language", "gzip");
+        final String variantKey = generator.generateVariantKey(req1, entry);
+        Assert.assertEquals(34, variantKey.length());
+        Assert.assertEquals(variantKey, generator.generateVariantKey(req2, entry));
+        Assert.assertNotEquals(variantKey, generator.generateVariantKey(req3, entry));
+        Assert.assertEquals(variantKey + generator.generateKey(host, req1), generator.generateKey(host, req1, entry));
+    }
+
+    @Test
+    public void testMemoizedKeysBeyondCacheCapacity() {
+        final CacheKeyGenerator generator = new CacheKeyGenerator();
+        final HttpHost host = new HttpHost("foo.example.com");
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 5000; i++) {
+                Assert.assertEquals("http://foo.example.com:80/stuff/" + i,
+                        generator.generateKey(host, new BasicHttpRequest("GET", "/stuff/./" + i + "#frag")));
+            }
+        }
+    }
+
 }
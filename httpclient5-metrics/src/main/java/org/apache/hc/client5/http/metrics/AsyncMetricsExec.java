@@ -0,0 +1,231 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+/**
+ * Asynchronous request execution handler that records {@link RouteMetrics}.
+ */
+@Contract(threading = ThreadingBehavior.STATELESS)
+final class AsyncMetricsExec implements AsyncExecChainHandler {
+
+    private final HttpClientMetrics metrics;
+
+    AsyncMetricsExec(final HttpClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(
+            final HttpRequest request,
+            final AsyncEntityProducer entityProducer,
+            final AsyncExecChain.Scope scope,
+            final AsyncExecChain chain,
+            final AsyncExecCallback asyncExecCallback) throws HttpException, IOException {
+        final RouteMetrics routeMetrics = metrics.obtainRouteMetrics(scope.route);
+        routeMetrics.recordRequest();
+        final long start = System.nanoTime();
+        chain.proceed(
+                request,
+                entityProducer != null ? new CountingEntityProducer(entityProducer, routeMetrics) : null,
+                scope,
+                new AsyncExecCallback() {
+
+                    private volatile boolean responded;
+
+                    @Override
+                    public AsyncDataConsumer handleResponse(
+                            final HttpResponse response,
+                            final EntityDetails entityDetails) throws HttpException, IOException {
+                        responded = true;
+                        routeMetrics.recordResponse(response.getCode(), (System.nanoTime() - start) / 1000);
+                        final AsyncDataConsumer dataConsumer = asyncExecCallback.handleResponse(response, entityDetails);
+                        return dataConsumer != null ? new CountingDataConsumer(dataConsumer, routeMetrics) : null;
+                    }
+
+                    @Override
+                    public void handleInformationResponse(final HttpResponse response) throws HttpException, IOException {
+                        asyncExecCallback.handleInformationResponse(response);
+                    }
+
+                    @Override
+                    public void completed() {
+                        asyncExecCallback.completed();
+                    }
+
+                    @Override
+                    public void failed(final Exception cause) {
+                        if (!responded) {
+                            routeMetrics.recordFailure();
+                        }
+                        asyncExecCallback.failed(cause);
+                    }
+
+                });
+    }
+
+    static final class CountingEntityProducer implements AsyncEntityProducer {
+
+        private final AsyncEntityProducer entityProducer;
+        private final RouteMetrics routeMetrics;
+
+        CountingEntityProducer(final AsyncEntityProducer entityProducer, final RouteMetrics routeMetrics) {
+            this.entityProducer = entityProducer;
+            this.routeMetrics = routeMetrics;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return entityProducer.isRepeatable();
+        }
+
+        @Override
+        public void failed(final Exception cause) {
+            entityProducer.failed(cause);
+        }
+
+        @Override
+        public long getContentLength() {
+            return entityProducer.getContentLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return entityProducer.getContentType();
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return entityProducer.getContentEncoding();
+        }
+
+        @Override
+        public boolean isChunked() {
+            return entityProducer.isChunked();
+        }
+
+        @Override
+        public Set<String> getTrailerNames() {
+            return entityProducer.getTrailerNames();
+        }
+
+        @Override
+        public int available() {
+            return entityProducer.available();
+        }
+
+        @Override
+        public void produce(final DataStreamChannel channel) throws IOException {
+            entityProducer.produce(new DataStreamChannel() {
+
+                @Override
+                public void requestOutput() {
+                    channel.requestOutput();
+                }
+
+                @Override
+                public int write(final ByteBuffer src) throws IOException {
+                    final int n = channel.write(src);
+                    if (n > 0) {
+                        routeMetrics.recordBytesSent(n);
+                    }
+                    return n;
+                }
+
+                @Override
+                public void endStream(final List<? extends Header> trailers) throws IOException {
+                    channel.endStream(trailers);
+                }
+
+                @Override
+                public void endStream() throws IOException {
+                    channel.endStream();
+                }
+
+            });
+        }
+
+        @Override
+        public void releaseResources() {
+            entityProducer.releaseResources();
+        }
+
+    }
+
+    static final class CountingDataConsumer implements AsyncDataConsumer {
+
+        private final AsyncDataConsumer dataConsumer;
+        private final RouteMetrics routeMetrics;
+
+        CountingDataConsumer(final AsyncDataConsumer dataConsumer, final RouteMetrics routeMetrics) {
+            this.dataConsumer = dataConsumer;
+            this.routeMetrics = routeMetrics;
+        }
+
+        @Override
+        public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+            dataConsumer.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(final ByteBuffer src) throws IOException {
+            routeMetrics.recordBytesReceived(src.remaining());
+            dataConsumer.consume(src);
+        }
+
+        @Override
+        public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+            dataConsumer.streamEnd(trailers);
+        }
+
+        @Override
+        public void releaseResources() {
+            dataConsumer.releaseResources();
+        }
+
+    }
+
+}
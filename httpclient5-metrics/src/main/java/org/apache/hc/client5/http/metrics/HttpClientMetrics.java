@@ -0,0 +1,185 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Registry of request execution metrics of classic and asynchronous clients
+ * and of connection pool gauges.
+ * <p>
+ * Clients are instrumented by adding a metrics element to their execution chain
+ * ahead of the protocol element, so that every message exchange including
+ * redirects and retries is accounted for on the route it is actually executed over:
+ * </p>
+ * <pre>
+ * HttpClientMetrics metrics = new HttpClientMetrics();
+ * PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+ * metrics.registerPool("default", connManager);
+ * CloseableHttpClient client = metrics.instrument(HttpClients.custom())
+ *         .setConnectionManager(connManager)
+ *         .build();
+ * </pre>
+ * <p>
+ * The recording path is lock-free. Metrics are exposed through plain getters
+ * and can be bridged to a metrics backend with a {@link MetricsAdapter}.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class HttpClientMetrics {
+
+    /**
+     * Name of the execution chain element that records metrics.
+     */
+    public static final String CHAIN_ELEMENT = "METRICS";
+
+    private final ConcurrentMap<HttpRoute, RouteMetrics> routeMap;
+    private final ConcurrentMap<String, PoolMetrics> poolMap;
+    private final List<MetricsAdapter> adapters;
+
+    public HttpClientMetrics() {
+        this.routeMap = new ConcurrentHashMap<>();
+        this.poolMap = new ConcurrentHashMap<>();
+        this.adapters = new CopyOnWriteArrayList<>();
+    }
+
+    RouteMetrics obtainRouteMetrics(final HttpRoute route) {
+        final RouteMetrics existing = routeMap.get(route);
+        if (existing != null) {
+            return existing;
+        }
+        final RouteMetrics metrics = new RouteMetrics(route);
+        final RouteMetrics previous = routeMap.putIfAbsent(route, metrics);
+        if (previous != null) {
+            return previous;
+        }
+        for (final MetricsAdapter adapter : adapters) {
+            adapter.routeAdded(route, metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns metrics of the given route or {@code null} if no request
+     * has been executed over the route.
+     */
+    public RouteMetrics getRouteMetrics(final HttpRoute route) {
+        return routeMap.get(route);
+    }
+
+    /**
+     * Returns an unmodifiable live view of metrics of all routes.
+     */
+    public Map<HttpRoute, RouteMetrics> getRouteMetrics() {
+        return Collections.unmodifiableMap(routeMap);
+    }
+
+    /**
+     * Registers a connection pool to publish gauges for under the given name.
+     * Both {@code PoolingHttpClientConnectionManager} and
+     * {@code PoolingAsyncClientConnectionManager} implement {@link ConnPoolControl}.
+     */
+    public PoolMetrics registerPool(final String name, final ConnPoolControl<HttpRoute> pool) {
+        Args.notBlank(name, "Pool name");
+        Args.notNull(pool, "Connection pool");
+        final PoolMetrics metrics = new PoolMetrics(name, pool);
+        final PoolMetrics previous = poolMap.putIfAbsent(name, metrics);
+        Args.check(previous == null, "Pool '%s' is already registered", name);
+        for (final MetricsAdapter adapter : adapters) {
+            adapter.poolAdded(metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns an unmodifiable live view of gauges of all registered pools.
+     */
+    public Map<String, PoolMetrics> getPoolMetrics() {
+        return Collections.unmodifiableMap(poolMap);
+    }
+
+    /**
+     * Adds an adapter and notifies it of all routes and pools known at this point.
+     */
+    public void addAdapter(final MetricsAdapter adapter) {
+        Args.notNull(adapter, "Metrics adapter");
+        adapters.add(adapter);
+        for (final PoolMetrics metrics : poolMap.values()) {
+            adapter.poolAdded(metrics);
+        }
+        for (final Map.Entry<HttpRoute, RouteMetrics> entry : routeMap.entrySet()) {
+            adapter.routeAdded(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Adds the metrics element to the execution chain of the given classic client builder.
+     */
+    public HttpClientBuilder instrument(final HttpClientBuilder builder) {
+        Args.notNull(builder, "Client builder");
+        return builder.addExecInterceptorBefore(ChainElement.PROTOCOL.name(), CHAIN_ELEMENT, new MetricsExec(this));
+    }
+
+    /**
+     * Adds the metrics element to the execution chain of the given async client builder.
+     */
+    public HttpAsyncClientBuilder instrument(final HttpAsyncClientBuilder builder) {
+        Args.notNull(builder, "Client builder");
+        return builder.addExecInterceptorBefore(ChainElement.PROTOCOL.name(), CHAIN_ELEMENT, new AsyncMetricsExec(this));
+    }
+
+    /**
+     * Adds the metrics element to the execution chain of the given HTTP/2 async client builder.
+     */
+    public H2AsyncClientBuilder instrument(final H2AsyncClientBuilder builder) {
+        Args.notNull(builder, "Client builder");
+        return builder.addExecInterceptorBefore(ChainElement.PROTOCOL.name(), CHAIN_ELEMENT, new AsyncMetricsExec(this));
+    }
+
+    @Override
+    public String toString() {
+        return "[routes: " + routeMap.values() + "; pools: " + poolMap.values() + "]";
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram.
+ * <p>
+ * Values are recorded in microseconds. Values below the sub-bucket count are tracked
+ * exactly, every following power of two range is split into {@code subBucketCount / 2}
+ * linear buckets, which bounds the relative error of reported percentiles by
+ * {@code 2 / subBucketCount} regardless of the magnitude of the recorded values.
+ * Values above the highest trackable value are counted in the last bucket;
+ * the maximum is always tracked exactly.
+ * </p>
+ * <p>
+ * Recording a value takes a handful of arithmetic operations and two uncontended
+ * atomic increments. Readers observe a weakly consistent view of the histogram that
+ * may not include values recorded concurrently with the read.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class LatencyHistogram {
+
+    /**
+     * Default sub-bucket count (relative error under 3.2%).
+     */
+    public static final int DEFAULT_SUB_BUCKET_COUNT = 64;
+
+    /**
+     * Default highest trackable value: one hour expressed in microseconds.
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toMicros(1);
+
+    private final int subBucketBits;
+    private final int halfSubBucketCount;
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalSum;
+    private final LongAccumulator max;
+
+    /**
+     * @param subBucketCount number of values tracked exactly; twice the number of linear
+     *                       buckets per power of two range. Must be a power of two no less than 2.
+     * @param highestTrackableValue highest value in microseconds that is counted
+     *                              in its own bucket.
+     */
+    public LatencyHistogram(final int subBucketCount, final long highestTrackableValue) {
+        Args.check(subBucketCount >= 2 && Integer.bitCount(subBucketCount) == 1,
+                "Sub-bucket count must be a power of two no less than 2");
+        Args.positive(highestTrackableValue, "Highest trackable value");
+        this.subBucketBits = Integer.numberOfTrailingZeros(subBucketCount);
+        this.halfSubBucketCount = subBucketCount >>> 1;
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(indexOf(highestTrackableValue) + 1);
+        this.totalCount = new LongAdder();
+        this.totalSum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    public LatencyHistogram() {
+        this(DEFAULT_SUB_BUCKET_COUNT, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    int indexOf(final long value) {
+        final int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb < subBucketBits) {
+            return (int) value;
+        }
+        final int shift = msb - subBucketBits + 1;
+        return shift * halfSubBucketCount + (int) (value >>> shift);
+    }
+
+    long lowestValueAt(final int index) {
+        if (index < halfSubBucketCount << 1) {
+            return index;
+        }
+        final int shift = index / halfSubBucketCount - 1;
+        return (long) (index - shift * halfSubBucketCount) << shift;
+    }
+
+    long highestValueAt(final int index) {
+        return lowestValueAt(index + 1) - 1;
+    }
+
+    int getBucketCount() {
+        return counts.length();
+    }
+
+    /**
+     * Records the given value in microseconds. Negative values are ignored.
+     */
+    public void record(final long micros) {
+        if (micros < 0) {
+            return;
+        }
+        counts.incrementAndGet(indexOf(Math.min(micros, highestTrackableValue)));
+        totalCount.increment();
+        totalSum.add(micros);
+        max.accumulate(micros);
+    }
+
+    /**
+     * Records the given duration.
+     */
+    public void record(final long duration, final TimeUnit timeUnit) {
+        record(timeUnit.toMicros(duration));
+    }
+
+    /**
+     * Returns the total number of recorded values.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded values in microseconds.
+     */
+    public long getSum() {
+        return totalSum.sum();
+    }
+
+    /**
+     * Returns the highest recorded value in microseconds or {@code 0} if the histogram is empty.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the arithmetic mean of recorded values in microseconds or {@code 0}
+     * if the histogram is empty.
+     */
+    public double getMean() {
+        final long count = getCount();
+        return count > 0 ? (double) getSum() / count : 0;
+    }
+
+    /**
+     * Returns the number of recorded values that are less than or equal to
+     * the given value, within the precision of the histogram. Suitable for
+     * exporting cumulative buckets with fixed boundaries.
+     */
+    public long getCountAtOrBelow(final long micros) {
+        if (micros < 0) {
+            return 0;
+        }
+        final int last = indexOf(Math.min(micros, highestTrackableValue));
+        long count = 0;
+        for (int i = 0; i <= last; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the value in microseconds below which the given percentage of recorded
+     * values fall, within the precision of the histogram, or {@code 0} if the histogram is empty.
+     *
+     * @param percentile percentile in the range from 0 to 100.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        Args.check(percentile >= 0 && percentile <= 100, "Percentile must be in the range from 0 to 100");
+        final int bucketCount = counts.length();
+        final long[] snapshot = new long[bucketCount];
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long count = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            count += snapshot[i];
+            if (count >= target) {
+                return i < bucketCount - 1 ? Math.min(highestValueAt(i), getMax()) : getMax();
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return "[count: " + getCount() +
+                "; mean: " + (long) getMean() +
+                "; p50: " + getValueAtPercentile(50) +
+                "; p99: " + getValueAtPercentile(99) +
+                "; max: " + getMax() + "]";
+    }
+
+}
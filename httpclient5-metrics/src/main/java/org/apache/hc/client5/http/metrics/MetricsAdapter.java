@@ -0,0 +1,56 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import org.apache.hc.client5.http.HttpRoute;
+
+/**
+ * Adapter that bridges {@link HttpClientMetrics} to a metrics backend such as
+ * Micrometer or Prometheus. Adapters are notified once per route and per pool
+ * and are expected to register backend meters that read values from the
+ * given metrics objects on demand.
+ * <p>
+ * Callbacks can be invoked concurrently and may be invoked more than once
+ * for the same route if the adapter is added while requests are being executed.
+ * </p>
+ *
+ * @since 5.2
+ */
+public interface MetricsAdapter {
+
+    /**
+     * Triggered when the first request is executed over the given route.
+     */
+    void routeAdded(HttpRoute route, RouteMetrics metrics);
+
+    /**
+     * Triggered when a connection pool is registered.
+     */
+    default void poolAdded(PoolMetrics metrics) {
+    }
+
+}
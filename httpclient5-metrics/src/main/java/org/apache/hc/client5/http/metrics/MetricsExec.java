@@ -0,0 +1,207 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.entity.ObservingEntityWrapper;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * Classic request execution handler that records {@link RouteMetrics}.
+ */
+@Contract(threading = ThreadingBehavior.STATELESS)
+final class MetricsExec implements ExecChainHandler {
+
+    private final HttpClientMetrics metrics;
+
+    MetricsExec(final HttpClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ClassicHttpResponse execute(
+            final ClassicHttpRequest request,
+            final ExecChain.Scope scope,
+            final ExecChain chain) throws IOException, HttpException {
+        final RouteMetrics routeMetrics = metrics.obtainRouteMetrics(scope.route);
+        routeMetrics.recordRequest();
+        final long start = System.nanoTime();
+        final HttpEntity requestEntity = request.getEntity();
+        final CountingRequestEntity countingEntity;
+        if (requestEntity != null) {
+            countingEntity = new CountingRequestEntity(requestEntity, routeMetrics::recordBytesSent);
+            request.setEntity(countingEntity);
+        } else {
+            countingEntity = null;
+        }
+        final ClassicHttpResponse response;
+        try {
+            response = chain.proceed(request, scope);
+        } catch (final IOException | HttpException | RuntimeException ex) {
+            routeMetrics.recordFailure();
+            throw ex;
+        } finally {
+            if (countingEntity != null) {
+                countingEntity.deactivate();
+                // Downstream handlers may have wrapped the entity with their own proxies
+                // that later retries depend on, so only the counting wrapper is undone
+                if (request.getEntity() == countingEntity) {
+                    request.setEntity(requestEntity);
+                }
+            }
+        }
+        routeMetrics.recordResponse(response.getCode(), (System.nanoTime() - start) / 1000);
+        final HttpEntity responseEntity = response.getEntity();
+        if (responseEntity != null) {
+            response.setEntity(new HttpEntityWrapper(responseEntity) {
+
+                @Override
+                public InputStream getContent() throws IOException {
+                    final InputStream content = super.getContent();
+                    return content != null ? new CountingInputStream(content, routeMetrics::recordBytesReceived) : null;
+                }
+
+                @Override
+                public void writeTo(final OutputStream outStream) throws IOException {
+                    super.writeTo(new CountingOutputStream(outStream, routeMetrics::recordBytesReceived));
+                }
+
+            });
+        }
+        return response;
+    }
+
+    /**
+     * Counts request content bytes for the duration of one execution. Once deactivated
+     * the entity passes content through without counting so that it does no harm if
+     * it remains wrapped by a downstream proxy when the request is re-executed.
+     */
+    static final class CountingRequestEntity extends ObservingEntityWrapper {
+
+        private final LongConsumer counter;
+        private volatile boolean active;
+
+        CountingRequestEntity(final HttpEntity wrappedEntity, final LongConsumer counter) {
+            super(wrappedEntity);
+            this.counter = counter;
+            this.active = true;
+        }
+
+        void deactivate() {
+            active = false;
+        }
+
+        @Override
+        public void writeTo(final OutputStream outStream) throws IOException {
+            super.writeTo(active ? new CountingOutputStream(outStream, counter) : outStream);
+        }
+
+        @Override
+        protected void contentTransferred(final long len) {
+            if (active) {
+                counter.accept(len);
+            }
+        }
+
+    }
+
+    static final class CountingOutputStream extends FilterOutputStream {
+
+        private final LongConsumer counter;
+
+        CountingOutputStream(final OutputStream out, final LongConsumer counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            counter.accept(1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            counter.accept(len);
+        }
+
+    }
+
+    static final class CountingInputStream extends FilterInputStream {
+
+        private final LongConsumer counter;
+
+        CountingInputStream(final InputStream in, final LongConsumer counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            if (b != -1) {
+                counter.accept(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = in.read(b, off, len);
+            if (n > 0) {
+                counter.accept(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = in.skip(n);
+            if (skipped > 0) {
+                counter.accept(skipped);
+            }
+            return skipped;
+        }
+
+    }
+
+}
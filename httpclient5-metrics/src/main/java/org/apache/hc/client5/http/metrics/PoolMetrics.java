@@ -0,0 +1,112 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.util.Set;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.ConnPoolStats;
+import org.apache.hc.core5.pool.PoolStats;
+
+/**
+ * Gauges of a connection pool such as {@code PoolingHttpClientConnectionManager}
+ * or {@code PoolingAsyncClientConnectionManager}.
+ * <p>
+ * Gauge values are read from the pool on demand and are not affected by request
+ * execution. Please note that reading pool statistics briefly acquires the pool lock.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class PoolMetrics {
+
+    private final String name;
+    private final ConnPoolControl<HttpRoute> pool;
+
+    PoolMetrics(final String name, final ConnPoolControl<HttpRoute> pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of connections currently leased from the pool.
+     */
+    public int getLeased() {
+        return pool.getTotalStats().getLeased();
+    }
+
+    /**
+     * Returns the number of idle connections kept alive in the pool.
+     */
+    public int getAvailable() {
+        return pool.getTotalStats().getAvailable();
+    }
+
+    /**
+     * Returns the number of connection requests waiting for a connection.
+     */
+    public int getPending() {
+        return pool.getTotalStats().getPending();
+    }
+
+    /**
+     * Returns the maximum total number of connections.
+     */
+    public int getMax() {
+        return pool.getTotalStats().getMax();
+    }
+
+    /**
+     * Returns the routes the pool currently keeps connections or pending requests for.
+     */
+    public Set<HttpRoute> getRoutes() {
+        return pool.getRoutes();
+    }
+
+    /**
+     * Returns statistics of the given route.
+     *
+     * @see ConnPoolStats#getStats(Object)
+     */
+    public PoolStats getStats(final HttpRoute route) {
+        return pool.getStats(route);
+    }
+
+    @Override
+    public String toString() {
+        return "[pool: " + name + "; " + pool.getTotalStats() + "]";
+    }
+
+}
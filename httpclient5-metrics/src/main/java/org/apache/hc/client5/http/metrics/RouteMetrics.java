@@ -0,0 +1,154 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+
+/**
+ * Request execution metrics of a single route. All counters are monotonic
+ * and can be converted to rates by the metrics backend.
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class RouteMetrics {
+
+    private final HttpRoute route;
+    private final LongAdder requests;
+    private final LongAdder[] responses;
+    private final LongAdder failures;
+    private final LongAdder bytesSent;
+    private final LongAdder bytesReceived;
+    private final LatencyHistogram latency;
+
+    RouteMetrics(final HttpRoute route) {
+        this.route = route;
+        this.requests = new LongAdder();
+        this.responses = new LongAdder[5];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new LongAdder();
+        }
+        this.failures = new LongAdder();
+        this.bytesSent = new LongAdder();
+        this.bytesReceived = new LongAdder();
+        this.latency = new LatencyHistogram();
+    }
+
+    void recordRequest() {
+        requests.increment();
+    }
+
+    void recordResponse(final int status, final long latencyMicros) {
+        final int statusClass = status / 100;
+        if (statusClass >= 1 && statusClass <= 5) {
+            responses[statusClass - 1].increment();
+        }
+        latency.record(latencyMicros);
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    void recordBytesSent(final long n) {
+        bytesSent.add(n);
+    }
+
+    void recordBytesReceived(final long n) {
+        bytesReceived.add(n);
+    }
+
+    public HttpRoute getRoute() {
+        return route;
+    }
+
+    /**
+     * Returns the number of requests executed over the route.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of responses of the given status class.
+     *
+     * @param statusClass status class from 1 ({@code 1xx}) to 5 ({@code 5xx}).
+     */
+    public long getResponseCount(final int statusClass) {
+        return statusClass >= 1 && statusClass <= 5 ? responses[statusClass - 1].sum() : 0;
+    }
+
+    /**
+     * Returns the number of requests that failed with an I/O or protocol error
+     * before a response was received.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the number of request content bytes sent over the route.
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Returns the number of response content bytes received over the route.
+     * <p>
+     * With classic clients only content read through the response entity is counted;
+     * content silently discarded when a response is closed before being fully read
+     * is not.
+     * </p>
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Returns the histogram of times in microseconds from the start of request
+     * execution to the arrival of the response head.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "[route: " + route +
+                "; requests: " + getRequestCount() +
+                "; failures: " + getFailureCount() +
+                "; sent: " + getBytesSent() +
+                "; received: " + getBytesReceived() +
+                "; latency: " + latency + "]";
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecRuntime;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecRuntime;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.CancellableDependency;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class TestHttpClientMetrics {
+
+    private HttpClientMetrics metrics;
+    private HttpRoute route;
+
+    @Before
+    public void setup() {
+        metrics = new HttpClientMetrics();
+        route = new HttpRoute(new HttpHost("somehost", 80));
+    }
+
+    @Test
+    public void testClassicExchange() throws Exception {
+        final MetricsExec exec = new MetricsExec(metrics);
+        final ExecChain chain = Mockito.mock(ExecChain.class);
+        final ClassicHttpRequest request = new HttpPost("/");
+        final StringEntity requestEntity = new StringEntity("0123456789", ContentType.TEXT_PLAIN);
+        request.setEntity(requestEntity);
+        final ExecChain.Scope scope = new ExecChain.Scope("test", route, request,
+                Mockito.mock(ExecRuntime.class), HttpClientContext.create());
+
+        Mockito.when(chain.proceed(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            final ClassicHttpRequest sent = invocation.getArgument(0);
+            sent.getEntity().writeTo(new ByteArrayOutputStream());
+            final ClassicHttpResponse response = new BasicClassicHttpResponse(200);
+            response.setEntity(new StringEntity("stuff", ContentType.TEXT_PLAIN));
+            return response;
+        });
+
+        final ClassicHttpResponse response = exec.execute(request, scope, chain);
+        Assert.assertSame(requestEntity, request.getEntity());
+        Assert.assertEquals("stuff", EntityUtils.toString(response.getEntity()));
+
+        final RouteMetrics routeMetrics = metrics.getRouteMetrics(route);
+        Assert.assertNotNull(routeMetrics);
+        Assert.assertEquals(1, routeMetrics.getRequestCount());
+        Assert.assertEquals(1, routeMetrics.getResponseCount(2));
+        Assert.assertEquals(0, routeMetrics.getResponseCount(5));
+        Assert.assertEquals(0, routeMetrics.getFailureCount());
+        Assert.assertEquals(10, routeMetrics.getBytesSent());
+        Assert.assertEquals(5, routeMetrics.getBytesReceived());
+        Assert.assertEquals(1, routeMetrics.getLatency().getCount());
+    }
+
+    @Test
+    public void testClassicExchangeKeepsDownstreamEntityProxy() throws Exception {
+        final MetricsExec exec = new MetricsExec(metrics);
+        final ExecChain chain = Mockito.mock(ExecChain.class);
+        final ClassicHttpRequest request = new HttpPost("/");
+        request.setEntity(new StringEntity("0123456789", ContentType.TEXT_PLAIN));
+        final ExecChain.Scope scope = new ExecChain.Scope("test", route, request,
+                Mockito.mock(ExecRuntime.class), HttpClientContext.create());
+
+        final List<HttpEntity> proxies = new ArrayList<>();
+        Mockito.when(chain.proceed(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            final ClassicHttpRequest sent = invocation.getArgument(0);
+            // Downstream handler installs a proxy that outlives the execution
+            final HttpEntity proxy = new HttpEntityWrapper(sent.getEntity());
+            proxies.add(proxy);
+            sent.setEntity(proxy);
+            proxy.writeTo(new ByteArrayOutputStream());
+            throw new IOException("Oppsie");
+        });
+
+        Assert.assertThrows(IOException.class, () -> exec.execute(request, scope, chain));
+        Assert.assertSame(proxies.get(0), request.getEntity());
+        Assert.assertThrows(IOException.class, () -> exec.execute(request, scope, chain));
+        Assert.assertSame(proxies.get(1), request.getEntity());
+
+        final RouteMetrics routeMetrics = metrics.getRouteMetrics(route);
+        Assert.assertEquals(2, routeMetrics.getFailureCount());
+        Assert.assertEquals(20, routeMetrics.getBytesSent());
+    }
+
+    @Test
+    public void testClassicExchangeFailure() throws Exception {
+        final MetricsExec exec = new MetricsExec(metrics);
+        final ExecChain chain = Mockito.mock(ExecChain.class);
+        final ClassicHttpRequest request = new HttpPost("/");
+        final ExecChain.Scope scope = new ExecChain.Scope("test", route, request,
+                Mockito.mock(ExecRuntime.class), HttpClientContext.create());
+
+        Mockito.when(chain.proceed(Mockito.any(), Mockito.any())).thenThrow(new IOException("Oppsie"));
+
+        Assert.assertThrows(IOException.class, () -> exec.execute(request, scope, chain));
+
+        final RouteMetrics routeMetrics = metrics.getRouteMetrics(route);
+        Assert.assertEquals(1, routeMetrics.getRequestCount());
+        Assert.assertEquals(1, routeMetrics.getFailureCount());
+        Assert.assertEquals(0, routeMetrics.getLatency().getCount());
+    }
+
+    @Test
+    public void testAsyncExchange() throws Exception {
+        final AsyncMetricsExec exec = new AsyncMetricsExec(metrics);
+        final AsyncExecChain chain = Mockito.mock(AsyncExecChain.class);
+        final AsyncExecCallback callback = Mockito.mock(AsyncExecCallback.class);
+        final AsyncDataConsumer dataConsumer = Mockito.mock(AsyncDataConsumer.class);
+        Mockito.when(callback.handleResponse(Mockito.any(), Mockito.any())).thenReturn(dataConsumer);
+        final HttpRequest request = new BasicHttpRequest("POST", "/");
+        final AsyncExecChain.Scope scope = new AsyncExecChain.Scope("test", route, request,
+                Mockito.mock(CancellableDependency.class), HttpClientContext.create(),
+                Mockito.mock(AsyncExecRuntime.class), null, new AtomicInteger(1));
+
+        exec.execute(request, new BasicAsyncEntityProducer("0123456789"), scope, chain, callback);
+
+        final ArgumentCaptor<AsyncEntityProducer> producerCaptor = ArgumentCaptor.forClass(AsyncEntityProducer.class);
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain).proceed(Mockito.same(request), producerCaptor.capture(), Mockito.same(scope),
+                callbackCaptor.capture());
+
+        final DataStreamChannel channel = Mockito.mock(DataStreamChannel.class);
+        Mockito.when(channel.write(Mockito.any())).thenAnswer(invocation -> {
+            final ByteBuffer src = invocation.getArgument(0);
+            final int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        });
+        producerCaptor.getValue().produce(channel);
+
+        final AsyncDataConsumer consumer = callbackCaptor.getValue().handleResponse(
+                new BasicHttpResponse(404), null);
+        consumer.consume(ByteBuffer.wrap("not found".getBytes(StandardCharsets.US_ASCII)));
+        consumer.streamEnd(null);
+        callbackCaptor.getValue().completed();
+
+        Mockito.verify(dataConsumer).consume(Mockito.any());
+        Mockito.verify(callback).completed();
+
+        final RouteMetrics routeMetrics = metrics.getRouteMetrics(route);
+        Assert.assertEquals(1, routeMetrics.getRequestCount());
+        Assert.assertEquals(1, routeMetrics.getResponseCount(4));
+        Assert.assertEquals(0, routeMetrics.getFailureCount());
+        Assert.assertEquals(10, routeMetrics.getBytesSent());
+        Assert.assertEquals(9, routeMetrics.getBytesReceived());
+        Assert.assertEquals(1, routeMetrics.getLatency().getCount());
+    }
+
+    @Test
+    public void testAsyncExchangeFailure() throws Exception {
+        final AsyncMetricsExec exec = new AsyncMetricsExec(metrics);
+        final AsyncExecChain chain = Mockito.mock(AsyncExecChain.class);
+        final AsyncExecCallback callback = Mockito.mock(AsyncExecCallback.class);
+        final HttpRequest request = new BasicHttpRequest("GET", "/");
+        final AsyncExecChain.Scope scope = new AsyncExecChain.Scope("test", route, request,
+                Mockito.mock(CancellableDependency.class), HttpClientContext.create(),
+                Mockito.mock(AsyncExecRuntime.class), null, new AtomicInteger(1));
+
+        exec.execute(request, null, scope, chain, callback);
+
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain).proceed(Mockito.same(request), Mockito.isNull(), Mockito.same(scope),
+                callbackCaptor.capture());
+        final IOException cause = new IOException("Oppsie");
+        callbackCaptor.getValue().failed(cause);
+
+        Mockito.verify(callback).failed(cause);
+        Assert.assertEquals(1, metrics.getRouteMetrics(route).getFailureCount());
+    }
+
+    @Test
+    public void testAdapterNotification() throws Exception {
+        final MetricsAdapter adapter1 = Mockito.mock(MetricsAdapter.class);
+        final MetricsAdapter adapter2 = Mockito.mock(MetricsAdapter.class);
+        @SuppressWarnings("unchecked")
+        final ConnPoolControl<HttpRoute> pool = Mockito.mock(ConnPoolControl.class);
+        Mockito.when(pool.getTotalStats()).thenReturn(new PoolStats(3, 1, 2, 20));
+
+        metrics.addAdapter(adapter1);
+        final PoolMetrics poolMetrics = metrics.registerPool("default", pool);
+        final RouteMetrics routeMetrics = metrics.obtainRouteMetrics(route);
+        Assert.assertSame(routeMetrics, metrics.obtainRouteMetrics(route));
+        metrics.addAdapter(adapter2);
+
+        Mockito.verify(adapter1).poolAdded(poolMetrics);
+        Mockito.verify(adapter1).routeAdded(route, routeMetrics);
+        Mockito.verify(adapter2).poolAdded(poolMetrics);
+        Mockito.verify(adapter2).routeAdded(route, routeMetrics);
+        Mockito.verifyNoMoreInteractions(adapter1, adapter2);
+
+        Assert.assertEquals(3, poolMetrics.getLeased());
+        Assert.assertEquals(1, poolMetrics.getPending());
+        Assert.assertEquals(2, poolMetrics.getAvailable());
+        Assert.assertEquals(20, poolMetrics.getMax());
+        Assert.assertSame(poolMetrics, metrics.getPoolMetrics().get("default"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> metrics.registerPool("default", pool));
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void testBucketBoundaries() {
+        final LatencyHistogram histogram = new LatencyHistogram(8, 1_000_000);
+        for (long value = 0; value < 1_000_000; value++) {
+            final int index = histogram.indexOf(value);
+            Assert.assertTrue(histogram.lowestValueAt(index) <= value);
+            Assert.assertTrue(histogram.highestValueAt(index) >= value);
+        }
+        Assert.assertEquals(7, histogram.indexOf(7));
+        Assert.assertEquals(8, histogram.indexOf(8));
+        Assert.assertEquals(8, histogram.indexOf(9));
+        Assert.assertEquals(9, histogram.indexOf(10));
+    }
+
+    @Test
+    public void testRelativeError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value < LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE; value = value * 3 + 1) {
+            final int index = histogram.indexOf(value);
+            final long width = histogram.highestValueAt(index) - histogram.lowestValueAt(index) + 1;
+            Assert.assertTrue(width <= Math.max(1, value / 32));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getMean(), 0.0);
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(0, histogram.getCountAtOrBelow(1000));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertEquals(10000, histogram.getCount());
+        Assert.assertEquals(10_000_000, histogram.getMax());
+        Assert.assertEquals(5_000_500, histogram.getMean(), 1.0);
+        assertWithinPrecision(5_000_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(9_900_000, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(9_990_000, histogram.getValueAtPercentile(99.9));
+        Assert.assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(1000, histogram.getCountAtOrBelow(1_000_000), 1000 / 32);
+    }
+
+    @Test
+    public void testValuesAboveHighestTrackable() {
+        final LatencyHistogram histogram = new LatencyHistogram(64, 1000);
+        histogram.record(10);
+        histogram.record(1_000_000);
+        Assert.assertEquals(2, histogram.getCount());
+        Assert.assertEquals(1_000_000, histogram.getMax());
+        Assert.assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(2, histogram.getCountAtOrBelow(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testNegativeValuesIgnored() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        Assert.assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testInvalidSubBucketCount() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(48, 1000));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(1, 1000));
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        Assert.assertEquals(expected, actual, expected / 32.0);
+    }
+
+}
@@ -26,33 +26,55 @@
  */
 package org.apache.hc.client5.testing.async;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.methods.ChannelResponseConsumer;
 import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
 import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.entity.SyncPolicy;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
 import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
 import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
 import org.apache.hc.client5.testing.SSLTestContexts;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.HeaderElements;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.Method;
 import org.apache.hc.core5.http.URIScheme;
 import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExternalResource;
@@ -278,4 +300,215 @@ public void run() {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testEventListener() throws Exception {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch exchangeLatch = new CountDownLatch(1);
+        clientBuilder.setEventListener(new HttpClientEventListener() {
+
+            @Override
+            public void leaseRequested(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("leaseRequested");
+            }
+
+            @Override
+            public void leaseCompleted(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("leaseCompleted");
+            }
+
+            @Override
+            public void connectStarted(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("connectStarted");
+            }
+
+            @Override
+            public void connectCompleted(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("connectCompleted");
+            }
+
+            @Override
+            public void requestStarted(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("requestStarted");
+            }
+
+            @Override
+            public void requestSent(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("requestSent");
+            }
+
+            @Override
+            public void responseReceived(final String exchangeId, final HttpRoute route, final int status, final long time) {
+                events.add("responseReceived " + status);
+            }
+
+            @Override
+            public void exchangeCompleted(final String exchangeId, final HttpRoute route, final long time) {
+                events.add("exchangeCompleted");
+                exchangeLatch.countDown();
+            }
+
+        });
+        final HttpHost target = start();
+        final Future<SimpleHttpResponse> future = httpclient.execute(
+                SimpleRequestBuilder.get()
+                        .setHttpHost(target)
+                        .setPath("/random/2048")
+                        .build(), null);
+        final SimpleHttpResponse response = future.get();
+        MatcherAssert.assertThat(response.getCode(), CoreMatchers.equalTo(200));
+        MatcherAssert.assertThat(exchangeLatch.await(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit()), CoreMatchers.equalTo(true));
+        MatcherAssert.assertThat(events, CoreMatchers.equalTo(Arrays.asList(
+                "leaseRequested", "leaseCompleted", "connectStarted", "connectCompleted",
+                "requestStarted", "requestSent", "responseReceived 200", "exchangeCompleted")));
+    }
+
+    @Test
+    public void testTracer() throws Exception {
+        final ThreadLocal<String> traceContext = new ThreadLocal<>();
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch spanLatch = new CountDownLatch(1);
+        clientBuilder.setTracer((exchangeId, request, context) -> {
+            final String captured = traceContext.get();
+            return new HttpClientTracer.Span() {
+
+                @Override
+                public HttpClientTracer.Scope activate() {
+                    final String previous = traceContext.get();
+                    traceContext.set(captured);
+                    return () -> traceContext.set(previous);
+                }
+
+                @Override
+                public void addEvent(final String name, final long time) {
+                    events.add(name);
+                }
+
+                @Override
+                public void end(final Exception cause, final long time) {
+                    events.add(cause == null ? "end" : "end " + cause);
+                    spanLatch.countDown();
+                }
+
+            };
+        });
+        final HttpHost target = start();
+        final List<String> callbackContext = new CopyOnWriteArrayList<>();
+        traceContext.set("trace-1");
+        final Future<SimpleHttpResponse> future;
+        try {
+            future = httpclient.execute(
+                    SimpleRequestBuilder.get()
+                            .setHttpHost(target)
+                            .setPath("/random/2048")
+                            .build(), new FutureCallback<SimpleHttpResponse>() {
+
+                        @Override
+                        public void completed(final SimpleHttpResponse result) {
+                            callbackContext.add(traceContext.get());
+                        }
+
+                        @Override
+                        public void failed(final Exception ex) {
+                        }
+
+                        @Override
+                        public void cancelled() {
+                        }
+
+                    });
+        } finally {
+            traceContext.remove();
+        }
+        final SimpleHttpResponse response = future.get();
+        MatcherAssert.assertThat(response.getCode(), CoreMatchers.equalTo(200));
+        MatcherAssert.assertThat(spanLatch.await(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit()), CoreMatchers.equalTo(true));
+        MatcherAssert.assertThat(callbackContext, CoreMatchers.equalTo(Arrays.asList("trace-1")));
+        MatcherAssert.assertThat(events, CoreMatchers.equalTo(Arrays.asList(
+                HttpClientTracer.EVENT_LEASE, HttpClientTracer.EVENT_CONNECT, HttpClientTracer.EVENT_FIRST_BYTE, "end")));
+    }
+
+    @Test
+    public void testTracerReusedContext() throws Exception {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final AtomicInteger count = new AtomicInteger();
+        clientBuilder.setTracer((exchangeId, request, context) -> {
+            if (count.getAndIncrement() > 0) {
+                return null;
+            }
+            return new HttpClientTracer.Span() {
+
+                @Override
+                public HttpClientTracer.Scope activate() {
+                    return () -> { };
+                }
+
+                @Override
+                public void addEvent(final String name, final long time) {
+                    events.add(name);
+                }
+
+                @Override
+                public void end(final Exception cause, final long time) {
+                    events.add(cause == null ? "end" : "end " + cause);
+                }
+
+            };
+        });
+        final HttpHost target = start();
+        final HttpClientContext context = HttpClientContext.create();
+        for (int i = 0; i < 2; i++) {
+            final Future<SimpleHttpResponse> future = httpclient.execute(
+                    SimpleRequestBuilder.get()
+                            .setHttpHost(target)
+                            .setPath("/random/2048")
+                            .build(), context, null);
+            final SimpleHttpResponse response = future.get();
+            MatcherAssert.assertThat(response.getCode(), CoreMatchers.equalTo(200));
+        }
+        MatcherAssert.assertThat(count.get(), CoreMatchers.equalTo(2));
+        MatcherAssert.assertThat(context.getTraceSpan(), CoreMatchers.nullValue());
+        MatcherAssert.assertThat(context.getEventListener(), CoreMatchers.nullValue());
+        MatcherAssert.assertThat(events, CoreMatchers.equalTo(Arrays.asList(
+                HttpClientTracer.EVENT_LEASE, HttpClientTracer.EVENT_CONNECT, HttpClientTracer.EVENT_FIRST_BYTE, "end")));
+    }
+
+    @Test
+    public void testChannelResponseConsumer() throws Exception {
+        final HttpHost target = start();
+        final Path file = Files.createTempFile("download", ".bin");
+        try (final FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            fileChannel.write(ByteBuffer.wrap(new byte[100000]));
+            final Future<Message<HttpResponse, Long>> future = httpclient.execute(
+                    new BasicRequestProducer(Method.GET, target, "/random/20000"),
+                    new ChannelResponseConsumer(fileChannel, 4096, SyncPolicy.ON_COMPLETION), null);
+            final Message<HttpResponse, Long> result = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            MatcherAssert.assertThat(result.getHead().getCode(), CoreMatchers.equalTo(200));
+            MatcherAssert.assertThat(result.getBody(), CoreMatchers.equalTo(20000L));
+            MatcherAssert.assertThat(fileChannel.size(), CoreMatchers.equalTo(20000L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testChannelResponseConsumerWithExecutor() throws Exception {
+        final HttpHost target = start();
+        final Path file = Files.createTempFile("download", ".bin");
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (final FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            final Future<Message<HttpResponse, Long>> future = httpclient.execute(
+                    new BasicRequestProducer(Method.GET, target, "/random/200000"),
+                    new ChannelResponseConsumer(fileChannel, 4096, SyncPolicy.every(16384), executorService), null);
+            final Message<HttpResponse, Long> result = future.get(TIMEOUT.getDuration(), TIMEOUT.getTimeUnit());
+            MatcherAssert.assertThat(result.getHead().getCode(), CoreMatchers.equalTo(200));
+            MatcherAssert.assertThat(result.getBody(), CoreMatchers.equalTo(200000L));
+            MatcherAssert.assertThat(fileChannel.size(), CoreMatchers.equalTo(200000L));
+            Assert.assertThrows(IllegalArgumentException.class, () ->
+                    new ChannelResponseConsumer(fileChannel, 4096, SyncPolicy.every(16384)));
+        } finally {
+            executorService.shutdownNow();
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.testing.sync;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.metrics.HttpClientMetrics;
+import org.apache.hc.client5.http.metrics.PoolMetrics;
+import org.apache.hc.client5.http.metrics.RouteMetrics;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestClientMetrics extends LocalServerTestBase {
+
+    @Test
+    public void testRouteAndPoolMetrics() throws Exception {
+        final HttpClientMetrics metrics = new HttpClientMetrics();
+        final PoolMetrics poolMetrics = metrics.registerPool("default", this.connManager);
+        this.httpclient = metrics.instrument(this.clientBuilder).build();
+
+        final HttpHost target = start();
+
+        final HttpPost httppost = new HttpPost("/echo/");
+        httppost.setEntity(new StringEntity("0123456789"));
+        try (final CloseableHttpResponse response = this.httpclient.execute(target, httppost)) {
+            Assert.assertEquals(1, poolMetrics.getLeased());
+            Assert.assertEquals("0123456789", EntityUtils.toString(response.getEntity()));
+        }
+        for (int i = 0; i < 3; i++) {
+            final HttpGet httpget = new HttpGet("/random/1000");
+            try (final CloseableHttpResponse response = this.httpclient.execute(target, httpget)) {
+                Assert.assertEquals(1000, EntityUtils.toByteArray(response.getEntity()).length);
+            }
+        }
+        final HttpGet httpget = new HttpGet("/random/oops");
+        try (final CloseableHttpResponse response = this.httpclient.execute(target, httpget)) {
+            EntityUtils.consume(response.getEntity());
+        }
+
+        Assert.assertEquals(0, poolMetrics.getLeased());
+        Assert.assertEquals(0, poolMetrics.getPending());
+
+        final RouteMetrics routeMetrics = metrics.getRouteMetrics(new HttpRoute(target));
+        Assert.assertNotNull(routeMetrics);
+        Assert.assertEquals(5, routeMetrics.getRequestCount());
+        Assert.assertEquals(4, routeMetrics.getResponseCount(2));
+        Assert.assertEquals(1, routeMetrics.getResponseCount(4));
+        Assert.assertEquals(0, routeMetrics.getFailureCount());
+        Assert.assertEquals(10, routeMetrics.getBytesSent());
+        Assert.assertTrue(routeMetrics.getBytesReceived() >= 3010);
+        Assert.assertEquals(5, routeMetrics.getLatency().getCount());
+    }
+
+}
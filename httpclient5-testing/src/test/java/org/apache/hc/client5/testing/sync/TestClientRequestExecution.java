@@ -27,21 +27,38 @@
 package org.apache.hc.client5.testing.sync;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRequestRetryStrategy;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.entity.ObservingEntityWrapper;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.protocol.RedirectLocations;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
 import org.apache.hc.client5.http.utils.URIUtils;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpException;
 import org.apache.hc.core5.http.HttpHost;
@@ -49,10 +66,13 @@
 import org.apache.hc.core5.http.HttpRequestInterceptor;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hc.core5.http.impl.io.HttpRequestExecutor;
 import org.apache.hc.core5.http.io.HttpClientConnection;
 import org.apache.hc.core5.http.io.HttpRequestHandler;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.FileEntity;
 import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
@@ -343,4 +363,166 @@ public void run() {
         }
     }
 
+    static class RecordingEventListener implements HttpClientEventListener {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void leaseRequested(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("leaseRequested");
+        }
+
+        @Override
+        public void leaseCompleted(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("leaseCompleted");
+        }
+
+        @Override
+        public void connectStarted(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("connectStarted");
+        }
+
+        @Override
+        public void connectCompleted(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("connectCompleted");
+        }
+
+        @Override
+        public void socketConnectStarted(
+                final String exchangeId, final HttpRoute route, final InetSocketAddress remoteAddress, final long time) {
+            events.add("socketConnectStarted");
+        }
+
+        @Override
+        public void socketConnectCompleted(
+                final String exchangeId, final HttpRoute route, final InetSocketAddress remoteAddress, final long time) {
+            events.add("socketConnectCompleted");
+        }
+
+        @Override
+        public void requestStarted(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("requestStarted");
+        }
+
+        @Override
+        public void requestSent(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("requestSent");
+        }
+
+        @Override
+        public void responseReceived(final String exchangeId, final HttpRoute route, final int status, final long time) {
+            events.add("responseReceived");
+        }
+
+        @Override
+        public void exchangeCompleted(final String exchangeId, final HttpRoute route, final long time) {
+            events.add("exchangeCompleted");
+        }
+
+    }
+
+    @Test
+    public void testEventListener() throws Exception {
+        final RecordingEventListener eventListener = new RecordingEventListener();
+        this.httpclient = this.clientBuilder
+                .setEventListener(eventListener)
+                .build();
+
+        final HttpHost target = start();
+
+        final HttpPost httppost = new HttpPost("/echo/");
+        httppost.setEntity(new StringEntity("stuff"));
+        try (final CloseableHttpResponse response = this.httpclient.execute(target, httppost)) {
+            Assert.assertEquals("stuff", EntityUtils.toString(response.getEntity()));
+        }
+        Assert.assertEquals(Arrays.asList(
+                "leaseRequested", "leaseCompleted",
+                "connectStarted", "socketConnectStarted", "socketConnectCompleted", "connectCompleted",
+                "requestStarted", "requestSent", "responseReceived", "exchangeCompleted"), eventListener.events);
+
+        eventListener.events.clear();
+        final HttpGet httpget = new HttpGet("/random/100");
+        try (final CloseableHttpResponse response = this.httpclient.execute(target, httpget)) {
+            EntityUtils.consume(response.getEntity());
+        }
+        Assert.assertEquals(Arrays.asList(
+                "leaseRequested", "leaseCompleted",
+                "requestStarted", "requestSent", "responseReceived", "exchangeCompleted"), eventListener.events);
+    }
+
+    @Test
+    public void testFileEntityTransfer() throws Exception {
+        this.connManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register(URIScheme.HTTP.id, new PlainConnectionSocketFactory(true))
+                .build());
+        this.clientBuilder.setConnectionManager(this.connManager);
+        final HttpHost target = start();
+
+        final byte[] content = new byte[100000];
+        new Random().nextBytes(content);
+        final File file = File.createTempFile("upload", ".bin");
+        try {
+            try (final FileOutputStream outStream = new FileOutputStream(file)) {
+                outStream.write(content);
+            }
+            for (int i = 0; i < 2; i++) {
+                final HttpPost httppost = new HttpPost("/echo/");
+                httppost.setEntity(new FileEntity(file, ContentType.APPLICATION_OCTET_STREAM));
+                try (final CloseableHttpResponse response = this.httpclient.execute(target, httppost)) {
+                    Assert.assertEquals(HttpStatus.SC_OK, response.getCode());
+                    Assert.assertArrayEquals(content, EntityUtils.toByteArray(response.getEntity()));
+                }
+            }
+            Assert.assertEquals(1, this.connManager.getTotalStats().getAvailable());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testWrappedFileEntityTransfer() throws Exception {
+        this.connManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register(URIScheme.HTTP.id, new PlainConnectionSocketFactory(true))
+                .build());
+        final RecordingEventListener eventListener = new RecordingEventListener();
+        this.httpclient = this.clientBuilder
+                .setConnectionManager(this.connManager)
+                .setEventListener(eventListener)
+                .build();
+        final HttpHost target = start();
+
+        final byte[] content = new byte[100000];
+        new Random().nextBytes(content);
+        final File file = File.createTempFile("upload", ".bin");
+        try {
+            try (final FileOutputStream outStream = new FileOutputStream(file)) {
+                outStream.write(content);
+            }
+            final List<String> transfers = new ArrayList<>();
+            final HttpPost httppost = new HttpPost("/echo/");
+            httppost.setEntity(new ObservingEntityWrapper(new FileEntity(file, ContentType.APPLICATION_OCTET_STREAM)) {
+
+                @Override
+                public void writeTo(final OutputStream outStream) throws IOException {
+                    transfers.add("written");
+                    super.writeTo(outStream);
+                }
+
+                @Override
+                protected void contentTransferred(final long len) {
+                    transfers.add("transferred " + len);
+                }
+
+            });
+            try (final CloseableHttpResponse response = this.httpclient.execute(target, httppost)) {
+                Assert.assertEquals(HttpStatus.SC_OK, response.getCode());
+                Assert.assertArrayEquals(content, EntityUtils.toByteArray(response.getEntity()));
+            }
+            Assert.assertEquals(Collections.singletonList("transferred " + content.length), transfers);
+            Assert.assertTrue(eventListener.events.contains("requestSent"));
+        } finally {
+            file.delete();
+        }
+    }
+
 }
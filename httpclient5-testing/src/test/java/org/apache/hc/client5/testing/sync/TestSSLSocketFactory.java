@@ -28,8 +28,11 @@
 package org.apache.hc.client5.testing.sync;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -43,6 +46,7 @@
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.client5.http.ssl.TlsSessionCache;
 import org.apache.hc.client5.http.ssl.TrustAllStrategy;
 import org.apache.hc.client5.http.ssl.TrustSelfSignedStrategy;
 import org.apache.hc.client5.testing.SSLTestContexts;
@@ -51,6 +55,7 @@
 import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
 import org.apache.hc.core5.http.protocol.BasicHttpContext;
 import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.ssl.TLS;
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.ssl.SSLContexts;
 import org.apache.hc.core5.ssl.TrustStrategy;
@@ -312,6 +317,101 @@ public void testSSLDisabledByDefault() throws Exception {
         }
     }
 
+    private void connectAndExchange(
+            final SSLConnectionSocketFactory socketFactory, final HttpContext context) throws IOException {
+        try (final Socket socket = socketFactory.createSocket(context)) {
+            final InetSocketAddress remoteAddress = new InetSocketAddress("localhost", this.server.getLocalPort());
+            final HttpHost target = new HttpHost("https", "localhost", this.server.getLocalPort());
+            try (final SSLSocket sslSocket = (SSLSocket) socketFactory.connectSocket(
+                    TimeValue.ZERO_MILLISECONDS, socket, target, remoteAddress, null, context)) {
+                // Exchange a message so that post-handshake session tickets get processed
+                final OutputStream outStream = sslSocket.getOutputStream();
+                outStream.write("GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                        .getBytes(StandardCharsets.US_ASCII));
+                outStream.flush();
+                final InputStream inStream = sslSocket.getInputStream();
+                while (inStream.read() != -1) {
+                    // consume response
+                }
+            }
+        }
+    }
+
+    private void testSessionResumption(final TLS tls) throws Exception {
+        // @formatter:off
+        this.server = ServerBootstrap.bootstrap()
+                .setSslContext(SSLTestContexts.createServerSSLContext())
+                .create();
+        // @formatter:on
+        this.server.start();
+
+        final HttpContext context = new BasicHttpContext();
+        final TlsSessionCache tlsSessionCache = new TlsSessionCache();
+        final SSLConnectionSocketFactory socketFactory = SSLConnectionSocketFactoryBuilder.create()
+                .setSslContext(SSLTestContexts.createClientSSLContext())
+                .setTlsVersions(tls)
+                .setTlsSessionCache(tlsSessionCache)
+                .build();
+        connectAndExchange(socketFactory, context);
+        Assert.assertEquals(1, tlsSessionCache.getFullHandshakeCount());
+        Assert.assertEquals(0, tlsSessionCache.getResumedHandshakeCount());
+        Assert.assertEquals(1, tlsSessionCache.size());
+
+        connectAndExchange(socketFactory, context);
+        connectAndExchange(socketFactory, context);
+        Assert.assertEquals(1, tlsSessionCache.getFullHandshakeCount());
+        Assert.assertEquals(2, tlsSessionCache.getResumedHandshakeCount());
+        Assert.assertEquals(1, tlsSessionCache.size());
+
+        tlsSessionCache.clear();
+        connectAndExchange(socketFactory, context);
+        Assert.assertEquals(2, tlsSessionCache.getFullHandshakeCount());
+        Assert.assertEquals(2, tlsSessionCache.getResumedHandshakeCount());
+    }
+
+    @Test
+    public void testSessionResumptionTLSv12() throws Exception {
+        testSessionResumption(TLS.V_1_2);
+    }
+
+    @Test
+    public void testSessionResumptionTLSv13() throws Exception {
+        testSessionResumption(TLS.V_1_3);
+    }
+
+    @Test
+    public void testSessionInvalidatedOnVerificationFailure() throws Exception {
+        // @formatter:off
+        this.server = ServerBootstrap.bootstrap()
+                .setSslContext(SSLTestContexts.createServerSSLContext())
+                .create();
+        // @formatter:on
+        this.server.start();
+
+        final HttpContext context = new BasicHttpContext();
+        final TlsSessionCache tlsSessionCache = new TlsSessionCache();
+        final SSLContext sslContext = SSLTestContexts.createClientSSLContext();
+        final SSLConnectionSocketFactory socketFactory = SSLConnectionSocketFactoryBuilder.create()
+                .setSslContext(sslContext)
+                .setTlsVersions(TLS.V_1_2)
+                .setTlsSessionCache(tlsSessionCache)
+                .build();
+        connectAndExchange(socketFactory, context);
+        Assert.assertEquals(1, tlsSessionCache.size());
+
+        final SSLConnectionSocketFactory rejectingSocketFactory = SSLConnectionSocketFactoryBuilder.create()
+                .setSslContext(sslContext)
+                .setTlsVersions(TLS.V_1_2)
+                .setHostnameVerifier((hostname, session) -> false)
+                .setTlsSessionCache(tlsSessionCache)
+                .build();
+        Assert.assertThrows(SSLException.class, () -> connectAndExchange(rejectingSocketFactory, context));
+        Assert.assertEquals(0, tlsSessionCache.size());
+
+        connectAndExchange(socketFactory, context);
+        Assert.assertEquals(2, tlsSessionCache.getFullHandshakeCount());
+    }
+
     @Test
     public void testWeakCiphersDisabledByDefault() {
         final String[] weakCiphersSuites = {
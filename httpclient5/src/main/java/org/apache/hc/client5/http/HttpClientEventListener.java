@@ -0,0 +1,181 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+
+/**
+ * Listener of events in the life cycle of message exchanges and the connections
+ * they are executed over, such as connection lease from the pool, host name resolution,
+ * socket connect, TLS handshake, request transmission and response reception.
+ * <p>
+ * Every callback receives a monotonic timestamp obtained from {@link System#nanoTime()}
+ * at the time of the event, the route and the ID of the message exchange the event
+ * belongs to. The exchange ID and the route can be {@code null} for events that happen
+ * outside of a message exchange, for instance when a connection manager is used directly.
+ * </p>
+ * <p>
+ * Callbacks are invoked by the threads executing requests, including I/O dispatch
+ * threads of asynchronous clients. Implementations must be thread safe, should return
+ * quickly and must not throw exceptions. All methods do nothing by default.
+ * </p>
+ * <p>
+ * Asynchronous clients report connection establishment as a whole and do not trigger
+ * host name resolution, socket connect and TLS handshake events. With the asynchronous
+ * transport the TLS handshake is carried out in the background while the request is being
+ * queued for transmission, so the time it takes is accounted for in the time to first byte
+ * of the first exchange over a new connection.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public interface HttpClientEventListener {
+
+    /**
+     * Triggered when a connection is requested from the connection manager.
+     */
+    default void leaseRequested(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered when a connection has been leased from the connection manager.
+     */
+    default void leaseCompleted(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered when a connection could not be leased from the connection manager.
+     */
+    default void leaseFailed(String exchangeId, HttpRoute route, Exception cause, long time) {
+    }
+
+    /**
+     * Triggered when establishment of the route of the exchange begins.
+     */
+    default void connectStarted(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered when the route of the exchange has been fully established,
+     * including tunnelling through proxies and protocol upgrades.
+     */
+    default void connectCompleted(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered when the route of the exchange could not be established.
+     */
+    default void connectFailed(String exchangeId, HttpRoute route, Exception cause, long time) {
+    }
+
+    /**
+     * Triggered before resolving the given host name.
+     */
+    default void dnsResolutionStarted(String exchangeId, HttpRoute route, String hostName, long time) {
+    }
+
+    /**
+     * Triggered once the given host name has been resolved.
+     */
+    default void dnsResolutionCompleted(
+            String exchangeId, HttpRoute route, String hostName, InetAddress[] addresses, long time) {
+    }
+
+    /**
+     * Triggered before connecting a socket to the given address.
+     */
+    default void socketConnectStarted(String exchangeId, HttpRoute route, InetSocketAddress remoteAddress, long time) {
+    }
+
+    /**
+     * Triggered once a socket has been connected to the given address and, in case of a
+     * TLS secured connection, the TLS handshake has been completed.
+     */
+    default void socketConnectCompleted(String exchangeId, HttpRoute route, InetSocketAddress remoteAddress, long time) {
+    }
+
+    /**
+     * Triggered when a socket could not be connected to the given address.
+     */
+    default void socketConnectFailed(
+            String exchangeId, HttpRoute route, InetSocketAddress remoteAddress, IOException cause, long time) {
+    }
+
+    /**
+     * Triggered before starting a TLS handshake with the given host.
+     */
+    default void tlsHandshakeStarted(String exchangeId, HttpRoute route, String hostName, long time) {
+    }
+
+    /**
+     * Triggered once a TLS handshake with the given host has been completed and the
+     * session has been verified.
+     */
+    default void tlsHandshakeCompleted(String exchangeId, HttpRoute route, String hostName, long time) {
+    }
+
+    /**
+     * Triggered before the request message is transmitted.
+     */
+    default void requestStarted(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered once the request message, including its content, has been transmitted.
+     */
+    default void requestSent(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered once the head of the final response message has been received.
+     */
+    default void responseReceived(String exchangeId, HttpRoute route, int status, long time) {
+    }
+
+    /**
+     * Triggered once the response content has been fully consumed and the message
+     * exchange has been completed.
+     */
+    default void exchangeCompleted(String exchangeId, HttpRoute route, long time) {
+    }
+
+    /**
+     * Triggered when the message exchange has failed or has been aborted, including
+     * when the response has been closed before its content was fully consumed.
+     * Either this event or {@link #exchangeCompleted(String, HttpRoute, long)} is
+     * triggered once per exchange.
+     */
+    default void exchangeFailed(String exchangeId, HttpRoute route, Exception cause, long time) {
+    }
+
+}
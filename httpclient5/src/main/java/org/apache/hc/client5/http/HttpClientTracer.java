@@ -0,0 +1,127 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * Tracer of message exchanges executed by asynchronous clients.
+ * <p>
+ * A {@link Span} is started by the thread calling {@code execute} and is expected
+ * to capture the tracing context of that thread, which is usually bound to a thread
+ * local. Asynchronous clients process message exchanges on I/O dispatch and scheduler
+ * threads, so the captured context is made current again with {@link Span#activate()}
+ * around every callback of the exchange, including response and request content
+ * processing and completion of the result future. Log statements and custom
+ * components invoked by those threads thus see the context of the original caller.
+ * </p>
+ * <p>
+ * The span records {@link #EVENT_LEASE lease}, {@link #EVENT_CONNECT connect} and
+ * {@link #EVENT_FIRST_BYTE first byte} events and ends once the result future has been
+ * completed. Implementations must be thread safe, should return quickly and must not
+ * throw exceptions.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public interface HttpClientTracer {
+
+    /**
+     * Event recorded once a connection has been leased from the connection manager.
+     */
+    String EVENT_LEASE = "http.lease";
+
+    /**
+     * Event recorded once the route of the exchange has been established over a new connection.
+     */
+    String EVENT_CONNECT = "http.connect";
+
+    /**
+     * Event recorded once the head of the first response message has been received.
+     */
+    String EVENT_FIRST_BYTE = "http.first-byte";
+
+    /**
+     * Starts a span of the given message exchange. Invoked by the thread calling
+     * {@code execute}.
+     *
+     * @param exchangeId the ID of the message exchange.
+     * @param request the request message.
+     * @param context the execution context.
+     * @return the span or {@code null} if the exchange is not to be traced.
+     */
+    Span startSpan(String exchangeId, HttpRequest request, HttpContext context);
+
+    /**
+     * Span of a single message exchange, including redirects and retries.
+     */
+    interface Span {
+
+        /**
+         * Makes the tracing context captured by the span current in the calling thread
+         * until the returned scope is closed.
+         */
+        Scope activate();
+
+        /**
+         * Records an event with the given name.
+         *
+         * @param name the event name.
+         * @param time the event time as obtained from {@link System#nanoTime()}.
+         */
+        void addEvent(String name, long time);
+
+        /**
+         * Ends the span.
+         *
+         * @param cause the cause of failure or cancellation, or {@code null} if the
+         *              exchange has been successfully completed.
+         * @param time the end time as obtained from {@link System#nanoTime()}.
+         */
+        void end(Exception cause, long time);
+
+    }
+
+    /**
+     * Scope of an activated tracing context.
+     */
+    @FunctionalInterface
+    interface Scope extends AutoCloseable {
+
+        /**
+         * Restores the tracing context that was current before activation.
+         */
+        @Override
+        void close();
+
+    }
+
+}
@@ -0,0 +1,307 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.async.methods;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.client5.http.entity.SyncPolicy;
+import org.apache.hc.client5.http.impl.ChannelContentWriter;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Response consumer that writes the content of successful (2xx) responses
+ * to a {@link WritableByteChannel}. The content of other responses is discarded.
+ * <p>
+ * Content of a partial (206) response is written to a {@link java.nio.channels.FileChannel}
+ * at the offset given by its {@code Content-Range} header, so that an interrupted download
+ * can be resumed by executing a {@code Range} request with the same channel. Content of
+ * a full response replaces the content of the file. Non-file channels are written
+ * sequentially and must be in blocking mode.
+ * </p>
+ * <p>
+ * If an {@link Executor} is given, content is copied from the I/O buffers and written
+ * to the channel by the executor, one write at a time and in order. The window size
+ * then limits the amount of content the I/O reactor accepts from the opposite endpoint
+ * ahead of it being written to the channel: capacity is released only once content has
+ * been written. Without an executor content is written directly from the I/O buffers
+ * by the I/O dispatcher thread, which blocks the dispatcher for the duration of each
+ * write. This is only advisable for channels that are fast to write to, and sync
+ * policies with an interval are not supported in this mode.
+ * </p>
+ * <p>
+ * The channel is not closed by the consumer. The result of response processing is
+ * the response head and the number of content bytes written to the channel.
+ * </p>
+ *
+ * @since 5.2
+ */
+public class ChannelResponseConsumer implements AsyncResponseConsumer<Message<HttpResponse, Long>> {
+
+    public static final int DEFAULT_WINDOW_SIZE = 65536;
+
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private final WritableByteChannel channel;
+    private final int windowSize;
+    private final SyncPolicy syncPolicy;
+    private final Executor executor;
+    private final Queue<ByteBuffer> pendingWrites;
+    private final AtomicBoolean writing;
+
+    private volatile HttpResponse response;
+    private volatile ChannelContentWriter writer;
+    private volatile FutureCallback<Message<HttpResponse, Long>> resultCallback;
+    private volatile boolean streamEnded;
+    private volatile boolean writeFailed;
+    private volatile boolean released;
+
+    // guarded by this
+    private CapacityChannel capacityChannel;
+    private int pendingBytes;
+    private boolean capacityExhausted;
+
+    /**
+     * @param channel the channel to write content to.
+     * @param windowSize the content window size.
+     * @param syncPolicy the policy of syncing file content to the storage device.
+     * @param executor the executor to write content to the channel with or {@code null}
+     *                 to write content with the I/O dispatcher thread.
+     */
+    public ChannelResponseConsumer(
+            final WritableByteChannel channel,
+            final int windowSize,
+            final SyncPolicy syncPolicy,
+            final Executor executor) {
+        this.channel = Args.notNull(channel, "Channel");
+        this.windowSize = Args.positive(windowSize, "Window size");
+        this.syncPolicy = syncPolicy != null ? syncPolicy : SyncPolicy.NONE;
+        Args.check(executor != null || this.syncPolicy.getInterval() == 0,
+                "Sync policy with an interval requires an executor");
+        this.executor = executor;
+        this.pendingWrites = new ConcurrentLinkedQueue<>();
+        this.writing = new AtomicBoolean();
+    }
+
+    /**
+     * @param channel the channel to write content to.
+     * @param windowSize the content window size.
+     * @param syncPolicy the policy of syncing file content to the storage device.
+     *                   Policies with an interval are not supported.
+     */
+    public ChannelResponseConsumer(final WritableByteChannel channel, final int windowSize, final SyncPolicy syncPolicy) {
+        this(channel, windowSize, syncPolicy, null);
+    }
+
+    public ChannelResponseConsumer(final WritableByteChannel channel) {
+        this(channel, DEFAULT_WINDOW_SIZE, SyncPolicy.NONE, null);
+    }
+
+    @Override
+    public void informationResponse(
+            final HttpResponse response,
+            final HttpContext context) throws HttpException, IOException {
+    }
+
+    @Override
+    public void consumeResponse(
+            final HttpResponse response,
+            final EntityDetails entityDetails,
+            final HttpContext context,
+            final FutureCallback<Message<HttpResponse, Long>> resultCallback) throws HttpException, IOException {
+        this.response = response;
+        this.resultCallback = resultCallback;
+        if (entityDetails != null) {
+            if (response.getCode() >= HttpStatus.SC_SUCCESS && response.getCode() < HttpStatus.SC_REDIRECTION) {
+                this.writer = ChannelContentWriter.create(channel, response, syncPolicy);
+            }
+        } else {
+            completed();
+        }
+    }
+
+    @Override
+    public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+        if (executor == null || writer == null) {
+            // Content is consumed as soon as it is received
+            capacityChannel.update(windowSize);
+            return;
+        }
+        final int increment;
+        synchronized (this) {
+            this.capacityChannel = capacityChannel;
+            increment = windowSize - pendingBytes;
+            capacityExhausted = increment <= 0;
+        }
+        if (increment > 0) {
+            capacityChannel.update(increment);
+        }
+    }
+
+    private void releaseCapacity(final int n) throws IOException {
+        final CapacityChannel currentChannel;
+        final int increment;
+        synchronized (this) {
+            pendingBytes -= n;
+            if (!capacityExhausted || capacityChannel == null) {
+                return;
+            }
+            increment = writeFailed ? windowSize : windowSize - pendingBytes;
+            if (increment <= 0) {
+                return;
+            }
+            capacityExhausted = false;
+            currentChannel = capacityChannel;
+        }
+        currentChannel.update(increment);
+    }
+
+    @Override
+    public void consume(final ByteBuffer src) throws IOException {
+        final ChannelContentWriter currentWriter = writer;
+        if (currentWriter == null) {
+            src.position(src.limit());
+        } else if (executor == null) {
+            currentWriter.write(src);
+        } else {
+            final ByteBuffer copy = ByteBuffer.allocate(src.remaining());
+            copy.put(src);
+            copy.flip();
+            synchronized (this) {
+                pendingBytes += copy.remaining();
+            }
+            submit(copy);
+        }
+    }
+
+    @Override
+    public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+        final ChannelContentWriter currentWriter = writer;
+        if (writeFailed) {
+            return;
+        }
+        if (currentWriter == null) {
+            completed();
+        } else if (executor == null) {
+            currentWriter.complete();
+            completed();
+        } else {
+            // The remaining content gets written after the exchange has been released
+            streamEnded = true;
+            submit(END_OF_STREAM);
+        }
+    }
+
+    private void submit(final ByteBuffer buffer) {
+        pendingWrites.add(buffer);
+        if (writing.compareAndSet(false, true)) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        for (;;) {
+            final ByteBuffer buffer = pendingWrites.poll();
+            if (buffer == null) {
+                writing.set(false);
+                // Content may have been submitted after the queue was found empty
+                if (pendingWrites.isEmpty() || !writing.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            final ChannelContentWriter currentWriter = writer;
+            if (released || currentWriter == null) {
+                pendingWrites.clear();
+                return;
+            }
+            try {
+                if (buffer == END_OF_STREAM) {
+                    currentWriter.complete();
+                    completed();
+                } else {
+                    final int n = buffer.remaining();
+                    currentWriter.write(buffer);
+                    releaseCapacity(n);
+                }
+            } catch (final IOException | RuntimeException ex) {
+                // Content received from now on is discarded
+                writeFailed = true;
+                writer = null;
+                pendingWrites.clear();
+                final FutureCallback<Message<HttpResponse, Long>> callback = resultCallback;
+                if (callback != null) {
+                    callback.failed(ex);
+                }
+                try {
+                    releaseCapacity(0);
+                } catch (final IOException ignore) {
+                    // the exchange is failing anyway
+                }
+                return;
+            }
+        }
+    }
+
+    private void completed() {
+        final ChannelContentWriter currentWriter = writer;
+        final FutureCallback<Message<HttpResponse, Long>> callback = resultCallback;
+        if (callback != null) {
+            callback.completed(new Message<>(response, currentWriter != null ? currentWriter.getBytesWritten() : 0L));
+        }
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        released = true;
+    }
+
+    @Override
+    public void releaseResources() {
+        if (!streamEnded) {
+            released = true;
+            writer = null;
+        }
+    }
+
+}
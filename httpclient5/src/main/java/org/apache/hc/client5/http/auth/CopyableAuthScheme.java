@@ -0,0 +1,56 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.auth;
+
+/**
+ * {@link AuthScheme} that can create an independent copy of its state.
+ * <p>
+ * {@link AuthCache} implementations can use copies instead of serialization
+ * to hand out cached authentication state. {@link #copy()} is expected to
+ * return a new instance of the same class that shares no mutable state with
+ * this instance, so that changes to either instance (challenge parameters,
+ * credentials and other per exchange state) are never visible to the other.
+ * The only exception is state that must span all copies and is safe for
+ * concurrent use, such as the nonce count of a Digest session. Copying an
+ * instance that is no longer being modified must be safe to do concurrently
+ * from multiple threads.
+ * </p>
+ * <p>
+ * Connection based schemes such as NTLM carry state that is bound to a
+ * particular connection and should not implement this interface.
+ * </p>
+ *
+ * @since 5.2
+ */
+public interface CopyableAuthScheme extends AuthScheme {
+
+    /**
+     * Returns an independent copy of this auth scheme.
+     */
+    CopyableAuthScheme copy();
+
+}
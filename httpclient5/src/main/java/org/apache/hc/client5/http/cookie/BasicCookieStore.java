@@ -52,6 +52,7 @@ public class BasicCookieStore implements CookieStore, Serializable {
 
     private final TreeSet<Cookie> cookies;
     private transient ReadWriteLock lock;
+    private transient volatile long version;
 
     public BasicCookieStore() {
         super();
@@ -86,6 +87,7 @@ public void addCookie(final Cookie cookie) {
                 if (!cookie.isExpired(new Date())) {
                     cookies.add(cookie);
                 }
+                version++;
             } finally {
                 lock.writeLock().unlock();
             }
@@ -127,6 +129,14 @@ public List<Cookie> getCookies() {
         }
     }
 
+    /**
+     * @since 5.2
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Removes all of {@link Cookie cookies} in this HTTP state
      * that have expired by the specified {@link java.util.Date date}.
@@ -149,6 +159,9 @@ public boolean clearExpired(final Date date) {
                     removed = true;
                 }
             }
+            if (removed) {
+                version++;
+            }
             return removed;
         } finally {
             lock.writeLock().unlock();
@@ -163,6 +176,7 @@ public void clear() {
         lock.writeLock().lock();
         try {
             cookies.clear();
+            version++;
         } finally {
             lock.writeLock().unlock();
         }
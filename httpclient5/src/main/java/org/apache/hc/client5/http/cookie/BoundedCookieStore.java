@@ -0,0 +1,445 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.cookie;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.hc.client5.http.psl.PublicSuffixMatcher;
+import org.apache.hc.client5.http.psl.PublicSuffixMatcherLoader;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * {@link CookieStore} implementation with a limit on the number of cookies per
+ * registrable domain and on the total number of cookies.
+ * <p>
+ * When a new cookie is added cookies are evicted in the order suggested by
+ * RFC 6265, section 5.3: expired cookies first, then the least recently used cookies
+ * of the same domain if the per-domain limit is exceeded and finally the least
+ * recently used cookies of the whole store if the total limit is exceeded. A cookie
+ * is considered used when it is added or returned by {@link #getCookies(CookieOrigin)}.
+ * </p>
+ * <p>
+ * Lookups do not lock the store. Cookies returned by a lookup are queued and moved
+ * to the most recently used end of access-ordered indexes the next time the store
+ * is modified, so eviction takes constant time and the eviction order is an
+ * approximation of the order of use when lookups run concurrently with modifications.
+ * </p>
+ * <p>
+ * Expired cookies are purged incrementally using an index ordered by the expiry date
+ * the cookies had at the time they were added, so neither insertion nor
+ * {@link #clearExpired(Date)} need to examine cookies that have not expired.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public class BoundedCookieStore implements CookieStore {
+
+    /**
+     * Minimum number of cookies per domain that should be supported as per RFC 6265, section 6.1.
+     */
+    public static final int DEFAULT_MAX_COOKIES_PER_DOMAIN = 50;
+
+    /**
+     * Minimum total number of cookies that should be supported as per RFC 6265, section 6.1.
+     */
+    public static final int DEFAULT_MAX_COOKIES = 3000;
+
+    private static final int MAX_PENDING_USES = 1024;
+
+    private final PublicSuffixMatcher publicSuffixMatcher;
+    private final int maxCookiesPerDomain;
+    private final int maxCookies;
+    private final ReentrantLock lock;
+    private final ConcurrentMap<CookieKey, Entry> entries;
+    private final ConcurrentMap<String, ConcurrentMap<CookieKey, Entry>> domains;
+    private final LinkedHashMap<CookieKey, Entry> usage;
+    private final Map<String, LinkedHashMap<CookieKey, Entry>> domainUsage;
+    private final TreeSet<Entry> expiries;
+    private final Queue<Entry> pendingUses;
+    private final AtomicInteger pendingUseCount;
+    private long serial;
+    private volatile long version;
+
+    public BoundedCookieStore(
+            final PublicSuffixMatcher publicSuffixMatcher, final int maxCookiesPerDomain, final int maxCookies) {
+        this.publicSuffixMatcher = Args.notNull(publicSuffixMatcher, "Public suffix matcher");
+        this.maxCookiesPerDomain = Args.positive(maxCookiesPerDomain, "Max cookies per domain");
+        this.maxCookies = Args.positive(maxCookies, "Max cookies");
+        this.lock = new ReentrantLock();
+        this.entries = new ConcurrentHashMap<>();
+        this.domains = new ConcurrentHashMap<>();
+        this.usage = new LinkedHashMap<>(16, 0.75f, true);
+        this.domainUsage = new HashMap<>();
+        this.expiries = new TreeSet<>((e1, e2) -> {
+            final int res = Long.compare(e1.expiry, e2.expiry);
+            return res != 0 ? res : Long.compare(e1.serial, e2.serial);
+        });
+        this.pendingUses = new ConcurrentLinkedQueue<>();
+        this.pendingUseCount = new AtomicInteger();
+    }
+
+    public BoundedCookieStore(final int maxCookiesPerDomain, final int maxCookies) {
+        this(PublicSuffixMatcherLoader.getDefault(), maxCookiesPerDomain, maxCookies);
+    }
+
+    public BoundedCookieStore() {
+        this(DEFAULT_MAX_COOKIES_PER_DOMAIN, DEFAULT_MAX_COOKIES);
+    }
+
+    /**
+     * Adds an {@link Cookie HTTP cookie}, replacing any existing equivalent cookies.
+     * If the given cookie has already expired it will not be added, but existing
+     * values will still be removed. Other cookies may get evicted to make room for
+     * the new cookie.
+     *
+     * @param cookie the {@link Cookie cookie} to be added
+     */
+    @Override
+    public void addCookie(final Cookie cookie) {
+        if (cookie == null) {
+            return;
+        }
+        final Date now = new Date();
+        final CookieKey key = new CookieKey(cookie);
+        final String domain = DomainIndexedCookieStore.indexKey(publicSuffixMatcher, key.domain);
+        lock.lock();
+        try {
+            applyPendingUses();
+            purgeExpired(now);
+            final Entry existing = entries.get(key);
+            if (existing != null) {
+                remove(existing);
+            }
+            if (cookie.isExpired(now)) {
+                return;
+            }
+            final LinkedHashMap<CookieKey, Entry> current = domainUsage.get(domain);
+            if (current != null) {
+                while (current.size() >= maxCookiesPerDomain) {
+                    remove(leastRecentlyUsed(current));
+                }
+            }
+            while (usage.size() >= maxCookies) {
+                remove(leastRecentlyUsed(usage));
+            }
+            final Date expiryDate = cookie.getExpiryDate();
+            final Entry entry = new Entry(key, cookie, domain,
+                    expiryDate != null ? expiryDate.getTime() : Long.MAX_VALUE, serial++);
+            entries.put(key, entry);
+            domains.computeIfAbsent(domain, k -> new ConcurrentHashMap<>()).put(key, entry);
+            usage.put(key, entry);
+            domainUsage.computeIfAbsent(domain, k -> new LinkedHashMap<>(16, 0.75f, true)).put(key, entry);
+            if (expiryDate != null) {
+                expiries.add(entry);
+            }
+            version++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Entry leastRecentlyUsed(final LinkedHashMap<CookieKey, Entry> candidates) {
+        return candidates.values().iterator().next();
+    }
+
+    private void recordUse(final Entry entry) {
+        pendingUses.add(entry);
+        pendingUseCount.incrementAndGet();
+    }
+
+    private void maybeApplyPendingUses() {
+        // Keep the queue bounded when the store is not modified for a long time
+        if (pendingUseCount.get() >= MAX_PENDING_USES && lock.tryLock()) {
+            try {
+                applyPendingUses();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void applyPendingUses() {
+        Entry entry;
+        while ((entry = pendingUses.poll()) != null) {
+            pendingUseCount.decrementAndGet();
+            // the entry may have been replaced or removed in the meantime
+            if (entries.get(entry.key) == entry) {
+                usage.get(entry.key);
+                final LinkedHashMap<CookieKey, Entry> bucket = domainUsage.get(entry.domain);
+                if (bucket != null) {
+                    bucket.get(entry.key);
+                }
+            }
+        }
+    }
+
+    private void remove(final Entry entry) {
+        version++;
+        entries.remove(entry.key);
+        final ConcurrentMap<CookieKey, Entry> bucket = domains.get(entry.domain);
+        if (bucket != null) {
+            bucket.remove(entry.key);
+            if (bucket.isEmpty()) {
+                domains.remove(entry.domain);
+            }
+        }
+        usage.remove(entry.key);
+        final LinkedHashMap<CookieKey, Entry> usageBucket = domainUsage.get(entry.domain);
+        if (usageBucket != null) {
+            usageBucket.remove(entry.key);
+            if (usageBucket.isEmpty()) {
+                domainUsage.remove(entry.domain);
+            }
+        }
+        if (entry.expiry != Long.MAX_VALUE) {
+            expiries.remove(entry);
+        }
+    }
+
+    private boolean purgeExpired(final Date date) {
+        boolean removed = false;
+        while (!expiries.isEmpty()) {
+            final Entry entry = expiries.first();
+            if (entry.expiry > date.getTime()) {
+                break;
+            }
+            remove(entry);
+            removed = true;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns all cookies contained in this store from the least to the most recently used.
+     *
+     * @return a snapshot of all {@link Cookie cookies}.
+     */
+    @Override
+    public List<Cookie> getCookies() {
+        lock.lock();
+        try {
+            applyPendingUses();
+            final List<Cookie> result = new ArrayList<>(usage.size());
+            for (final Entry entry : usage.values()) {
+                result.add(entry.cookie);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns cookies whose domain belongs to the registrable domain of the origin host
+     * or to one of its parent public suffixes and marks them as recently used.
+     * Expired cookies found in the process are removed from the store.
+     *
+     * @param origin the cookie origin
+     * @return candidate cookies for the origin
+     */
+    @Override
+    public List<Cookie> getCookies(final CookieOrigin origin) {
+        Args.notNull(origin, "Cookie origin");
+        final Date now = new Date();
+        String key = DomainIndexedCookieStore.indexKey(
+                publicSuffixMatcher, DomainIndexedCookieStore.normalizeDomain(origin.getHost()));
+        final List<Cookie> result = new ArrayList<>();
+        List<Entry> expired = null;
+        for (;;) {
+            final ConcurrentMap<CookieKey, Entry> bucket = domains.get(key);
+            if (bucket != null) {
+                for (final Entry entry : bucket.values()) {
+                    if (entry.cookie.isExpired(now)) {
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(entry);
+                    } else {
+                        recordUse(entry);
+                        result.add(entry.cookie);
+                    }
+                }
+            }
+            if (key.isEmpty()) {
+                break;
+            }
+            key = DomainIndexedCookieStore.parentKey(key);
+        }
+        if (expired != null) {
+            lock.lock();
+            try {
+                for (final Entry entry : expired) {
+                    // the entry may have been replaced or removed in the meantime
+                    if (entries.get(entry.key) == entry) {
+                        remove(entry);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            maybeApplyPendingUses();
+        }
+        return result;
+    }
+
+    /**
+     * Marks the given cookies as recently used.
+     */
+    @Override
+    public void markUsed(final List<Cookie> cookies) {
+        if (cookies == null || cookies.isEmpty()) {
+            return;
+        }
+        for (final Cookie cookie : cookies) {
+            final Entry entry = entries.get(new CookieKey(cookie));
+            if (entry != null && entry.cookie == cookie) {
+                recordUse(entry);
+            }
+        }
+        maybeApplyPendingUses();
+    }
+
+    /**
+     * Removes all of {@link Cookie cookies} in this store that have expired by
+     * the specified {@link java.util.Date date}. The expiry date of a cookie is taken
+     * at the time the cookie is added to the store.
+     *
+     * @return true if any cookies were purged.
+     *
+     * @see Cookie#isExpired(Date)
+     */
+    @Override
+    public boolean clearExpired(final Date date) {
+        if (date == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            return purgeExpired(date);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Clears all cookies.
+     */
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            domains.clear();
+            usage.clear();
+            domainUsage.clear();
+            expiries.clear();
+            applyPendingUses();
+            version++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return getCookies().toString();
+    }
+
+    private static final class CookieKey {
+
+        private final String name;
+        private final String domain;
+        private final String path;
+
+        CookieKey(final Cookie cookie) {
+            this.name = cookie.getName();
+            this.domain = DomainIndexedCookieStore.normalizeDomain(cookie.getDomain());
+            this.path = cookie.getPath() != null ? cookie.getPath() : "/";
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof CookieKey) {
+                final CookieKey that = (CookieKey) obj;
+                return name.equals(that.name) && domain.equals(that.domain) && path.equals(that.path);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = name.hashCode();
+            hash = 31 * hash + domain.hashCode();
+            hash = 31 * hash + path.hashCode();
+            return hash;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final CookieKey key;
+        private final Cookie cookie;
+        private final String domain;
+        private final long expiry;
+        private final long serial;
+
+        Entry(final CookieKey key, final Cookie cookie, final String domain, final long expiry, final long serial) {
+            this.key = key;
+            this.cookie = cookie;
+            this.domain = domain;
+            this.expiry = expiry;
+            this.serial = serial;
+        }
+
+    }
+
+}
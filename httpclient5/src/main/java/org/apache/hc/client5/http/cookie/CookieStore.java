@@ -53,6 +53,53 @@ public interface CookieStore {
      */
     List<Cookie> getCookies();
 
+    /**
+     * Returns cookies contained in this store that may match the given origin.
+     * The result is a superset of the cookies that match the origin; the caller
+     * is still expected to match each cookie against the origin using
+     * a {@link CookieSpec}.
+     * <p>The default implementation returns all cookies.</p>
+     *
+     * @param origin the cookie origin
+     * @return candidate cookies for the origin
+     *
+     * @since 5.2
+     */
+    default List<Cookie> getCookies(final CookieOrigin origin) {
+        return getCookies();
+    }
+
+    /**
+     * Returns the version of the content of this store. The version changes every time
+     * cookies are added to or removed from the store, which allows callers to cache
+     * information derived from the content of the store. Changes made to cookie
+     * instances after they have been added to the store are not reflected by the version.
+     * <p>The default implementation returns {@code -1} to indicate that the store
+     * does not track changes of its content.</p>
+     *
+     * @return the current version or {@code -1} if not supported.
+     *
+     * @since 5.2
+     */
+    default long getVersion() {
+        return -1;
+    }
+
+    /**
+     * Marks the given cookies, previously returned by {@link #getCookies(CookieOrigin)},
+     * as used again. Callers that reuse the result of an earlier lookup instead of
+     * looking cookies up again, for instance by caching {@code Cookie} headers, are
+     * expected to call this method so that stores which evict cookies by their use
+     * see every use.
+     * <p>The default implementation does nothing.</p>
+     *
+     * @param cookies the cookies being used
+     *
+     * @since 5.2
+     */
+    default void markUsed(final List<Cookie> cookies) {
+    }
+
     /**
      * Removes all of {@link Cookie}s in this store that have expired by
      * the specified {@link java.util.Date}.
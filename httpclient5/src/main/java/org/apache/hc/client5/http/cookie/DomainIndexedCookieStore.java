@@ -0,0 +1,251 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.cookie;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.client5.http.psl.PublicSuffixMatcher;
+import org.apache.hc.client5.http.psl.PublicSuffixMatcherLoader;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * {@link CookieStore} implementation that indexes cookies by the registrable
+ * domain of their domain attribute as determined by the {@link PublicSuffixMatcher}.
+ * <p>
+ * {@link #getCookies(CookieOrigin)} only returns cookies stored under the registrable
+ * domain of the origin host and under its parent public suffixes, which makes the cost
+ * of cookie matching independent of the total number of cookies in the store.
+ * Updates of different domains do not contend with one another. Expired cookies
+ * are evicted lazily once they are encountered by a lookup.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public class DomainIndexedCookieStore implements CookieStore {
+
+    private final PublicSuffixMatcher publicSuffixMatcher;
+    private final ConcurrentMap<String, ConcurrentSkipListMap<Cookie, Cookie>> domains;
+    private final AtomicLong version;
+
+    public DomainIndexedCookieStore(final PublicSuffixMatcher publicSuffixMatcher) {
+        this.publicSuffixMatcher = Args.notNull(publicSuffixMatcher, "Public suffix matcher");
+        this.domains = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+    }
+
+    public DomainIndexedCookieStore() {
+        this(PublicSuffixMatcherLoader.getDefault());
+    }
+
+    static String normalizeDomain(final String domain) {
+        if (domain == null) {
+            return "";
+        }
+        final String s = domain.startsWith(".") ? domain.substring(1) : domain;
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    static String indexKey(final PublicSuffixMatcher publicSuffixMatcher, final String domain) {
+        if (domain.isEmpty()) {
+            return domain;
+        }
+        final String root = publicSuffixMatcher.getDomainRoot(domain);
+        return root != null ? root : domain;
+    }
+
+    static String parentKey(final String key) {
+        final int dot = key.indexOf('.');
+        return dot != -1 ? key.substring(dot + 1) : "";
+    }
+
+    /**
+     * Adds an {@link Cookie HTTP cookie}, replacing any existing equivalent cookies.
+     * If the given cookie has already expired it will not be added, but existing
+     * values will still be removed.
+     *
+     * @param cookie the {@link Cookie cookie} to be added
+     */
+    @Override
+    public void addCookie(final Cookie cookie) {
+        if (cookie == null) {
+            return;
+        }
+        final String key = indexKey(publicSuffixMatcher, normalizeDomain(cookie.getDomain()));
+        final boolean expired = cookie.isExpired(new Date());
+        domains.compute(key, (k, bucket) -> {
+            if (expired) {
+                if (bucket != null) {
+                    bucket.remove(cookie);
+                    return bucket.isEmpty() ? null : bucket;
+                }
+                return null;
+            }
+            final ConcurrentSkipListMap<Cookie, Cookie> current = bucket != null ? bucket :
+                    new ConcurrentSkipListMap<>(new CookieIdentityComparator());
+            // replace the key as well as the value of any equivalent cookie
+            current.remove(cookie);
+            current.put(cookie, cookie);
+            return current;
+        });
+        // the version must only change after the content has changed
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns all cookies contained in this store.
+     *
+     * @return a snapshot of all {@link Cookie cookies}.
+     */
+    @Override
+    public List<Cookie> getCookies() {
+        final List<Cookie> result = new ArrayList<>();
+        for (final Map<Cookie, Cookie> bucket : domains.values()) {
+            result.addAll(bucket.values());
+        }
+        return result;
+    }
+
+    /**
+     * Returns cookies whose domain belongs to the registrable domain of the origin host
+     * or to one of its parent public suffixes. Expired cookies found in the process are
+     * removed from the store.
+     *
+     * @param origin the cookie origin
+     * @return candidate cookies for the origin
+     */
+    @Override
+    public List<Cookie> getCookies(final CookieOrigin origin) {
+        Args.notNull(origin, "Cookie origin");
+        final List<Cookie> result = new ArrayList<>();
+        final Date now = new Date();
+        String key = indexKey(publicSuffixMatcher, normalizeDomain(origin.getHost()));
+        for (;;) {
+            collect(key, now, result);
+            if (key.isEmpty()) {
+                break;
+            }
+            key = parentKey(key);
+        }
+        return result;
+    }
+
+    private void collect(final String key, final Date now, final List<Cookie> result) {
+        final ConcurrentSkipListMap<Cookie, Cookie> bucket = domains.get(key);
+        if (bucket == null) {
+            return;
+        }
+        boolean expired = false;
+        for (final Cookie cookie : bucket.values()) {
+            if (cookie.isExpired(now)) {
+                expired = true;
+            } else {
+                result.add(cookie);
+            }
+        }
+        if (expired) {
+            purge(key, now);
+        }
+    }
+
+    private void purge(final String key, final Date date) {
+        domains.computeIfPresent(key, (k, bucket) -> {
+            bucket.values().removeIf(cookie -> cookie.isExpired(date));
+            return bucket.isEmpty() ? null : bucket;
+        });
+        version.incrementAndGet();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * This store does not track the use of cookies.
+     */
+    @Override
+    public void markUsed(final List<Cookie> cookies) {
+    }
+
+    /**
+     * Removes all of {@link Cookie cookies} in this store that have expired by
+     * the specified {@link java.util.Date date}.
+     *
+     * @return true if any cookies were purged.
+     *
+     * @see Cookie#isExpired(Date)
+     */
+    @Override
+    public boolean clearExpired(final Date date) {
+        if (date == null) {
+            return false;
+        }
+        boolean removed = false;
+        for (final Map.Entry<String, ConcurrentSkipListMap<Cookie, Cookie>> entry : domains.entrySet()) {
+            if (containsExpired(entry.getValue(), date)) {
+                purge(entry.getKey(), date);
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private static boolean containsExpired(final Map<Cookie, Cookie> bucket, final Date date) {
+        for (final Cookie cookie : bucket.values()) {
+            if (cookie.isExpired(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears all cookies.
+     */
+    @Override
+    public void clear() {
+        domains.clear();
+        version.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return getCookies().toString();
+    }
+
+}
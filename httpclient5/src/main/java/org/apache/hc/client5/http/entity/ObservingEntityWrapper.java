@@ -0,0 +1,99 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.entity;
+
+import java.io.IOException;
+
+import org.apache.hc.core5.annotation.Internal;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Wrapping entity that observes the transmission of the content of the wrapped
+ * entity without altering it.
+ * <p>
+ * Connections may transmit the content of the innermost wrapped entity by means
+ * other than {@link #writeTo(java.io.OutputStream)}, such as a zero-copy transfer
+ * of file content, in which case {@link #contentTransferred(long)} is invoked
+ * instead once the content has been transmitted in full.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Internal
+public class ObservingEntityWrapper extends HttpEntityWrapper {
+
+    private final HttpEntity wrappedEntity;
+
+    public ObservingEntityWrapper(final HttpEntity wrappedEntity) {
+        super(wrappedEntity);
+        this.wrappedEntity = Args.notNull(wrappedEntity, "Wrapped entity");
+    }
+
+    public HttpEntity getWrappedEntity() {
+        return wrappedEntity;
+    }
+
+    /**
+     * Triggered when the content of the wrapped entity has been transmitted in full
+     * without being written out through this entity. Does nothing by default.
+     *
+     * @param len the length of the transmitted content.
+     */
+    protected void contentTransferred(final long len) throws IOException {
+    }
+
+    /**
+     * Returns the innermost entity wrapped by observing wrappers or the given entity
+     * itself if it is not an observing wrapper.
+     */
+    public static HttpEntity unwrap(final HttpEntity entity) {
+        HttpEntity current = entity;
+        while (current instanceof ObservingEntityWrapper) {
+            current = ((ObservingEntityWrapper) current).getWrappedEntity();
+        }
+        return current;
+    }
+
+    /**
+     * Reports the transmission of the content of the innermost entity to all observing
+     * wrappers of the given entity, innermost first, as if the content had been written
+     * out through them.
+     *
+     * @param entity the outermost entity.
+     * @param len the length of the transmitted content.
+     */
+    public static void fireContentTransferred(final HttpEntity entity, final long len) throws IOException {
+        if (entity instanceof ObservingEntityWrapper) {
+            final ObservingEntityWrapper wrapper = (ObservingEntityWrapper) entity;
+            fireContentTransferred(wrapper.getWrappedEntity(), len);
+            wrapper.contentTransferred(len);
+        }
+    }
+
+}
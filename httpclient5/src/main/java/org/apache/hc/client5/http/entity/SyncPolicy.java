@@ -0,0 +1,85 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.entity;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Policy that determines when content written to a file gets forced to the storage
+ * device with {@link java.nio.channels.FileChannel#force(boolean)}.
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.IMMUTABLE)
+public final class SyncPolicy {
+
+    /**
+     * Content is never explicitly forced to the storage device.
+     */
+    public static final SyncPolicy NONE = new SyncPolicy(false, 0);
+
+    /**
+     * Content is forced to the storage device once completely written.
+     */
+    public static final SyncPolicy ON_COMPLETION = new SyncPolicy(true, 0);
+
+    /**
+     * Content is forced to the storage device every time the given amount of data
+     * has been written, and once completely written.
+     */
+    public static SyncPolicy every(final long bytes) {
+        return new SyncPolicy(true, Args.positive(bytes, "Sync interval"));
+    }
+
+    private final boolean enabled;
+    private final long interval;
+
+    private SyncPolicy(final boolean enabled, final long interval) {
+        this.enabled = enabled;
+        this.interval = interval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the amount of data written between syncs or {@code 0} if content
+     * is only forced once completely written.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    @Override
+    public String toString() {
+        return "[enabled: " + enabled + "; interval: " + interval + "]";
+    }
+
+}
@@ -139,6 +139,32 @@ void doWriteTo(
         writeBytes(CR_LF, out);
     }
 
+    /**
+     * Encodes the delimiter and the header fields that precede the content of
+     * the given part.
+     */
+    byte[] encodePartHead(final MultipartPart part) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeBytes(TWO_HYPHENS, out);
+        writeBytes(encode(this.charset, this.boundary), out);
+        writeBytes(CR_LF, out);
+        formatMultipartHeader(part, out);
+        writeBytes(CR_LF, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the delimiter that closes the multipart content.
+     */
+    byte[] encodeClosingDelimiter() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeBytes(TWO_HYPHENS, out);
+        writeBytes(encode(this.charset, this.boundary), out);
+        writeBytes(TWO_HYPHENS, out);
+        writeBytes(CR_LF, out);
+        return out.toByteArray();
+    }
+
     /**
       * Write the multipart header fields; depends on the style.
       */
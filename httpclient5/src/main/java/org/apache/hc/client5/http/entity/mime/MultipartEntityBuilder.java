@@ -41,6 +41,7 @@
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
 import org.apache.hc.core5.util.Args;
 
 /**
@@ -256,4 +257,17 @@ public HttpEntity build() {
         return buildEntity();
     }
 
+    /**
+     * Builds an {@link AsyncEntityProducer} that encodes the multipart content
+     * incrementally as the data channel accepts it. File parts are read through
+     * a {@link java.nio.channels.FileChannel} using a buffer of a fixed size.
+     * The content length is known up front if the length of every part is known,
+     * otherwise the content is chunk coded.
+     *
+     * @since 5.2
+     */
+    public AsyncEntityProducer buildAsync() {
+        return new MultipartFormEntityProducer(buildEntity());
+    }
+
 }
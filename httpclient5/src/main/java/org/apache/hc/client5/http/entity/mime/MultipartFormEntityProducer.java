@@ -0,0 +1,218 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.entity.mime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+/**
+ * Encodes multipart content incrementally into the data channel. The content of
+ * {@link FileBody} parts is read through a {@link FileChannel} and the content of
+ * {@link InputStreamBody} parts from their stream, so that only a buffer of a fixed
+ * size is held in memory at any time. Other bodies are encoded in memory one part
+ * at a time.
+ */
+class MultipartFormEntityProducer implements AsyncEntityProducer {
+
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final AbstractMultipartFormat multipart;
+    private final List<MultipartPart> parts;
+    private final String contentType;
+    private final long contentLength;
+    private final boolean repeatable;
+    private final ByteBuffer byteBuffer;
+    private final AtomicReference<Exception> exception;
+
+    private int segment;
+    private ReadableByteChannel source;
+    private boolean eof;
+
+    MultipartFormEntityProducer(
+            final AbstractMultipartFormat multipart,
+            final String contentType,
+            final long contentLength,
+            final int bufferSize) {
+        super();
+        this.multipart = multipart;
+        this.parts = multipart.getParts();
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        boolean repeatable = true;
+        for (final MultipartPart part : parts) {
+            if (part.getBody() instanceof InputStreamBody) {
+                repeatable = false;
+                break;
+            }
+        }
+        this.repeatable = repeatable;
+        this.byteBuffer = ByteBuffer.allocate(bufferSize);
+        this.exception = new AtomicReference<>();
+    }
+
+    MultipartFormEntityProducer(final MultipartFormEntity entity) {
+        this(entity.getMultipart(), entity.getContentType(), entity.getContentLength(), DEFAULT_BUFFER_SIZE);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return contentLength < 0;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return null;
+    }
+
+    @Override
+    public int available() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Opens the given segment of the content. Each part consists of three segments:
+     * the delimiter with the part header, the part body and the line break following
+     * the body. The last segment is the closing delimiter.
+     */
+    private ReadableByteChannel openSegment(final int index) throws IOException {
+        if (index == parts.size() * 3) {
+            return channelOf(multipart.encodeClosingDelimiter());
+        }
+        final MultipartPart part = parts.get(index / 3);
+        switch (index % 3) {
+            case 0:
+                return channelOf(multipart.encodePartHead(part));
+            case 1:
+                return openBody(part.getBody());
+            default:
+                return channelOf(AbstractMultipartFormat.CR_LF.toByteArray());
+        }
+    }
+
+    private static ReadableByteChannel openBody(final ContentBody body) throws IOException {
+        if (body instanceof FileBody && ((FileBody) body).getFile() != null) {
+            return FileChannel.open(((FileBody) body).getFile().toPath(), StandardOpenOption.READ);
+        }
+        if (body instanceof InputStreamBody) {
+            return Channels.newChannel(((InputStreamBody) body).getInputStream());
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return channelOf(out.toByteArray());
+    }
+
+    private static ReadableByteChannel channelOf(final byte[] content) {
+        return Channels.newChannel(new ByteArrayInputStream(content));
+    }
+
+    @Override
+    public void produce(final DataStreamChannel channel) throws IOException {
+        while (!eof && byteBuffer.hasRemaining()) {
+            if (source == null) {
+                if (segment > parts.size() * 3) {
+                    eof = true;
+                    break;
+                }
+                source = openSegment(segment++);
+            }
+            final int bytesRead = source.read(byteBuffer);
+            if (bytesRead < 0) {
+                source.close();
+                source = null;
+            } else if (bytesRead == 0) {
+                break;
+            }
+        }
+        if (byteBuffer.position() > 0) {
+            byteBuffer.flip();
+            channel.write(byteBuffer);
+            byteBuffer.compact();
+        }
+        if (eof && byteBuffer.position() == 0) {
+            channel.endStream();
+            releaseResources();
+        }
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        if (exception.compareAndSet(null, cause)) {
+            releaseResources();
+        }
+    }
+
+    public Exception getException() {
+        return exception.get();
+    }
+
+    @Override
+    public void releaseResources() {
+        segment = 0;
+        eof = false;
+        byteBuffer.clear();
+        if (source != null) {
+            try {
+                source.close();
+            } catch (final IOException ignore) {
+            }
+            source = null;
+        }
+    }
+
+}
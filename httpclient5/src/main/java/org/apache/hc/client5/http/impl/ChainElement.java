@@ -34,6 +34,6 @@
  */
 public enum ChainElement {
 
-    REDIRECT, COMPRESS, BACK_OFF, RETRY, CACHING, PROTOCOL, CONNECT, MAIN_TRANSPORT
+    REDIRECT, COMPRESS, BACK_OFF, CIRCUIT_BREAKER, RETRY, CACHING, PROTOCOL, CONNECT, MAIN_TRANSPORT
 
 }
@@ -0,0 +1,188 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.hc.client5.http.entity.SyncPolicy;
+import org.apache.hc.core5.annotation.Internal;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.ProtocolException;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Writes response content to a {@link WritableByteChannel}.
+ * <p>
+ * Content of a partial (206) response is written to a {@link FileChannel} at the
+ * offset given by its {@code Content-Range} header, which allows interrupted downloads
+ * to be resumed with a {@code Range} request. Content of a full response is written
+ * from the beginning of the file and the file is truncated to the content length
+ * once the content is complete. Other channels are written sequentially.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Internal
+public final class ChannelContentWriter {
+
+    private final WritableByteChannel channel;
+    private final FileChannel fileChannel;
+    private final SyncPolicy syncPolicy;
+    private final boolean truncate;
+
+    private long position;
+    private long bytesWritten;
+    private long unsynced;
+
+    private ChannelContentWriter(
+            final WritableByteChannel channel,
+            final long position,
+            final boolean truncate,
+            final SyncPolicy syncPolicy) throws IOException {
+        this.channel = channel;
+        this.fileChannel = channel instanceof FileChannel ? (FileChannel) channel : null;
+        this.syncPolicy = syncPolicy != null ? syncPolicy : SyncPolicy.NONE;
+        this.truncate = truncate;
+        if (fileChannel != null && position > fileChannel.size()) {
+            throw new IOException("Content offset " + position + " exceeds file size " + fileChannel.size());
+        }
+        this.position = position;
+    }
+
+    /**
+     * Creates a writer of the content of the given response.
+     *
+     * @throws ProtocolException if the response is a partial response without
+     *   a valid {@code Content-Range} header.
+     */
+    public static ChannelContentWriter create(
+            final WritableByteChannel channel,
+            final HttpResponse response,
+            final SyncPolicy syncPolicy) throws ProtocolException, IOException {
+        Args.notNull(channel, "Channel");
+        if (channel instanceof SelectableChannel) {
+            Args.check(((SelectableChannel) channel).isBlocking(), "Channel must be in blocking mode");
+        }
+        if (channel instanceof FileChannel) {
+            final boolean partial = response.getCode() == HttpStatus.SC_PARTIAL_CONTENT;
+            return new ChannelContentWriter(channel, partial ? getContentRangeStart(response) : 0, !partial, syncPolicy);
+        }
+        return new ChannelContentWriter(channel, 0, false, syncPolicy);
+    }
+
+    static long getContentRangeStart(final HttpResponse response) throws ProtocolException {
+        final Header header = response.getFirstHeader(HttpHeaders.CONTENT_RANGE);
+        if (header == null) {
+            throw new ProtocolException("Partial content response lacks Content-Range header");
+        }
+        final String value = header.getValue().trim();
+        final int dash = value.indexOf('-');
+        if (!value.regionMatches(true, 0, "bytes ", 0, 6) || dash < 6) {
+            throw new ProtocolException("Invalid Content-Range header: %s", value);
+        }
+        try {
+            return Long.parseLong(value.substring(6, dash).trim());
+        } catch (final NumberFormatException ex) {
+            throw new ProtocolException("Invalid Content-Range header: %s", value);
+        }
+    }
+
+    private void advance(final long n) throws IOException {
+        position += n;
+        bytesWritten += n;
+        unsynced += n;
+        if (fileChannel != null && syncPolicy.getInterval() > 0 && unsynced >= syncPolicy.getInterval()) {
+            fileChannel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Writes all remaining data of the given buffer.
+     */
+    public void write(final ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            final int n = fileChannel != null ? fileChannel.write(src, position) : channel.write(src);
+            advance(n);
+        }
+    }
+
+    /**
+     * Transfers all data from the given channel until end of stream.
+     */
+    public void transferFrom(final ReadableByteChannel src) throws IOException {
+        if (fileChannel == null) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+            while (src.read(buffer) != -1) {
+                buffer.flip();
+                write(buffer);
+                buffer.clear();
+            }
+            return;
+        }
+        final long segment = syncPolicy.getInterval() > 0 ? syncPolicy.getInterval() : Long.MAX_VALUE;
+        for (;;) {
+            final long n = fileChannel.transferFrom(src, position, segment);
+            if (n <= 0) {
+                break;
+            }
+            advance(n);
+        }
+    }
+
+    /**
+     * Completes the content, truncating and syncing the file as required.
+     */
+    public void complete() throws IOException {
+        if (fileChannel != null) {
+            if (truncate && fileChannel.size() > position) {
+                fileChannel.truncate(position);
+            }
+            if (syncPolicy.isEnabled()) {
+                fileChannel.force(false);
+                unsynced = 0;
+            }
+        }
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+}
@@ -0,0 +1,394 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Experimental;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-route circuit breaker.
+ * <p>
+ * The outcomes of the most recent requests to each route are kept in a fixed size
+ * ring buffer. Once the buffer holds at least the configured minimum number of
+ * outcomes and the failure rate reaches the threshold, the circuit of the route
+ * <em>opens</em> and requests are rejected without touching the connection pool.
+ * After the open duration elapses the circuit becomes <em>half-open</em> and lets
+ * a limited number of probe requests through. The circuit <em>closes</em> again
+ * once all of them have succeeded, or re-opens upon the first failed probe.
+ * If the outcome of some probes is never recorded, for instance because their
+ * execution was cancelled, a new set of probes is let through once the open
+ * duration elapses again.
+ * </p>
+ * <p>
+ * All per-route state is maintained with atomic variables; recording an outcome
+ * never blocks. State transitions are reported to an optional {@link Listener}
+ * by the thread that performed the transition.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+@Experimental
+public class CircuitBreaker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Circuit state.
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Circuit state transition listener.
+     */
+    public interface Listener {
+
+        void onStateChange(HttpRoute route, State from, State to);
+
+    }
+
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+
+    private final int windowSize;
+    private final int minimumNumberOfCalls;
+    private final double failureRateThreshold;
+    private final TimeValue openDuration;
+    private final int halfOpenPermits;
+    private final Listener listener;
+    private final LongSupplier clock;
+    private final ConcurrentMap<HttpRoute, RouteCircuit> circuits;
+
+    /**
+     * Creates new instance.
+     *
+     * @param windowSize the number of most recent outcomes used to compute the failure rate.
+     * @param minimumNumberOfCalls the minimum number of recorded outcomes required
+     *   before the circuit can open.
+     * @param failureRateThreshold the failure rate, greater than 0 and no greater
+     *   than 1, at which the circuit opens.
+     * @param openDuration the time the circuit stays open before letting probe requests through.
+     * @param halfOpenPermits the number of probe requests let through while half-open.
+     * @param listener the state transition listener. May be {@code null}.
+     */
+    public CircuitBreaker(
+            final int windowSize,
+            final int minimumNumberOfCalls,
+            final double failureRateThreshold,
+            final TimeValue openDuration,
+            final int halfOpenPermits,
+            final Listener listener) {
+        this(windowSize, minimumNumberOfCalls, failureRateThreshold, openDuration, halfOpenPermits, listener,
+                System::currentTimeMillis);
+    }
+
+    CircuitBreaker(
+            final int windowSize,
+            final int minimumNumberOfCalls,
+            final double failureRateThreshold,
+            final TimeValue openDuration,
+            final int halfOpenPermits,
+            final Listener listener,
+            final LongSupplier clock) {
+        this.windowSize = Args.positive(windowSize, "Window size");
+        this.minimumNumberOfCalls = Args.checkRange(minimumNumberOfCalls, 1, windowSize, "Minimum number of calls");
+        Args.check(failureRateThreshold > 0.0 && failureRateThreshold <= 1.0,
+                "Failure rate threshold must be 0.0 < f <= 1.0");
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = Args.notNull(openDuration, "Open duration");
+        this.halfOpenPermits = Args.positive(halfOpenPermits, "Half-open permits");
+        this.listener = listener;
+        this.clock = clock;
+        this.circuits = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates new instance with a window of 100 outcomes, at least 20 outcomes
+     * and a failure rate of 50% to open, 30 seconds open duration and
+     * 5 half-open probes.
+     */
+    public CircuitBreaker(final Listener listener) {
+        this(100, 20, 0.5, TimeValue.ofSeconds(30), 5, listener);
+    }
+
+    public CircuitBreaker() {
+        this(null);
+    }
+
+    private RouteCircuit getCircuit(final HttpRoute route) {
+        RouteCircuit circuit = circuits.get(route);
+        if (circuit == null) {
+            final RouteCircuit newCircuit = new RouteCircuit(windowSize);
+            circuit = circuits.putIfAbsent(route, newCircuit);
+            if (circuit == null) {
+                circuit = newCircuit;
+            }
+        }
+        return circuit;
+    }
+
+    /**
+     * Determines whether a request to the given route may be executed. If the
+     * circuit is half-open and this method returns {@code true} the caller
+     * is expected to report the outcome of the request with
+     * {@link #onSuccess(HttpRoute)} or {@link #onFailure(HttpRoute)}.
+     */
+    public boolean tryAcquirePermission(final HttpRoute route) {
+        Args.notNull(route, "Route");
+        final RouteCircuit circuit = getCircuit(route);
+        for (;;) {
+            final Status status = circuit.getStatus();
+            final long now = clock.getAsLong();
+            final boolean elapsed = now - status.since >= openDuration.toMilliseconds();
+            switch (status.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (!elapsed) {
+                        return false;
+                    }
+                    if (circuit.compareAndSet(status, new Status(State.HALF_OPEN, now, halfOpenPermits - 1, 0))) {
+                        fireStateChange(route, State.OPEN, State.HALF_OPEN);
+                        return true;
+                    }
+                    break;
+                case HALF_OPEN:
+                    if (status.permits > 0) {
+                        if (circuit.compareAndSet(status,
+                                new Status(State.HALF_OPEN, status.since, status.permits - 1, status.probeSuccesses))) {
+                            return true;
+                        }
+                    } else if (elapsed) {
+                        // Outcomes of some probes have been lost; let a new set of probes through
+                        if (circuit.compareAndSet(status, new Status(State.HALF_OPEN, now, halfOpenPermits - 1, 0))) {
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("{} circuit probes timed out", route);
+                            }
+                            return true;
+                        }
+                    } else {
+                        return false;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Records a successful request to the given route.
+     */
+    public void onSuccess(final HttpRoute route) {
+        Args.notNull(route, "Route");
+        final RouteCircuit circuit = getCircuit(route);
+        for (;;) {
+            final Status status = circuit.getStatus();
+            switch (status.state) {
+                case CLOSED:
+                    circuit.record(SUCCESS);
+                    return;
+                case HALF_OPEN:
+                    final int probeSuccesses = status.probeSuccesses + 1;
+                    if (probeSuccesses < halfOpenPermits) {
+                        if (circuit.compareAndSet(status,
+                                new Status(State.HALF_OPEN, status.since, status.permits, probeSuccesses))) {
+                            return;
+                        }
+                    } else {
+                        if (circuit.compareAndSet(status, new Status(State.CLOSED, clock.getAsLong(), 0, 0))) {
+                            circuit.reset();
+                            fireStateChange(route, State.HALF_OPEN, State.CLOSED);
+                            return;
+                        }
+                    }
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Records a failed request to the given route.
+     */
+    public void onFailure(final HttpRoute route) {
+        Args.notNull(route, "Route");
+        final RouteCircuit circuit = getCircuit(route);
+        switch (circuit.getState()) {
+            case CLOSED:
+                circuit.record(FAILURE);
+                final int calls = circuit.calls.get();
+                if (calls >= minimumNumberOfCalls
+                        && circuit.failures.get() >= failureRateThreshold * calls
+                        && circuit.open(State.CLOSED, clock.getAsLong())) {
+                    fireStateChange(route, State.CLOSED, State.OPEN);
+                }
+                break;
+            case HALF_OPEN:
+                if (circuit.open(State.HALF_OPEN, clock.getAsLong())) {
+                    fireStateChange(route, State.HALF_OPEN, State.OPEN);
+                }
+                break;
+            default:
+        }
+    }
+
+    /**
+     * Returns the current circuit state of the given route.
+     */
+    public State getState(final HttpRoute route) {
+        final RouteCircuit circuit = circuits.get(route);
+        return circuit != null ? circuit.getState() : State.CLOSED;
+    }
+
+    /**
+     * Returns the failure rate recorded for the given route while its circuit
+     * was closed, or {@code 0} if no outcomes have been recorded.
+     */
+    public double getFailureRate(final HttpRoute route) {
+        final RouteCircuit circuit = circuits.get(route);
+        if (circuit == null) {
+            return 0;
+        }
+        final int calls = circuit.calls.get();
+        return calls > 0 ? (double) circuit.failures.get() / calls : 0;
+    }
+
+    private void fireStateChange(final HttpRoute route, final State from, final State to) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} circuit {} -> {}", route, from, to);
+        }
+        if (listener != null) {
+            listener.onStateChange(route, from, to);
+        }
+    }
+
+    /**
+     * Circuit state along with the time the circuit entered it and the probe
+     * permits and successes of the half-open state, so that all of them
+     * can be read and changed atomically.
+     */
+    private static final class Status {
+
+        final State state;
+        final long since;
+        final int permits;
+        final int probeSuccesses;
+
+        Status(final State state, final long since, final int permits, final int probeSuccesses) {
+            this.state = state;
+            this.since = since;
+            this.permits = permits;
+            this.probeSuccesses = probeSuccesses;
+        }
+
+    }
+
+    private static final class RouteCircuit {
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicInteger index;
+        private final AtomicInteger calls;
+        private final AtomicInteger failures;
+        private final AtomicReference<Status> status;
+
+        RouteCircuit(final int windowSize) {
+            this.outcomes = new AtomicIntegerArray(windowSize);
+            this.index = new AtomicInteger(0);
+            this.calls = new AtomicInteger(0);
+            this.failures = new AtomicInteger(0);
+            this.status = new AtomicReference<>(new Status(State.CLOSED, 0, 0, 0));
+        }
+
+        Status getStatus() {
+            return status.get();
+        }
+
+        State getState() {
+            return status.get().state;
+        }
+
+        boolean compareAndSet(final Status expected, final Status update) {
+            return status.compareAndSet(expected, update);
+        }
+
+        /**
+         * Opens the circuit if it is in the given state.
+         */
+        boolean open(final State from, final long now) {
+            for (;;) {
+                final Status current = status.get();
+                if (current.state != from) {
+                    return false;
+                }
+                if (status.compareAndSet(current, new Status(State.OPEN, now, 0, 0))) {
+                    return true;
+                }
+            }
+        }
+
+        void record(final int outcome) {
+            final int slot = Math.floorMod(index.getAndIncrement(), outcomes.length());
+            final int previous = outcomes.getAndSet(slot, outcome);
+            if (previous == EMPTY) {
+                calls.incrementAndGet();
+            } else if (previous == FAILURE) {
+                failures.decrementAndGet();
+            }
+            if (outcome == FAILURE) {
+                failures.incrementAndGet();
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < outcomes.length(); i++) {
+                final int previous = outcomes.getAndSet(i, EMPTY);
+                if (previous != EMPTY) {
+                    calls.decrementAndGet();
+                    if (previous == FAILURE) {
+                        failures.decrementAndGet();
+                    }
+                }
+            }
+        }
+
+    }
+
+}
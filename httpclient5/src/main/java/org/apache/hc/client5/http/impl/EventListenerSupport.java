@@ -0,0 +1,59 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.annotation.Internal;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * {@link HttpClientEventListener} support methods for components that have access
+ * to the execution context only.
+ *
+ * @since 5.2
+ */
+@Internal
+public final class EventListenerSupport {
+
+    public static HttpClientEventListener getEventListener(final HttpContext context) {
+        final Object obj = context != null ? context.getAttribute(HttpClientContext.EVENT_LISTENER) : null;
+        return obj instanceof HttpClientEventListener ? (HttpClientEventListener) obj : null;
+    }
+
+    public static String getExchangeId(final HttpContext context) {
+        final Object obj = context.getAttribute(HttpClientContext.EXCHANGE_ID);
+        return obj instanceof String ? (String) obj : null;
+    }
+
+    public static HttpRoute getRoute(final HttpContext context) {
+        final Object obj = context.getAttribute(HttpClientContext.HTTP_ROUTE);
+        return obj instanceof HttpRoute ? (HttpRoute) obj : null;
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Experimental;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Retry budget that caps request re-executions at a fraction of recently executed
+ * requests, both client-wide and per route.
+ * <p>
+ * The budget is made of token buckets: one shared by all routes and one per route.
+ * Every original request execution deposits the retry ratio worth of a token into
+ * the client-wide bucket and into the bucket of its route, and buckets are additionally
+ * refilled at a minimum rate of tokens per second, so that low traffic routes can
+ * still retry occasionally. A retry is permitted only if it can withdraw a full token
+ * from both buckets. Bucket capacity bounds the size of retry bursts.
+ * </p>
+ * <p>
+ * Buckets are updated with atomic compare-and-set operations only.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+@Experimental
+public final class RetryBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final double minRetriesPerSecond;
+    private final long capacity;
+    private final TokenBucket clientBucket;
+    private final ConcurrentMap<HttpRoute, TokenBucket> routeBuckets;
+
+    /**
+     * Creates new instance.
+     *
+     * @param retryRatio the ratio of retries to original requests, greater than 0
+     *   and no greater than 1.
+     * @param minRetriesPerSecond the rate at which retries are permitted regardless
+     *   of request volume.
+     * @param maxBurst the maximum number of retries that can be accumulated.
+     */
+    public RetryBudget(final double retryRatio, final double minRetriesPerSecond, final int maxBurst) {
+        Args.check(retryRatio > 0.0 && retryRatio <= 1.0, "Retry ratio must be 0.0 < r <= 1.0");
+        Args.check(minRetriesPerSecond >= 0.0, "Minimum retry rate may not be negative");
+        Args.positive(maxBurst, "Max burst");
+        this.deposit = (long) (retryRatio * TOKEN);
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.capacity = maxBurst * TOKEN;
+        this.clientBucket = new TokenBucket();
+        this.routeBuckets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates new instance permitting retries of 10% of requests plus one retry
+     * per second, with bursts of up to 10 retries.
+     */
+    public RetryBudget() {
+        this(0.1, 1.0, 10);
+    }
+
+    private TokenBucket getRouteBucket(final HttpRoute route) {
+        TokenBucket bucket = routeBuckets.get(route);
+        if (bucket == null) {
+            final TokenBucket newBucket = new TokenBucket();
+            bucket = routeBuckets.putIfAbsent(route, newBucket);
+            if (bucket == null) {
+                bucket = newBucket;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Records an original request execution.
+     *
+     * @param route the request route. May be {@code null} if not known.
+     */
+    public void onRequest(final HttpRoute route) {
+        clientBucket.deposit(deposit);
+        if (route != null) {
+            getRouteBucket(route).deposit(deposit);
+        }
+    }
+
+    /**
+     * Attempts to withdraw a retry from the budget.
+     *
+     * @param route the request route. May be {@code null} if not known.
+     * @return {@code true} if the retry is permitted.
+     */
+    public boolean tryRetry(final HttpRoute route) {
+        final TokenBucket routeBucket = route != null ? getRouteBucket(route) : null;
+        if (routeBucket != null && !routeBucket.withdraw()) {
+            routeBucket.denied.incrementAndGet();
+            clientBucket.denied.incrementAndGet();
+            return false;
+        }
+        if (!clientBucket.withdraw()) {
+            if (routeBucket != null) {
+                routeBucket.deposit(TOKEN);
+                routeBucket.denied.incrementAndGet();
+            }
+            clientBucket.denied.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total number of retries denied by this budget.
+     */
+    public long getRetriesDenied() {
+        return clientBucket.denied.get();
+    }
+
+    /**
+     * Returns the number of retries to the given route denied by this budget.
+     */
+    public long getRetriesDenied(final HttpRoute route) {
+        final TokenBucket bucket = routeBuckets.get(route);
+        return bucket != null ? bucket.denied.get() : 0;
+    }
+
+    /**
+     * Returns the number of retries currently available client-wide.
+     */
+    public double getAvailableRetries() {
+        return (double) clientBucket.refill() / TOKEN;
+    }
+
+    /**
+     * Returns the number of retries currently available to the given route.
+     */
+    public double getAvailableRetries(final HttpRoute route) {
+        return (double) getRouteBucket(route).refill() / TOKEN;
+    }
+
+    private final class TokenBucket {
+
+        private final AtomicLong tokens;
+        private final AtomicLong lastRefill;
+        private final AtomicLong denied;
+
+        TokenBucket() {
+            this.tokens = new AtomicLong(capacity);
+            this.lastRefill = new AtomicLong(System.nanoTime());
+            this.denied = new AtomicLong(0);
+        }
+
+        void deposit(final long amount) {
+            for (;;) {
+                final long current = tokens.get();
+                final long next = Math.min(capacity, current + amount);
+                if (current == next || tokens.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long refill() {
+            if (minRetriesPerSecond > 0.0) {
+                final long now = System.nanoTime();
+                final long last = lastRefill.get();
+                final long amount = (long) (TimeUnit.NANOSECONDS.toMillis(now - last) * minRetriesPerSecond);
+                // Only claim the elapsed period once it is worth at least one milli-token
+                if (amount > 0 && lastRefill.compareAndSet(last, now)) {
+                    deposit(amount);
+                }
+            }
+            return tokens.get();
+        }
+
+        boolean withdraw() {
+            refill();
+            for (;;) {
+                final long current = tokens.get();
+                if (current < TOKEN) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - TOKEN)) {
+                    return true;
+                }
+            }
+        }
+
+    }
+
+}
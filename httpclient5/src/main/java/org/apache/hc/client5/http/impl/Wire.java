@@ -24,73 +24,152 @@
  * <http://www.apache.org/>.
  *
  */
-
 package org.apache.hc.client5.http.impl;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hc.core5.annotation.Internal;
 import org.apache.hc.core5.util.Args;
 import org.slf4j.Logger;
 
+/**
+ * Wire logger of a single connection.
+ * <p>
+ * Data are copied into a bounded ring buffer and logged as a single event per
+ * read or write operation. The human readable representation of the data is rendered
+ * only once the log event is actually emitted. If the data have already been
+ * overwritten by the time the event is rendered, only their length is logged.
+ * </p>
+ * <p>
+ * Wire logging can be suspended and resumed per message exchange with
+ * {@link #setActive(boolean)}, for instance to apply a {@link WireLogPolicy}.
+ * </p>
+ */
 @Internal
 public class Wire {
 
-    private static final int MAX_STRING_BUILDER_SIZE = 2048;
+    /**
+     * Name of the context attribute that can be used to switch wire logging
+     * of a connection on or off for a message exchange.
+     */
+    public static final String ACTIVE_ATTRIBUTE = "http.wire-log.active";
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int HEX_DUMP_LINE = 16;
+
+    private final Logger log;
+    private final String id;
+    private final boolean hexDump;
+    private final byte[] ring;
 
-    private static final ThreadLocal<StringBuilder> THREAD_LOCAL = new ThreadLocal<>();
+    private long total;
+    private volatile boolean active;
 
     /**
-     * Returns a {@code StringBuilder} that this Layout implementation can use to write the formatted log event to.
-     *
-     * @return a {@code StringBuilder}
+     * @param log the wire logger.
+     * @param id the connection ID.
+     * @param hexDump if {@code true} data are rendered as a hex dump, otherwise as
+     *                text with non-printable characters escaped.
+     * @param bufferSize the size of the ring buffer, which is the maximum amount of
+     *                   data logged per read or write operation.
      */
-    private static StringBuilder getStringBuilder() {
-        StringBuilder result = THREAD_LOCAL.get();
-        if (result == null) {
-            result = new StringBuilder(MAX_STRING_BUILDER_SIZE);
-            THREAD_LOCAL.set(result);
+    public Wire(final Logger log, final String id, final boolean hexDump, final int bufferSize) {
+        super();
+        this.log = log;
+        this.id = id;
+        this.hexDump = hexDump;
+        this.ring = new byte[Args.positive(bufferSize, "Buffer size")];
+        this.active = true;
+    }
+
+    public Wire(final Logger log, final String id) {
+        this(log, id, false, DEFAULT_BUFFER_SIZE);
+    }
+
+    public boolean isEnabled() {
+        return active && log.isDebugEnabled();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(final boolean active) {
+        this.active = active;
+    }
+
+    private void wire(final String header, final byte[] b, final int pos, final int len) {
+        if (len > 0 && isEnabled()) {
+            log.debug("{} {}", this.id, capture(header, ByteBuffer.wrap(b, pos, len)));
         }
-        trimToMaxSize(result, MAX_STRING_BUILDER_SIZE);
-        result.setLength(0);
-        return result;
     }
 
-    /**
-     * Ensures that the char[] array of the specified StringBuilder does not exceed the specified number of characters.
-     * This method is useful to ensure that excessively long char[] arrays are not kept in memory forever.
-     *
-     * @param stringBuilder the StringBuilder to check
-     * @param maxSize the maximum number of characters the StringBuilder is allowed to have
-     */
-    private static void trimToMaxSize(final StringBuilder stringBuilder, final int maxSize) {
-        if (stringBuilder != null && stringBuilder.capacity() > maxSize) {
-            stringBuilder.setLength(maxSize);
-            stringBuilder.trimToSize();
+    private void wire(final String header, final ByteBuffer b) {
+        if (b.hasRemaining() && isEnabled()) {
+            log.debug("{} {}", this.id, capture(header, b.duplicate()));
         }
     }
 
-    private final Logger log;
-    private final String id;
+    private synchronized Chunk capture(final String header, final ByteBuffer src) {
+        final int len = src.remaining();
+        final int n = Math.min(len, ring.length);
+        final long start = total;
+        int off = (int) (start % ring.length);
+        int remaining = n;
+        while (remaining > 0) {
+            final int chunk = Math.min(remaining, ring.length - off);
+            src.get(ring, off, chunk);
+            remaining -= chunk;
+            off = 0;
+        }
+        total += n;
+        return new Chunk(header, start, n, len - n);
+    }
 
-    public Wire(final Logger log, final String id) {
-        super();
-        this.log = log;
-        this.id = id;
+    private synchronized String render(final Chunk chunk) {
+        if (total - chunk.start > ring.length) {
+            return chunk.header + "[" + (chunk.len + chunk.skipped) + " bytes overwritten before being logged]";
+        }
+        final byte[] data = new byte[chunk.len];
+        final int off = (int) (chunk.start % ring.length);
+        final int first = Math.min(chunk.len, ring.length - off);
+        System.arraycopy(ring, off, data, 0, first);
+        System.arraycopy(ring, 0, data, first, chunk.len - first);
+        final StringBuilder buffer = new StringBuilder(chunk.len * (hexDump ? 4 : 2) + 32);
+        if (hexDump) {
+            renderHexDump(buffer, chunk.header, data);
+        } else {
+            renderText(buffer, chunk.header, data);
+        }
+        if (chunk.skipped > 0) {
+            buffer.append(" [").append(chunk.skipped).append(" more bytes not logged]");
+        }
+        return buffer.toString();
+    }
+
+    private void newLine(final StringBuilder buffer, final String header) {
+        if (buffer.length() > 0) {
+            buffer.append(System.lineSeparator()).append(this.id).append(' ');
+        }
+        buffer.append(header);
     }
 
-    private void wire(final String header, final byte[] b, final int pos, final int off) {
-        final StringBuilder buffer = getStringBuilder();
-        for (int i = 0; i < off; i++) {
-            final int ch = b[pos + i];
+    private void renderText(final StringBuilder buffer, final String header, final byte[] data) {
+        boolean lineStart = true;
+        for (final byte b : data) {
+            final int ch = b;
+            if (lineStart) {
+                newLine(buffer, header);
+                buffer.append('"');
+                lineStart = false;
+            }
             if (ch == 13) {
                 buffer.append("[\\r]");
             } else if (ch == 10) {
                 buffer.append("[\\n]\"");
-                buffer.insert(0, "\"");
-                buffer.insert(0, header);
-                log.debug("{} {}", this.id, buffer);
-                buffer.setLength(0);
+                lineStart = true;
             } else if ((ch < 32) || (ch >= 127)) {
                 buffer.append("[0x");
                 buffer.append(Integer.toHexString(ch));
@@ -99,17 +178,37 @@ private void wire(final String header, final byte[] b, final int pos, final int
                 buffer.append((char) ch);
             }
         }
-        if (buffer.length() > 0) {
-            buffer.append('\"');
-            buffer.insert(0, '\"');
-            buffer.insert(0, header);
-            log.debug("{} {}", this.id, buffer);
+        if (!lineStart) {
+            buffer.append('"');
         }
     }
 
-
-    public boolean isEnabled() {
-        return log.isDebugEnabled();
+    private void renderHexDump(final StringBuilder buffer, final String header, final byte[] data) {
+        for (int pos = 0; pos < data.length; pos += HEX_DUMP_LINE) {
+            newLine(buffer, header);
+            final int chunk = Math.min(data.length - pos, HEX_DUMP_LINE);
+            for (int i = 0; i < chunk; i++) {
+                final char ch = (char) data[pos + i];
+                if (ch > 32 && ch <= 127) {
+                    buffer.append(ch);
+                } else if (Character.isWhitespace(ch)) {
+                    buffer.append(' ');
+                } else {
+                    buffer.append('.');
+                }
+            }
+            for (int i = chunk; i < HEX_DUMP_LINE + 1; i++) {
+                buffer.append(' ');
+            }
+            for (int i = 0; i < chunk; i++) {
+                final int b = data[pos + i] & 0xff;
+                buffer.append(' ');
+                if (b < 0x10) {
+                    buffer.append('0');
+                }
+                buffer.append(Integer.toHexString(b));
+            }
+        }
     }
 
     public void output(final byte[] b, final int pos, final int off) {
@@ -133,43 +232,60 @@ public void input(final byte[] b) {
     }
 
     public void output(final int b) {
-        output(new byte[] {(byte) b});
+        if (isEnabled()) {
+            output(new byte[] {(byte) b});
+        }
     }
 
     public void input(final int b) {
-        input(new byte[] {(byte) b});
+        if (isEnabled()) {
+            input(new byte[] {(byte) b});
+        }
     }
 
     public void output(final String s) {
         Args.notNull(s, "Output");
-        output(s.getBytes());
+        if (isEnabled()) {
+            output(s.getBytes(StandardCharsets.US_ASCII));
+        }
     }
 
     public void input(final String s) {
         Args.notNull(s, "Input");
-        input(s.getBytes());
+        if (isEnabled()) {
+            input(s.getBytes(StandardCharsets.US_ASCII));
+        }
     }
 
     public void output(final ByteBuffer b) {
         Args.notNull(b, "Output");
-        if (b.hasArray()) {
-            output(b.array(), b.arrayOffset() + b.position(), b.remaining());
-        } else {
-            final byte[] tmp = new byte[b.remaining()];
-            b.get(tmp);
-            output(tmp);
-        }
+        wire(">> ", b);
     }
 
     public void input(final ByteBuffer b) {
         Args.notNull(b, "Input");
-        if (b.hasArray()) {
-            input(b.array(), b.arrayOffset() + b.position(), b.remaining());
-        } else {
-            final byte[] tmp = new byte[b.remaining()];
-            b.get(tmp);
-            input(tmp);
+        wire("<< ", b);
+    }
+
+    private final class Chunk {
+
+        private final String header;
+        private final long start;
+        private final int len;
+        private final int skipped;
+
+        Chunk(final String header, final long start, final int len, final int skipped) {
+            this.header = header;
+            this.start = start;
+            this.len = len;
+            this.skipped = skipped;
+        }
+
+        @Override
+        public String toString() {
+            return render(this);
         }
+
     }
 
 }
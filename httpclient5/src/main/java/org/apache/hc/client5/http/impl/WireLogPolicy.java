@@ -0,0 +1,86 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Policy that selects the message exchanges whose data are written to the wire log
+ * ({@code org.apache.hc.client5.http.wire} category at debug level). Connections of
+ * exchanges that are not selected incur no wire logging overhead beyond a flag check.
+ * <p>
+ * The policy is evaluated by the connection manager every time a message exchange
+ * is executed over a connection and applies to all data transmitted over the connection
+ * until the next exchange. With HTTP/2 the wire log of a multiplexed connection follows
+ * the policy decision for the most recently submitted exchange. Data exchanged over
+ * a new asynchronous connection before its first exchange, such as the TLS handshake,
+ * are logged regardless of the policy.
+ * </p>
+ *
+ * @since 5.2
+ */
+@FunctionalInterface
+public interface WireLogPolicy {
+
+    /**
+     * Determines whether data of the message exchange with the given ID
+     * executed over the given route are to be logged.
+     */
+    boolean isEnabled(HttpRoute route, String exchangeId);
+
+    /**
+     * Selects message exchanges with the given target hosts. Targets without
+     * an explicit port match the default port of their scheme.
+     */
+    static WireLogPolicy forTargets(final HttpHost... targets) {
+        Args.notEmpty(targets, "Target hosts");
+        final Set<HttpHost> targetSet = new HashSet<>();
+        for (final HttpHost target : Arrays.asList(targets)) {
+            targetSet.add(RoutingSupport.normalize(Args.notNull(target, "Target host"), null));
+        }
+        return (route, exchangeId) -> targetSet.contains(RoutingSupport.normalize(route.getTargetHost(), null));
+    }
+
+    /**
+     * Selects message exchanges at random with the given probability.
+     *
+     * @param probability probability in the range from 0 to 1.
+     */
+    static WireLogPolicy sampled(final double probability) {
+        Args.check(probability >= 0 && probability <= 1, "Probability must be in the range from 0 to 1");
+        return (route, exchangeId) -> ThreadLocalRandom.current().nextDouble() < probability;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.client5.http.CircuitBreakerOpenException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.client5.http.impl.CircuitBreaker;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Experimental;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request execution handler in the asynchronous request execution chain
+ * that fails requests with {@link CircuitBreakerOpenException} while
+ * the {@link CircuitBreaker} of their route is open.
+ * <p>
+ * I/O exceptions and {@code 502}, {@code 503} or {@code 504} responses
+ * are recorded as failures, any other outcome as success. The outcome of
+ * each execution is recorded once, when the response head arrives or
+ * the execution fails, whichever comes first.
+ * </p>
+ * <p>
+ * Further responsibilities such as communication with the opposite
+ * endpoint is delegated to the next executor in the request execution
+ * chain.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.STATELESS)
+@Experimental
+public final class AsyncCircuitBreakerExec implements AsyncExecChainHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncCircuitBreakerExec.class);
+
+    private final CircuitBreaker circuitBreaker;
+
+    public AsyncCircuitBreakerExec(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = Args.notNull(circuitBreaker, "Circuit breaker");
+    }
+
+    private static boolean isFailure(final int status) {
+        return status == HttpStatus.SC_BAD_GATEWAY
+                || status == HttpStatus.SC_SERVICE_UNAVAILABLE
+                || status == HttpStatus.SC_GATEWAY_TIMEOUT;
+    }
+
+    @Override
+    public void execute(
+            final HttpRequest request,
+            final AsyncEntityProducer entityProducer,
+            final AsyncExecChain.Scope scope,
+            final AsyncExecChain chain,
+            final AsyncExecCallback asyncExecCallback) throws HttpException, IOException {
+        Args.notNull(scope, "Scope");
+        final HttpRoute route = scope.route;
+        if (!circuitBreaker.tryAcquirePermission(route)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} circuit breaker open for route {}", scope.exchangeId, route);
+            }
+            asyncExecCallback.failed(new CircuitBreakerOpenException(route));
+            return;
+        }
+        final AtomicBoolean recorded = new AtomicBoolean(false);
+        try {
+            chain.proceed(request, entityProducer, scope, new AsyncExecCallback() {
+
+                @Override
+                public AsyncDataConsumer handleResponse(
+                        final HttpResponse response,
+                        final EntityDetails entityDetails) throws HttpException, IOException {
+                    if (recorded.compareAndSet(false, true)) {
+                        if (isFailure(response.getCode())) {
+                            circuitBreaker.onFailure(route);
+                        } else {
+                            circuitBreaker.onSuccess(route);
+                        }
+                    }
+                    return asyncExecCallback.handleResponse(response, entityDetails);
+                }
+
+                @Override
+                public void handleInformationResponse(final HttpResponse response) throws HttpException, IOException {
+                    asyncExecCallback.handleInformationResponse(response);
+                }
+
+                @Override
+                public void completed() {
+                    asyncExecCallback.completed();
+                }
+
+                @Override
+                public void failed(final Exception cause) {
+                    if (recorded.compareAndSet(false, true)) {
+                        if (cause instanceof IOException) {
+                            circuitBreaker.onFailure(route);
+                        } else {
+                            circuitBreaker.onSuccess(route);
+                        }
+                    }
+                    asyncExecCallback.failed(cause);
+                }
+
+            });
+        } catch (final IOException ex) {
+            if (recorded.compareAndSet(false, true)) {
+                circuitBreaker.onFailure(route);
+            }
+            throw ex;
+        } catch (final HttpException | RuntimeException ex) {
+            if (recorded.compareAndSet(false, true)) {
+                circuitBreaker.onSuccess(route);
+            }
+            throw ex;
+        }
+    }
+
+}
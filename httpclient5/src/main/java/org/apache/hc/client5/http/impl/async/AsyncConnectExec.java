@@ -31,6 +31,7 @@
 import java.io.InterruptedIOException;
 
 import org.apache.hc.client5.http.AuthenticationStrategy;
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.RouteTracker;
 import org.apache.hc.client5.http.async.AsyncExecCallback;
@@ -107,6 +108,7 @@ static class State {
 
         volatile boolean challenged;
         volatile boolean tunnelRefused;
+        volatile boolean connecting;
 
     }
 
@@ -144,7 +146,7 @@ public void completed(final AsyncExecRuntime execRuntime) {
                                     asyncExecCallback.failed(ex);
                                 }
                             } else {
-                                proceedToNextHop(state, request, entityProducer, scope, chain, asyncExecCallback);
+                                establishRoute(state, request, entityProducer, scope, chain, asyncExecCallback);
                             }
                         }
 
@@ -167,12 +169,57 @@ public void cancelled() {
                     asyncExecCallback.failed(ex);
                 }
             } else {
-                proceedToNextHop(state, request, entityProducer, scope, chain, asyncExecCallback);
+                establishRoute(state, request, entityProducer, scope, chain, asyncExecCallback);
             }
         }
 
     }
 
+    private void establishRoute(
+            final State state,
+            final HttpRequest request,
+            final AsyncEntityProducer entityProducer,
+            final AsyncExecChain.Scope scope,
+            final AsyncExecChain chain,
+            final AsyncExecCallback asyncExecCallback) {
+        final HttpClientEventListener eventListener = scope.clientContext.getEventListener();
+        if (eventListener == null) {
+            proceedToNextHop(state, request, entityProducer, scope, chain, asyncExecCallback);
+            return;
+        }
+        state.connecting = true;
+        eventListener.connectStarted(scope.exchangeId, scope.route, System.nanoTime());
+        proceedToNextHop(state, request, entityProducer, scope, chain, new AsyncExecCallback() {
+
+            @Override
+            public AsyncDataConsumer handleResponse(
+                    final HttpResponse response,
+                    final EntityDetails entityDetails) throws HttpException, IOException {
+                return asyncExecCallback.handleResponse(response, entityDetails);
+            }
+
+            @Override
+            public void handleInformationResponse(final HttpResponse response) throws HttpException, IOException {
+                asyncExecCallback.handleInformationResponse(response);
+            }
+
+            @Override
+            public void completed() {
+                asyncExecCallback.completed();
+            }
+
+            @Override
+            public void failed(final Exception cause) {
+                if (state.connecting) {
+                    state.connecting = false;
+                    eventListener.connectFailed(scope.exchangeId, scope.route, cause, System.nanoTime());
+                }
+                asyncExecCallback.failed(cause);
+            }
+
+        });
+    }
+
     private void proceedToNextHop(
             final State state,
             final HttpRequest request,
@@ -307,6 +354,13 @@ public void failed(final Exception cause) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("{} route fully established", exchangeId);
                     }
+                    if (state.connecting) {
+                        state.connecting = false;
+                        final HttpClientEventListener eventListener = clientContext.getEventListener();
+                        if (eventListener != null) {
+                            eventListener.connectCompleted(exchangeId, route, System.nanoTime());
+                        }
+                    }
                     try {
                         chain.proceed(request, entityProducer, scope, asyncExecCallback);
                     } catch (final HttpException | IOException ex) {
@@ -0,0 +1,521 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.client5.http.async.AsyncExecRuntime;
+import org.apache.hc.client5.http.auth.AuthExchange;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Experimental;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.concurrent.ComplexCancellable;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.NoopEntityConsumer;
+import org.apache.hc.core5.http.protocol.BasicHttpContext;
+import org.apache.hc.core5.http.support.BasicRequestBuilder;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request execution handler in the asynchronous request execution chain
+ * that hedges idempotent requests without an enclosed entity: if the response
+ * head has not been received within the hedge delay a second copy of the request
+ * is executed over a separate connection, and the first response to arrive wins.
+ * The exchange that loses the race is cancelled and its endpoint is discarded
+ * through its {@link AsyncExecRuntime}.
+ * <p>
+ * The hedge delay is either fixed or, if not given, the running estimate of the
+ * 95th percentile of the time to response head of the route. Hedges are paid for
+ * from a client-wide budget that each request replenishes by the budget ratio, so
+ * that hedging never adds more than that fraction of extra load on top of
+ * a small burst allowance.
+ * </p>
+ * <p>
+ * The hedged request is executed with a context of its own that inherits
+ * the attributes of the original context but starts with no authentication
+ * state of its own. Attributes set while executing the hedged request, such as
+ * the authentication exchange state or the user token, are not visible in
+ * the original context even if the hedged request wins.
+ * </p>
+ * <p>
+ * This handler is expected to be placed in front of the
+ * {@link org.apache.hc.client5.http.impl.ChainElement#PROTOCOL} element of
+ * the chain. Scheduling of hedges is done with the given executor, which
+ * remains owned by the caller.
+ * </p>
+ * <p>
+ * Further responsibilities such as communication with the opposite
+ * endpoint is delegated to the next executor in the request execution
+ * chain.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+@Experimental
+public final class AsyncHedgingExec implements AsyncExecChainHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncHedgingExec.class);
+
+    private static final long BUDGET_UNIT = 1000;
+    private static final long MAX_BUDGET = 10 * BUDGET_UNIT;
+    private static final int MIN_SAMPLES = 20;
+
+    private final ScheduledExecutorService scheduler;
+    private final TimeValue hedgeDelay;
+    private final TimeValue minHedgeDelay;
+    private final long budgetDeposit;
+    private final AtomicLong budget;
+    private final AtomicLong hedgesDenied;
+    private final ConcurrentMap<HttpRoute, RouteStats> routeStats;
+
+    /**
+     * Creates new instance.
+     *
+     * @param scheduler the executor used to schedule hedges.
+     * @param hedgeDelay the fixed hedge delay, or {@code null} to use the estimated
+     *   95th percentile of the time to response head of the route.
+     * @param minHedgeDelay the minimum hedge delay when using the estimated delay.
+     * @param budgetRatio the maximum ratio of hedges to requests, greater than 0
+     *   and no greater than 1.
+     */
+    public AsyncHedgingExec(
+            final ScheduledExecutorService scheduler,
+            final TimeValue hedgeDelay,
+            final TimeValue minHedgeDelay,
+            final double budgetRatio) {
+        this.scheduler = Args.notNull(scheduler, "Scheduler");
+        this.hedgeDelay = hedgeDelay;
+        this.minHedgeDelay = minHedgeDelay != null ? minHedgeDelay : TimeValue.ofMilliseconds(10);
+        Args.check(budgetRatio > 0.0 && budgetRatio <= 1.0, "Budget ratio must be 0.0 < r <= 1.0");
+        this.budgetDeposit = (long) (budgetRatio * BUDGET_UNIT);
+        this.budget = new AtomicLong(MAX_BUDGET);
+        this.hedgesDenied = new AtomicLong(0);
+        this.routeStats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates new instance with adaptive hedge delay and a budget ratio of 5%.
+     */
+    public AsyncHedgingExec(final ScheduledExecutorService scheduler) {
+        this(scheduler, null, null, 0.05);
+    }
+
+    private RouteStats getRouteStats(final HttpRoute route) {
+        RouteStats stats = routeStats.get(route);
+        if (stats == null) {
+            final RouteStats newStats = new RouteStats();
+            stats = routeStats.putIfAbsent(route, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        return stats;
+    }
+
+    private void depositBudget() {
+        for (;;) {
+            final long current = budget.get();
+            if (current >= MAX_BUDGET) {
+                return;
+            }
+            if (budget.compareAndSet(current, Math.min(MAX_BUDGET, current + budgetDeposit))) {
+                return;
+            }
+        }
+    }
+
+    private boolean withdrawBudget() {
+        for (;;) {
+            final long current = budget.get();
+            if (current < BUDGET_UNIT) {
+                hedgesDenied.incrementAndGet();
+                return false;
+            }
+            if (budget.compareAndSet(current, current - BUDGET_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    private long getHedgeDelayMicros(final RouteStats stats) {
+        if (hedgeDelay != null) {
+            return hedgeDelay.toMicroseconds();
+        }
+        if (stats.samples.get() < MIN_SAMPLES) {
+            return -1;
+        }
+        return Math.max(stats.p95Micros.get(), minHedgeDelay.toMicroseconds());
+    }
+
+    @Override
+    public void execute(
+            final HttpRequest request,
+            final AsyncEntityProducer entityProducer,
+            final AsyncExecChain.Scope scope,
+            final AsyncExecChain chain,
+            final AsyncExecCallback asyncExecCallback) throws HttpException, IOException {
+        Args.notNull(request, "HTTP request");
+        Args.notNull(scope, "Scope");
+        if (entityProducer != null || !Method.isIdempotent(request.getMethod())) {
+            chain.proceed(request, entityProducer, scope, asyncExecCallback);
+            return;
+        }
+        depositBudget();
+        final RouteStats stats = getRouteStats(scope.route);
+        final Exchange exchange = new Exchange(request, scope, chain, asyncExecCallback, stats);
+        scope.cancellableDependency.setDependency(exchange::cancel);
+
+        exchange.start(exchange.primary, scope.clientContext);
+        final long delay = getHedgeDelayMicros(stats);
+        if (delay >= 0 && exchange.winner.get() == null && exchange.pending.get() > 0) {
+            try {
+                exchange.timer = scheduler.schedule(exchange::hedge, delay, TimeUnit.MICROSECONDS);
+            } catch (final RejectedExecutionException ex) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{} hedge could not be scheduled", scope.exchangeId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of hedged requests sent to the given route.
+     */
+    public long getHedgesSent(final HttpRoute route) {
+        final RouteStats stats = routeStats.get(route);
+        return stats != null ? stats.sent.get() : 0;
+    }
+
+    /**
+     * Returns the number of hedged requests to the given route whose response arrived
+     * before the response to the original request.
+     */
+    public long getHedgesWon(final HttpRoute route) {
+        final RouteStats stats = routeStats.get(route);
+        return stats != null ? stats.won.get() : 0;
+    }
+
+    /**
+     * Returns the number of hedges not sent because the hedge budget was exhausted.
+     */
+    public long getHedgesDeniedByBudget() {
+        return hedgesDenied.get();
+    }
+
+    /**
+     * Returns the current hedge delay for the given route or {@code null} if
+     * the route does not have enough samples yet to estimate it.
+     */
+    public TimeValue getHedgeDelay(final HttpRoute route) {
+        final long delay = getHedgeDelayMicros(getRouteStats(route));
+        return delay >= 0 ? TimeValue.of(delay, TimeUnit.MICROSECONDS) : null;
+    }
+
+    static final class RouteStats {
+
+        final AtomicLong sent = new AtomicLong(0);
+        final AtomicLong won = new AtomicLong(0);
+        final AtomicLong samples = new AtomicLong(0);
+        final AtomicLong p95Micros = new AtomicLong(0);
+
+        /**
+         * Stochastic 95th percentile estimate: moving the estimate up by 19 steps
+         * for each sample above it and down by one step for each sample below it
+         * converges where 5% of samples are above the estimate.
+         */
+        void update(final long sampleMicros) {
+            if (samples.getAndIncrement() == 0) {
+                p95Micros.set(sampleMicros);
+                return;
+            }
+            for (;;) {
+                final long current = p95Micros.get();
+                final long step = Math.max(10, current >> 7);
+                final long next = sampleMicros > current ? current + 19 * step : Math.max(0, current - step);
+                if (p95Micros.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+    private static final class Attempt {
+
+        final boolean hedge;
+        final AsyncExecRuntime execRuntime;
+        final ComplexCancellable cancellable;
+        volatile long startNanos;
+
+        Attempt(final boolean hedge, final AsyncExecRuntime execRuntime) {
+            this.hedge = hedge;
+            this.execRuntime = execRuntime;
+            this.cancellable = new ComplexCancellable();
+        }
+
+        void abort() {
+            cancellable.cancel();
+            execRuntime.discardEndpoint();
+        }
+
+    }
+
+    private final class Exchange {
+
+        final HttpRequest request;
+        final AsyncExecChain.Scope scope;
+        final AsyncExecChain chain;
+        final AsyncExecCallback asyncExecCallback;
+        final RouteStats stats;
+        final Attempt primary;
+        final AtomicReference<Attempt> secondary;
+        final AtomicReference<Attempt> winner;
+        final AtomicInteger pending;
+        volatile Future<?> timer;
+        volatile Exception failure;
+
+        Exchange(
+                final HttpRequest request,
+                final AsyncExecChain.Scope scope,
+                final AsyncExecChain chain,
+                final AsyncExecCallback asyncExecCallback,
+                final RouteStats stats) {
+            this.request = request;
+            this.scope = scope;
+            this.chain = chain;
+            this.asyncExecCallback = asyncExecCallback;
+            this.stats = stats;
+            this.primary = new Attempt(false, scope.execRuntime);
+            this.secondary = new AtomicReference<>();
+            this.winner = new AtomicReference<>();
+            this.pending = new AtomicInteger(1);
+        }
+
+        void hedge() {
+            if (winner.get() != null) {
+                return;
+            }
+            for (;;) {
+                final int current = pending.get();
+                if (current == 0) {
+                    return;
+                }
+                if (pending.compareAndSet(current, current + 1)) {
+                    break;
+                }
+            }
+            final Attempt attempt = new Attempt(true, scope.execRuntime.fork());
+            secondary.set(attempt);
+            if (winner.get() != null) {
+                // The original request won while the hedge was being set up
+                attempt.cancellable.cancel();
+                attemptDone(null, null);
+                return;
+            }
+            if (!withdrawBudget()) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{} hedge budget exhausted", scope.exchangeId);
+                }
+                attemptDone(null, null);
+                return;
+            }
+            stats.sent.incrementAndGet();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} sending hedged request", scope.exchangeId);
+            }
+            // The hedge runs concurrently with the original request and gets a context of
+            // its own that inherits the attributes of the original one
+            final HttpClientContext hedgeContext = HttpClientContext.adapt(new BasicHttpContext(scope.clientContext));
+            hedgeContext.setAttribute(HttpClientContext.AUTH_EXCHANGE_MAP, new HashMap<HttpHost, AuthExchange>());
+            start(attempt, hedgeContext);
+        }
+
+        void start(final Attempt attempt, final HttpClientContext clientContext) {
+            final AsyncExecChain.Scope attemptScope = new AsyncExecChain.Scope(
+                    scope.exchangeId,
+                    scope.route,
+                    scope.originalRequest,
+                    attempt.cancellable,
+                    clientContext,
+                    attempt.execRuntime,
+                    scope.scheduler,
+                    scope.execCount);
+            attempt.startNanos = System.nanoTime();
+            try {
+                chain.proceed(BasicRequestBuilder.copy(request).build(), null, attemptScope, new AttemptCallback(attempt));
+            } catch (final HttpException | IOException | RuntimeException ex) {
+                attemptDone(attempt, ex);
+            }
+        }
+
+        boolean cancel() {
+            final Future<?> currentTimer = timer;
+            if (currentTimer != null) {
+                currentTimer.cancel(false);
+            }
+            primary.cancellable.cancel();
+            final Attempt attempt = secondary.get();
+            if (attempt != null) {
+                attempt.cancellable.cancel();
+            }
+            return true;
+        }
+
+        boolean win(final Attempt attempt) {
+            if (!winner.compareAndSet(null, attempt)) {
+                return winner.get() == attempt;
+            }
+            final Future<?> currentTimer = timer;
+            if (currentTimer != null) {
+                currentTimer.cancel(false);
+            }
+            stats.update(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - attempt.startNanos));
+            final Attempt loser = attempt.hedge ? primary : secondary.get();
+            if (loser != null) {
+                if (attempt.hedge) {
+                    stats.won.incrementAndGet();
+                }
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{} {} request won; cancelling the other", scope.exchangeId,
+                            attempt.hedge ? "hedged" : "original");
+                }
+                loser.abort();
+            }
+            return true;
+        }
+
+        /**
+         * Called when an attempt has failed before any response was received, or
+         * when a hedge could not be sent. Fails the exchange with the most recent
+         * failure once no other attempt is outstanding.
+         */
+        void attemptDone(final Attempt attempt, final Exception cause) {
+            if (cause != null) {
+                failure = cause;
+            }
+            if (attempt != null) {
+                attempt.execRuntime.discardEndpoint();
+            }
+            if (pending.decrementAndGet() > 0) {
+                return;
+            }
+            final Future<?> currentTimer = timer;
+            if (currentTimer != null) {
+                currentTimer.cancel(false);
+            }
+            final Exception lastFailure = failure;
+            if (lastFailure != null) {
+                asyncExecCallback.failed(lastFailure);
+            }
+        }
+
+        private final class AttemptCallback implements AsyncExecCallback {
+
+            private final Attempt attempt;
+
+            AttemptCallback(final Attempt attempt) {
+                this.attempt = attempt;
+            }
+
+            @Override
+            public AsyncDataConsumer handleResponse(
+                    final HttpResponse response,
+                    final EntityDetails entityDetails) throws HttpException, IOException {
+                if (win(attempt)) {
+                    return asyncExecCallback.handleResponse(response, entityDetails);
+                }
+                return new NoopEntityConsumer();
+            }
+
+            @Override
+            public void handleInformationResponse(final HttpResponse response) throws HttpException, IOException {
+                // Until there is a winner only informational responses of the original
+                // request are forwarded so that those of both attempts never interleave
+                final Attempt current = winner.get();
+                if (current == attempt || current == null && !attempt.hedge) {
+                    asyncExecCallback.handleInformationResponse(response);
+                }
+            }
+
+            @Override
+            public void completed() {
+                if (winner.get() == attempt) {
+                    if (attempt.hedge) {
+                        attempt.execRuntime.releaseEndpoint();
+                    }
+                    asyncExecCallback.completed();
+                } else {
+                    attempt.execRuntime.discardEndpoint();
+                }
+            }
+
+            @Override
+            public void failed(final Exception cause) {
+                final Attempt current = winner.get();
+                if (current == attempt) {
+                    if (attempt.hedge) {
+                        attempt.execRuntime.discardEndpoint();
+                    }
+                    asyncExecCallback.failed(cause);
+                } else if (current != null) {
+                    attempt.execRuntime.discardEndpoint();
+                } else {
+                    attemptDone(attempt, cause);
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -33,6 +33,7 @@
 import org.apache.hc.client5.http.async.AsyncExecCallback;
 import org.apache.hc.client5.http.async.AsyncExecChain;
 import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.client5.http.impl.RetryBudget;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.Internal;
@@ -71,10 +72,33 @@ public final class AsyncHttpRequestRetryExec implements AsyncExecChainHandler {
     private static final Logger LOG = LoggerFactory.getLogger(AsyncHttpRequestRetryExec.class);
 
     private final HttpRequestRetryStrategy retryStrategy;
-
-    public AsyncHttpRequestRetryExec(final HttpRequestRetryStrategy retryStrategy) {
+    private final RetryBudget retryBudget;
+
+    /**
+     * @param retryStrategy the retry strategy.
+     * @param retryBudget the budget every executed request is credited to and
+     *   every retry is withdrawn from; {@code null} means retries are not budgeted.
+     *
+     * @since 5.2
+     */
+    public AsyncHttpRequestRetryExec(final HttpRequestRetryStrategy retryStrategy, final RetryBudget retryBudget) {
         Args.notNull(retryStrategy, "retryStrategy");
         this.retryStrategy = retryStrategy;
+        this.retryBudget = retryBudget;
+    }
+
+    public AsyncHttpRequestRetryExec(final HttpRequestRetryStrategy retryStrategy) {
+        this(retryStrategy, null);
+    }
+
+    private boolean acquireRetry(final String exchangeId, final HttpRoute route) {
+        if (retryBudget == null || retryBudget.tryRetry(route)) {
+            return true;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} retry denied by retry budget", exchangeId);
+        }
+        return false;
     }
 
     private static class State {
@@ -107,7 +131,8 @@ public AsyncDataConsumer handleResponse(
                     }
                     return asyncExecCallback.handleResponse(response, entityDetails);
                 }
-                state.retrying = retryStrategy.retryRequest(response, scope.execCount.get(), clientContext);
+                state.retrying = retryStrategy.retryRequest(response, scope.execCount.get(), clientContext)
+                        && acquireRetry(exchangeId, scope.route);
                 if (state.retrying) {
                     state.delay = retryStrategy.getRetryInterval(response, scope.execCount.get(), clientContext);
                     if (LOG.isDebugEnabled()) {
@@ -143,7 +168,8 @@ public void failed(final Exception cause) {
                         if (LOG.isDebugEnabled()) {
                             LOG.debug("{} cannot retry non-repeatable request", exchangeId);
                         }
-                    } else if (retryStrategy.retryRequest(request, (IOException) cause, scope.execCount.get(), clientContext)) {
+                    } else if (retryStrategy.retryRequest(request, (IOException) cause, scope.execCount.get(), clientContext)
+                            && acquireRetry(exchangeId, route)) {
                         if (LOG.isDebugEnabled()) {
                             LOG.debug("{} {}", exchangeId, cause.getMessage(), cause);
                         }
@@ -175,6 +201,9 @@ public void execute(
             final AsyncExecChain.Scope scope,
             final AsyncExecChain chain,
             final AsyncExecCallback asyncExecCallback) throws HttpException, IOException {
+        if (retryBudget != null) {
+            retryBudget.onRequest(scope.route);
+        }
         final State state = new State();
         state.retrying = false;
         internalExecute(state, request, entityProducer, scope, chain, asyncExecCallback);
@@ -0,0 +1,194 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncClientExchangeHandler;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.RequestChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Identifiable;
+
+/**
+ * Exchange handler decorator that reports request and response milestones
+ * of a single message exchange to a {@link HttpClientEventListener}.
+ */
+final class EventListenerAsyncClientExchangeHandler implements AsyncClientExchangeHandler, Identifiable {
+
+    private final HttpClientEventListener eventListener;
+    private final String exchangeId;
+    private final HttpRoute route;
+    private final AsyncClientExchangeHandler handler;
+    private final AtomicBoolean requestSent;
+    private final AtomicBoolean done;
+
+    EventListenerAsyncClientExchangeHandler(
+            final HttpClientEventListener eventListener,
+            final String exchangeId,
+            final HttpRoute route,
+            final AsyncClientExchangeHandler handler) {
+        this.eventListener = eventListener;
+        this.exchangeId = exchangeId;
+        this.route = route;
+        this.handler = handler;
+        this.requestSent = new AtomicBoolean(false);
+        this.done = new AtomicBoolean(false);
+    }
+
+    @Override
+    public String getId() {
+        return exchangeId;
+    }
+
+    private void fireRequestSent() {
+        if (requestSent.compareAndSet(false, true)) {
+            eventListener.requestSent(exchangeId, route, System.nanoTime());
+        }
+    }
+
+    private void fireExchangeCompleted() {
+        if (done.compareAndSet(false, true)) {
+            eventListener.exchangeCompleted(exchangeId, route, System.nanoTime());
+        }
+    }
+
+    private void fireExchangeFailed(final Exception cause) {
+        if (done.compareAndSet(false, true)) {
+            eventListener.exchangeFailed(exchangeId, route, cause, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void releaseResources() {
+        handler.releaseResources();
+    }
+
+    @Override
+    public void produceRequest(final RequestChannel channel, final HttpContext context) throws HttpException, IOException {
+        eventListener.requestStarted(exchangeId, route, System.nanoTime());
+        handler.produceRequest((request, entityDetails, context1) -> {
+            channel.sendRequest(request, entityDetails, context1);
+            if (entityDetails == null) {
+                fireRequestSent();
+            }
+        }, context);
+    }
+
+    @Override
+    public int available() {
+        return handler.available();
+    }
+
+    @Override
+    public void produce(final DataStreamChannel channel) throws IOException {
+        handler.produce(new DataStreamChannel() {
+
+            @Override
+            public void requestOutput() {
+                channel.requestOutput();
+            }
+
+            @Override
+            public int write(final ByteBuffer src) throws IOException {
+                return channel.write(src);
+            }
+
+            @Override
+            public void endStream() throws IOException {
+                channel.endStream();
+                fireRequestSent();
+            }
+
+            @Override
+            public void endStream(final List<? extends Header> trailers) throws IOException {
+                channel.endStream(trailers);
+                fireRequestSent();
+            }
+
+        });
+    }
+
+    @Override
+    public void consumeInformation(
+            final HttpResponse response,
+            final HttpContext context) throws HttpException, IOException {
+        handler.consumeInformation(response, context);
+    }
+
+    @Override
+    public void consumeResponse(
+            final HttpResponse response,
+            final EntityDetails entityDetails,
+            final HttpContext context) throws HttpException, IOException {
+        eventListener.responseReceived(exchangeId, route, response.getCode(), System.nanoTime());
+        handler.consumeResponse(response, entityDetails, context);
+        if (entityDetails == null) {
+            fireExchangeCompleted();
+        }
+    }
+
+    @Override
+    public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+        handler.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(final ByteBuffer src) throws IOException {
+        handler.consume(src);
+    }
+
+    @Override
+    public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+        handler.streamEnd(trailers);
+        fireExchangeCompleted();
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        fireExchangeFailed(cause);
+        handler.failed(cause);
+    }
+
+    @Override
+    public void cancel() {
+        handler.cancel();
+        fireExchangeFailed(new InterruptedIOException("Exchange cancelled"));
+    }
+
+}
@@ -39,6 +39,8 @@
 
 import org.apache.hc.client5.http.AuthenticationStrategy;
 import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRequestRetryStrategy;
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.async.AsyncExecChainHandler;
@@ -56,6 +58,7 @@
 import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
 import org.apache.hc.client5.http.impl.DefaultRedirectStrategy;
 import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.RetryBudget;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.auth.BasicSchemeFactory;
 import org.apache.hc.client5.http.impl.auth.DigestSchemeFactory;
@@ -182,6 +185,7 @@ private ExecInterceptorEntry(
     private HttpRoutePlanner routePlanner;
     private RedirectStrategy redirectStrategy;
     private HttpRequestRetryStrategy retryStrategy;
+    private RetryBudget retryBudget;
 
     private Lookup<AuthSchemeFactory> authSchemeRegistry;
     private Lookup<CookieSpecFactory> cookieSpecRegistry;
@@ -191,6 +195,8 @@ private ExecInterceptorEntry(
     private String userAgent;
     private Collection<? extends Header> defaultHeaders;
     private RequestConfig defaultRequestConfig;
+    private HttpClientEventListener eventListener;
+    private HttpClientTracer tracer;
     private Resolver<HttpHost, ConnectionConfig> connectionConfigResolver;
     private boolean evictIdleConnections;
     private TimeValue maxIdleTime;
@@ -386,6 +392,20 @@ public final H2AsyncClientBuilder setRetryStrategy(final HttpRequestRetryStrateg
         return this;
     }
 
+    /**
+     * Assigns {@link RetryBudget} instance every request executed by the client
+     * is credited to and every retry is withdrawn from.
+     * <p>
+     * Please note this value has no effect if automatic retries are disabled.
+     * </p>
+     *
+     * @since 5.2
+     */
+    public final H2AsyncClientBuilder setRetryBudget(final RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
     /**
      * Assigns {@link RedirectStrategy} instance.
      * <p>
@@ -503,6 +523,28 @@ public final H2AsyncClientBuilder setDefaultRequestConfig(final RequestConfig co
         return this;
     }
 
+    /**
+     * Assigns {@link HttpClientEventListener} instance to be notified of events in the life
+     * cycle of message exchanges and connections.
+     *
+     * @since 5.2
+     */
+    public final H2AsyncClientBuilder setEventListener(final HttpClientEventListener eventListener) {
+        this.eventListener = eventListener;
+        return this;
+    }
+
+    /**
+     * Assigns {@link HttpClientTracer} instance to trace message exchanges and to
+     * propagate the tracing context of the caller to asynchronous callbacks.
+     *
+     * @since 5.2
+     */
+    public final H2AsyncClientBuilder setTracer(final HttpClientTracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
+
     /**
      * Assigns {@link Resolver} for {@link ConnectionConfig} on a per host basis.
      *
@@ -696,7 +738,7 @@ public CloseableHttpAsyncClient build() {
                 retryStrategyCopy = DefaultHttpRequestRetryStrategy.INSTANCE;
             }
             execChainDefinition.addFirst(
-                    new AsyncHttpRequestRetryExec(retryStrategyCopy),
+                    new AsyncHttpRequestRetryExec(retryStrategyCopy, retryBudget),
                     ChainElement.RETRY.name());
         }
 
@@ -834,6 +876,8 @@ public CloseableHttpAsyncClient build() {
                 cookieStoreCopy,
                 credentialsProviderCopy,
                 defaultRequestConfig,
+                eventListener,
+                tracer,
                 closeablesCopy);
     }
 
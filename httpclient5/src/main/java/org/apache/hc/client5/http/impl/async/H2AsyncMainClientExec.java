@@ -32,6 +32,8 @@
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.async.AsyncExecCallback;
 import org.apache.hc.client5.http.async.AsyncExecChain;
 import org.apache.hc.client5.http.async.AsyncExecChainHandler;
@@ -175,14 +177,19 @@ public void streamEnd(final List<? extends Header> trailers) throws HttpExceptio
 
         };
 
+        AsyncClientExchangeHandler exchangeHandler = internalExchangeHandler;
+        final HttpClientEventListener eventListener = clientContext.getEventListener();
+        if (eventListener != null) {
+            exchangeHandler = new EventListenerAsyncClientExchangeHandler(eventListener, exchangeId, scope.route, exchangeHandler);
+        }
         if (LOG.isDebugEnabled()) {
-            operation.setDependency(execRuntime.execute(
-                    exchangeId,
-                    new LoggingAsyncClientExchangeHandler(LOG, exchangeId, internalExchangeHandler),
-                    clientContext));
-        } else {
-            operation.setDependency(execRuntime.execute(exchangeId, internalExchangeHandler, clientContext));
+            exchangeHandler = new LoggingAsyncClientExchangeHandler(LOG, exchangeId, exchangeHandler);
+        }
+        final HttpClientTracer.Span span = clientContext.getTraceSpan();
+        if (span != null) {
+            exchangeHandler = new TracingAsyncClientExchangeHandler(span, exchangeId, exchangeHandler);
         }
+        operation.setDependency(execRuntime.execute(exchangeId, exchangeHandler, clientContext));
     }
 
 }
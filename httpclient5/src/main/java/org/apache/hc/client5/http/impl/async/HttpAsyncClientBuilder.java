@@ -39,6 +39,8 @@
 
 import org.apache.hc.client5.http.AuthenticationStrategy;
 import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRequestRetryStrategy;
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.UserTokenHandler;
@@ -46,11 +48,14 @@
 import org.apache.hc.client5.http.auth.AuthSchemeFactory;
 import org.apache.hc.client5.http.auth.CredentialsProvider;
 import org.apache.hc.client5.http.auth.StandardAuthScheme;
+import org.apache.hc.client5.http.classic.BackoffManager;
+import org.apache.hc.client5.http.classic.ConnectionBackoffStrategy;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.cookie.BasicCookieStore;
 import org.apache.hc.client5.http.cookie.CookieSpecFactory;
 import org.apache.hc.client5.http.cookie.CookieStore;
 import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.CircuitBreaker;
 import org.apache.hc.client5.http.impl.CookieSpecSupport;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
 import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
@@ -60,6 +65,7 @@
 import org.apache.hc.client5.http.impl.DefaultUserTokenHandler;
 import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
 import org.apache.hc.client5.http.impl.NoopUserTokenHandler;
+import org.apache.hc.client5.http.impl.RetryBudget;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.auth.BasicSchemeFactory;
 import org.apache.hc.client5.http.impl.auth.DigestSchemeFactory;
@@ -218,6 +224,10 @@ private ExecInterceptorEntry(
     private HttpRoutePlanner routePlanner;
     private RedirectStrategy redirectStrategy;
     private HttpRequestRetryStrategy retryStrategy;
+    private RetryBudget retryBudget;
+    private ConnectionBackoffStrategy connectionBackoffStrategy;
+    private BackoffManager backoffManager;
+    private CircuitBreaker circuitBreaker;
 
     private ConnectionReuseStrategy reuseStrategy;
 
@@ -230,6 +240,8 @@ private ExecInterceptorEntry(
     private HttpHost proxy;
     private Collection<? extends Header> defaultHeaders;
     private RequestConfig defaultRequestConfig;
+    private HttpClientEventListener eventListener;
+    private HttpClientTracer tracer;
     private boolean evictExpiredConnections;
     private boolean evictIdleConnections;
     private TimeValue maxIdleTime;
@@ -503,6 +515,51 @@ public final HttpAsyncClientBuilder setRetryStrategy(final HttpRequestRetryStrat
         return this;
     }
 
+    /**
+     * Assigns {@link RetryBudget} instance every request executed by the client
+     * is credited to and every retry is withdrawn from.
+     * <p>
+     * Please note this value has no effect if automatic retries are disabled.
+     * </p>
+     *
+     * @since 5.2
+     */
+    public final HttpAsyncClientBuilder setRetryBudget(final RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    /**
+     * Assigns {@link ConnectionBackoffStrategy} instance.
+     *
+     * @since 5.2
+     */
+    public final HttpAsyncClientBuilder setConnectionBackoffStrategy(
+            final ConnectionBackoffStrategy connectionBackoffStrategy) {
+        this.connectionBackoffStrategy = connectionBackoffStrategy;
+        return this;
+    }
+
+    /**
+     * Assigns {@link BackoffManager} instance.
+     *
+     * @since 5.2
+     */
+    public final HttpAsyncClientBuilder setBackoffManager(final BackoffManager backoffManager) {
+        this.backoffManager = backoffManager;
+        return this;
+    }
+
+    /**
+     * Assigns {@link CircuitBreaker} instance.
+     *
+     * @since 5.2
+     */
+    public final HttpAsyncClientBuilder setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
     /**
      * Assigns {@link RedirectStrategy} instance.
      * <p>
@@ -615,6 +672,28 @@ public final HttpAsyncClientBuilder setDefaultRequestConfig(final RequestConfig
         return this;
     }
 
+    /**
+     * Assigns {@link HttpClientEventListener} instance to be notified of events in the life
+     * cycle of message exchanges and connections.
+     *
+     * @since 5.2
+     */
+    public final HttpAsyncClientBuilder setEventListener(final HttpClientEventListener eventListener) {
+        this.eventListener = eventListener;
+        return this;
+    }
+
+    /**
+     * Assigns {@link HttpClientTracer} instance to trace message exchanges and to
+     * propagate the tracing context of the caller to asynchronous callbacks.
+     *
+     * @since 5.2
+     */
+    public final HttpAsyncClientBuilder setTracer(final HttpClientTracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
+
     /**
      * Use system properties when creating and configuring default
      * implementations.
@@ -836,10 +915,16 @@ public CloseableHttpAsyncClient build() {
                 retryStrategyCopy = DefaultHttpRequestRetryStrategy.INSTANCE;
             }
             execChainDefinition.addFirst(
-                    new AsyncHttpRequestRetryExec(retryStrategyCopy),
+                    new AsyncHttpRequestRetryExec(retryStrategyCopy, retryBudget),
                     ChainElement.RETRY.name());
         }
 
+        // Optionally, add circuit breaker executor
+        if (this.circuitBreaker != null) {
+            execChainDefinition.addFirst(new AsyncCircuitBreakerExec(this.circuitBreaker),
+                    ChainElement.CIRCUIT_BREAKER.name());
+        }
+
         HttpRoutePlanner routePlannerCopy = this.routePlanner;
         if (routePlannerCopy == null) {
             SchemePortResolver schemePortResolverCopy = this.schemePortResolver;
@@ -868,6 +953,12 @@ public CloseableHttpAsyncClient build() {
                     ChainElement.REDIRECT.name());
         }
 
+        // Optionally, add connection back-off executor
+        if (this.backoffManager != null && this.connectionBackoffStrategy != null) {
+            execChainDefinition.addFirst(new AsyncBackoffStrategyExec(this.connectionBackoffStrategy, this.backoffManager),
+                    ChainElement.BACK_OFF.name());
+        }
+
         List<Closeable> closeablesCopy = closeables != null ? new ArrayList<>(closeables) : null;
         if (!this.connManagerShared) {
             if (closeablesCopy == null) {
@@ -989,6 +1080,8 @@ public CloseableHttpAsyncClient build() {
                 cookieStoreCopy,
                 credentialsProviderCopy,
                 defaultRequestConfig,
+                eventListener,
+                tracer,
                 closeablesCopy);
     }
 
@@ -34,6 +34,8 @@
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.UserTokenHandler;
 import org.apache.hc.client5.http.async.AsyncExecCallback;
@@ -241,14 +243,19 @@ public void streamEnd(final List<? extends Header> trailers) throws HttpExceptio
 
         };
 
+        AsyncClientExchangeHandler exchangeHandler = internalExchangeHandler;
+        final HttpClientEventListener eventListener = clientContext.getEventListener();
+        if (eventListener != null) {
+            exchangeHandler = new EventListenerAsyncClientExchangeHandler(eventListener, exchangeId, route, exchangeHandler);
+        }
         if (LOG.isDebugEnabled()) {
-            operation.setDependency(execRuntime.execute(
-                    exchangeId,
-                    new LoggingAsyncClientExchangeHandler(LOG, exchangeId, internalExchangeHandler),
-                    clientContext));
-        } else {
-            operation.setDependency(execRuntime.execute(exchangeId, internalExchangeHandler, clientContext));
+            exchangeHandler = new LoggingAsyncClientExchangeHandler(LOG, exchangeId, exchangeHandler);
+        }
+        final HttpClientTracer.Span span = clientContext.getTraceSpan();
+        if (span != null) {
+            exchangeHandler = new TracingAsyncClientExchangeHandler(span, exchangeId, exchangeHandler);
         }
+        operation.setDependency(execRuntime.execute(exchangeId, exchangeHandler, clientContext));
     }
 
 }
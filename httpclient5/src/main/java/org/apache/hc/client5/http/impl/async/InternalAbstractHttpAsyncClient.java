@@ -39,6 +39,8 @@
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.async.AsyncExecCallback;
 import org.apache.hc.client5.http.async.AsyncExecChain;
@@ -90,6 +92,8 @@ abstract class InternalAbstractHttpAsyncClient extends AbstractHttpAsyncClientBa
     private final CookieStore cookieStore;
     private final CredentialsProvider credentialsProvider;
     private final RequestConfig defaultConfig;
+    private final HttpClientEventListener eventListener;
+    private final HttpClientTracer tracer;
     private final ConcurrentLinkedQueue<Closeable> closeables;
     private final ScheduledExecutorService scheduledExecutorService;
 
@@ -103,6 +107,8 @@ abstract class InternalAbstractHttpAsyncClient extends AbstractHttpAsyncClientBa
             final CookieStore cookieStore,
             final CredentialsProvider credentialsProvider,
             final RequestConfig defaultConfig,
+            final HttpClientEventListener eventListener,
+            final HttpClientTracer tracer,
             final List<Closeable> closeables) {
         super(ioReactor, pushConsumerRegistry, threadFactory);
         this.execChain = execChain;
@@ -111,6 +117,8 @@ abstract class InternalAbstractHttpAsyncClient extends AbstractHttpAsyncClientBa
         this.cookieStore = cookieStore;
         this.credentialsProvider = credentialsProvider;
         this.defaultConfig = defaultConfig;
+        this.eventListener = eventListener;
+        this.tracer = tracer;
         this.closeables = closeables != null ? new ConcurrentLinkedQueue<>(closeables) : null;
         this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(SCHEDULER_THREAD_FACTORY);
     }
@@ -155,6 +163,9 @@ private void setupContext(final HttpClientContext context) {
         if (context.getAttribute(HttpClientContext.REQUEST_CONFIG) == null) {
             context.setAttribute(HttpClientContext.REQUEST_CONFIG, defaultConfig);
         }
+        if (eventListener != null && context.getAttribute(HttpClientContext.EVENT_LISTENER) == null) {
+            context.setAttribute(HttpClientContext.EVENT_LISTENER, eventListener);
+        }
     }
 
     abstract AsyncExecRuntime createAsyncExecRuntime(HandlerFactory<AsyncPushConsumer> pushHandlerFactory);
@@ -169,7 +180,8 @@ protected <T> Future<T> doExecute(
             final HandlerFactory<AsyncPushConsumer> pushHandlerFactory,
             final HttpContext context,
             final FutureCallback<T> callback) {
-        final ComplexFuture<T> future = new ComplexFuture<>(callback);
+        final TracingFutureCallback<T> tracingCallback = tracer != null ? new TracingFutureCallback<>(callback) : null;
+        final ComplexFuture<T> future = new ComplexFuture<>(tracingCallback != null ? tracingCallback : callback);
         try {
             if (!isRunning()) {
                 throw new CancellationException("Request execution cancelled");
@@ -196,10 +208,21 @@ protected <T> Future<T> doExecute(
                 clientContext.setExchangeId(exchangeId);
                 setupContext(clientContext);
 
+                final HttpClientTracer.Span span = tracer != null ? tracer.startSpan(exchangeId, request, clientContext) : null;
+                final HttpClientContext exchangeContext;
+                if (span != null) {
+                    // the span is kept with the exchange rather than in the caller's context
+                    exchangeContext = new HttpClientContext(new TracingContext(clientContext, span,
+                            new TracingEventListener(span, clientContext.getEventListener())));
+                    tracingCallback.setSpan(span);
+                } else {
+                    exchangeContext = clientContext;
+                }
+
                 final AsyncExecChain.Scheduler scheduler = this::executeScheduled;
 
                 final AsyncExecChain.Scope scope = new AsyncExecChain.Scope(exchangeId, route, request, future,
-                        clientContext, execRuntime, scheduler, new AtomicInteger(1));
+                        exchangeContext, execRuntime, scheduler, new AtomicInteger(1));
                 final AtomicBoolean outputTerminated = new AtomicBoolean(false);
                 executeImmediate(
                         BasicRequestBuilder.copy(request).build(),
@@ -261,7 +284,7 @@ public void produce(final DataStreamChannel channel) throws IOException {
 
                         } : null,
                         scope,
-                        new AsyncExecCallback() {
+                        TracingAsyncExecCallback.decorate(span, new AsyncExecCallback() {
 
                             @Override
                             public AsyncDataConsumer handleResponse(
@@ -330,7 +353,7 @@ public void failed(final Exception cause) {
                                 }
                             }
 
-                        });
+                        }));
             }, context);
         } catch (final HttpException | IOException | IllegalStateException ex) {
             future.failed(ex);
@@ -30,6 +30,8 @@
 import java.util.List;
 import java.util.concurrent.ThreadFactory;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.async.AsyncExecRuntime;
 import org.apache.hc.client5.http.auth.AuthSchemeFactory;
@@ -81,9 +83,12 @@ public final class InternalH2AsyncClient extends InternalAbstractHttpAsyncClient
             final CookieStore cookieStore,
             final CredentialsProvider credentialsProvider,
             final RequestConfig defaultConfig,
+            final HttpClientEventListener eventListener,
+            final HttpClientTracer tracer,
             final List<Closeable> closeables) {
         super(ioReactor, pushConsumerRegistry, threadFactory, execChain,
-                cookieSpecRegistry, authSchemeRegistry, cookieStore, credentialsProvider, defaultConfig, closeables);
+                cookieSpecRegistry, authSchemeRegistry, cookieStore, credentialsProvider, defaultConfig, eventListener,
+                tracer, closeables);
         this.connPool = connPool;
         this.routePlanner = routePlanner;
     }
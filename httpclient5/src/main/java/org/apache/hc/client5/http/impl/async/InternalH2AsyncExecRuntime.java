@@ -30,6 +30,7 @@
 import java.io.InterruptedIOException;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.async.AsyncExecRuntime;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -90,6 +91,10 @@ public Cancellable acquireEndpoint(
             if (log.isDebugEnabled()) {
                 log.debug("{} acquiring endpoint ({})", id, connectTimeout);
             }
+            final HttpClientEventListener eventListener = context.getEventListener();
+            if (eventListener != null) {
+                eventListener.leaseRequested(id, route, System.nanoTime());
+            }
             return Operations.cancellable(connPool.getSession(target, connectTimeout,
                     new FutureCallback<IOSession>() {
 
@@ -100,16 +105,26 @@ public void completed(final IOSession ioSession) {
                             if (log.isDebugEnabled()) {
                                 log.debug("{} acquired endpoint", id);
                             }
+                            if (eventListener != null) {
+                                eventListener.leaseCompleted(id, route, System.nanoTime());
+                            }
                             callback.completed(InternalH2AsyncExecRuntime.this);
                         }
 
                         @Override
                         public void failed(final Exception ex) {
+                            if (eventListener != null) {
+                                eventListener.leaseFailed(id, route, ex, System.nanoTime());
+                            }
                             callback.failed(ex);
                         }
 
                         @Override
                         public void cancelled() {
+                            if (eventListener != null) {
+                                eventListener.leaseFailed(id, route, new InterruptedIOException("Lease request cancelled"),
+                                        System.nanoTime());
+                            }
                             callback.cancelled();
                         }
 
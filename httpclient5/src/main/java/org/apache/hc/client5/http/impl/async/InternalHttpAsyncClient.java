@@ -30,6 +30,8 @@
 import java.util.List;
 import java.util.concurrent.ThreadFactory;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.async.AsyncExecRuntime;
 import org.apache.hc.client5.http.auth.AuthSchemeFactory;
@@ -86,9 +88,12 @@ public final class InternalHttpAsyncClient extends InternalAbstractHttpAsyncClie
             final CookieStore cookieStore,
             final CredentialsProvider credentialsProvider,
             final RequestConfig defaultConfig,
+            final HttpClientEventListener eventListener,
+            final HttpClientTracer tracer,
             final List<Closeable> closeables) {
         super(ioReactor, pushConsumerRegistry, threadFactory, execChain,
-                cookieSpecRegistry, authSchemeRegistry, cookieStore, credentialsProvider, defaultConfig, closeables);
+                cookieSpecRegistry, authSchemeRegistry, cookieStore, credentialsProvider, defaultConfig, eventListener,
+                tracer, closeables);
         this.manager = manager;
         this.routePlanner = routePlanner;
         this.versionPolicy = versionPolicy;
@@ -30,6 +30,7 @@
 import java.io.InterruptedIOException;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.async.AsyncExecRuntime;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -97,6 +98,10 @@ public Cancellable acquireEndpoint(
             if (log.isDebugEnabled()) {
                 log.debug("{} acquiring endpoint ({})", id, connectionRequestTimeout);
             }
+            final HttpClientEventListener eventListener = context.getEventListener();
+            if (eventListener != null) {
+                eventListener.leaseRequested(id, route, System.nanoTime());
+            }
             return Operations.cancellable(manager.lease(
                     id,
                     route,
@@ -111,16 +116,26 @@ public void completed(final AsyncConnectionEndpoint connectionEndpoint) {
                             if (log.isDebugEnabled()) {
                                 log.debug("{} acquired endpoint {}", id, ConnPoolSupport.getId(connectionEndpoint));
                             }
+                            if (eventListener != null) {
+                                eventListener.leaseCompleted(id, route, System.nanoTime());
+                            }
                             callback.completed(InternalHttpAsyncExecRuntime.this);
                         }
 
                         @Override
                         public void failed(final Exception ex) {
+                            if (eventListener != null) {
+                                eventListener.leaseFailed(id, route, ex, System.nanoTime());
+                            }
                             callback.failed(ex);
                         }
 
                         @Override
                         public void cancelled() {
+                            if (eventListener != null) {
+                                eventListener.leaseFailed(id, route, new InterruptedIOException("Lease request cancelled"),
+                                        System.nanoTime());
+                            }
                             callback.cancelled();
                         }
                     }));
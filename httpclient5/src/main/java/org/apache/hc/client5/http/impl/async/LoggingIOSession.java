@@ -34,7 +34,9 @@
 import java.nio.channels.SelectionKey;
 import java.util.concurrent.locks.Lock;
 
-import org.apache.hc.core5.http.Chars;
+import org.apache.hc.client5.http.impl.Wire;
+import org.apache.hc.core5.http.nio.command.RequestExecutionCommand;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.reactor.Command;
 import org.apache.hc.core5.reactor.IOEventHandler;
@@ -46,14 +48,14 @@
 class LoggingIOSession implements IOSession {
 
     private final Logger log;
-    private final Logger wireLog;
+    private final Wire wire;
     private final IOSession session;
 
     public LoggingIOSession(final IOSession session, final Logger log, final Logger wireLog) {
         super();
         this.session = session;
         this.log = log;
-        this.wireLog = wireLog;
+        this.wire = new Wire(wireLog, session.getId(), true, Wire.DEFAULT_BUFFER_SIZE);
     }
 
     @Override
@@ -78,6 +80,13 @@ public Command poll() {
 
     @Override
     public void enqueue(final Command command, final Command.Priority priority) {
+        if (command instanceof RequestExecutionCommand) {
+            final HttpContext context = ((RequestExecutionCommand) command).getContext();
+            final Object active = context != null ? context.getAttribute(Wire.ACTIVE_ATTRIBUTE) : null;
+            if (active instanceof Boolean) {
+                wire.setActive((Boolean) active);
+            }
+        }
         session.enqueue(command, priority);
         if (log.isDebugEnabled()) {
             log.debug("{} Enqueued {} with priority {}", session, command.getClass().getSimpleName(), priority);
@@ -231,9 +240,8 @@ public void connected(final IOSession protocolSession) throws IOException {
 
             @Override
             public void inputReady(final IOSession protocolSession, final ByteBuffer src) throws IOException {
-                if (src != null && wireLog.isDebugEnabled()) {
-                    final ByteBuffer b = src.duplicate();
-                    logData(b, "<< ");
+                if (src != null) {
+                    wire.input(src);
                 }
                 handler.inputReady(protocolSession, src);
             }
@@ -262,54 +270,18 @@ public void disconnected(final IOSession protocolSession) {
 
     }
 
-    private void logData(final ByteBuffer data, final String prefix) throws IOException {
-        final byte[] line = new byte[16];
-        final StringBuilder buf = new StringBuilder();
-        while (data.hasRemaining()) {
-            buf.setLength(0);
-            buf.append(session).append(" ").append(prefix);
-            final int chunk = Math.min(data.remaining(), line.length);
-            data.get(line, 0, chunk);
-
-            for (int i = 0; i < chunk; i++) {
-                final char ch = (char) line[i];
-                if (ch > Chars.SP && ch <= Chars.DEL) {
-                    buf.append(ch);
-                } else if (Character.isWhitespace(ch)) {
-                    buf.append(' ');
-                } else {
-                    buf.append('.');
-                }
-            }
-            for (int i = chunk; i < 17; i++) {
-                buf.append(' ');
-            }
-
-            for (int i = 0; i < chunk; i++) {
-                buf.append(' ');
-                final int b = line[i] & 0xff;
-                final String s = Integer.toHexString(b);
-                if (s.length() == 1) {
-                    buf.append("0");
-                }
-                buf.append(s);
-            }
-            wireLog.debug(buf.toString());
-        }
-    }
-
     @Override
     public int read(final ByteBuffer dst) throws IOException {
         final int bytesRead = session.read(dst);
         if (log.isDebugEnabled()) {
             log.debug("{} {} bytes read", session, bytesRead);
         }
-        if (bytesRead > 0 && wireLog.isDebugEnabled()) {
+        if (bytesRead > 0 && wire.isEnabled()) {
             final ByteBuffer b = dst.duplicate();
             final int p = b.position();
             b.limit(p);
             b.position(p - bytesRead);
-            logData(b, "<< ");
+            wire.input(b);
         }
         return bytesRead;
     }
@@ -320,12 +292,12 @@ public int write(final ByteBuffer src) throws IOException {
         if (log.isDebugEnabled()) {
             log.debug("{} {} bytes written", session, byteWritten);
         }
-        if (byteWritten > 0 && wireLog.isDebugEnabled()) {
+        if (byteWritten > 0 && wire.isEnabled()) {
             final ByteBuffer b = src.duplicate();
             final int p = b.position();
             b.limit(p);
             b.position(p - byteWritten);
-            logData(b, ">> ");
+            wire.output(b);
         }
         return byteWritten;
     }
@@ -0,0 +1,131 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.hc.client5.http.HttpClientTracer;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncDataConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+
+/**
+ * Execution callback decorator that activates the tracing context of a message
+ * exchange around every callback, including those of the response data consumer.
+ */
+final class TracingAsyncExecCallback implements AsyncExecCallback {
+
+    static AsyncExecCallback decorate(final HttpClientTracer.Span span, final AsyncExecCallback callback) {
+        return span != null ? new TracingAsyncExecCallback(span, callback) : callback;
+    }
+
+    private final HttpClientTracer.Span span;
+    private final AsyncExecCallback callback;
+
+    TracingAsyncExecCallback(final HttpClientTracer.Span span, final AsyncExecCallback callback) {
+        this.span = span;
+        this.callback = callback;
+    }
+
+    @Override
+    public AsyncDataConsumer handleResponse(
+            final HttpResponse response,
+            final EntityDetails entityDetails) throws HttpException, IOException {
+        try (final HttpClientTracer.Scope scope = span.activate()) {
+            final AsyncDataConsumer dataConsumer = callback.handleResponse(response, entityDetails);
+            return dataConsumer != null ? new TracingAsyncDataConsumer(span, dataConsumer) : null;
+        }
+    }
+
+    @Override
+    public void handleInformationResponse(final HttpResponse response) throws HttpException, IOException {
+        try (final HttpClientTracer.Scope scope = span.activate()) {
+            callback.handleInformationResponse(response);
+        }
+    }
+
+    @Override
+    public void completed() {
+        try (final HttpClientTracer.Scope scope = span.activate()) {
+            callback.completed();
+        }
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        try (final HttpClientTracer.Scope scope = span.activate()) {
+            callback.failed(cause);
+        }
+    }
+
+    static final class TracingAsyncDataConsumer implements AsyncDataConsumer {
+
+        private final HttpClientTracer.Span span;
+        private final AsyncDataConsumer dataConsumer;
+
+        TracingAsyncDataConsumer(final HttpClientTracer.Span span, final AsyncDataConsumer dataConsumer) {
+            this.span = span;
+            this.dataConsumer = dataConsumer;
+        }
+
+        @Override
+        public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+            try (final HttpClientTracer.Scope scope = span.activate()) {
+                dataConsumer.updateCapacity(capacityChannel);
+            }
+        }
+
+        @Override
+        public void consume(final ByteBuffer src) throws IOException {
+            try (final HttpClientTracer.Scope scope = span.activate()) {
+                dataConsumer.consume(src);
+            }
+        }
+
+        @Override
+        public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+            try (final HttpClientTracer.Scope scope = span.activate()) {
+                dataConsumer.streamEnd(trailers);
+            }
+        }
+
+        @Override
+        public void releaseResources() {
+            try (final HttpClientTracer.Scope scope = span.activate()) {
+                dataConsumer.releaseResources();
+            }
+        }
+
+    }
+
+}
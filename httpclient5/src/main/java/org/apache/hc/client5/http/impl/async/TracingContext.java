@@ -0,0 +1,100 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * Execution context of a traced message exchange. The trace span and the event
+ * listener recording its events are kept with the exchange, while all other
+ * attributes are read from and written to the client context.
+ */
+final class TracingContext implements HttpContext {
+
+    private final HttpContext context;
+
+    private volatile Object traceSpan;
+    private volatile Object eventListener;
+
+    TracingContext(
+            final HttpContext context,
+            final HttpClientTracer.Span traceSpan,
+            final HttpClientEventListener eventListener) {
+        this.context = context;
+        this.traceSpan = traceSpan;
+        this.eventListener = eventListener;
+    }
+
+    @Override
+    public ProtocolVersion getProtocolVersion() {
+        return context.getProtocolVersion();
+    }
+
+    @Override
+    public void setProtocolVersion(final ProtocolVersion version) {
+        context.setProtocolVersion(version);
+    }
+
+    @Override
+    public Object getAttribute(final String id) {
+        if (HttpClientContext.TRACE_SPAN.equals(id)) {
+            return traceSpan;
+        }
+        if (HttpClientContext.EVENT_LISTENER.equals(id)) {
+            return eventListener;
+        }
+        return context.getAttribute(id);
+    }
+
+    @Override
+    public Object setAttribute(final String id, final Object obj) {
+        final Object previous;
+        if (HttpClientContext.TRACE_SPAN.equals(id)) {
+            previous = traceSpan;
+            traceSpan = obj;
+        } else if (HttpClientContext.EVENT_LISTENER.equals(id)) {
+            previous = eventListener;
+            eventListener = obj;
+        } else {
+            previous = context.setAttribute(id, obj);
+        }
+        return previous;
+    }
+
+    @Override
+    public Object removeAttribute(final String id) {
+        if (HttpClientContext.TRACE_SPAN.equals(id) || HttpClientContext.EVENT_LISTENER.equals(id)) {
+            return setAttribute(id, null);
+        }
+        return context.removeAttribute(id);
+    }
+
+}
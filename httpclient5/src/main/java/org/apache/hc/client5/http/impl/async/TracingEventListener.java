@@ -0,0 +1,192 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
+import org.apache.hc.client5.http.HttpRoute;
+
+/**
+ * Event listener that records span events of a traced message exchange
+ * and forwards all events to the original listener, if any.
+ */
+final class TracingEventListener implements HttpClientEventListener {
+
+    private final HttpClientTracer.Span span;
+    private final HttpClientEventListener listener;
+    private final AtomicBoolean firstByte;
+
+    TracingEventListener(final HttpClientTracer.Span span, final HttpClientEventListener listener) {
+        this.span = span;
+        this.listener = listener;
+        this.firstByte = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void leaseRequested(final String exchangeId, final HttpRoute route, final long time) {
+        if (listener != null) {
+            listener.leaseRequested(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void leaseCompleted(final String exchangeId, final HttpRoute route, final long time) {
+        span.addEvent(HttpClientTracer.EVENT_LEASE, time);
+        if (listener != null) {
+            listener.leaseCompleted(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void leaseFailed(final String exchangeId, final HttpRoute route, final Exception cause, final long time) {
+        if (listener != null) {
+            listener.leaseFailed(exchangeId, route, cause, time);
+        }
+    }
+
+    @Override
+    public void connectStarted(final String exchangeId, final HttpRoute route, final long time) {
+        if (listener != null) {
+            listener.connectStarted(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void connectCompleted(final String exchangeId, final HttpRoute route, final long time) {
+        span.addEvent(HttpClientTracer.EVENT_CONNECT, time);
+        if (listener != null) {
+            listener.connectCompleted(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void connectFailed(final String exchangeId, final HttpRoute route, final Exception cause, final long time) {
+        if (listener != null) {
+            listener.connectFailed(exchangeId, route, cause, time);
+        }
+    }
+
+    @Override
+    public void dnsResolutionStarted(
+            final String exchangeId, final HttpRoute route, final String hostName, final long time) {
+        if (listener != null) {
+            listener.dnsResolutionStarted(exchangeId, route, hostName, time);
+        }
+    }
+
+    @Override
+    public void dnsResolutionCompleted(
+            final String exchangeId, final HttpRoute route, final String hostName, final InetAddress[] addresses,
+            final long time) {
+        if (listener != null) {
+            listener.dnsResolutionCompleted(exchangeId, route, hostName, addresses, time);
+        }
+    }
+
+    @Override
+    public void socketConnectStarted(
+            final String exchangeId, final HttpRoute route, final InetSocketAddress remoteAddress, final long time) {
+        if (listener != null) {
+            listener.socketConnectStarted(exchangeId, route, remoteAddress, time);
+        }
+    }
+
+    @Override
+    public void socketConnectCompleted(
+            final String exchangeId, final HttpRoute route, final InetSocketAddress remoteAddress, final long time) {
+        if (listener != null) {
+            listener.socketConnectCompleted(exchangeId, route, remoteAddress, time);
+        }
+    }
+
+    @Override
+    public void socketConnectFailed(
+            final String exchangeId, final HttpRoute route, final InetSocketAddress remoteAddress,
+            final IOException cause, final long time) {
+        if (listener != null) {
+            listener.socketConnectFailed(exchangeId, route, remoteAddress, cause, time);
+        }
+    }
+
+    @Override
+    public void tlsHandshakeStarted(final String exchangeId, final HttpRoute route, final String hostName, final long time) {
+        if (listener != null) {
+            listener.tlsHandshakeStarted(exchangeId, route, hostName, time);
+        }
+    }
+
+    @Override
+    public void tlsHandshakeCompleted(final String exchangeId, final HttpRoute route, final String hostName, final long time) {
+        if (listener != null) {
+            listener.tlsHandshakeCompleted(exchangeId, route, hostName, time);
+        }
+    }
+
+    @Override
+    public void requestStarted(final String exchangeId, final HttpRoute route, final long time) {
+        if (listener != null) {
+            listener.requestStarted(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void requestSent(final String exchangeId, final HttpRoute route, final long time) {
+        if (listener != null) {
+            listener.requestSent(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void responseReceived(final String exchangeId, final HttpRoute route, final int status, final long time) {
+        if (firstByte.compareAndSet(false, true)) {
+            span.addEvent(HttpClientTracer.EVENT_FIRST_BYTE, time);
+        }
+        if (listener != null) {
+            listener.responseReceived(exchangeId, route, status, time);
+        }
+    }
+
+    @Override
+    public void exchangeCompleted(final String exchangeId, final HttpRoute route, final long time) {
+        if (listener != null) {
+            listener.exchangeCompleted(exchangeId, route, time);
+        }
+    }
+
+    @Override
+    public void exchangeFailed(final String exchangeId, final HttpRoute route, final Exception cause, final long time) {
+        if (listener != null) {
+            listener.exchangeFailed(exchangeId, route, cause, time);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.util.concurrent.CancellationException;
+
+import org.apache.hc.client5.http.HttpClientTracer;
+import org.apache.hc.core5.concurrent.FutureCallback;
+
+/**
+ * Future callback decorator that ends the span of a traced message exchange
+ * and invokes the original callback with the tracing context activated.
+ * The span is assigned once it has been started, which may happen after the
+ * callback has been handed over to the result future.
+ */
+final class TracingFutureCallback<T> implements FutureCallback<T> {
+
+    private final FutureCallback<T> callback;
+    private volatile HttpClientTracer.Span span;
+
+    TracingFutureCallback(final FutureCallback<T> callback) {
+        this.callback = callback;
+    }
+
+    void setSpan(final HttpClientTracer.Span span) {
+        this.span = span;
+    }
+
+    @Override
+    public void completed(final T result) {
+        final HttpClientTracer.Span currentSpan = span;
+        if (currentSpan == null) {
+            if (callback != null) {
+                callback.completed(result);
+            }
+            return;
+        }
+        try (final HttpClientTracer.Scope scope = currentSpan.activate()) {
+            if (callback != null) {
+                callback.completed(result);
+            }
+        } finally {
+            currentSpan.end(null, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void failed(final Exception ex) {
+        final HttpClientTracer.Span currentSpan = span;
+        if (currentSpan == null) {
+            if (callback != null) {
+                callback.failed(ex);
+            }
+            return;
+        }
+        try (final HttpClientTracer.Scope scope = currentSpan.activate()) {
+            if (callback != null) {
+                callback.failed(ex);
+            }
+        } finally {
+            currentSpan.end(ex, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void cancelled() {
+        final HttpClientTracer.Span currentSpan = span;
+        if (currentSpan == null) {
+            if (callback != null) {
+                callback.cancelled();
+            }
+            return;
+        }
+        try (final HttpClientTracer.Scope scope = currentSpan.activate()) {
+            if (callback != null) {
+                callback.cancelled();
+            }
+        } finally {
+            currentSpan.end(new CancellationException("Request execution cancelled"), System.nanoTime());
+        }
+    }
+
+}
@@ -38,19 +38,25 @@
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.auth.AuthCache;
 import org.apache.hc.client5.http.auth.AuthScheme;
+import org.apache.hc.client5.http.auth.CopyableAuthScheme;
 import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
 import org.apache.hc.client5.http.routing.RoutingSupport;
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.function.Supplier;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.util.Args;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Default implementation of {@link AuthCache}. This implements
- * expects {@link org.apache.hc.client5.http.auth.AuthScheme} to be {@link java.io.Serializable}
- * in order to be cacheable.
+ * Default implementation of {@link AuthCache}. This implementation
+ * expects {@link org.apache.hc.client5.http.auth.AuthScheme} to be either
+ * {@link CopyableAuthScheme} or {@link java.io.Serializable} in order to be
+ * cacheable. Copyable schemes are stored as a private snapshot and each
+ * {@link #get(HttpHost)} returns a copy of it, other schemes, as well as
+ * copyable schemes whose copy is not of the same class, are stored
+ * in a serialized form and de-serialized on each {@link #get(HttpHost)}.
  * <p>
  * Instances of this class are thread safe as of version 4.4.
  * </p>
@@ -62,7 +68,7 @@ public class BasicAuthCache implements AuthCache {
 
     private static final Logger LOG = LoggerFactory.getLogger(BasicAuthCache.class);
 
-    private final Map<HttpHost, byte[]> map;
+    private final Map<HttpHost, Supplier<AuthScheme>> map;
     private final SchemePortResolver schemePortResolver;
 
     /**
@@ -86,14 +92,21 @@ public void put(final HttpHost host, final AuthScheme authScheme) {
         if (authScheme == null) {
             return;
         }
-        if (authScheme instanceof Serializable) {
+        final CopyableAuthScheme snapshot = authScheme instanceof CopyableAuthScheme
+                ? ((CopyableAuthScheme) authScheme).copy() : null;
+        // a subclass that does not override copy() would come back as its super class
+        if (snapshot != null && snapshot.getClass() == authScheme.getClass()) {
+            final HttpHost key = RoutingSupport.normalize(host, schemePortResolver);
+            this.map.put(key, snapshot::copy);
+        } else if (authScheme instanceof Serializable) {
             try {
                 final ByteArrayOutputStream buf = new ByteArrayOutputStream();
                 try (final ObjectOutputStream out = new ObjectOutputStream(buf)) {
                     out.writeObject(authScheme);
                 }
+                final byte[] bytes = buf.toByteArray();
                 final HttpHost key = RoutingSupport.normalize(host, schemePortResolver);
-                this.map.put(key, buf.toByteArray());
+                this.map.put(key, () -> deserialize(bytes));
             } catch (final IOException ex) {
                 if (LOG.isWarnEnabled()) {
                     LOG.warn("Unexpected I/O error while serializing auth scheme", ex);
@@ -106,28 +119,30 @@ public void put(final HttpHost host, final AuthScheme authScheme) {
         }
     }
 
+    private static AuthScheme deserialize(final byte[] bytes) {
+        try {
+            final ByteArrayInputStream buf = new ByteArrayInputStream(bytes);
+            try (final ObjectInputStream in = new ObjectInputStream(buf)) {
+                return (AuthScheme) in.readObject();
+            }
+        } catch (final IOException ex) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Unexpected I/O error while de-serializing auth scheme", ex);
+            }
+        } catch (final ClassNotFoundException ex) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Unexpected error while de-serializing auth scheme", ex);
+            }
+        }
+        return null;
+    }
+
     @Override
     public AuthScheme get(final HttpHost host) {
         Args.notNull(host, "HTTP host");
         final HttpHost key = RoutingSupport.normalize(host, schemePortResolver);
-        final byte[] bytes = this.map.get(key);
-        if (bytes != null) {
-            try {
-                final ByteArrayInputStream buf = new ByteArrayInputStream(bytes);
-                try (final ObjectInputStream in = new ObjectInputStream(buf)) {
-                    return (AuthScheme) in.readObject();
-                }
-            } catch (final IOException ex) {
-                if (LOG.isWarnEnabled()) {
-                    LOG.warn("Unexpected I/O error while de-serializing auth scheme", ex);
-                }
-            } catch (final ClassNotFoundException ex) {
-                if (LOG.isWarnEnabled()) {
-                    LOG.warn("Unexpected error while de-serializing auth scheme", ex);
-                }
-            }
-        }
-        return null;
+        final Supplier<AuthScheme> supplier = this.map.get(key);
+        return supplier != null ? supplier.get() : null;
     }
 
     @Override
@@ -144,7 +159,7 @@ public void clear() {
 
     @Override
     public String toString() {
-        return this.map.toString();
+        return this.map.keySet().toString();
     }
 
 }
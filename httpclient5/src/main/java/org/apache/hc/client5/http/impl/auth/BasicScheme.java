@@ -41,7 +41,7 @@
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.hc.client5.http.auth.AuthChallenge;
-import org.apache.hc.client5.http.auth.AuthScheme;
+import org.apache.hc.client5.http.auth.CopyableAuthScheme;
 import org.apache.hc.client5.http.auth.StandardAuthScheme;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.AuthStateCacheable;
@@ -65,7 +65,7 @@
  * @since 4.0
  */
 @AuthStateCacheable
-public class BasicScheme implements AuthScheme, Serializable {
+public class BasicScheme implements CopyableAuthScheme, Serializable {
 
     private static final long serialVersionUID = -1931571557597830536L;
 
@@ -93,6 +93,25 @@ public BasicScheme() {
         this(StandardCharsets.US_ASCII);
     }
 
+    private BasicScheme(final BasicScheme other) {
+        this.paramMap = new HashMap<>(other.paramMap);
+        this.charset = other.charset;
+        this.complete = other.complete;
+        this.username = other.username;
+        this.password = other.password != null ? other.password.clone() : null;
+    }
+
+    /**
+     * Subclasses that carry additional state must override this method,
+     * otherwise the copy is an instance of {@code BasicScheme}.
+     *
+     * @since 5.2
+     */
+    @Override
+    public BasicScheme copy() {
+        return new BasicScheme(this);
+    }
+
     public void initPreemptive(final Credentials credentials) {
         if (credentials != null) {
             this.username = credentials.getUserPrincipal().getName();
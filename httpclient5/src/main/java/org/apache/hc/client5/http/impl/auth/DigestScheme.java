@@ -37,7 +37,7 @@
 import java.security.Principal;
 import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.Formatter;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,11 +45,15 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hc.client5.http.auth.AuthChallenge;
-import org.apache.hc.client5.http.auth.AuthScheme;
 import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.AuthStateCacheable;
 import org.apache.hc.client5.http.auth.AuthenticationException;
+import org.apache.hc.client5.http.auth.CopyableAuthScheme;
 import org.apache.hc.client5.http.auth.Credentials;
 import org.apache.hc.client5.http.auth.CredentialsProvider;
 import org.apache.hc.client5.http.auth.MalformedChallengeException;
@@ -81,10 +85,20 @@
  * Authentication header, the charset of the username must be compatible
  * with the HTTP element charset used by the connection.
  * </p>
+ * <p>
+ * Once authenticated the scheme can be re-used preemptively for subsequent
+ * requests. Copies of the scheme made with {@link #copy()} share the nonce
+ * count of the current server nonce, so that every request sent with the same
+ * nonce carries a unique, incrementing nonce count no matter which copy
+ * generated it. A new nonce announced by the server with
+ * {@code Authentication-Info: nextnonce=...} can be applied with
+ * {@link #setNextNonce(String)}.
+ * </p>
  *
  * @since 4.0
  */
-public class DigestScheme implements AuthScheme, Serializable {
+@AuthStateCacheable
+public class DigestScheme implements CopyableAuthScheme, Serializable {
 
     private static final long serialVersionUID = 3883908186234566916L;
 
@@ -106,6 +120,8 @@ public class DigestScheme implements AuthScheme, Serializable {
     private static final int QOP_AUTH_INT = 1;
     private static final int QOP_AUTH = 2;
 
+    private static final ConcurrentMap<String, MessageDigest> DIGEST_PROTOTYPES = new ConcurrentHashMap<>();
+
     private transient Charset defaultCharset;
     private final Map<String, String> paramMap;
     private boolean complete;
@@ -113,6 +129,7 @@ public class DigestScheme implements AuthScheme, Serializable {
 
     private String lastNonce;
     private long nounceCount;
+    private AtomicLong nonceCounter;
     private String cnonce;
     private byte[] a1;
     private byte[] a2;
@@ -120,6 +137,10 @@ public class DigestScheme implements AuthScheme, Serializable {
     private String username;
     private char[] password;
 
+    private transient MessageDigest digester;
+    private transient byte[] credentialsInput;
+    private transient String credentialsDigest;
+
     public DigestScheme() {
         this(StandardCharsets.ISO_8859_1);
     }
@@ -130,6 +151,35 @@ public DigestScheme(final Charset charset) {
         this.complete = false;
     }
 
+    private DigestScheme(final DigestScheme other) {
+        this.defaultCharset = other.defaultCharset;
+        this.paramMap = new HashMap<>(other.paramMap);
+        this.complete = other.complete;
+        this.lastNonce = other.lastNonce;
+        this.nounceCount = other.nounceCount;
+        // nonce count is shared with the copy for as long as the nonce does not change
+        this.nonceCounter = other.nonceCounter;
+        this.cnonce = other.cnonce;
+        this.a1 = other.a1 != null ? other.a1.clone() : null;
+        this.a2 = other.a2 != null ? other.a2.clone() : null;
+        this.username = other.username;
+        this.password = other.password != null ? other.password.clone() : null;
+        // immutable once computed
+        this.credentialsInput = other.credentialsInput;
+        this.credentialsDigest = other.credentialsDigest;
+    }
+
+    /**
+     * Subclasses that carry additional state must override this method,
+     * otherwise the copy is an instance of {@code DigestScheme}.
+     *
+     * @since 5.2
+     */
+    @Override
+    public DigestScheme copy() {
+        return new DigestScheme(this);
+    }
+
     public void initPreemptive(final Credentials credentials, final String cnonce, final String realm) {
         Args.notNull(credentials, "Credentials");
         this.username = credentials.getUserPrincipal().getName();
@@ -138,6 +188,33 @@ public void initPreemptive(final Credentials credentials, final String cnonce, f
         this.paramMap.put("realm", realm);
     }
 
+    /**
+     * Sets the nonce to be used by subsequent requests as announced by the server
+     * with the {@code nextnonce} parameter of the {@code Authentication-Info}
+     * header. The nonce count restarts at 1 with the next request.
+     *
+     * @param nextNonce the new nonce.
+     * @return {@code true} if the nonce has been changed.
+     *
+     * @since 5.2
+     */
+    public boolean setNextNonce(final String nextNonce) {
+        if (nextNonce == null || nextNonce.isEmpty() || nextNonce.equals(this.paramMap.get("nonce"))) {
+            return false;
+        }
+        if (this.paramMap.get("realm") == null) {
+            return false;
+        }
+        this.paramMap.put("nonce", nextNonce);
+        this.paramMap.remove("stale");
+        // Start a new nonce count eagerly, so that copies made from now on share it
+        this.lastNonce = nextNonce;
+        this.nounceCount = 0;
+        this.nonceCounter = new AtomicLong(0);
+        this.cnonce = formatHex(createCnonce());
+        return true;
+    }
+
     @Override
     public String getName() {
         return StandardAuthScheme.DIGEST;
@@ -228,13 +305,66 @@ public String generateAuthResponse(
 
     private static MessageDigest createMessageDigest(
             final String digAlg) throws UnsupportedDigestAlgorithmException {
+        // Cloning a prototype is considerably cheaper than a provider lookup
+        final MessageDigest prototype = DIGEST_PROTOTYPES.get(digAlg);
+        if (prototype != null) {
+            try {
+                return (MessageDigest) prototype.clone();
+            } catch (final CloneNotSupportedException ignore) {
+                // fall back to MessageDigest#getInstance
+            }
+        }
+        final MessageDigest messageDigest;
         try {
-            return MessageDigest.getInstance(digAlg);
+            messageDigest = MessageDigest.getInstance(digAlg);
         } catch (final Exception e) {
             throw new UnsupportedDigestAlgorithmException(
               "Unsupported algorithm in HTTP Digest authentication: "
                + digAlg);
         }
+        if (prototype == null && messageDigest instanceof Cloneable) {
+            DIGEST_PROTOTYPES.putIfAbsent(digAlg, messageDigest);
+            try {
+                return (MessageDigest) messageDigest.clone();
+            } catch (final CloneNotSupportedException ignore) {
+                DIGEST_PROTOTYPES.remove(digAlg, messageDigest);
+                return createMessageDigest(digAlg);
+            }
+        }
+        return messageDigest;
+    }
+
+    private MessageDigest getMessageDigest(final String digAlg) throws UnsupportedDigestAlgorithmException {
+        if (this.digester == null || !this.digester.getAlgorithm().equalsIgnoreCase(digAlg)) {
+            this.digester = createMessageDigest(digAlg);
+        } else {
+            this.digester.reset();
+        }
+        return this.digester;
+    }
+
+    /**
+     * Returns H(unq(username-value) ":" unq(realm-value) ":" passwd) re-using
+     * the last result as long as the input is the same.
+     */
+    private String digestCredentials(final MessageDigest digester, final byte[] input) {
+        if (this.credentialsDigest == null || !Arrays.equals(input, this.credentialsInput)) {
+            this.credentialsDigest = formatHex(digester.digest(input));
+            this.credentialsInput = input;
+        }
+        return this.credentialsDigest;
+    }
+
+    private static String formatNonceCount(final long nounceCount) {
+        final String hex = Long.toHexString(nounceCount);
+        if (hex.length() >= 8) {
+            return hex;
+        }
+        final StringBuilder sb = new StringBuilder(8);
+        for (int i = hex.length(); i < 8; i++) {
+            sb.append('0');
+        }
+        return sb.append(hex).toString();
     }
 
     private String createDigestResponse(final HttpRequest request) throws AuthenticationException {
@@ -290,24 +420,24 @@ private String createDigestResponse(final HttpRequest request) throws Authentica
 
         final MessageDigest digester;
         try {
-            digester = createMessageDigest(digAlg);
+            digester = getMessageDigest(digAlg);
         } catch (final UnsupportedDigestAlgorithmException ex) {
             throw new AuthenticationException("Unsupported digest algorithm: " + digAlg);
         }
 
         if (nonce.equals(this.lastNonce)) {
-            nounceCount++;
+            if (nonceCounter == null) {
+                nonceCounter = new AtomicLong(nounceCount);
+            }
+            nounceCount = nonceCounter.incrementAndGet();
         } else {
             nounceCount = 1;
+            nonceCounter = new AtomicLong(nounceCount);
             cnonce = null;
             lastNonce = nonce;
         }
 
-        final StringBuilder sb = new StringBuilder(8);
-        try (final Formatter formatter = new Formatter(sb, Locale.ROOT)) {
-            formatter.format("%08x", nounceCount);
-        }
-        final String nc = sb.toString();
+        final String nc = formatNonceCount(nounceCount);
 
         if (cnonce == null) {
             cnonce = formatHex(createCnonce());
@@ -322,6 +452,7 @@ private String createDigestResponse(final HttpRequest request) throws Authentica
 
         a1 = null;
         a2 = null;
+        final String hasha1;
         // 3.2.2.2: Calculating digest
         if (algorithm.equalsIgnoreCase("MD5-sess")) {
             // H( unq(username-value) ":" unq(realm-value) ":" passwd )
@@ -330,16 +461,17 @@ private String createDigestResponse(final HttpRequest request) throws Authentica
 
             // calculated one per session
             buffer.append(username).append(":").append(realm).append(":").append(password);
-            final String checksum = formatHex(digester.digest(this.buffer.toByteArray()));
+            final String checksum = digestCredentials(digester, this.buffer.toByteArray());
             buffer.reset();
             buffer.append(checksum).append(":").append(nonce).append(":").append(cnonce);
+            a1 = buffer.toByteArray();
+            hasha1 = formatHex(digester.digest(a1));
         } else {
             // unq(username-value) ":" unq(realm-value) ":" passwd
             buffer.append(username).append(":").append(realm).append(":").append(password);
+            a1 = buffer.toByteArray();
+            hasha1 = digestCredentials(digester, a1);
         }
-        a1 = buffer.toByteArray();
-
-        final String hasha1 = formatHex(digester.digest(a1));
         buffer.reset();
 
         if (qop == QOP_AUTH) {
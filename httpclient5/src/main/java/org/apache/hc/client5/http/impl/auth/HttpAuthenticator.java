@@ -28,6 +28,7 @@
 package org.apache.hc.client5.http.impl.auth;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -50,6 +51,7 @@
 import org.apache.hc.core5.annotation.ThreadingBehavior;
 import org.apache.hc.core5.http.FormattedHeader;
 import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HeaderElement;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
@@ -57,6 +59,7 @@
 import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.message.MessageSupport;
 import org.apache.hc.core5.http.message.ParserCursor;
 import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.util.Asserts;
@@ -74,6 +77,9 @@ public final class HttpAuthenticator {
 
     private static final Logger DEFAULT_LOGGER = LoggerFactory.getLogger(HttpAuthenticator.class);
 
+    private static final String AUTHENTICATION_INFO = "Authentication-Info";
+    private static final String PROXY_AUTHENTICATION_INFO = "Proxy-Authentication-Info";
+
     private final Logger log;
     private final AuthChallengeParser parser;
 
@@ -136,12 +142,50 @@ public boolean isChallenged(
                 log.debug("{} Authentication succeeded", exchangeId);
             }
             authExchange.setState(AuthExchange.State.SUCCESS);
+            processAuthenticationInfo(challengeType, response, authExchange.getAuthScheme(), clientContext);
             updateCache(host, authExchange.getAuthScheme(), clientContext);
             break;
         case SUCCESS:
+            if (processAuthenticationInfo(challengeType, response, authExchange.getAuthScheme(), clientContext)) {
+                updateCache(host, authExchange.getAuthScheme(), clientContext);
+            }
             break;
         default:
             authExchange.setState(AuthExchange.State.UNCHALLENGED);
+            // auth scheme re-used preemptively
+            final AuthScheme authScheme = authExchange.getAuthScheme();
+            if (authScheme != null && processAuthenticationInfo(challengeType, response, authScheme, clientContext)) {
+                updateCache(host, authScheme, clientContext);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies the {@code nextnonce} parameter of the {@code Authentication-Info}
+     * header (RFC 7615) to the Digest scheme, so that the following requests use
+     * the nonce announced by the server instead of being challenged again.
+     */
+    private boolean processAuthenticationInfo(
+            final ChallengeType challengeType,
+            final HttpResponse response,
+            final AuthScheme authScheme,
+            final HttpClientContext clientContext) {
+        if (!(authScheme instanceof DigestScheme)) {
+            return false;
+        }
+        final Iterator<HeaderElement> it = MessageSupport.iterate(response,
+                challengeType == ChallengeType.PROXY ? PROXY_AUTHENTICATION_INFO : AUTHENTICATION_INFO);
+        while (it.hasNext()) {
+            final HeaderElement element = it.next();
+            if ("nextnonce".equalsIgnoreCase(element.getName())
+                    && ((DigestScheme) authScheme).setNextNonce(element.getValue())) {
+                if (log.isDebugEnabled()) {
+                    final String exchangeId = clientContext.getExchangeId();
+                    log.debug("{} Digest nonce updated from authentication info", exchangeId);
+                }
+                return true;
+            }
         }
         return false;
     }
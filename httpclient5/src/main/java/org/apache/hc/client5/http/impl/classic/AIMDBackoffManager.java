@@ -26,8 +26,8 @@
  */
 package org.apache.hc.client5.http.impl.classic;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.BackoffManager;
@@ -61,11 +61,10 @@ public class AIMDBackoffManager implements BackoffManager {
 
     private final ConnPoolControl<HttpRoute> connPerRoute;
     private final Clock clock;
-    private final Map<HttpRoute, Long> lastRouteProbes;
-    private final Map<HttpRoute, Long> lastRouteBackoffs;
-    private TimeValue coolDown = TimeValue.ofSeconds(5L);
-    private double backoffFactor = 0.5;
-    private int cap = 2; // Per RFC 2616 sec 8.1.4
+    private final ConcurrentMap<HttpRoute, RouteState> routeStates;
+    private volatile TimeValue coolDown = TimeValue.ofSeconds(5L);
+    private volatile double backoffFactor = 0.5;
+    private volatile int cap = 2; // Per RFC 2616 sec 8.1.4
 
     /**
      * Creates an {@code AIMDBackoffManager} to manage
@@ -81,22 +80,22 @@ public AIMDBackoffManager(final ConnPoolControl<HttpRoute> connPerRoute) {
     AIMDBackoffManager(final ConnPoolControl<HttpRoute> connPerRoute, final Clock clock) {
         this.clock = clock;
         this.connPerRoute = connPerRoute;
-        this.lastRouteProbes = new HashMap<>();
-        this.lastRouteBackoffs = new HashMap<>();
+        this.routeStates = new ConcurrentHashMap<>();
     }
 
     @Override
     public void backOff(final HttpRoute route) {
-        synchronized(connPerRoute) {
-            final int curr = connPerRoute.getMaxPerRoute(route);
-            final Long lastUpdate = getLastUpdate(lastRouteBackoffs, route);
+        // Timestamps and the pool limit are updated atomically per route
+        routeStates.compute(route, (r, state) -> {
             final long now = clock.getCurrentTime();
-            if (now - lastUpdate < coolDown.toMilliseconds()) {
-                return;
+            final RouteState current = state != null ? state : RouteState.INITIAL;
+            if (now - current.lastBackoff < coolDown.toMilliseconds()) {
+                return current;
             }
-            connPerRoute.setMaxPerRoute(route, getBackedOffPoolSize(curr));
-            lastRouteBackoffs.put(route, now);
-        }
+            final int curr = connPerRoute.getMaxPerRoute(r);
+            connPerRoute.setMaxPerRoute(r, getBackedOffPoolSize(curr));
+            return new RouteState(now, current.lastProbe);
+        });
     }
 
     private int getBackedOffPoolSize(final int curr) {
@@ -108,27 +107,32 @@ private int getBackedOffPoolSize(final int curr) {
 
     @Override
     public void probe(final HttpRoute route) {
-        synchronized(connPerRoute) {
-            final int curr = connPerRoute.getMaxPerRoute(route);
-            final int max = (curr >= cap) ? cap : curr + 1;
-            final Long lastProbe = getLastUpdate(lastRouteProbes, route);
-            final Long lastBackoff = getLastUpdate(lastRouteBackoffs, route);
+        routeStates.compute(route, (r, state) -> {
             final long now = clock.getCurrentTime();
-            if (now - lastProbe < coolDown.toMilliseconds()
-                || now - lastBackoff < coolDown.toMilliseconds()) {
-                return;
+            final RouteState current = state != null ? state : RouteState.INITIAL;
+            if (now - current.lastProbe < coolDown.toMilliseconds()
+                || now - current.lastBackoff < coolDown.toMilliseconds()) {
+                return current;
             }
-            connPerRoute.setMaxPerRoute(route, max);
-            lastRouteProbes.put(route, now);
-        }
+            final int curr = connPerRoute.getMaxPerRoute(r);
+            final int max = (curr >= cap) ? cap : curr + 1;
+            connPerRoute.setMaxPerRoute(r, max);
+            return new RouteState(current.lastBackoff, now);
+        });
     }
 
-    private Long getLastUpdate(final Map<HttpRoute, Long> updates, final HttpRoute route) {
-        Long lastUpdate = updates.get(route);
-        if (lastUpdate == null) {
-            lastUpdate = 0L;
+    private static final class RouteState {
+
+        static final RouteState INITIAL = new RouteState(0L, 0L);
+
+        final long lastBackoff;
+        final long lastProbe;
+
+        RouteState(final long lastBackoff, final long lastProbe) {
+            this.lastBackoff = lastBackoff;
+            this.lastProbe = lastProbe;
         }
-        return lastUpdate;
+
     }
 
     /**
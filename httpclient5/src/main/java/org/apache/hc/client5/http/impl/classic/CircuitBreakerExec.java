@@ -0,0 +1,112 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.classic;
+
+import java.io.IOException;
+
+import org.apache.hc.client5.http.CircuitBreakerOpenException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.impl.CircuitBreaker;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Experimental;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request execution handler in the classic request execution chain
+ * that rejects requests with {@link CircuitBreakerOpenException} while
+ * the {@link CircuitBreaker} of their route is open.
+ * <p>
+ * I/O exceptions and {@code 502}, {@code 503} or {@code 504} responses
+ * are recorded as failures, any other outcome as success.
+ * </p>
+ * <p>
+ * Further responsibilities such as communication with the opposite
+ * endpoint is delegated to the next executor in the request execution
+ * chain.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.STATELESS)
+@Experimental
+public final class CircuitBreakerExec implements ExecChainHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreakerExec.class);
+
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerExec(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = Args.notNull(circuitBreaker, "Circuit breaker");
+    }
+
+    private static boolean isFailure(final int status) {
+        return status == HttpStatus.SC_BAD_GATEWAY
+                || status == HttpStatus.SC_SERVICE_UNAVAILABLE
+                || status == HttpStatus.SC_GATEWAY_TIMEOUT;
+    }
+
+    @Override
+    public ClassicHttpResponse execute(
+            final ClassicHttpRequest request,
+            final ExecChain.Scope scope,
+            final ExecChain chain) throws IOException, HttpException {
+        Args.notNull(scope, "Scope");
+        final HttpRoute route = scope.route;
+        if (!circuitBreaker.tryAcquirePermission(route)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} circuit breaker open for route {}", scope.exchangeId, route);
+            }
+            throw new CircuitBreakerOpenException(route);
+        }
+        final ClassicHttpResponse response;
+        try {
+            response = chain.proceed(request, scope);
+        } catch (final IOException ex) {
+            circuitBreaker.onFailure(route);
+            throw ex;
+        } catch (final HttpException | RuntimeException ex) {
+            circuitBreaker.onSuccess(route);
+            throw ex;
+        }
+        if (isFailure(response.getCode())) {
+            circuitBreaker.onFailure(route);
+        } else {
+            circuitBreaker.onSuccess(route);
+        }
+        return response;
+    }
+
+}
@@ -30,6 +30,7 @@
 import java.io.IOException;
 
 import org.apache.hc.client5.http.AuthenticationStrategy;
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.RouteTracker;
 import org.apache.hc.client5.http.auth.AuthExchange;
@@ -110,6 +111,7 @@ public ClassicHttpResponse execute(
         final HttpRoute route = scope.route;
         final HttpClientContext context = scope.clientContext;
         final ExecRuntime execRuntime = scope.execRuntime;
+        final HttpClientEventListener eventListener = context.getEventListener();
 
         if (!execRuntime.isEndpointAcquired()) {
             final Object userToken = context.getUserToken();
@@ -118,11 +120,16 @@ public ClassicHttpResponse execute(
             }
             execRuntime.acquireEndpoint(exchangeId, route, userToken, context);
         }
+        boolean connecting = false;
         try {
             if (!execRuntime.isEndpointConnected()) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("{} opening connection {}", exchangeId, route);
                 }
+                if (eventListener != null) {
+                    eventListener.connectStarted(exchangeId, route, System.nanoTime());
+                    connecting = true;
+                }
 
                 final RouteTracker tracker = new RouteTracker(route);
                 int step;
@@ -178,10 +185,17 @@ public ClassicHttpResponse execute(
                     }
 
                 } while (step > HttpRouteDirector.COMPLETE);
+                if (eventListener != null) {
+                    connecting = false;
+                    eventListener.connectCompleted(exchangeId, route, System.nanoTime());
+                }
             }
             return chain.proceed(request, scope);
 
         } catch (final IOException | HttpException | RuntimeException ex) {
+            if (connecting) {
+                eventListener.connectFailed(exchangeId, route, ex, System.nanoTime());
+            }
             execRuntime.discardEndpoint();
             throw ex;
         }
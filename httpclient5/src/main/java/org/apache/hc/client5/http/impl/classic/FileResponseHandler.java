@@ -0,0 +1,106 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.classic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.entity.SyncPolicy;
+import org.apache.hc.client5.http.impl.ChannelContentWriter;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.ProtocolException;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * A {@link HttpClientResponseHandler} that writes the response body of successful (2xx)
+ * responses to a file with {@link FileChannel#transferFrom(java.nio.channels.ReadableByteChannel, long, long)}
+ * and returns the number of bytes written. If the response code was &gt;= 300, the response
+ * body is consumed and an {@link HttpResponseException} is thrown.
+ * <p>
+ * Content of a partial (206) response is written at the offset given by its
+ * {@code Content-Range} header, so that an interrupted download can be resumed by
+ * executing a {@code Range} request with the same channel. Content of a full response
+ * replaces the content of the file. The channel is not closed by the handler.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.IMMUTABLE_CONDITIONAL)
+public class FileResponseHandler implements HttpClientResponseHandler<Long> {
+
+    private final FileChannel fileChannel;
+    private final SyncPolicy syncPolicy;
+
+    /**
+     * @param fileChannel the file channel to write content to.
+     * @param syncPolicy the policy of syncing file content to the storage device.
+     */
+    public FileResponseHandler(final FileChannel fileChannel, final SyncPolicy syncPolicy) {
+        super();
+        this.fileChannel = Args.notNull(fileChannel, "File channel");
+        this.syncPolicy = syncPolicy != null ? syncPolicy : SyncPolicy.NONE;
+    }
+
+    public FileResponseHandler(final FileChannel fileChannel) {
+        this(fileChannel, SyncPolicy.NONE);
+    }
+
+    @Override
+    public Long handleResponse(final ClassicHttpResponse response) throws IOException {
+        final HttpEntity entity = response.getEntity();
+        if (response.getCode() >= HttpStatus.SC_REDIRECTION) {
+            EntityUtils.consume(entity);
+            throw new HttpResponseException(response.getCode(), response.getReasonPhrase());
+        }
+        if (entity == null) {
+            return 0L;
+        }
+        final ChannelContentWriter writer;
+        try {
+            writer = ChannelContentWriter.create(fileChannel, response, syncPolicy);
+        } catch (final ProtocolException ex) {
+            EntityUtils.consume(entity);
+            throw new ClientProtocolException(ex);
+        }
+        try (final InputStream inStream = entity.getContent()) {
+            writer.transferFrom(Channels.newChannel(inStream));
+        }
+        writer.complete();
+        return writer.getBytesWritten();
+    }
+
+}
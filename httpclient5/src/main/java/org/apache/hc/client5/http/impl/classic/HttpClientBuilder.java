@@ -38,6 +38,7 @@
 
 import org.apache.hc.client5.http.AuthenticationStrategy;
 import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRequestRetryStrategy;
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.UserTokenHandler;
@@ -53,6 +54,7 @@
 import org.apache.hc.client5.http.cookie.CookieStore;
 import org.apache.hc.client5.http.entity.InputStreamFactory;
 import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.CircuitBreaker;
 import org.apache.hc.client5.http.impl.CookieSpecSupport;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
 import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
@@ -62,6 +64,7 @@
 import org.apache.hc.client5.http.impl.DefaultUserTokenHandler;
 import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
 import org.apache.hc.client5.http.impl.NoopUserTokenHandler;
+import org.apache.hc.client5.http.impl.RetryBudget;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.auth.BasicSchemeFactory;
 import org.apache.hc.client5.http.impl.auth.DigestSchemeFactory;
@@ -201,10 +204,12 @@ private ExecInterceptorEntry(
     private LinkedList<ExecInterceptorEntry> execInterceptors;
 
     private HttpRequestRetryStrategy retryStrategy;
+    private RetryBudget retryBudget;
     private HttpRoutePlanner routePlanner;
     private RedirectStrategy redirectStrategy;
     private ConnectionBackoffStrategy connectionBackoffStrategy;
     private BackoffManager backoffManager;
+    private CircuitBreaker circuitBreaker;
     private Lookup<AuthSchemeFactory> authSchemeRegistry;
     private Lookup<CookieSpecFactory> cookieSpecRegistry;
     private LinkedHashMap<String, InputStreamFactory> contentDecoderMap;
@@ -214,6 +219,7 @@ private ExecInterceptorEntry(
     private HttpHost proxy;
     private Collection<? extends Header> defaultHeaders;
     private RequestConfig defaultRequestConfig;
+    private HttpClientEventListener eventListener;
     private boolean evictExpiredConnections;
     private boolean evictIdleConnections;
     private TimeValue maxIdleTime;
@@ -507,6 +513,20 @@ public final HttpClientBuilder setRetryStrategy(final HttpRequestRetryStrategy r
         return this;
     }
 
+    /**
+     * Assigns {@link RetryBudget} instance every request executed by the client
+     * is credited to and every retry is withdrawn from.
+     * <p>
+     * Please note this value has no effect if automatic retries are disabled.
+     * </p>
+     *
+     * @since 5.2
+     */
+    public final HttpClientBuilder setRetryBudget(final RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
     /**
      * Disables automatic request recovery and re-execution.
      */
@@ -571,6 +591,16 @@ public final HttpClientBuilder setBackoffManager(final BackoffManager backoffMan
         return this;
     }
 
+    /**
+     * Assigns {@link CircuitBreaker} instance.
+     *
+     * @since 5.2
+     */
+    public final HttpClientBuilder setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
     /**
      * Assigns default {@link CookieStore} instance which will be used for
      * request execution if not explicitly set in the client execution context.
@@ -637,6 +667,17 @@ public final HttpClientBuilder setDefaultRequestConfig(final RequestConfig confi
         return this;
     }
 
+    /**
+     * Assigns {@link HttpClientEventListener} instance to be notified of events in the life
+     * cycle of message exchanges and connections.
+     *
+     * @since 5.2
+     */
+    public final HttpClientBuilder setEventListener(final HttpClientEventListener eventListener) {
+        this.eventListener = eventListener;
+        return this;
+    }
+
     /**
      * Use system properties when creating and configuring default
      * implementations.
@@ -851,10 +892,16 @@ public CloseableHttpClient build() {
                 retryStrategyCopy = DefaultHttpRequestRetryStrategy.INSTANCE;
             }
             execChainDefinition.addFirst(
-                    new HttpRequestRetryExec(retryStrategyCopy),
+                    new HttpRequestRetryExec(retryStrategyCopy, retryBudget),
                     ChainElement.RETRY.name());
         }
 
+        // Optionally, add circuit breaker executor
+        if (this.circuitBreaker != null) {
+            execChainDefinition.addFirst(new CircuitBreakerExec(this.circuitBreaker),
+                    ChainElement.CIRCUIT_BREAKER.name());
+        }
+
         HttpRoutePlanner routePlannerCopy = this.routePlanner;
         if (routePlannerCopy == null) {
             SchemePortResolver schemePortResolverCopy = this.schemePortResolver;
@@ -999,6 +1046,7 @@ public CloseableHttpClient build() {
                 defaultCookieStore,
                 defaultCredentialsProvider,
                 defaultRequestConfig != null ? defaultRequestConfig : RequestConfig.DEFAULT,
+                eventListener,
                 closeablesCopy);
     }
 
@@ -35,6 +35,7 @@
 import org.apache.hc.client5.http.classic.ExecChain.Scope;
 import org.apache.hc.client5.http.classic.ExecChainHandler;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.RetryBudget;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.Internal;
@@ -71,11 +72,36 @@ public class HttpRequestRetryExec implements ExecChainHandler {
     private static final Logger LOG = LoggerFactory.getLogger(HttpRequestRetryExec.class);
 
     private final HttpRequestRetryStrategy retryStrategy;
+    private final RetryBudget retryBudget;
 
+    /**
+     * @param retryStrategy the retry strategy.
+     * @param retryBudget the budget every executed request is credited to and
+     *   every retry is withdrawn from; {@code null} means retries are not budgeted.
+     *
+     * @since 5.2
+     */
     public HttpRequestRetryExec(
-            final HttpRequestRetryStrategy retryStrategy) {
+            final HttpRequestRetryStrategy retryStrategy,
+            final RetryBudget retryBudget) {
          Args.notNull(retryStrategy, "retryStrategy");
          this.retryStrategy = retryStrategy;
+         this.retryBudget = retryBudget;
+    }
+
+    public HttpRequestRetryExec(
+            final HttpRequestRetryStrategy retryStrategy) {
+         this(retryStrategy, null);
+    }
+
+    private boolean acquireRetry(final String exchangeId, final HttpRoute route) {
+        if (retryBudget == null || retryBudget.tryRetry(route)) {
+            return true;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} retry denied by retry budget", exchangeId);
+        }
+        return false;
     }
 
     @Override
@@ -90,6 +116,9 @@ public ClassicHttpResponse execute(
         final HttpClientContext context = scope.clientContext;
         ClassicHttpRequest currentRequest = request;
 
+        if (retryBudget != null) {
+            retryBudget.onRequest(route);
+        }
         for (int execCount = 1;; execCount++) {
             final ClassicHttpResponse response;
             try {
@@ -105,7 +134,7 @@ public ClassicHttpResponse execute(
                     }
                     throw ex;
                 }
-                if (retryStrategy.retryRequest(request, ex, execCount, context)) {
+                if (retryStrategy.retryRequest(request, ex, execCount, context) && acquireRetry(exchangeId, route)) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("{} {}", exchangeId, ex.getMessage(), ex);
                     }
@@ -134,7 +163,7 @@ public ClassicHttpResponse execute(
                     }
                     return response;
                 }
-                if (retryStrategy.retryRequest(response, execCount, context)) {
+                if (retryStrategy.retryRequest(response, execCount, context) && acquireRetry(exchangeId, route)) {
                     final TimeValue nextInterval = retryStrategy.getRetryInterval(response, execCount, context);
                     // Make sure the retry interval does not exceed the response timeout
                     if (TimeValue.isPositive(nextInterval)) {
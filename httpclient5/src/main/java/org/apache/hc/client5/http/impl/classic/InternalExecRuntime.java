@@ -32,6 +32,7 @@
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.ExecRuntime;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -100,6 +101,10 @@ public void acquireEndpoint(
             if (log.isDebugEnabled()) {
                 log.debug("{} acquiring endpoint ({})", id, connectionRequestTimeout);
             }
+            final HttpClientEventListener eventListener = context.getEventListener();
+            if (eventListener != null) {
+                eventListener.leaseRequested(id, route, System.nanoTime());
+            }
             final LeaseRequest connRequest = manager.lease(id, route, connectionRequestTimeout, object);
             state = object;
             if (cancellableDependency != null) {
@@ -115,23 +120,37 @@ public void acquireEndpoint(
                 if (log.isDebugEnabled()) {
                     log.debug("{} acquired endpoint {}", id, ConnPoolSupport.getId(connectionEndpoint));
                 }
+                if (eventListener != null) {
+                    eventListener.leaseCompleted(id, route, System.nanoTime());
+                }
             } catch(final TimeoutException ex) {
-                throw new ConnectionRequestTimeoutException(ex.getMessage());
+                throw leaseFailed(eventListener, id, route,
+                        new ConnectionRequestTimeoutException(ex.getMessage()));
             } catch(final InterruptedException interrupted) {
                 Thread.currentThread().interrupt();
-                throw new RequestFailedException("Request aborted", interrupted);
+                throw leaseFailed(eventListener, id, route,
+                        new RequestFailedException("Request aborted", interrupted));
             } catch(final ExecutionException ex) {
                 Throwable cause = ex.getCause();
                 if (cause == null) {
                     cause = ex;
                 }
-                throw new RequestFailedException("Request execution failed", cause);
+                throw leaseFailed(eventListener, id, route,
+                        new RequestFailedException("Request execution failed", cause));
             }
         } else {
             throw new IllegalStateException("Endpoint already acquired");
         }
     }
 
+    private static <T extends Exception> T leaseFailed(
+            final HttpClientEventListener eventListener, final String id, final HttpRoute route, final T ex) {
+        if (eventListener != null) {
+            eventListener.leaseFailed(id, route, ex, System.nanoTime());
+        }
+        return ex;
+    }
+
     ConnectionEndpoint ensureValid() {
         final ConnectionEndpoint endpoint = endpointRef.get();
         if (endpoint == null) {
@@ -33,6 +33,7 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.auth.AuthSchemeFactory;
 import org.apache.hc.client5.http.auth.CredentialsProvider;
@@ -92,6 +93,7 @@ class InternalHttpClient extends CloseableHttpClient implements Configurable {
     private final CookieStore cookieStore;
     private final CredentialsProvider credentialsProvider;
     private final RequestConfig defaultConfig;
+    private final HttpClientEventListener eventListener;
     private final ConcurrentLinkedQueue<Closeable> closeables;
 
     public InternalHttpClient(
@@ -104,6 +106,7 @@ public InternalHttpClient(
             final CookieStore cookieStore,
             final CredentialsProvider credentialsProvider,
             final RequestConfig defaultConfig,
+            final HttpClientEventListener eventListener,
             final List<Closeable> closeables) {
         super();
         this.connManager = Args.notNull(connManager, "Connection manager");
@@ -115,9 +118,25 @@ public InternalHttpClient(
         this.cookieStore = cookieStore;
         this.credentialsProvider = credentialsProvider;
         this.defaultConfig = defaultConfig;
+        this.eventListener = eventListener;
         this.closeables = closeables != null ?  new ConcurrentLinkedQueue<>(closeables) : null;
     }
 
+    public InternalHttpClient(
+            final HttpClientConnectionManager connManager,
+            final HttpRequestExecutor requestExecutor,
+            final ExecChainElement execChain,
+            final HttpRoutePlanner routePlanner,
+            final Lookup<CookieSpecFactory> cookieSpecRegistry,
+            final Lookup<AuthSchemeFactory> authSchemeRegistry,
+            final CookieStore cookieStore,
+            final CredentialsProvider credentialsProvider,
+            final RequestConfig defaultConfig,
+            final List<Closeable> closeables) {
+        this(connManager, requestExecutor, execChain, routePlanner, cookieSpecRegistry, authSchemeRegistry,
+                cookieStore, credentialsProvider, defaultConfig, null, closeables);
+    }
+
     private HttpRoute determineRoute(
             final HttpHost host,
             final HttpRequest request,
@@ -142,6 +161,9 @@ private void setupContext(final HttpClientContext context) {
         if (context.getAttribute(HttpClientContext.REQUEST_CONFIG) == null) {
             context.setAttribute(HttpClientContext.REQUEST_CONFIG, this.defaultConfig);
         }
+        if (this.eventListener != null && context.getAttribute(HttpClientContext.EVENT_LISTENER) == null) {
+            context.setAttribute(HttpClientContext.EVENT_LISTENER, this.eventListener);
+        }
     }
 
     @Override
@@ -172,6 +194,9 @@ protected CloseableHttpResponse doExecute(
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} preparing request execution", exchangeId);
             }
+            if (localcontext.getEventListener() != null) {
+                localcontext.setExchangeId(exchangeId);
+            }
 
             final ExecRuntime execRuntime = new InternalExecRuntime(LOG, connManager, requestExecutor,
                     request instanceof CancellableDependency ? (CancellableDependency) request : null);
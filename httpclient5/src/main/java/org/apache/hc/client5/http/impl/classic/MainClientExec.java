@@ -29,13 +29,16 @@
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 
 import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.UserTokenHandler;
 import org.apache.hc.client5.http.classic.ExecChain;
 import org.apache.hc.client5.http.classic.ExecChainHandler;
 import org.apache.hc.client5.http.classic.ExecRuntime;
+import org.apache.hc.client5.http.entity.ObservingEntityWrapper;
 import org.apache.hc.client5.http.impl.ConnectionShutdownException;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
@@ -97,6 +100,7 @@ public ClassicHttpResponse execute(
         final HttpRoute route = scope.route;
         final HttpClientContext context = scope.clientContext;
         final ExecRuntime execRuntime = scope.execRuntime;
+        final HttpClientEventListener eventListener = context.getEventListener();
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("{} executing {}", exchangeId, new RequestLine(request));
@@ -104,7 +108,12 @@ public ClassicHttpResponse execute(
         try {
             RequestEntityProxy.enhance(request);
 
-            final ClassicHttpResponse response = execRuntime.execute(exchangeId, request, context);
+            final ClassicHttpResponse response;
+            if (eventListener != null) {
+                response = executeWithEvents(exchangeId, route, request, execRuntime, context, eventListener);
+            } else {
+                response = execRuntime.execute(exchangeId, request, context);
+            }
 
             Object userToken = context.getUserToken();
             if (userToken == null) {
@@ -134,18 +143,27 @@ public ClassicHttpResponse execute(
             if (entity == null || !entity.isStreaming()) {
                 // connection not needed and (assumed to be) in re-usable state
                 execRuntime.releaseEndpoint();
+                if (eventListener != null) {
+                    eventListener.exchangeCompleted(exchangeId, route, System.nanoTime());
+                }
                 return new CloseableHttpResponse(response, null);
             }
-            ResponseEntityProxy.enhance(response, execRuntime);
+            ResponseEntityProxy.enhance(response, execRuntime, eventListener, exchangeId, route);
             return new CloseableHttpResponse(response, execRuntime);
         } catch (final ConnectionShutdownException ex) {
             final InterruptedIOException ioex = new InterruptedIOException(
                     "Connection has been shut down");
             ioex.initCause(ex);
             execRuntime.discardEndpoint();
+            if (eventListener != null) {
+                eventListener.exchangeFailed(exchangeId, route, ioex, System.nanoTime());
+            }
             throw ioex;
         } catch (final HttpException | RuntimeException | IOException ex) {
             execRuntime.discardEndpoint();
+            if (eventListener != null) {
+                eventListener.exchangeFailed(exchangeId, route, ex, System.nanoTime());
+            }
             throw ex;
         } catch (final Error error) {
             connectionManager.close(CloseMode.IMMEDIATE);
@@ -154,4 +172,44 @@ public ClassicHttpResponse execute(
 
     }
 
+    private static ClassicHttpResponse executeWithEvents(
+            final String exchangeId,
+            final HttpRoute route,
+            final ClassicHttpRequest request,
+            final ExecRuntime execRuntime,
+            final HttpClientContext context,
+            final HttpClientEventListener eventListener) throws IOException, HttpException {
+        final HttpEntity requestEntity = request.getEntity();
+        if (requestEntity != null) {
+            request.setEntity(new ObservingEntityWrapper(requestEntity) {
+
+                @Override
+                public void writeTo(final OutputStream outStream) throws IOException {
+                    super.writeTo(outStream);
+                    eventListener.requestSent(exchangeId, route, System.nanoTime());
+                }
+
+                @Override
+                protected void contentTransferred(final long len) {
+                    eventListener.requestSent(exchangeId, route, System.nanoTime());
+                }
+
+            });
+        }
+        eventListener.requestStarted(exchangeId, route, System.nanoTime());
+        try {
+            final ClassicHttpResponse response = execRuntime.execute(exchangeId, request, context);
+            if (requestEntity == null) {
+                // A request without content is sent once its head has been flushed
+                eventListener.requestSent(exchangeId, route, System.nanoTime());
+            }
+            eventListener.responseReceived(exchangeId, route, response.getCode(), System.nanoTime());
+            return response;
+        } finally {
+            if (requestEntity != null) {
+                request.setEntity(requestEntity);
+            }
+        }
+    }
+
 }
@@ -29,11 +29,15 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.SocketException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.ExecRuntime;
 import org.apache.hc.core5.function.Supplier;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -47,17 +51,55 @@
 class ResponseEntityProxy extends HttpEntityWrapper implements EofSensorWatcher {
 
     private final ExecRuntime execRuntime;
+    private final HttpClientEventListener eventListener;
+    private final String exchangeId;
+    private final HttpRoute route;
+    private final AtomicBoolean exchangeReported;
 
     public static void enhance(final ClassicHttpResponse response, final ExecRuntime execRuntime) {
+        enhance(response, execRuntime, null, null, null);
+    }
+
+    static void enhance(
+            final ClassicHttpResponse response,
+            final ExecRuntime execRuntime,
+            final HttpClientEventListener eventListener,
+            final String exchangeId,
+            final HttpRoute route) {
         final HttpEntity entity = response.getEntity();
         if (entity != null && entity.isStreaming() && execRuntime != null) {
-            response.setEntity(new ResponseEntityProxy(entity, execRuntime));
+            response.setEntity(new ResponseEntityProxy(entity, execRuntime, eventListener, exchangeId, route));
         }
     }
 
     ResponseEntityProxy(final HttpEntity entity, final ExecRuntime execRuntime) {
+        this(entity, execRuntime, null, null, null);
+    }
+
+    ResponseEntityProxy(
+            final HttpEntity entity,
+            final ExecRuntime execRuntime,
+            final HttpClientEventListener eventListener,
+            final String exchangeId,
+            final HttpRoute route) {
         super(entity);
         this.execRuntime = execRuntime;
+        this.eventListener = eventListener;
+        this.exchangeId = exchangeId;
+        this.route = route;
+        this.exchangeReported = new AtomicBoolean(false);
+    }
+
+    private void fireExchangeCompleted() {
+        if (this.eventListener != null && this.exchangeReported.compareAndSet(false, true)) {
+            this.eventListener.exchangeCompleted(exchangeId, route, System.nanoTime());
+        }
+    }
+
+    private void fireExchangeFailed(final Exception cause) {
+        if (this.eventListener != null && this.exchangeReported.compareAndSet(false, true)) {
+            this.eventListener.exchangeFailed(exchangeId, route, cause, System.nanoTime());
+        }
     }
 
     private void cleanup() throws IOException {
@@ -69,16 +111,18 @@ private void cleanup() throws IOException {
         }
     }
 
-    private void discardConnection() {
+    private void discardConnection(final Exception cause) {
         if (this.execRuntime != null) {
             this.execRuntime.discardEndpoint();
         }
+        fireExchangeFailed(cause);
     }
 
     public void releaseConnection() {
         if (this.execRuntime != null) {
             this.execRuntime.releaseEndpoint();
         }
+        fireExchangeCompleted();
     }
 
     @Override
@@ -99,7 +143,7 @@ public void writeTo(final OutputStream outStream) throws IOException {
             }
             releaseConnection();
         } catch (final IOException | RuntimeException ex) {
-            discardConnection();
+            discardConnection(ex);
             throw ex;
         } finally {
             cleanup();
@@ -116,7 +160,7 @@ public boolean eofDetected(final InputStream wrapped) throws IOException {
             }
             releaseConnection();
         } catch (final IOException | RuntimeException ex) {
-            discardConnection();
+            discardConnection(ex);
             throw ex;
         } finally {
             cleanup();
@@ -141,7 +185,7 @@ public boolean streamClosed(final InputStream wrapped) throws IOException {
                 }
             }
         } catch (final IOException | RuntimeException ex) {
-            discardConnection();
+            discardConnection(ex);
             throw ex;
         } finally {
             cleanup();
@@ -151,10 +195,26 @@ public boolean streamClosed(final InputStream wrapped) throws IOException {
 
     @Override
     public boolean streamAbort(final InputStream wrapped) throws IOException {
+        fireExchangeFailed(new InterruptedIOException("Response content stream aborted"));
         cleanup();
         return false;
     }
 
+    /**
+     * Closes the response content. Unless the exchange has already been reported,
+     * it is reported as failed as the content has not been consumed to the end.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (this.eventListener != null && !this.exchangeReported.get()) {
+                fireExchangeFailed(new InterruptedIOException("Response content closed before end of stream"));
+            }
+        }
+    }
+
     @Override
     public Supplier<List<? extends Header>> getTrailers() {
             try {
@@ -41,6 +41,7 @@
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.ConnPoolSupport;
 import org.apache.hc.client5.http.impl.ConnectionShutdownException;
+import org.apache.hc.client5.http.impl.WireLogPolicy;
 import org.apache.hc.client5.http.io.ConnectionEndpoint;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.io.HttpClientConnectionOperator;
@@ -113,6 +114,7 @@ public class BasicHttpClientConnectionManager implements HttpClientConnectionMan
     private final AtomicBoolean closed;
 
     private volatile TimeValue validateAfterInactivity;
+    private volatile WireLogPolicy wireLogPolicy;
 
     private static Registry<ConnectionSocketFactory> getDefaultRegistry() {
         return RegistryBuilder.<ConnectionSocketFactory>create()
@@ -434,6 +436,17 @@ public void setValidateAfterInactivity(final TimeValue validateAfterInactivity)
         this.validateAfterInactivity = validateAfterInactivity;
     }
 
+    /**
+     * Sets {@link WireLogPolicy} that selects the message exchanges whose wire
+     * traffic gets logged. If not set the wire log of all exchanges is written
+     * whenever the wire logger is enabled.
+     *
+     * @since 5.2
+     */
+    public void setWireLogPolicy(final WireLogPolicy wireLogPolicy) {
+        this.wireLogPolicy = wireLogPolicy;
+    }
+
     class InternalConnectionEndpoint extends ConnectionEndpoint {
 
         private final HttpRoute route;
@@ -504,7 +517,11 @@ public ClassicHttpResponse execute(
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} Executing exchange {}", id, exchangeId);
             }
-            return requestExecutor.execute(request, getValidatedConnection(), context);
+            final ManagedHttpClientConnection connection = getValidatedConnection();
+            if (connection instanceof DefaultManagedHttpClientConnection) {
+                ((DefaultManagedHttpClientConnection) connection).applyWireLogPolicy(wireLogPolicy, route, exchangeId);
+            }
+            return requestExecutor.execute(request, connection, context);
         }
 
     }
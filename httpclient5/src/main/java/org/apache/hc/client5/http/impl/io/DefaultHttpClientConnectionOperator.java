@@ -33,11 +33,14 @@
 
 import org.apache.hc.client5.http.ConnectExceptionSupport;
 import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.SystemDefaultDnsResolver;
 import org.apache.hc.client5.http.UnsupportedSchemeException;
 import org.apache.hc.client5.http.impl.ConnPoolSupport;
 import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.EventListenerSupport;
 import org.apache.hc.client5.http.io.HttpClientConnectionOperator;
 import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
@@ -115,8 +118,21 @@ public void connect(
         if (sf == null) {
             throw new UnsupportedSchemeException(host.getSchemeName() + " protocol is not supported");
         }
-        final InetAddress[] addresses = host.getAddress() != null ?
-                new InetAddress[] { host.getAddress() } : this.dnsResolver.resolve(host.getHostName());
+        final HttpClientEventListener eventListener = EventListenerSupport.getEventListener(context);
+        final String exchangeId = eventListener != null ? EventListenerSupport.getExchangeId(context) : null;
+        final HttpRoute route = eventListener != null ? EventListenerSupport.getRoute(context) : null;
+        final InetAddress[] addresses;
+        if (host.getAddress() != null) {
+            addresses = new InetAddress[] { host.getAddress() };
+        } else {
+            if (eventListener != null) {
+                eventListener.dnsResolutionStarted(exchangeId, route, host.getHostName(), System.nanoTime());
+            }
+            addresses = this.dnsResolver.resolve(host.getHostName());
+            if (eventListener != null) {
+                eventListener.dnsResolutionCompleted(exchangeId, route, host.getHostName(), addresses, System.nanoTime());
+            }
+        }
         final int port = this.schemePortResolver.resolve(host);
         for (int i = 0; i < addresses.length; i++) {
             final InetAddress address = addresses[i];
@@ -144,14 +160,23 @@ public void connect(
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} connecting to {}", ConnPoolSupport.getId(conn), remoteAddress);
             }
+            if (eventListener != null) {
+                eventListener.socketConnectStarted(exchangeId, route, remoteAddress, System.nanoTime());
+            }
             try {
                 sock = sf.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
                 conn.bind(sock);
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("{} connection established {}", ConnPoolSupport.getId(conn), conn);
                 }
+                if (eventListener != null) {
+                    eventListener.socketConnectCompleted(exchangeId, route, remoteAddress, System.nanoTime());
+                }
                 return;
             } catch (final IOException ex) {
+                if (eventListener != null) {
+                    eventListener.socketConnectFailed(exchangeId, route, remoteAddress, ex, System.nanoTime());
+                }
                 if (last) {
                     throw ConnectExceptionSupport.enhance(ex, host, addresses);
                 }
@@ -27,27 +27,44 @@
 
 package org.apache.hc.client5.http.impl.io;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.entity.ObservingEntityWrapper;
+import org.apache.hc.client5.http.impl.Wire;
+import org.apache.hc.client5.http.impl.WireLogPolicy;
 import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.core5.function.Supplier;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ConnectionClosedException;
 import org.apache.hc.core5.http.ContentLengthStrategy;
 import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
 import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.impl.DefaultContentLengthStrategy;
 import org.apache.hc.core5.http.impl.io.DefaultBHttpClientConnection;
+import org.apache.hc.core5.http.impl.io.NoResponseOutOfOrderStrategy;
 import org.apache.hc.core5.http.impl.io.SocketHolder;
 import org.apache.hc.core5.http.io.HttpMessageParserFactory;
 import org.apache.hc.core5.http.io.HttpMessageWriterFactory;
 import org.apache.hc.core5.http.io.ResponseOutOfOrderStrategy;
+import org.apache.hc.core5.http.io.SessionOutputBuffer;
+import org.apache.hc.core5.http.io.entity.FileEntity;
 import org.apache.hc.core5.http.message.RequestLine;
 import org.apache.hc.core5.http.message.StatusLine;
 import org.apache.hc.core5.io.CloseMode;
@@ -65,8 +82,12 @@
 
     private final String id;
     private final AtomicBoolean closed;
+    private final PooledBufferAllocator bufferAllocator;
+    private final ContentLengthStrategy outgoingContentStrategy;
+    private final boolean fileTransferSupported;
 
     private Timeout socketTimeout;
+    private volatile Wire wire;
 
     public DefaultManagedHttpClientConnection(
             final String id,
@@ -77,7 +98,8 @@ public DefaultManagedHttpClientConnection(
             final ContentLengthStrategy outgoingContentStrategy,
             final ResponseOutOfOrderStrategy responseOutOfOrderStrategy,
             final HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory,
-            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory) {
+            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory,
+            final PooledBufferAllocator bufferAllocator) {
         super(
                 h1Config,
                 charDecoder,
@@ -89,6 +111,35 @@ public DefaultManagedHttpClientConnection(
                 responseParserFactory);
         this.id = id;
         this.closed = new AtomicBoolean();
+        this.bufferAllocator = bufferAllocator;
+        this.outgoingContentStrategy = outgoingContentStrategy != null ? outgoingContentStrategy :
+                DefaultContentLengthStrategy.INSTANCE;
+        // Early responses can only be detected while content is being written through the session buffer
+        this.fileTransferSupported = responseOutOfOrderStrategy == null
+                || responseOutOfOrderStrategy instanceof NoResponseOutOfOrderStrategy;
+    }
+
+    public DefaultManagedHttpClientConnection(
+            final String id,
+            final CharsetDecoder charDecoder,
+            final CharsetEncoder charEncoder,
+            final Http1Config h1Config,
+            final ContentLengthStrategy incomingContentStrategy,
+            final ContentLengthStrategy outgoingContentStrategy,
+            final ResponseOutOfOrderStrategy responseOutOfOrderStrategy,
+            final HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory,
+            final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory) {
+        this(
+                id,
+                charDecoder,
+                charEncoder,
+                h1Config,
+                incomingContentStrategy,
+                outgoingContentStrategy,
+                responseOutOfOrderStrategy,
+                requestWriterFactory,
+                responseParserFactory,
+                null);
     }
 
     public DefaultManagedHttpClientConnection(
@@ -179,10 +230,29 @@ public void close(final CloseMode closeMode) {
 
     @Override
     public void bind(final Socket socket) throws IOException {
-        super.bind(WIRE_LOG.isDebugEnabled() ? new LoggingSocketHolder(socket, this.id, WIRE_LOG) : new SocketHolder(socket));
+        if (WIRE_LOG.isDebugEnabled()) {
+            final LoggingSocketHolder socketHolder = new LoggingSocketHolder(socket, this.id, WIRE_LOG);
+            super.bind(socketHolder);
+            wire = socketHolder.getWire();
+        } else {
+            super.bind(new SocketHolder(socket));
+            wire = null;
+        }
         socketTimeout = Timeout.ofMilliseconds(socket.getSoTimeout());
     }
 
+    /**
+     * Applies the wire log policy to data subsequently transmitted over
+     * the connection. A {@code null} policy re-activates the wire log.
+     * Has no effect if wire logging is disabled.
+     */
+    void applyWireLogPolicy(final WireLogPolicy wireLogPolicy, final HttpRoute route, final String exchangeId) {
+        final Wire currentWire = wire;
+        if (currentWire != null) {
+            currentWire.setActive(wireLogPolicy == null || wireLogPolicy.isEnabled(route, exchangeId));
+        }
+    }
+
     @Override
     protected void onResponseReceived(final ClassicHttpResponse response) {
         if (response != null && HEADER_LOG.isDebugEnabled()) {
@@ -205,6 +275,70 @@ protected void onRequestSubmitted(final ClassicHttpRequest request) {
         }
     }
 
+    /**
+     * Transmits content of {@link FileEntity} with a known length directly from the file
+     * to the socket channel, if the connection is backed by a plain {@link SocketChannel}
+     * and its data are not wire logged. Otherwise the content is written through
+     * the session output buffer as usual. The file entity may be wrapped by
+     * {@link ObservingEntityWrapper}s, which get notified of the transfer.
+     */
+    @Override
+    public void sendRequestEntity(final ClassicHttpRequest request) throws HttpException, IOException {
+        final HttpEntity entity = ObservingEntityWrapper.unwrap(request.getEntity());
+        if (fileTransferSupported && entity instanceof FileEntity) {
+            final SocketChannel socketChannel = getTransferChannel(ensureOpen());
+            if (socketChannel != null) {
+                final long len = outgoingContentStrategy.determineLength(request);
+                if (len >= 0 && len == entity.getContentLength()) {
+                    transferFile((FileEntity) entity, len, socketChannel);
+                    ObservingEntityWrapper.fireContentTransferred(request.getEntity(), len);
+                    return;
+                }
+            }
+        }
+        super.sendRequestEntity(request);
+    }
+
+    private static SocketChannel getTransferChannel(final SocketHolder socketHolder) {
+        if (socketHolder instanceof LoggingSocketHolder) {
+            return null;
+        }
+        final Socket socket = socketHolder.getSocket();
+        return socket instanceof SSLSocket ? null : socket.getChannel();
+    }
+
+    private void transferFile(final FileEntity entity, final long len, final SocketChannel socketChannel) throws IOException {
+        // Request head may still be buffered
+        flush();
+        try (final FileInputStream inStream = (FileInputStream) entity.getContent();
+             final FileChannel fileChannel = inStream.getChannel()) {
+            long pos = 0;
+            while (pos < len) {
+                final long n = fileChannel.transferTo(pos, len - pos, socketChannel);
+                if (n <= 0) {
+                    throw new ConnectionClosedException(
+                            "Premature end of file content (expected: %d; transferred: %d)", len, pos);
+                }
+                pos += n;
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} {} bytes of file content transferred", this.id, len);
+        }
+    }
+
+    @Override
+    protected OutputStream createContentOutputStream(
+            final long len,
+            final SessionOutputBuffer buffer,
+            final OutputStream outputStream,
+            final Supplier<List<? extends Header>> trailers) {
+        if (len == ContentLengthStrategy.CHUNKED && bufferAllocator != null) {
+            return new PooledChunkedOutputStream(buffer, outputStream, bufferAllocator, trailers);
+        }
+        return super.createContentOutputStream(len, buffer, outputStream, trailers);
+    }
+
     @Override
     public void passivate() {
         super.setSocketTimeout(Timeout.ZERO_MILLISECONDS);
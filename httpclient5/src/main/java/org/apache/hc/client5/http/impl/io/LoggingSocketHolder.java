@@ -45,6 +45,10 @@ public LoggingSocketHolder(final Socket socket, final String id, final Logger lo
         this.wire = new Wire(log, id);
     }
 
+    Wire getWire() {
+        return wire;
+    }
+
     @Override
     protected InputStream getInputStream(final Socket socket) throws IOException {
         return new LoggingInputStream(super.getInputStream(socket), wire);
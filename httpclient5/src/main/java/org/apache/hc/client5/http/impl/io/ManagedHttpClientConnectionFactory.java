@@ -37,6 +37,7 @@
 
 import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
 import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Internal;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -50,6 +51,7 @@
 import org.apache.hc.core5.http.io.HttpMessageParserFactory;
 import org.apache.hc.core5.http.io.HttpMessageWriterFactory;
 import org.apache.hc.core5.http.io.ResponseOutOfOrderStrategy;
+import org.apache.hc.core5.util.Args;
 
 /**
  * Factory for {@link ManagedHttpClientConnection} instances.
@@ -69,6 +71,7 @@ public class ManagedHttpClientConnectionFactory implements HttpConnectionFactory
     private final ContentLengthStrategy incomingContentStrategy;
     private final ContentLengthStrategy outgoingContentStrategy;
     private final ResponseOutOfOrderStrategy responseOutOfOrderStrategy;
+    private final PooledBufferAllocator bufferAllocator;
 
     private ManagedHttpClientConnectionFactory(
             final Http1Config h1Config,
@@ -77,7 +80,8 @@ private ManagedHttpClientConnectionFactory(
             final HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory,
             final ContentLengthStrategy incomingContentStrategy,
             final ContentLengthStrategy outgoingContentStrategy,
-            final ResponseOutOfOrderStrategy responseOutOfOrderStrategy) {
+            final ResponseOutOfOrderStrategy responseOutOfOrderStrategy,
+            final PooledBufferAllocator bufferAllocator) {
         this.h1Config = h1Config != null ? h1Config : Http1Config.DEFAULT;
         this.charCodingConfig = charCodingConfig != null ? charCodingConfig : CharCodingConfig.DEFAULT;
         this.requestWriterFactory = requestWriterFactory != null ? requestWriterFactory :
@@ -90,6 +94,11 @@ private ManagedHttpClientConnectionFactory(
                 DefaultContentLengthStrategy.INSTANCE;
         this.responseOutOfOrderStrategy = responseOutOfOrderStrategy != null ? responseOutOfOrderStrategy :
                 NoResponseOutOfOrderStrategy.INSTANCE;
+        if (bufferAllocator != null && this.h1Config.getChunkSizeHint() > 0) {
+            Args.check(bufferAllocator.getBufferSize() == this.h1Config.getChunkSizeHint(),
+                    "Buffer size of the allocator must match the chunk size hint");
+        }
+        this.bufferAllocator = bufferAllocator;
     }
 
     public ManagedHttpClientConnectionFactory(
@@ -106,6 +115,7 @@ public ManagedHttpClientConnectionFactory(
                 responseParserFactory,
                 incomingContentStrategy,
                 outgoingContentStrategy,
+                null,
                 null);
     }
 
@@ -155,7 +165,8 @@ public ManagedHttpClientConnection createConnection(final Socket socket) throws
                 outgoingContentStrategy,
                 responseOutOfOrderStrategy,
                 requestWriterFactory,
-                responseParserFactory);
+                responseParserFactory,
+                bufferAllocator);
         if (socket != null) {
             conn.bind(socket);
         }
@@ -185,6 +196,7 @@ public static final class Builder {
         private ResponseOutOfOrderStrategy responseOutOfOrderStrategy;
         private HttpMessageWriterFactory<ClassicHttpRequest> requestWriterFactory;
         private HttpMessageParserFactory<ClassicHttpResponse> responseParserFactory;
+        private PooledBufferAllocator bufferAllocator;
 
         private Builder() {}
 
@@ -225,6 +237,20 @@ public Builder responseParserFactory(
             return this;
         }
 
+        /**
+         * Assigns {@link PooledBufferAllocator} shared by connections created by the factory
+         * for chunk coding of request content. By default every connection allocates buffers
+         * of its own. The buffer size of the allocator determines the chunk size and must
+         * match {@link Http1Config#getChunkSizeHint()} if the hint is set.
+         *
+         * @since 5.2
+         */
+        @Internal
+        public Builder bufferAllocator(final PooledBufferAllocator bufferAllocator) {
+            this.bufferAllocator = bufferAllocator;
+            return this;
+        }
+
         public ManagedHttpClientConnectionFactory build() {
             return new ManagedHttpClientConnectionFactory(
                     http1Config,
@@ -233,7 +259,8 @@ public ManagedHttpClientConnectionFactory build() {
                     responseParserFactory,
                     incomingContentLengthStrategy,
                     outgoingContentLengthStrategy,
-                    responseOutOfOrderStrategy);
+                    responseOutOfOrderStrategy,
+                    bufferAllocator);
         }
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Internal;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * Bounded pool of byte buffers of a fixed size shared by classic connections.
+ * <p>
+ * Connections borrow buffers for the duration of a single operation, such as
+ * transmission of a chunk coded request entity, and give them back once
+ * the operation is complete, so that idle connections hold no such buffers.
+ * Buffers given back in excess of the pool capacity are left to the garbage
+ * collector.
+ * </p>
+ * <p>
+ * Only the buffers used to chunk code request content are pooled at present; the
+ * session buffers of connections are not. This class is not a stable API.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+@Internal
+public final class PooledBufferAllocator {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_MAX_POOLED = 256;
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> pool;
+
+    /**
+     * @param bufferSize the size of buffers.
+     * @param maxPooled the maximum number of buffers kept in the pool.
+     */
+    public PooledBufferAllocator(final int bufferSize, final int maxPooled) {
+        this.bufferSize = Args.positive(bufferSize, "Buffer size");
+        this.pool = new ArrayBlockingQueue<>(Args.positive(maxPooled, "Max pooled buffers"));
+    }
+
+    public PooledBufferAllocator() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of buffers currently available in the pool.
+     */
+    public int getPooled() {
+        return pool.size();
+    }
+
+    /**
+     * Borrows a buffer from the pool or allocates a new one if the pool is empty.
+     */
+    public byte[] allocate() {
+        final byte[] buffer = pool.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * Gives the buffer back to the pool. The buffer must not be used by the caller afterwards.
+     */
+    public void release(final byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            pool.offer(buffer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[buffer size: " + bufferSize + "; pooled: " + pool.size() + "]";
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.apache.hc.core5.function.Supplier;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.impl.io.ChunkedOutputStream;
+import org.apache.hc.core5.http.io.SessionOutputBuffer;
+
+/**
+ * Chunk coded output stream that borrows its chunk buffer from
+ * a {@link PooledBufferAllocator} and gives it back once closed.
+ */
+final class PooledChunkedOutputStream extends ChunkedOutputStream {
+
+    private final PooledBufferAllocator bufferAllocator;
+    private byte[] chunkBuffer;
+
+    private PooledChunkedOutputStream(
+            final SessionOutputBuffer buffer,
+            final OutputStream outputStream,
+            final PooledBufferAllocator bufferAllocator,
+            final byte[] chunkBuffer,
+            final Supplier<List<? extends Header>> trailers) {
+        super(buffer, outputStream, chunkBuffer, trailers);
+        this.bufferAllocator = bufferAllocator;
+        this.chunkBuffer = chunkBuffer;
+    }
+
+    PooledChunkedOutputStream(
+            final SessionOutputBuffer buffer,
+            final OutputStream outputStream,
+            final PooledBufferAllocator bufferAllocator,
+            final Supplier<List<? extends Header>> trailers) {
+        this(buffer, outputStream, bufferAllocator, bufferAllocator.allocate(), trailers);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (chunkBuffer != null) {
+                bufferAllocator.release(chunkBuffer);
+                chunkBuffer = null;
+            }
+        }
+    }
+
+}
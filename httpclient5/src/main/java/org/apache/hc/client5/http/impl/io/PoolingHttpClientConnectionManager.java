@@ -41,6 +41,7 @@
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.ConnPoolSupport;
 import org.apache.hc.client5.http.impl.ConnectionShutdownException;
+import org.apache.hc.client5.http.impl.WireLogPolicy;
 import org.apache.hc.client5.http.io.ConnectionEndpoint;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.io.HttpClientConnectionOperator;
@@ -115,6 +116,7 @@
 
     private volatile Resolver<HttpRoute, SocketConfig> socketConfigResolver;
     private volatile Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver;
+    private volatile WireLogPolicy wireLogPolicy;
 
     public PoolingHttpClientConnectionManager() {
         this(RegistryBuilder.<ConnectionSocketFactory>create()
@@ -533,6 +535,17 @@ public void setConnectionConfigResolver(final Resolver<HttpRoute, ConnectionConf
         this.connectionConfigResolver = connectionConfigResolver;
     }
 
+    /**
+     * Sets {@link WireLogPolicy} that selects the message exchanges whose wire
+     * traffic gets logged. If not set the wire log of all exchanges is written
+     * whenever the wire logger is enabled.
+     *
+     * @since 5.2
+     */
+    public void setWireLogPolicy(final WireLogPolicy wireLogPolicy) {
+        this.wireLogPolicy = wireLogPolicy;
+    }
+
     /**
      * @deprecated Use custom {@link #setConnectionConfigResolver(Resolver)}
      */
@@ -641,10 +654,15 @@ public ClassicHttpResponse execute(
                 final HttpContext context) throws IOException, HttpException {
             Args.notNull(request, "HTTP request");
             Args.notNull(requestExecutor, "Request executor");
-            final ManagedHttpClientConnection connection = getValidatedPoolEntry().getConnection();
+            final PoolEntry<HttpRoute, ManagedHttpClientConnection> poolEntry = getValidatedPoolEntry();
+            final ManagedHttpClientConnection connection = poolEntry.getConnection();
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} executing exchange {} over {}", id, exchangeId, ConnPoolSupport.getId(connection));
             }
+            if (connection instanceof DefaultManagedHttpClientConnection) {
+                ((DefaultManagedHttpClientConnection) connection).applyWireLogPolicy(
+                        wireLogPolicy, poolEntry.getRoute(), exchangeId);
+            }
             return requestExecutor.execute(request, connection, context);
         }
 
@@ -31,6 +31,7 @@
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.WireLogPolicy;
 import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.LayeredConnectionSocketFactory;
@@ -81,6 +82,7 @@ public class PoolingHttpClientConnectionManagerBuilder {
     private PoolReusePolicy poolReusePolicy;
     private Resolver<HttpRoute, SocketConfig> socketConfigResolver;
     private Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver;
+    private WireLogPolicy wireLogPolicy;
 
     private boolean systemProperties;
 
@@ -203,6 +205,17 @@ public final PoolingHttpClientConnectionManagerBuilder setConnectionConfigResolv
         return this;
     }
 
+    /**
+     * Assigns {@link WireLogPolicy} that selects the message exchanges whose
+     * wire traffic gets logged.
+     *
+     * @since 5.2
+     */
+    public final PoolingHttpClientConnectionManagerBuilder setWireLogPolicy(final WireLogPolicy wireLogPolicy) {
+        this.wireLogPolicy = wireLogPolicy;
+        return this;
+    }
+
     /**
      * Sets maximum time to live for persistent connections
      */
@@ -251,6 +264,7 @@ public PoolingHttpClientConnectionManager build() {
                 connectionFactory);
         poolingmgr.setSocketConfigResolver(socketConfigResolver);
         poolingmgr.setConnectionConfigResolver(connectionConfigResolver);
+        poolingmgr.setWireLogPolicy(wireLogPolicy);
         if (maxConnTotal > 0) {
             poolingmgr.setMaxTotal(maxConnTotal);
         }
@@ -43,6 +43,8 @@
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.impl.ConnPoolSupport;
 import org.apache.hc.client5.http.impl.ConnectionShutdownException;
+import org.apache.hc.client5.http.impl.Wire;
+import org.apache.hc.client5.http.impl.WireLogPolicy;
 import org.apache.hc.client5.http.nio.AsyncClientConnectionManager;
 import org.apache.hc.client5.http.nio.AsyncClientConnectionOperator;
 import org.apache.hc.client5.http.nio.AsyncConnectionEndpoint;
@@ -118,6 +120,8 @@ public class PoolingAsyncClientConnectionManager implements AsyncClientConnectio
     private final AtomicBoolean closed;
 
     private volatile Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver;
+    private volatile WireLogPolicy wireLogPolicy;
+    private volatile boolean wireLogPolicyApplied;
 
     public PoolingAsyncClientConnectionManager() {
         this(RegistryBuilder.<TlsStrategy>create()
@@ -524,6 +528,20 @@ public void setConnectionConfigResolver(final Resolver<HttpRoute, ConnectionConf
         this.connectionConfigResolver = connectionConfigResolver;
     }
 
+    /**
+     * Sets {@link WireLogPolicy} that selects the message exchanges whose wire
+     * traffic gets logged. If not set the wire log of all exchanges is written
+     * whenever the wire logger is enabled.
+     *
+     * @since 5.2
+     */
+    public void setWireLogPolicy(final WireLogPolicy wireLogPolicy) {
+        this.wireLogPolicy = wireLogPolicy;
+        if (wireLogPolicy != null) {
+            this.wireLogPolicyApplied = true;
+        }
+    }
+
     /**
      * @deprecated Use custom {@link #setConnectionConfigResolver(Resolver)}
      */
@@ -623,15 +641,67 @@ public void execute(
                 final AsyncClientExchangeHandler exchangeHandler,
                 final HandlerFactory<AsyncPushConsumer> pushHandlerFactory,
                 final HttpContext context) {
-            final ManagedAsyncClientConnection connection = getValidatedPoolEntry().getConnection();
+            final PoolEntry<HttpRoute, ManagedAsyncClientConnection> poolEntry = getValidatedPoolEntry();
+            final ManagedAsyncClientConnection connection = poolEntry.getConnection();
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} executing exchange {} over {}", id, exchangeId, ConnPoolSupport.getId(connection));
             }
+            final WireLogPolicy policy = wireLogPolicy;
+            final HttpContext commandContext;
+            // Once a policy has been applied connections may have been muted and need
+            // re-activating even after the policy has been removed
+            if (wireLogPolicyApplied && context != null) {
+                commandContext = new WireLogContext(context,
+                        policy == null || policy.isEnabled(poolEntry.getRoute(), exchangeId));
+            } else {
+                commandContext = context;
+            }
             connection.submitCommand(
-                    new RequestExecutionCommand(exchangeHandler, pushHandlerFactory, context),
+                    new RequestExecutionCommand(exchangeHandler, pushHandlerFactory, commandContext),
                     Command.Priority.NORMAL);
         }
 
     }
 
+    /**
+     * Exposes the wire log decision for a message exchange to the I/O session
+     * without storing it in the user context.
+     */
+    static final class WireLogContext implements HttpContext {
+
+        private final HttpContext context;
+        private final Boolean wireLogActive;
+
+        WireLogContext(final HttpContext context, final boolean wireLogActive) {
+            this.context = context;
+            this.wireLogActive = wireLogActive;
+        }
+
+        @Override
+        public ProtocolVersion getProtocolVersion() {
+            return context.getProtocolVersion();
+        }
+
+        @Override
+        public void setProtocolVersion(final ProtocolVersion version) {
+            context.setProtocolVersion(version);
+        }
+
+        @Override
+        public Object getAttribute(final String id) {
+            return Wire.ACTIVE_ATTRIBUTE.equals(id) ? wireLogActive : context.getAttribute(id);
+        }
+
+        @Override
+        public Object setAttribute(final String id, final Object obj) {
+            return context.setAttribute(id, obj);
+        }
+
+        @Override
+        public Object removeAttribute(final String id) {
+            return context.removeAttribute(id);
+        }
+
+    }
+
 }
@@ -31,6 +31,7 @@
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.SchemePortResolver;
 import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.WireLogPolicy;
 import org.apache.hc.client5.http.ssl.ConscryptClientTlsStrategy;
 import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
 import org.apache.hc.core5.function.Resolver;
@@ -83,6 +84,7 @@ public class PoolingAsyncClientConnectionManagerBuilder {
 
     private Resolver<HttpRoute, SocketConfig> socketConfigResolver;
     private Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver;
+    private WireLogPolicy wireLogPolicy;
     private TimeValue timeToLive;
 
     public static PoolingAsyncClientConnectionManagerBuilder create() {
@@ -172,6 +174,17 @@ public final PoolingAsyncClientConnectionManagerBuilder setConnectionConfigResol
     }
 
 
+    /**
+     * Assigns {@link WireLogPolicy} that selects the message exchanges whose
+     * wire traffic gets logged.
+     *
+     * @since 5.2
+     */
+    public final PoolingAsyncClientConnectionManagerBuilder setWireLogPolicy(final WireLogPolicy wireLogPolicy) {
+        this.wireLogPolicy = wireLogPolicy;
+        return this;
+    }
+
     /**
      * Sets maximum time to live for persistent connections
      */
@@ -232,6 +245,7 @@ public PoolingAsyncClientConnectionManager build() {
                 schemePortResolver,
                 dnsResolver);
         poolingmgr.setConnectionConfigResolver(connectionConfigResolver);
+        poolingmgr.setWireLogPolicy(wireLogPolicy);
         if (maxConnTotal > 0) {
             poolingmgr.setMaxTotal(maxConnTotal);
         }
@@ -0,0 +1,335 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.routing;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.routing.HttpRoutePlanner;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.Experimental;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HttpRoutePlanner} decorator that spreads requests to a logical target
+ * host across all of its resolved addresses.
+ * <p>
+ * Direct routes produced by the delegate planner are rewritten to carry one
+ * specific resolved address in their target {@link HttpHost}. Since the address
+ * is a part of the route identity, both {@code PoolingHttpClientConnectionManager}
+ * and {@code PoolingAsyncClientConnectionManager} maintain a separate sub-pool
+ * per endpoint, while the original host name is still used for the
+ * {@code Host} header, SNI and hostname verification. Proxied routes and
+ * targets that resolve to a single address are passed through unchanged.
+ * </p>
+ * <p>
+ * As the per-route connection limit of the connection manager applies to each
+ * endpoint sub-pool, the effective limit for a target host is the per-route limit
+ * multiplied by the number of its resolved addresses. The per-route limit should
+ * be lowered accordingly if the total number of connections to a host matters.
+ * </p>
+ * <p>
+ * Endpoints are selected according to the {@link EndpointSelectionPolicy}.
+ * Load based policies use the leased and pending connection counts of
+ * the endpoint sub-pools reported by the {@link ConnPoolControl}.
+ * Endpoints can be temporarily ejected from the rotation with
+ * {@link #ejectEndpoint(HttpRoute)}, usually upon a connect failure, see
+ * {@code EndpointEjectionExec} and {@code AsyncEndpointEjectionExec}.
+ * If all endpoints are ejected the full set of addresses is used.
+ * </p>
+ * <p>
+ * Resolved addresses of target hosts are cached for the configured period
+ * of time, so that routes can be determined without a name lookup for every
+ * request. Failed lookups are not cached. Expired resolutions are purged once
+ * the number of cached host names reaches a fixed bound, beyond which new
+ * resolutions are not cached. Endpoints are identified by their address and port.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+@Experimental
+public class LoadBalancingRoutePlanner implements HttpRoutePlanner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadBalancingRoutePlanner.class);
+
+    static final int MAX_CACHED_RESOLUTIONS = 1024;
+
+    private final HttpRoutePlanner routePlanner;
+    private final DnsResolver dnsResolver;
+    private final ConnPoolControl<HttpRoute> connPoolControl;
+    private final EndpointSelectionPolicy selectionPolicy;
+    private final TimeValue ejectionTime;
+    private final TimeValue resolutionTtl;
+    private final ConcurrentMap<String, Resolution> resolutions;
+    private final ConcurrentMap<InetSocketAddress, Long> ejectedEndpoints;
+    private final AtomicInteger counter;
+
+    /**
+     * Creates new instance.
+     *
+     * @param routePlanner the planner of logical routes.
+     * @param dnsResolver the resolver of target host addresses. If {@code null}
+     *   {@link SystemDefaultDnsResolver} will be used.
+     * @param connPoolControl the connection pool whose per-route statistics are
+     *   used by load based policies. May be {@code null} only with
+     *   {@link EndpointSelectionPolicy#ROUND_ROBIN}.
+     * @param selectionPolicy the endpoint selection policy.
+     * @param ejectionTime the period of time an ejected endpoint is kept out of rotation.
+     * @param resolutionTtl the period of time resolved addresses of a target host are
+     *   reused for. If {@code null} 30 seconds will be used.
+     */
+    public LoadBalancingRoutePlanner(
+            final HttpRoutePlanner routePlanner,
+            final DnsResolver dnsResolver,
+            final ConnPoolControl<HttpRoute> connPoolControl,
+            final EndpointSelectionPolicy selectionPolicy,
+            final TimeValue ejectionTime,
+            final TimeValue resolutionTtl) {
+        this.routePlanner = Args.notNull(routePlanner, "Route planner");
+        this.dnsResolver = dnsResolver != null ? dnsResolver : SystemDefaultDnsResolver.INSTANCE;
+        this.selectionPolicy = selectionPolicy != null ? selectionPolicy : EndpointSelectionPolicy.ROUND_ROBIN;
+        if (this.selectionPolicy != EndpointSelectionPolicy.ROUND_ROBIN) {
+            Args.notNull(connPoolControl, "Connection pool control");
+        }
+        this.connPoolControl = connPoolControl;
+        this.ejectionTime = ejectionTime != null ? ejectionTime : TimeValue.ofSeconds(30);
+        this.resolutionTtl = resolutionTtl != null ? resolutionTtl : TimeValue.ofSeconds(30);
+        this.resolutions = new ConcurrentHashMap<>();
+        this.ejectedEndpoints = new ConcurrentHashMap<>();
+        this.counter = new AtomicInteger(0);
+    }
+
+    public LoadBalancingRoutePlanner(
+            final HttpRoutePlanner routePlanner,
+            final DnsResolver dnsResolver,
+            final ConnPoolControl<HttpRoute> connPoolControl,
+            final EndpointSelectionPolicy selectionPolicy,
+            final TimeValue ejectionTime) {
+        this(routePlanner, dnsResolver, connPoolControl, selectionPolicy, ejectionTime, null);
+    }
+
+    public LoadBalancingRoutePlanner(
+            final HttpRoutePlanner routePlanner,
+            final ConnPoolControl<HttpRoute> connPoolControl,
+            final EndpointSelectionPolicy selectionPolicy) {
+        this(routePlanner, null, connPoolControl, selectionPolicy, null, null);
+    }
+
+    @Override
+    public HttpRoute determineRoute(final HttpHost host, final HttpContext context) throws HttpException {
+        final HttpRoute route = routePlanner.determineRoute(host, context);
+        final HttpHost target = route.getTargetHost();
+        if (route.getProxyHost() != null || target.getAddress() != null) {
+            return route;
+        }
+        final long now = System.currentTimeMillis();
+        final InetAddress[] addresses;
+        try {
+            addresses = resolve(target.getHostName(), now);
+        } catch (final UnknownHostException ex) {
+            // Let the connection operator report the resolution failure
+            return route;
+        }
+        if (addresses == null || addresses.length < 2) {
+            return route;
+        }
+        final int port = target.getPort();
+        final List<HttpRoute> candidates = new ArrayList<>(addresses.length);
+        for (final InetAddress address : addresses) {
+            if (!isEjected(createEndpoint(address, port), now)) {
+                candidates.add(createRoute(route, address));
+            }
+        }
+        if (candidates.isEmpty()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} all endpoints are ejected; using all of them", target);
+            }
+            for (final InetAddress address : addresses) {
+                candidates.add(createRoute(route, address));
+            }
+        }
+        final HttpRoute selected = select(candidates);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} routed to endpoint {}", target, selected.getTargetHost().getAddress());
+        }
+        return selected;
+    }
+
+    private InetAddress[] resolve(final String hostName, final long now) throws UnknownHostException {
+        final Resolution cached = resolutions.get(hostName);
+        if (cached != null && cached.expiry > now) {
+            return cached.addresses;
+        }
+        final InetAddress[] addresses = dnsResolver.resolve(hostName);
+        if (addresses != null) {
+            if (cached == null && resolutions.size() >= MAX_CACHED_RESOLUTIONS) {
+                purgeExpired(now);
+            }
+            if (cached != null || resolutions.size() < MAX_CACHED_RESOLUTIONS) {
+                resolutions.put(hostName, new Resolution(addresses, now + resolutionTtl.toMilliseconds()));
+            }
+        }
+        return addresses;
+    }
+
+    private void purgeExpired(final long now) {
+        resolutions.values().removeIf(resolution -> resolution.expiry <= now);
+        ejectedEndpoints.values().removeIf(deadline -> deadline <= now);
+    }
+
+    private static HttpRoute createRoute(final HttpRoute route, final InetAddress address) {
+        final HttpHost target = route.getTargetHost();
+        return new HttpRoute(
+                new HttpHost(target.getSchemeName(), address, target.getHostName(), target.getPort()),
+                route.getLocalAddress(),
+                route.isSecure());
+    }
+
+    private HttpRoute select(final List<HttpRoute> candidates) {
+        final int n = candidates.size();
+        if (n == 1) {
+            return candidates.get(0);
+        }
+        switch (selectionPolicy) {
+            case LEAST_OUTSTANDING:
+                HttpRoute best = null;
+                int bestLoad = Integer.MAX_VALUE;
+                // Start at a rotating offset so that ties do not always favor the first address
+                final int offset = Math.floorMod(counter.getAndIncrement(), n);
+                for (int i = 0; i < n; i++) {
+                    final HttpRoute candidate = candidates.get((offset + i) % n);
+                    final int load = getLoad(candidate);
+                    if (load < bestLoad) {
+                        best = candidate;
+                        bestLoad = load;
+                    }
+                }
+                return best;
+            case POWER_OF_TWO_CHOICES:
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                final int first = random.nextInt(n);
+                int second = random.nextInt(n - 1);
+                if (second >= first) {
+                    second++;
+                }
+                final HttpRoute route1 = candidates.get(first);
+                final HttpRoute route2 = candidates.get(second);
+                return getLoad(route2) < getLoad(route1) ? route2 : route1;
+            default:
+                return candidates.get(Math.floorMod(counter.getAndIncrement(), n));
+        }
+    }
+
+    private int getLoad(final HttpRoute route) {
+        final PoolStats stats = connPoolControl.getStats(route);
+        return stats.getLeased() + stats.getPending();
+    }
+
+    private boolean isEjected(final InetSocketAddress endpoint, final long now) {
+        final Long deadline = ejectedEndpoints.get(endpoint);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline <= now) {
+            ejectedEndpoints.remove(endpoint, deadline);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the endpoint of the given route from the rotation for the configured
+     * ejection time. Routes that do not have a resolved target address are ignored.
+     *
+     * @param route the route whose endpoint is to be ejected.
+     */
+    public void ejectEndpoint(final HttpRoute route) {
+        if (route == null) {
+            return;
+        }
+        final InetSocketAddress endpoint = getEndpoint(route);
+        if (endpoint == null) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} ejecting endpoint {} for {}", route.getTargetHost(), endpoint, ejectionTime);
+        }
+        ejectedEndpoints.put(endpoint, System.currentTimeMillis() + ejectionTime.toMilliseconds());
+    }
+
+    /**
+     * Returns {@code true} if the endpoint of the given route is currently ejected.
+     */
+    public boolean isEjected(final HttpRoute route) {
+        final InetSocketAddress endpoint = route != null ? getEndpoint(route) : null;
+        return endpoint != null && isEjected(endpoint, System.currentTimeMillis());
+    }
+
+    private static InetSocketAddress getEndpoint(final HttpRoute route) {
+        final HttpHost target = route.getTargetHost();
+        final InetAddress address = target.getAddress();
+        return address != null ? createEndpoint(address, target.getPort()) : null;
+    }
+
+    private static InetSocketAddress createEndpoint(final InetAddress address, final int port) {
+        // The port may be left unspecified by custom route planners
+        return new InetSocketAddress(address, Math.max(port, 0));
+    }
+
+    private static final class Resolution {
+
+        final InetAddress[] addresses;
+        final long expiry;
+
+        Resolution(final InetAddress[] addresses, final long expiry) {
+            this.addresses = addresses;
+            this.expiry = expiry;
+        }
+
+    }
+
+}
@@ -30,6 +30,8 @@
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpClientTracer;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.RouteInfo;
 import org.apache.hc.client5.http.auth.AuthCache;
@@ -136,6 +138,22 @@ public class HttpClientContext extends HttpCoreContext {
      */
     public static final String EXCHANGE_ID = "http.exchange-id";
 
+    /**
+     * Attribute name of a {@link org.apache.hc.client5.http.HttpClientEventListener} object
+     * that is to be notified of events in the life cycle of the current message exchange.
+     *
+     * @since 5.2
+     */
+    public static final String EVENT_LISTENER = "http.event-listener";
+
+    /**
+     * Attribute name of a {@link org.apache.hc.client5.http.HttpClientTracer.Span} object
+     * that traces the current message exchange.
+     *
+     * @since 5.2
+     */
+    public static final String TRACE_SPAN = "http.trace-span";
+
     public static HttpClientContext adapt(final HttpContext context) {
         Args.notNull(context, "HTTP context");
         if (context instanceof HttpClientContext) {
@@ -296,4 +314,32 @@ public void setExchangeId(final String id) {
         setAttribute(EXCHANGE_ID, id);
     }
 
+    /**
+     * @since 5.2
+     */
+    public HttpClientEventListener getEventListener() {
+        return getAttribute(EVENT_LISTENER, HttpClientEventListener.class);
+    }
+
+    /**
+     * @since 5.2
+     */
+    public void setEventListener(final HttpClientEventListener eventListener) {
+        setAttribute(EVENT_LISTENER, eventListener);
+    }
+
+    /**
+     * @since 5.2
+     */
+    public HttpClientTracer.Span getTraceSpan() {
+        return getAttribute(TRACE_SPAN, HttpClientTracer.Span.class);
+    }
+
+    /**
+     * @since 5.2
+     */
+    public void setTraceSpan(final HttpClientTracer.Span span) {
+        setAttribute(TRACE_SPAN, span);
+    }
+
 }
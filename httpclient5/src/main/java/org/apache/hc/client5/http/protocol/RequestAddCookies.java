@@ -28,9 +28,17 @@
 package org.apache.hc.client5.http.protocol;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hc.client5.http.RouteInfo;
 import org.apache.hc.client5.http.cookie.StandardCookieSpec;
@@ -60,16 +68,60 @@
  * Request interceptor that matches cookies available in the current
  * {@link CookieStore} to the request being executed and generates
  * corresponding {@code Cookie} request headers.
+ * <p>
+ * Optionally the generated headers can be cached, see {@link #RequestAddCookies(int)}.
+ * Instances created with {@link #RequestAddCookies()} do not cache and keep no state.
+ * </p>
  *
  * @since 4.0
  */
-@Contract(threading = ThreadingBehavior.STATELESS)
+@Contract(threading = ThreadingBehavior.SAFE)
 public class RequestAddCookies implements HttpRequestInterceptor {
 
     private static final Logger LOG = LoggerFactory.getLogger(RequestAddCookies.class);
 
-    public RequestAddCookies() {
+    private final int maxCacheEntries;
+    private final ConcurrentMap<CacheKey, CacheEntry> cache;
+    private final AtomicLong useCounter;
+    private final AtomicBoolean evicting;
+
+    /**
+     * Creates an interceptor that caches the generated headers if the cookie store
+     * supports {@link CookieStore#getVersion() versioning}.
+     * <p>
+     * Headers are cached per cookie spec name, host, port, security and directory of
+     * the request path. A cached entry is reused without matching cookies as long as
+     * the version of the cookie store does not change, none of the matched cookies
+     * expires and the request path matches the same cookie paths as the path the entry
+     * was created for. Reused cookies are reported to the store with
+     * {@link CookieStore#markUsed(List)}. Once the cache is full the least recently
+     * used entries are evicted.
+     * </p>
+     * <p>
+     * The cache is only correct if
+     * </p>
+     * <ul>
+     * <li>the cookie specs in use match cookies by the host, port, security and
+     * path of the request only, and match paths as per RFC 6265, section 5.1.4,
+     * regardless of the execution context they are created with;</li>
+     * <li>cookies are not modified once added to the cookie store, as only the
+     * version of the store tells changes apart.</li>
+     * </ul>
+     *
+     * @param maxCacheEntries maximum number of cached cookie headers. Zero disables caching.
+     *
+     * @since 5.2
+     */
+    public RequestAddCookies(final int maxCacheEntries) {
         super();
+        this.maxCacheEntries = Args.notNegative(maxCacheEntries, "Max cache entries");
+        this.cache = maxCacheEntries > 0 ? new ConcurrentHashMap<>() : null;
+        this.useCounter = new AtomicLong();
+        this.evicting = new AtomicBoolean();
+    }
+
+    public RequestAddCookies() {
+        this(0);
     }
 
     @Override
@@ -146,39 +198,70 @@ public void process(final HttpRequest request, final EntityDetails entity, final
             return;
         }
         final CookieSpec cookieSpec = factory.create(clientContext);
-        // Get all cookies available in the HTTP state
-        final List<Cookie> cookies = cookieStore.getCookies();
-        // Find cookies matching the given origin
-        final List<Cookie> matchedCookies = new ArrayList<>();
+        final long version = cache != null ? cookieStore.getVersion() : -1;
+        final CacheKey cacheKey = version >= 0 ? new CacheKey(cookieSpecName, cookieOrigin) : null;
         final Date now = new Date();
-        boolean expired = false;
-        for (final Cookie cookie : cookies) {
-            if (!cookie.isExpired(now)) {
-                if (cookieSpec.match(cookie, cookieOrigin)) {
+        final CacheEntry cacheEntry = cacheKey != null ? cache.get(cacheKey) : null;
+        final List<Header> headers;
+        if (cacheEntry != null && cacheEntry.isValid(cookieStore, factory, version, now.getTime(), path)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} Using cached cookies for {}", exchangeId, cookieOrigin);
+            }
+            cacheEntry.lastUsed = useCounter.incrementAndGet();
+            cookieStore.markUsed(cacheEntry.cookies);
+            headers = cacheEntry.headers;
+        } else {
+            // Get all cookies available in the HTTP state that may match the origin
+            final List<Cookie> cookies = cookieStore.getCookies(cookieOrigin);
+            // Find cookies matching the given origin
+            final List<Cookie> matchedCookies = new ArrayList<>();
+            boolean expired = false;
+            long deadline = Long.MAX_VALUE;
+            final Map<String, Boolean> pathMatches = cacheKey != null ? new HashMap<>() : null;
+            for (final Cookie cookie : cookies) {
+                if (!cookie.isExpired(now)) {
+                    if (pathMatches != null) {
+                        pathMatches.computeIfAbsent(cookie.getPath(), cookiePath -> pathMatch(cookieOrigin.getPath(), cookiePath));
+                    }
+                    if (cookieSpec.match(cookie, cookieOrigin)) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("{} Cookie {} match {}", exchangeId, cookie, cookieOrigin);
+                        }
+                        matchedCookies.add(cookie);
+                        final Date expiryDate = cookie.getExpiryDate();
+                        if (expiryDate != null && expiryDate.getTime() < deadline) {
+                            deadline = expiryDate.getTime();
+                        }
+                    }
+                } else {
                     if (LOG.isDebugEnabled()) {
-                        LOG.debug("{} Cookie {} match {}", exchangeId, cookie, cookieOrigin);
+                        LOG.debug("{} Cookie {} expired", exchangeId, cookie);
                     }
-                    matchedCookies.add(cookie);
+                    expired = true;
                 }
-            } else {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("{} Cookie {} expired", exchangeId, cookie);
+            }
+            // Per RFC 6265, 5.3
+            // The user agent must evict all expired cookies if, at any time, an expired cookie
+            // exists in the cookie store
+            if (expired) {
+                cookieStore.clearExpired(now);
+            }
+            // Generate Cookie request headers
+            headers = !matchedCookies.isEmpty() ?
+                    Collections.unmodifiableList(cookieSpec.formatCookies(matchedCookies)) :
+                    Collections.emptyList();
+            if (cacheKey != null) {
+                final CacheEntry newEntry = new CacheEntry(cookieStore, factory, version, deadline, pathMatches,
+                        Collections.unmodifiableList(matchedCookies), headers);
+                newEntry.lastUsed = useCounter.incrementAndGet();
+                cache.put(cacheKey, newEntry);
+                if (cache.size() > maxCacheEntries) {
+                    evictLeastRecentlyUsed();
                 }
-                expired = true;
             }
         }
-        // Per RFC 6265, 5.3
-        // The user agent must evict all expired cookies if, at any time, an expired cookie
-        // exists in the cookie store
-        if (expired) {
-            cookieStore.clearExpired(now);
-        }
-        // Generate Cookie request headers
-        if (!matchedCookies.isEmpty()) {
-            final List<Header> headers = cookieSpec.formatCookies(matchedCookies);
-            for (final Header header : headers) {
-                request.addHeader(header);
-            }
+        for (final Header header : headers) {
+            request.addHeader(header);
         }
 
         // Stick the CookieSpec and CookieOrigin instances to the HTTP context
@@ -187,4 +270,150 @@ public void process(final HttpRequest request, final EntityDetails entity, final
         context.setAttribute(HttpClientContext.COOKIE_ORIGIN, cookieOrigin);
     }
 
+    /**
+     * Evicts the least recently used eighth of the cache entries. Only one thread
+     * evicts at a time; other threads do not wait for it.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final List<Map.Entry<CacheKey, CacheEntry>> snapshot = new ArrayList<>(cache.entrySet());
+            final int excess = snapshot.size() - maxCacheEntries + Math.max(1, maxCacheEntries / 8);
+            if (excess <= 0) {
+                return;
+            }
+            snapshot.sort((e1, e2) -> Long.compare(e1.getValue().lastUsed, e2.getValue().lastUsed));
+            for (int i = 0; i < excess && i < snapshot.size(); i++) {
+                final Map.Entry<CacheKey, CacheEntry> entry = snapshot.get(i);
+                cache.remove(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Returns the directory of the given request path as per RFC 6265, section 5.1.4,
+     * ignoring the query component.
+     */
+    static String directoryOf(final String path) {
+        int end = path.indexOf('?');
+        if (end < 0) {
+            end = path.length();
+        }
+        final int slash = end > 0 ? path.lastIndexOf('/', end - 1) : -1;
+        return slash > 0 ? path.substring(0, slash + 1) : "/";
+    }
+
+    /**
+     * Path matching as per RFC 6265, section 5.1.4.
+     */
+    static boolean pathMatch(final String uriPath, final String cookiePath) {
+        String normalizedCookiePath = cookiePath;
+        if (normalizedCookiePath == null) {
+            normalizedCookiePath = "/";
+        }
+        if (normalizedCookiePath.length() > 1 && normalizedCookiePath.endsWith("/")) {
+            normalizedCookiePath = normalizedCookiePath.substring(0, normalizedCookiePath.length() - 1);
+        }
+        if (uriPath.startsWith(normalizedCookiePath)) {
+            return normalizedCookiePath.equals("/")
+                    || uriPath.length() == normalizedCookiePath.length()
+                    || uriPath.charAt(normalizedCookiePath.length()) == '/';
+        }
+        return false;
+    }
+
+    private static final class CacheKey {
+
+        private final String cookieSpecName;
+        private final String host;
+        private final int port;
+        private final String path;
+        private final boolean secure;
+
+        CacheKey(final String cookieSpecName, final CookieOrigin origin) {
+            this.cookieSpecName = cookieSpecName;
+            this.host = origin.getHost();
+            this.port = origin.getPort();
+            this.path = directoryOf(origin.getPath());
+            this.secure = origin.isSecure();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof CacheKey) {
+                final CacheKey that = (CacheKey) obj;
+                return port == that.port && secure == that.secure && cookieSpecName.equals(that.cookieSpecName)
+                        && host.equals(that.host) && path.equals(that.path);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = cookieSpecName.hashCode();
+            hash = 31 * hash + host.hashCode();
+            hash = 31 * hash + port;
+            hash = 31 * hash + path.hashCode();
+            hash = 31 * hash + (secure ? 1 : 0);
+            return hash;
+        }
+
+    }
+
+    private static final class CacheEntry {
+
+        private final WeakReference<CookieStore> cookieStoreRef;
+        private final CookieSpecFactory factory;
+        private final long version;
+        private final long deadline;
+        private final Map<String, Boolean> pathMatches;
+        private final List<Cookie> cookies;
+        private final List<Header> headers;
+        private volatile long lastUsed;
+
+        CacheEntry(
+                final CookieStore cookieStore,
+                final CookieSpecFactory factory,
+                final long version,
+                final long deadline,
+                final Map<String, Boolean> pathMatches,
+                final List<Cookie> cookies,
+                final List<Header> headers) {
+            this.cookieStoreRef = new WeakReference<>(cookieStore);
+            this.factory = factory;
+            this.version = version;
+            this.deadline = deadline;
+            this.pathMatches = pathMatches;
+            this.cookies = cookies;
+            this.headers = headers;
+        }
+
+        boolean isValid(
+                final CookieStore cookieStore,
+                final CookieSpecFactory factory,
+                final long version,
+                final long now,
+                final String path) {
+            if (this.version != version || now >= deadline || this.factory != factory
+                    || cookieStoreRef.get() != cookieStore) {
+                return false;
+            }
+            // the path must match the same cookie paths as the one the entry was created for
+            for (final Map.Entry<String, Boolean> entry : pathMatches.entrySet()) {
+                if (pathMatch(path, entry.getKey()) != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
 }
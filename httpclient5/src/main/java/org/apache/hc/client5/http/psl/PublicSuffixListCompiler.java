@@ -0,0 +1,85 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.psl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.hc.core5.annotation.Internal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build time utility that compiles the text form of the public suffix list into
+ * the binary form read by {@link PublicSuffixMatcherLoader#getDefault()}.
+ * <p>
+ * This class is run by the build once the main classes have been compiled and is
+ * not intended for use by applications.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Internal
+public final class PublicSuffixListCompiler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublicSuffixListCompiler.class);
+
+    private PublicSuffixListCompiler() {
+    }
+
+    public static void compile(final File source, final File target) throws IOException {
+        final List<PublicSuffixList> lists;
+        try (Reader reader = new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8)) {
+            lists = new PublicSuffixListParser().parseByType(reader);
+        }
+        final PublicSuffixMatcher matcher = new PublicSuffixMatcher(lists);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+            matcher.encode(out);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: PublicSuffixListCompiler <source list> <target file>");
+        }
+        final File source = new File(args[0]);
+        if (!source.exists()) {
+            LOG.warn("Public suffix list {} not found; skipping compilation", source);
+            return;
+        }
+        compile(source, new File(args[1]));
+    }
+
+}
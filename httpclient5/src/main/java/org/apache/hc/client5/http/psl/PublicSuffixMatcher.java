@@ -26,11 +26,15 @@
  */
 package org.apache.hc.client5.http.psl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.IDN;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.hc.client5.http.utils.DnsUtils;
 import org.apache.hc.core5.annotation.Contract;
@@ -43,16 +47,26 @@
  * An up-to-date list of suffixes can be obtained from
  * <a href="http://publicsuffix.org/">publicsuffix.org</a>
  * </p>
+ * <p>
+ * Rules are compiled into an immutable trie of reversed domain labels. Lookups scan
+ * the domain name in place from its last label and do not create intermediate
+ * strings unless a label is an internationalized domain name that needs to be
+ * converted to its Unicode form.
+ * </p>
  *
  * @see PublicSuffixList
  *
  * @since 4.4
  */
-@Contract(threading = ThreadingBehavior.SAFE)
+@Contract(threading = ThreadingBehavior.IMMUTABLE)
 public final class PublicSuffixMatcher {
 
-    private final Map<String, DomainType> rules;
-    private final Map<String, DomainType> exceptions;
+    private static final String WILDCARD = "*";
+    private static final String ACE_PREFIX = "xn--";
+    private static final int MAGIC = 0x50534c54; // "PSLT"
+    private static final int FORMAT_VERSION = 1;
+
+    private final Node root;
 
     public PublicSuffixMatcher(final Collection<String> rules, final Collection<String> exceptions) {
         this(DomainType.UNKNOWN, rules, exceptions);
@@ -65,16 +79,16 @@ public PublicSuffixMatcher(
             final DomainType domainType, final Collection<String> rules, final Collection<String> exceptions) {
         Args.notNull(domainType,  "Domain type");
         Args.notNull(rules,  "Domain suffix rules");
-        this.rules = new ConcurrentHashMap<>(rules.size());
+        final NodeBuilder rootBuilder = new NodeBuilder();
         for (final String rule: rules) {
-            this.rules.put(rule, domainType);
+            rootBuilder.add(rule, domainType, false);
         }
-        this.exceptions = new ConcurrentHashMap<>();
         if (exceptions != null) {
             for (final String exception: exceptions) {
-                this.exceptions.put(exception, domainType);
+                rootBuilder.add(exception, domainType, true);
             }
         }
+        this.root = rootBuilder.build();
     }
 
     /**
@@ -82,28 +96,88 @@ public PublicSuffixMatcher(
      */
     public PublicSuffixMatcher(final Collection<PublicSuffixList> lists) {
         Args.notNull(lists,  "Domain suffix lists");
-        this.rules = new ConcurrentHashMap<>();
-        this.exceptions = new ConcurrentHashMap<>();
+        final NodeBuilder rootBuilder = new NodeBuilder();
         for (final PublicSuffixList list: lists) {
             final DomainType domainType = list.getType();
             final List<String> rules = list.getRules();
             for (final String rule: rules) {
-                this.rules.put(rule, domainType);
+                rootBuilder.add(rule, domainType, false);
             }
             final List<String> exceptions = list.getExceptions();
             if (exceptions != null) {
                 for (final String exception: exceptions) {
-                    this.exceptions.put(exception, domainType);
+                    rootBuilder.add(exception, domainType, true);
                 }
             }
         }
+        this.root = rootBuilder.build();
+    }
+
+    private PublicSuffixMatcher(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Writes the compiled form of the rules to the given output.
+     */
+    void encode(final DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        encode(root, out);
+    }
+
+    /**
+     * Reads rules previously written with {@link #encode(DataOutput)}.
+     */
+    static PublicSuffixMatcher decode(final DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid compiled public suffix list");
+        }
+        final int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported compiled public suffix list version: " + version);
+        }
+        return new PublicSuffixMatcher(decodeNode(in));
+    }
+
+    private static void encode(final Node node, final DataOutput out) throws IOException {
+        out.writeByte(node.rule != null ? node.rule.ordinal() + 1 : 0);
+        out.writeByte(node.exception != null ? node.exception.ordinal() + 1 : 0);
+        out.writeInt(node.labels.length);
+        for (int i = 0; i < node.labels.length; i++) {
+            out.writeUTF(node.labels[i]);
+            encode(node.children[i], out);
+        }
+    }
+
+    private static Node decodeNode(final DataInput in) throws IOException {
+        final DomainType rule = decodeType(in.readUnsignedByte());
+        final DomainType exception = decodeType(in.readUnsignedByte());
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid compiled public suffix list");
+        }
+        final String[] labels = new String[count];
+        final Node[] children = new Node[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = in.readUTF();
+            if (i > 0 && labels[i - 1].compareTo(labels[i]) >= 0) {
+                throw new IOException("Invalid compiled public suffix list: labels out of order");
+            }
+            children[i] = decodeNode(in);
+        }
+        return new Node(labels, children, rule, exception);
     }
 
-    private static DomainType findEntry(final Map<String, DomainType> map, final String rule) {
-        if (map == null) {
+    private static DomainType decodeType(final int code) throws IOException {
+        if (code == 0) {
             return null;
         }
-        return map.get(rule);
+        final DomainType[] types = DomainType.values();
+        if (code > types.length) {
+            throw new IOException("Invalid compiled public suffix list: unknown domain type " + code);
+        }
+        return types[code - 1];
     }
 
     private static boolean match(final DomainType domainType, final DomainType expectedType) {
@@ -138,46 +212,58 @@ public String getDomainRoot(final String domain, final DomainType expectedType)
         if (domain.startsWith(".")) {
             return null;
         }
-        String segment = DnsUtils.normalize(domain);
-        String result = null;
-        while (segment != null) {
-            // An exception rule takes priority over any other matching rule.
-            final String key = IDN.toUnicode(segment);
-            final DomainType exceptionRule = findEntry(exceptions, key);
-            if (match(exceptionRule, expectedType)) {
-                return segment;
-            }
-            final DomainType domainRule = findEntry(rules, key);
-            if (match(domainRule, expectedType)) {
-                if (domainRule == DomainType.PRIVATE) {
-                    return segment;
+        final String normalized = DnsUtils.normalize(domain);
+        // Descend the trie from the rightmost label. The deepest matching rule corresponds
+        // to the longest matching suffix. At the same depth an exception rule takes priority
+        // over an exact rule, which in turn takes priority over a wildcard rule.
+        DomainType matchType = null;
+        boolean matchException = false;
+        int matchStart = -1;
+        int end = normalized.length();
+        Node node = root;
+        for (;;) {
+            final int start = normalized.lastIndexOf('.', end - 1) + 1;
+            final Node child = node.find(normalized, start, end);
+            DomainType type = null;
+            boolean exception = false;
+            if (child != null) {
+                if (match(child.exception, expectedType)) {
+                    type = child.exception;
+                    exception = true;
+                } else if (match(child.rule, expectedType)) {
+                    type = child.rule;
                 }
-                return result;
             }
-
-            final int nextdot = segment.indexOf('.');
-            final String nextSegment = nextdot != -1 ? segment.substring(nextdot + 1) : null;
-
-            if (nextSegment != null) {
-                final DomainType wildcardDomainRule = findEntry(rules, "*." + IDN.toUnicode(nextSegment));
-                if (match(wildcardDomainRule, expectedType)) {
-                    if (wildcardDomainRule == DomainType.PRIVATE) {
-                        return segment;
-                    }
-                    return result;
-                }
+            if (type == null && node != root && node.wildcard != null && match(node.wildcard.rule, expectedType)) {
+                type = node.wildcard.rule;
+            }
+            if (type != null) {
+                matchType = type;
+                matchException = exception;
+                matchStart = start;
+            }
+            if (child == null || start == 0) {
+                break;
             }
-            result = segment;
-            segment = nextSegment;
+            node = child;
+            end = start - 1;
         }
 
-        // If no expectations then this result is good.
-        if (expectedType == null || expectedType == DomainType.UNKNOWN) {
-            return result;
+        if (matchStart == -1) {
+            // If no expectations then the last label is good.
+            if (expectedType == null || expectedType == DomainType.UNKNOWN) {
+                return normalized.substring(normalized.lastIndexOf('.') + 1);
+            }
+            // If we did have expectations apparently there was no match
+            return null;
         }
-
-        // If we did have expectations apparently there was no match
-        return null;
+        if (matchException || matchType == DomainType.PRIVATE) {
+            return normalized.substring(matchStart);
+        }
+        if (matchStart == 0) {
+            return null;
+        }
+        return normalized.substring(normalized.lastIndexOf('.', matchStart - 2) + 1);
     }
 
     /**
@@ -205,4 +291,122 @@ public boolean matches(final String domain, final DomainType expectedType) {
         return domainRoot == null;
     }
 
+    private static boolean isAsciiLabel(final String s, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) > 0x7f) {
+                return false;
+            }
+        }
+        return !s.startsWith(ACE_PREFIX, start);
+    }
+
+    private static int compare(final String label, final String s, final int start, final int end) {
+        final int len1 = label.length();
+        final int len2 = end - start;
+        final int lim = Math.min(len1, len2);
+        for (int i = 0; i < lim; i++) {
+            final char c1 = label.charAt(i);
+            final char c2 = s.charAt(start + i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Immutable trie node representing a single domain label.
+     */
+    private static final class Node {
+
+        private final String[] labels;
+        private final Node[] children;
+        private final DomainType rule;
+        private final DomainType exception;
+        private final Node wildcard;
+
+        Node(final String[] labels, final Node[] children, final DomainType rule, final DomainType exception) {
+            this.labels = labels;
+            this.children = children;
+            this.rule = rule;
+            this.exception = exception;
+            final int i = Arrays.binarySearch(labels, WILDCARD);
+            this.wildcard = i >= 0 ? children[i] : null;
+        }
+
+        Node find(final String s, final int start, final int end) {
+            if (labels.length == 0) {
+                return null;
+            }
+            if (isAsciiLabel(s, start, end)) {
+                return search(s, start, end);
+            }
+            final String key = IDN.toUnicode(s.substring(start, end));
+            return search(key, 0, key.length());
+        }
+
+        private Node search(final String key, final int start, final int end) {
+            int low = 0;
+            int high = labels.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int cmp = compare(labels[mid], key, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * Mutable trie node used while compiling the rules.
+     */
+    private static final class NodeBuilder {
+
+        private final Map<String, NodeBuilder> children = new HashMap<>();
+        private DomainType rule;
+        private DomainType exception;
+
+        void add(final String name, final DomainType domainType, final boolean isException) {
+            NodeBuilder current = this;
+            int end = name.length();
+            for (;;) {
+                final int start = name.lastIndexOf('.', end - 1) + 1;
+                final String label = name.substring(start, end);
+                NodeBuilder next = current.children.get(label);
+                if (next == null) {
+                    next = new NodeBuilder();
+                    current.children.put(label, next);
+                }
+                current = next;
+                if (start == 0) {
+                    break;
+                }
+                end = start - 1;
+            }
+            if (isException) {
+                current.exception = domainType;
+            } else {
+                current.rule = domainType;
+            }
+        }
+
+        Node build() {
+            final String[] labels = children.keySet().toArray(new String[children.size()]);
+            Arrays.sort(labels);
+            final Node[] nodes = new Node[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                nodes[i] = children.get(labels[i]).build();
+            }
+            return new Node(labels, nodes, rule, exception);
+        }
+
+    }
+
 }
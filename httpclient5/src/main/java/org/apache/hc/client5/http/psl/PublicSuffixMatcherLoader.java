@@ -26,6 +26,8 @@
  */
 package org.apache.hc.client5.http.psl;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -72,24 +74,44 @@ public static PublicSuffixMatcher load(final File file) throws IOException {
         }
     }
 
+    private static PublicSuffixMatcher loadCompiled(final URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            return PublicSuffixMatcher.decode(new DataInputStream(new BufferedInputStream(in, 65536)));
+        }
+    }
+
+    private static PublicSuffixMatcher loadDefault() {
+        // Prefer the binary form compiled at build time as it does not need to be parsed
+        final URL compiledUrl = PublicSuffixMatcherLoader.class.getResource(
+                "/mozilla/public-suffix-list.bin");
+        if (compiledUrl != null) {
+            try {
+                return loadCompiled(compiledUrl);
+            } catch (final IOException ex) {
+                LOG.warn("Failure loading compiled public suffix list from default resource", ex);
+            }
+        }
+        final URL url = PublicSuffixMatcherLoader.class.getResource(
+                "/mozilla/public-suffix-list.txt");
+        if (url != null) {
+            try {
+                return load(url);
+            } catch (final IOException ex) {
+                // Should never happen
+                LOG.warn("Failure loading public suffix list from default resource", ex);
+                return null;
+            }
+        }
+        return new PublicSuffixMatcher(DomainType.ICANN, Collections.singletonList("com"), null);
+    }
+
     private static volatile PublicSuffixMatcher DEFAULT_INSTANCE;
 
     public static PublicSuffixMatcher getDefault() {
         if (DEFAULT_INSTANCE == null) {
             synchronized (PublicSuffixMatcherLoader.class) {
                 if (DEFAULT_INSTANCE == null){
-                    final URL url = PublicSuffixMatcherLoader.class.getResource(
-                            "/mozilla/public-suffix-list.txt");
-                    if (url != null) {
-                        try {
-                            DEFAULT_INSTANCE = load(url);
-                        } catch (final IOException ex) {
-                            // Should never happen
-                            LOG.warn("Failure loading public suffix list from default resource", ex);
-                        }
-                    } else {
-                        DEFAULT_INSTANCE = new PublicSuffixMatcher(DomainType.ICANN, Collections.singletonList("com"), null);
-                    }
+                    DEFAULT_INSTANCE = loadDefault();
                 }
             }
         }
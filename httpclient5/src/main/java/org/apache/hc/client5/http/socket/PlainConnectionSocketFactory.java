@@ -30,6 +30,7 @@
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
@@ -47,7 +48,7 @@
  *
  * @since 4.3
  */
-@Contract(threading = ThreadingBehavior.STATELESS)
+@Contract(threading = ThreadingBehavior.IMMUTABLE)
 public class PlainConnectionSocketFactory implements ConnectionSocketFactory {
 
     public static final PlainConnectionSocketFactory INSTANCE = new PlainConnectionSocketFactory();
@@ -56,13 +57,28 @@ public static PlainConnectionSocketFactory getSocketFactory() {
         return INSTANCE;
     }
 
-    public PlainConnectionSocketFactory() {
+    private final boolean channelBased;
+
+    /**
+     * @param channelBased if {@code true} sockets are created by opening a {@link SocketChannel}.
+     *                     Classic connections over such sockets can transmit file content
+     *                     with {@link java.nio.channels.FileChannel#transferTo(long, long,
+     *                     java.nio.channels.WritableByteChannel)} without copying it through
+     *                     the Java heap.
+     * @since 5.2
+     */
+    public PlainConnectionSocketFactory(final boolean channelBased) {
         super();
+        this.channelBased = channelBased;
+    }
+
+    public PlainConnectionSocketFactory() {
+        this(false);
     }
 
     @Override
     public Socket createSocket(final HttpContext context) throws IOException {
-        return new Socket();
+        return channelBased ? SocketChannel.open().socket() : new Socket();
     }
 
     @Override
@@ -38,6 +38,8 @@
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSession;
 
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.routing.RoutingSupport;
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
 import org.apache.hc.core5.http.HttpHost;
@@ -66,13 +68,15 @@ abstract class AbstractClientTlsStrategy implements TlsStrategy {
     private final SSLBufferMode sslBufferManagement;
     private final HostnameVerifier hostnameVerifier;
     private final TlsSessionValidator tlsSessionValidator;
+    private final TlsSessionCache tlsSessionCache;
 
     AbstractClientTlsStrategy(
             final SSLContext sslContext,
             final String[] supportedProtocols,
             final String[] supportedCipherSuites,
             final SSLBufferMode sslBufferManagement,
-            final HostnameVerifier hostnameVerifier) {
+            final HostnameVerifier hostnameVerifier,
+            final TlsSessionCache tlsSessionCache) {
         super();
         this.sslContext = Args.notNull(sslContext, "SSL context");
         this.supportedProtocols = supportedProtocols;
@@ -80,6 +84,7 @@ abstract class AbstractClientTlsStrategy implements TlsStrategy {
         this.sslBufferManagement = sslBufferManagement != null ? sslBufferManagement : SSLBufferMode.STATIC;
         this.hostnameVerifier = hostnameVerifier != null ? hostnameVerifier : HttpsSupport.getDefaultHostnameVerifier();
         this.tlsSessionValidator = new TlsSessionValidator(LOG);
+        this.tlsSessionCache = tlsSessionCache;
     }
 
     @Override
@@ -90,7 +95,14 @@ public boolean upgrade(
             final SocketAddress remoteAddress,
             final Object attachment,
             final Timeout handshakeTimeout) {
-        tlsSession.startTls(sslContext, host, sslBufferManagement, (endpoint, sslEngine) -> {
+        // The peer port must be known for the engine to be able to resume sessions
+        final HttpHost endpoint = RoutingSupport.normalize(host, DefaultSchemePortResolver.INSTANCE);
+        if (tlsSessionCache != null) {
+            tlsSessionCache.beforeHandshake(endpoint.getHostName(), endpoint.getPort());
+        }
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        tlsSession.startTls(sslContext, endpoint, sslBufferManagement, (e, sslEngine) -> {
 
             final HttpVersionPolicy versionPolicy = attachment instanceof HttpVersionPolicy ?
                     (HttpVersionPolicy) attachment : HttpVersionPolicy.NEGOTIATE;
@@ -119,8 +131,15 @@ public boolean upgrade(
                 LOG.debug("Enabled protocols: {}", Arrays.asList(sslEngine.getEnabledProtocols()));
                 LOG.debug("Enabled cipher suites:{}", Arrays.asList(sslEngine.getEnabledCipherSuites()));
             }
-        }, (endpoint, sslEngine) -> {
-            verifySession(host.getHostName(), sslEngine.getSession());
+        }, (e, sslEngine) -> {
+            verifySession(endpoint.getHostName(), endpoint.getPort(), sslEngine.getSession());
+            if (tlsSessionCache != null) {
+                final boolean resumed = tlsSessionCache.handshakeCompleted(endpoint.getHostName(), endpoint.getPort(),
+                        sslEngine.getSession(), startTime, System.nanoTime() - start);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("{} handshake with {} completed", resumed ? "Abbreviated" : "Full", endpoint);
+                }
+            }
             final TlsDetails tlsDetails = createTlsDetails(sslEngine);
             final String negotiatedCipherSuite = sslEngine.getSession().getCipherSuite();
             if (tlsDetails != null && ApplicationProtocol.HTTP_2.id.equals(tlsDetails.getApplicationProtocol())) {
@@ -141,6 +160,20 @@ public boolean upgrade(
     protected void initializeEngine(final SSLEngine sslEngine) {
     }
 
+    private void verifySession(
+            final String hostname,
+            final int port,
+            final SSLSession sslsession) throws SSLException {
+        try {
+            verifySession(hostname, sslsession);
+        } catch (final SSLException ex) {
+            if (tlsSessionCache != null) {
+                tlsSessionCache.invalidate(hostname, port, sslsession);
+            }
+            throw ex;
+        }
+    }
+
     protected void verifySession(
             final String hostname,
             final SSLSession sslsession) throws SSLException {
@@ -0,0 +1,222 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.ssl;
+
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+
+import org.apache.hc.client5.http.psl.PublicSuffixMatcherLoader;
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HttpClientHostnameVerifier} decorator that memoizes verification results
+ * of another verifier per certificate and host name.
+ * <p>
+ * Certificates are identified by their DER encoding, which is what {@link X509Certificate#equals(Object)}
+ * and {@link X509Certificate#hashCode()} are based upon. Computing a cryptographic fingerprint
+ * would cost about as much as the verification itself. Results are retained until
+ * the certificate expires, so repeated handshakes with the same set of servers skip
+ * the extraction of subject alternative names and public suffix matching altogether.
+ * The number of retained results is bounded; the least recently used results are
+ * evicted first.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class CachingHostnameVerifier implements HttpClientHostnameVerifier {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingHostnameVerifier.class);
+
+    private final HttpClientHostnameVerifier hostnameVerifier;
+    private final int maxSize;
+    private final ReentrantLock lock;
+    private final Map<Key, Result> results;
+
+    public CachingHostnameVerifier(final HttpClientHostnameVerifier hostnameVerifier, final int maxSize) {
+        this.hostnameVerifier = Args.notNull(hostnameVerifier, "Hostname verifier");
+        this.maxSize = Args.positive(maxSize, "Max size");
+        this.lock = new ReentrantLock();
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public CachingHostnameVerifier(final HttpClientHostnameVerifier hostnameVerifier) {
+        this(hostnameVerifier, DEFAULT_MAX_SIZE);
+    }
+
+    public CachingHostnameVerifier() {
+        this(new DefaultHostnameVerifier(PublicSuffixMatcherLoader.getDefault()));
+    }
+
+    @Override
+    public boolean verify(final String host, final SSLSession session) {
+        try {
+            final Certificate[] certs = session.getPeerCertificates();
+            final X509Certificate x509 = (X509Certificate) certs[0];
+            verify(host, x509);
+            return true;
+        } catch (final SSLException ex) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(ex.getMessage(), ex);
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public void verify(final String host, final X509Certificate cert) throws SSLException {
+        final Key key = new Key(host, cert);
+        final long now = System.currentTimeMillis();
+        final Result cached;
+        lock.lock();
+        try {
+            cached = results.get(key);
+            if (cached != null && cached.expiry <= now) {
+                results.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null && cached.expiry > now) {
+            if (cached.message != null) {
+                throw new SSLPeerUnverifiedException(cached.message);
+            }
+            return;
+        }
+        Result result;
+        SSLException failure = null;
+        try {
+            hostnameVerifier.verify(host, cert);
+            result = new Result(cert.getNotAfter().getTime(), null);
+        } catch (final SSLPeerUnverifiedException ex) {
+            // Only definite verdicts get cached
+            result = new Result(cert.getNotAfter().getTime(), ex.getMessage());
+            failure = ex;
+        }
+        lock.lock();
+        try {
+            results.put(key, result);
+            if (results.size() > maxSize) {
+                final Iterator<Result> it = results.values().iterator();
+                it.next();
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the number of retained verification results.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return results.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards all retained verification results.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            results.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CachingHostnameVerifier [" + hostnameVerifier + ", size=" + size() + "]";
+    }
+
+    static final class Key {
+
+        private final String host;
+        private final X509Certificate cert;
+        private final int hashCode;
+
+        Key(final String host, final X509Certificate cert) {
+            this.host = host;
+            this.cert = cert;
+            this.hashCode = 31 * host.hashCode() + cert.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                final Key that = (Key) obj;
+                return host.equals(that.host) && cert.equals(that.cert);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    static final class Result {
+
+        final long expiry;
+        final String message;
+
+        Result(final long expiry, final String message) {
+            this.expiry = expiry;
+            this.message = message;
+        }
+
+    }
+
+}
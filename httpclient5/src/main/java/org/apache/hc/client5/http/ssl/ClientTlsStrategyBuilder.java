@@ -78,6 +78,7 @@ public static ClientTlsStrategyBuilder create() {
     private SSLBufferMode sslBufferMode;
     private HostnameVerifier hostnameVerifier;
     private Factory<SSLEngine, TlsDetails> tlsDetailsFactory;
+    private TlsSessionCache tlsSessionCache;
     private boolean systemProperties;
 
     /**
@@ -139,6 +140,16 @@ public ClientTlsStrategyBuilder setTlsDetailsFactory(final Factory<SSLEngine, Tl
         return this;
     }
 
+    /**
+     * Assigns {@link TlsSessionCache} instance used to track and resume TLS sessions.
+     *
+     * @since 5.2
+     */
+    public ClientTlsStrategyBuilder setTlsSessionCache(final TlsSessionCache tlsSessionCache) {
+        this.tlsSessionCache = tlsSessionCache;
+        return this;
+    }
+
     /**
      * Use system properties when creating and configuring default
      * implementations.
@@ -184,7 +195,8 @@ public TlsStrategy build() {
                 ciphersCopy,
                 sslBufferMode != null ? sslBufferMode : SSLBufferMode.STATIC,
                 hostnameVerifier != null ? hostnameVerifier : HttpsSupport.getDefaultHostnameVerifier(),
-                tlsDetailsFactoryCopy);
+                tlsDetailsFactoryCopy,
+                tlsSessionCache);
     }
 
 }
@@ -67,13 +67,27 @@ public static TlsStrategy getSystemDefault() {
                 HttpsSupport.getDefaultHostnameVerifier());
     }
 
+    /**
+     * @since 5.2
+     */
+    public ConscryptClientTlsStrategy(
+            final SSLContext sslContext,
+            final String[] supportedProtocols,
+            final String[] supportedCipherSuites,
+            final SSLBufferMode sslBufferManagement,
+            final HostnameVerifier hostnameVerifier,
+            final TlsSessionCache tlsSessionCache) {
+        super(sslContext, supportedProtocols, supportedCipherSuites, sslBufferManagement, hostnameVerifier,
+                tlsSessionCache);
+    }
+
     public ConscryptClientTlsStrategy(
             final SSLContext sslContext,
             final String[] supportedProtocols,
             final String[] supportedCipherSuites,
             final SSLBufferMode sslBufferManagement,
             final HostnameVerifier hostnameVerifier) {
-        super(sslContext, supportedProtocols, supportedCipherSuites, sslBufferManagement, hostnameVerifier);
+        this(sslContext, supportedProtocols, supportedCipherSuites, sslBufferManagement, hostnameVerifier, null);
     }
 
     public ConscryptClientTlsStrategy(
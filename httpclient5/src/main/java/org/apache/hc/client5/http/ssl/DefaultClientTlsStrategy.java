@@ -66,17 +66,33 @@ public static TlsStrategy getSystemDefault() {
 
     private final Factory<SSLEngine, TlsDetails> tlsDetailsFactory;
 
+    /**
+     * @since 5.2
+     */
     public DefaultClientTlsStrategy(
             final SSLContext sslContext,
             final String[] supportedProtocols,
             final String[] supportedCipherSuites,
             final SSLBufferMode sslBufferManagement,
             final HostnameVerifier hostnameVerifier,
-            final Factory<SSLEngine, TlsDetails> tlsDetailsFactory) {
-        super(sslContext, supportedProtocols, supportedCipherSuites, sslBufferManagement, hostnameVerifier);
+            final Factory<SSLEngine, TlsDetails> tlsDetailsFactory,
+            final TlsSessionCache tlsSessionCache) {
+        super(sslContext, supportedProtocols, supportedCipherSuites, sslBufferManagement, hostnameVerifier,
+                tlsSessionCache);
         this.tlsDetailsFactory = tlsDetailsFactory;
     }
 
+    public DefaultClientTlsStrategy(
+            final SSLContext sslContext,
+            final String[] supportedProtocols,
+            final String[] supportedCipherSuites,
+            final SSLBufferMode sslBufferManagement,
+            final HostnameVerifier hostnameVerifier,
+            final Factory<SSLEngine, TlsDetails> tlsDetailsFactory) {
+        this(sslContext, supportedProtocols, supportedCipherSuites, sslBufferManagement, hostnameVerifier,
+                tlsDetailsFactory, null);
+    }
+
     public DefaultClientTlsStrategy(
             final SSLContext sslContext,
             final String[] supportedProtocols,
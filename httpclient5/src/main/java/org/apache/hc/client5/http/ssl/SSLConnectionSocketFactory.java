@@ -47,6 +47,8 @@
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.impl.EventListenerSupport;
 import org.apache.hc.client5.http.socket.LayeredConnectionSocketFactory;
 import org.apache.hc.core5.annotation.Contract;
 import org.apache.hc.core5.annotation.ThreadingBehavior;
@@ -126,6 +128,7 @@ static boolean isWeakCipherSuite(final String cipherSuite) {
     private final String[] supportedProtocols;
     private final String[] supportedCipherSuites;
     private final TlsSessionValidator tlsSessionValidator;
+    private final TlsSessionCache tlsSessionCache;
 
     public SSLConnectionSocketFactory(final SSLContext sslContext) {
         this(sslContext, HttpsSupport.getDefaultHostnameVerifier());
@@ -169,11 +172,24 @@ public SSLConnectionSocketFactory(
             final String[] supportedProtocols,
             final String[] supportedCipherSuites,
             final HostnameVerifier hostnameVerifier) {
+        this(socketFactory, supportedProtocols, supportedCipherSuites, hostnameVerifier, null);
+    }
+
+    /**
+     * @since 5.2
+     */
+    public SSLConnectionSocketFactory(
+            final javax.net.ssl.SSLSocketFactory socketFactory,
+            final String[] supportedProtocols,
+            final String[] supportedCipherSuites,
+            final HostnameVerifier hostnameVerifier,
+            final TlsSessionCache tlsSessionCache) {
         this.socketFactory = Args.notNull(socketFactory, "SSL socket factory");
         this.supportedProtocols = supportedProtocols;
         this.supportedCipherSuites = supportedCipherSuites;
         this.hostnameVerifier = hostnameVerifier != null ? hostnameVerifier : HttpsSupport.getDefaultHostnameVerifier();
         this.tlsSessionValidator = new TlsSessionValidator(LOG);
+        this.tlsSessionCache = tlsSessionCache;
     }
 
     /**
@@ -230,9 +246,7 @@ public Socket connectSocket(
         // Setup SSL layering if necessary
         if (sock instanceof SSLSocket) {
             final SSLSocket sslsock = (SSLSocket) sock;
-            LOG.debug("Starting handshake");
-            sslsock.startHandshake();
-            verifyHostname(sslsock, host.getHostName());
+            handshake(sslsock, host.getHostName(), remoteAddress.getPort(), context);
             return sock;
         }
         return createLayeredSocket(sock, host.getHostName(), remoteAddress.getPort(), context);
@@ -266,13 +280,50 @@ public Socket createLayeredSocket(
         }
 
         prepareSocket(sslsock);
+        handshake(sslsock, target, port, context);
+        return sslsock;
+    }
+
+    private void handshake(
+            final SSLSocket sslsock,
+            final String hostname,
+            final int port,
+            final HttpContext context) throws IOException {
+        if (tlsSessionCache != null) {
+            tlsSessionCache.beforeHandshake(hostname, port);
+        }
+        final HttpClientEventListener eventListener = EventListenerSupport.getEventListener(context);
+        final long startTime = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        if (eventListener != null) {
+            eventListener.tlsHandshakeStarted(EventListenerSupport.getExchangeId(context),
+                    EventListenerSupport.getRoute(context), hostname, start);
+        }
         LOG.debug("Starting handshake");
         sslsock.startHandshake();
-        verifyHostname(sslsock, target);
-        return sslsock;
+        final SSLSession session;
+        try {
+            session = verifyHostname(sslsock, hostname);
+        } catch (final IOException ex) {
+            if (tlsSessionCache != null) {
+                tlsSessionCache.invalidate(hostname, port, sslsock.getSession());
+            }
+            throw ex;
+        }
+        if (tlsSessionCache != null) {
+            final boolean resumed = tlsSessionCache.handshakeCompleted(
+                    hostname, port, session, startTime, System.nanoTime() - start);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} handshake with {}:{} completed", resumed ? "Abbreviated" : "Full", hostname, port);
+            }
+        }
+        if (eventListener != null) {
+            eventListener.tlsHandshakeCompleted(EventListenerSupport.getExchangeId(context),
+                    EventListenerSupport.getRoute(context), hostname, System.nanoTime());
+        }
     }
 
-    private void verifyHostname(final SSLSocket sslsock, final String hostname) throws IOException {
+    private SSLSession verifyHostname(final SSLSocket sslsock, final String hostname) throws IOException {
         try {
             SSLSession session = sslsock.getSession();
             if (session == null) {
@@ -295,6 +346,7 @@ private void verifyHostname(final SSLSocket sslsock, final String hostname) thro
                 throw new SSLHandshakeException("SSL session not available");
             }
             verifySession(hostname, session);
+            return session;
         } catch (final IOException iox) {
             // close the socket before re-throwing the exception
             Closer.closeQuietly(sslsock);
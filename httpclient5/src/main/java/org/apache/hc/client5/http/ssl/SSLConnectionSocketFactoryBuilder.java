@@ -69,6 +69,7 @@ public static SSLConnectionSocketFactoryBuilder create() {
     private String[] tlsVersions;
     private String[] ciphers;
     private HostnameVerifier hostnameVerifier;
+    private TlsSessionCache tlsSessionCache;
     private boolean systemProperties;
 
     /**
@@ -115,6 +116,16 @@ public SSLConnectionSocketFactoryBuilder setHostnameVerifier(final HostnameVerif
         return this;
     }
 
+    /**
+     * Assigns {@link TlsSessionCache} instance used to track and resume TLS sessions.
+     *
+     * @since 5.2
+     */
+    public SSLConnectionSocketFactoryBuilder setTlsSessionCache(final TlsSessionCache tlsSessionCache) {
+        this.tlsSessionCache = tlsSessionCache;
+        return this;
+    }
+
     /**
      * Use system properties when creating and configuring default
      * implementations.
@@ -151,7 +162,8 @@ public SSLConnectionSocketFactory build() {
                 socketFactory,
                 tlsVersionsCopy,
                 ciphersCopy,
-                hostnameVerifier != null ? hostnameVerifier : HttpsSupport.getDefaultHostnameVerifier());
+                hostnameVerifier != null ? hostnameVerifier : HttpsSupport.getDefaultHostnameVerifier(),
+                tlsSessionCache);
     }
 
 }
@@ -0,0 +1,317 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.ssl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.hc.core5.annotation.Contract;
+import org.apache.hc.core5.annotation.ThreadingBehavior;
+import org.apache.hc.core5.util.Args;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * Client side TLS session cache that keeps track of the most recent TLS session
+ * established with each target endpoint, identified by its host name (which is
+ * also the SNI host name) and port.
+ * <p>
+ * JSSE resumes sessions out of the client session context of the {@link javax.net.ssl.SSLContext}
+ * only if sockets and engines are created with the peer host and port. This cache makes
+ * sure the session context is large enough and enforces the configured session lifetime,
+ * invalidating sessions that exceed it before a new handshake with the same endpoint
+ * is attempted. Sessions that fail verification are invalidated so they never get resumed.
+ * </p>
+ * <p>
+ * The cache also counts abbreviated (resumed) and full handshakes and their cumulative
+ * duration, which makes it possible to tell whether session resumption actually happens.
+ * </p>
+ *
+ * @since 5.2
+ */
+@Contract(threading = ThreadingBehavior.SAFE)
+public final class TlsSessionCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    public static final TimeValue DEFAULT_SESSION_LIFETIME = TimeValue.ofHours(24);
+
+    private final int maxSize;
+    private final TimeValue sessionLifetime;
+    private final ReentrantLock lock;
+    private final Map<String, Entry> entries;
+    private final AtomicLong resumedCount;
+    private final AtomicLong fullCount;
+    private final AtomicLong resumedNanos;
+    private final AtomicLong fullNanos;
+    private volatile SSLSessionContext sessionContext;
+
+    public TlsSessionCache(final int maxSize, final TimeValue sessionLifetime) {
+        this.maxSize = Args.positive(maxSize, "Max size");
+        this.sessionLifetime = Args.notNull(sessionLifetime, "Session lifetime");
+        Args.check(sessionLifetime.toSeconds() > 0, "Session lifetime must be at least one second");
+        this.lock = new ReentrantLock();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.resumedCount = new AtomicLong();
+        this.fullCount = new AtomicLong();
+        this.resumedNanos = new AtomicLong();
+        this.fullNanos = new AtomicLong();
+    }
+
+    public TlsSessionCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_SESSION_LIFETIME);
+    }
+
+    static String key(final String host, final int port) {
+        return host.toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    /**
+     * Prepares the cache for a TLS handshake with the given endpoint. A session
+     * previously established with the endpoint is invalidated if it has outlived
+     * the configured session lifetime.
+     *
+     * @param host the target host name.
+     * @param port the target port.
+     */
+    public void beforeHandshake(final String host, final int port) {
+        Args.notNull(host, "Host");
+        final SSLSession expired;
+        lock.lock();
+        try {
+            final String key = key(host, port);
+            final Entry entry = entries.get(key);
+            if (entry != null && isExpired(entry.session, System.currentTimeMillis())) {
+                entries.remove(key);
+                expired = entry.session;
+            } else {
+                expired = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (expired != null) {
+            expired.invalidate();
+        }
+    }
+
+    /**
+     * Records a successfully verified TLS handshake with the given endpoint.
+     *
+     * @param host the target host name.
+     * @param port the target port.
+     * @param session the negotiated session.
+     * @param startTime the time the handshake started at, as reported by
+     *                  {@link System#currentTimeMillis()}.
+     * @param duration the handshake duration in nanoseconds.
+     * @return {@code true} if the session has been resumed, {@code false} if
+     * a full handshake took place.
+     */
+    public boolean handshakeCompleted(
+            final String host,
+            final int port,
+            final SSLSession session,
+            final long startTime,
+            final long duration) {
+        Args.notNull(host, "Host");
+        Args.notNull(session, "SSL session");
+        configure(session.getSessionContext());
+        final boolean resumed;
+        lock.lock();
+        try {
+            final Entry entry = entries.get(key(host, port));
+            resumed = session.getCreationTime() < startTime
+                    || entry != null && (entry.session == session || entry.hasId(session.getId()));
+            entries.put(key(host, port), new Entry(session));
+            if (entries.size() > maxSize) {
+                final Iterator<Entry> it = entries.values().iterator();
+                it.next();
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (resumed) {
+            resumedCount.incrementAndGet();
+            resumedNanos.addAndGet(duration);
+        } else {
+            fullCount.incrementAndGet();
+            fullNanos.addAndGet(duration);
+        }
+        return resumed;
+    }
+
+    /**
+     * Invalidates the session established with the given endpoint, if any, and the
+     * given session, which is typically one that failed verification.
+     *
+     * @param host the target host name.
+     * @param port the target port.
+     * @param session the session to invalidate. May be {@code null}.
+     */
+    public void invalidate(final String host, final int port, final SSLSession session) {
+        Args.notNull(host, "Host");
+        final Entry entry;
+        lock.lock();
+        try {
+            entry = entries.remove(key(host, port));
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null) {
+            entry.session.invalidate();
+        }
+        if (session != null) {
+            session.invalidate();
+        }
+    }
+
+    /**
+     * Invalidates all sessions tracked by this cache.
+     */
+    public void clear() {
+        final Entry[] removed;
+        lock.lock();
+        try {
+            removed = entries.values().toArray(new Entry[entries.size()]);
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (final Entry entry : removed) {
+            entry.session.invalidate();
+        }
+    }
+
+    /**
+     * Returns the number of endpoints the cache tracks a session for.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public TimeValue getSessionLifetime() {
+        return sessionLifetime;
+    }
+
+    /**
+     * Returns the number of abbreviated handshakes that resumed a previous session.
+     */
+    public long getResumedHandshakeCount() {
+        return resumedCount.get();
+    }
+
+    /**
+     * Returns the number of full handshakes.
+     */
+    public long getFullHandshakeCount() {
+        return fullCount.get();
+    }
+
+    /**
+     * Returns the cumulative duration of abbreviated handshakes.
+     */
+    public TimeValue getResumedHandshakeTime() {
+        return TimeValue.of(resumedNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the cumulative duration of full handshakes.
+     */
+    public TimeValue getFullHandshakeTime() {
+        return TimeValue.of(fullNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the ratio of resumed handshakes to all handshakes or {@code 0}
+     * if no handshake has been recorded yet.
+     */
+    public double getHitRate() {
+        final long resumed = resumedCount.get();
+        final long total = resumed + fullCount.get();
+        return total > 0 ? (double) resumed / total : 0;
+    }
+
+    private boolean isExpired(final SSLSession session, final long now) {
+        return !session.isValid() || now - session.getCreationTime() >= sessionLifetime.toMilliseconds();
+    }
+
+    private void configure(final SSLSessionContext context) {
+        if (context == null || context == sessionContext) {
+            return;
+        }
+        final int cacheSize = context.getSessionCacheSize();
+        if (cacheSize > 0 && cacheSize < maxSize) {
+            context.setSessionCacheSize(maxSize);
+        }
+        final long timeout = sessionLifetime.toSeconds();
+        final int sessionTimeout = context.getSessionTimeout();
+        if (sessionTimeout == 0 || sessionTimeout > timeout) {
+            context.setSessionTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
+        }
+        sessionContext = context;
+    }
+
+    @Override
+    public String toString() {
+        return "[resumed=" + resumedCount.get() + ", full=" + fullCount.get() + ", size=" + size() + "]";
+    }
+
+    static final class Entry {
+
+        final SSLSession session;
+        final byte[] id;
+
+        Entry(final SSLSession session) {
+            this.session = session;
+            this.id = session.getId();
+        }
+
+        boolean hasId(final byte[] otherId) {
+            return id != null && id.length > 0 && Arrays.equals(id, otherId);
+        }
+
+    }
+
+}
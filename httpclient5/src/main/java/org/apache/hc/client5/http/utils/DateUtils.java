@@ -29,6 +29,7 @@
 
 import java.lang.ref.SoftReference;
 import java.text.ParsePosition;
+import java.time.Instant;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -45,6 +46,11 @@
  * A utility class for parsing and formatting HTTP dates as used in cookies and
  * other headers.  This class handles dates as defined by RFC 2616 section
  * 3.3.1 as well as some other common non-standard formats.
+ * <p>
+ * Dates in the standard RFC 1123, RFC 1036 and ANSI C {@code asctime()} formats
+ * are parsed and RFC 1123 dates are formatted without the use of
+ * {@link SimpleDateFormat}; other inputs fall back to the pattern based parser.
+ * </p>
  *
  * @since 4.3
  */
@@ -84,6 +90,79 @@ public final class DateUtils {
         DEFAULT_TWO_DIGIT_YEAR_START = calendar.getTime();
     }
 
+    private static final String[] MONTHS = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+    private static final String[] DAYS = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+
+    private static final String[] LONG_DAYS = {
+            "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday" };
+
+    // Dates before the Gregorian cutover and years with more than four digits
+    // are left to SimpleDateFormat
+    private static final int MIN_YEAR = 1600;
+    private static final int MAX_YEAR = 9999;
+
+    private static volatile FormattedDate lastFormattedDate = new FormattedDate(Long.MIN_VALUE, null);
+
+    /**
+     * Parses a date value in one of the standard formats: RFC 1123, RFC 1036 or
+     * ANSI C {@code asctime()}.
+     *
+     * @param dateValue the date value to parse
+     *
+     * @return the parsed instant or null if input could not be parsed
+     *
+     * @since 5.2
+     */
+    public static Instant parseStandardDate(final String dateValue) {
+        final String v = trimQuotes(Args.notNull(dateValue, "Date value"));
+        final long epochSecond = parseStandard(v);
+        if (epochSecond != Long.MIN_VALUE) {
+            return Instant.ofEpochSecond(epochSecond);
+        }
+        final Date date = parse(v, DEFAULT_PATTERNS, DEFAULT_TWO_DIGIT_YEAR_START);
+        return date != null ? date.toInstant() : null;
+    }
+
+    /**
+     * Parses a date value in one of the standard formats from a header with the given name.
+     *
+     * @param headers message headers
+     * @param headerName header name
+     *
+     * @return the parsed instant or null if input could not be parsed
+     *
+     * @since 5.2
+     */
+    public static Instant parseStandardDate(final MessageHeaders headers, final String headerName) {
+        if (headers == null) {
+            return null;
+        }
+        final Header header = headers.getFirstHeader(headerName);
+        if (header == null) {
+            return null;
+        }
+        return parseStandardDate(header.getValue());
+    }
+
+    /**
+     * Formats the given instant according to the RFC 1123 pattern. The result
+     * of the last call is cached so formatting the current time repeatedly
+     * within the same second returns the same string.
+     *
+     * @param instant The instant to format.
+     * @return An RFC 1123 formatted date string.
+     *
+     * @see #PATTERN_RFC1123
+     *
+     * @since 5.2
+     */
+    public static String formatStandardDate(final Instant instant) {
+        Args.notNull(instant, "Instant");
+        return formatStandard(instant.getEpochSecond());
+    }
+
     /**
      * Parses a date value.  The formats used for parsing the date value are retrieved from
      * the default http params.
@@ -140,11 +219,11 @@ public static boolean isAfter(
             if (dateHeader1 != null) {
                 final Header dateHeader2 = message2.getFirstHeader(headerName);
                 if (dateHeader2 != null) {
-                    final Date date1 = parseDate(dateHeader1.getValue());
+                    final Instant date1 = parseStandardDate(dateHeader1.getValue());
                     if (date1 != null) {
-                        final Date date2 = parseDate(dateHeader2.getValue());
+                        final Instant date2 = parseStandardDate(dateHeader2.getValue());
                         if (date2 != null) {
-                            return date1.after(date2);
+                            return date1.isAfter(date2);
                         }
                     }
                 }
@@ -176,11 +255,11 @@ public static boolean isBefore(
             if (dateHeader1 != null) {
                 final Header dateHeader2 = message2.getFirstHeader(headerName);
                 if (dateHeader2 != null) {
-                    final Date date1 = parseDate(dateHeader1.getValue());
+                    final Instant date1 = parseStandardDate(dateHeader1.getValue());
                     if (date1 != null) {
-                        final Date date2 = parseDate(dateHeader2.getValue());
+                        final Instant date2 = parseStandardDate(dateHeader2.getValue());
                         if (date2 != null) {
-                            return date1.before(date2);
+                            return date1.isBefore(date2);
                         }
                     }
                 }
@@ -218,18 +297,31 @@ public static Date parseDate(
             final String[] dateFormats,
             final Date startDate) {
         Args.notNull(dateValue, "Date value");
+        final String v = trimQuotes(dateValue);
+        if (dateFormats == null && startDate == null) {
+            final long epochSecond = parseStandard(v);
+            if (epochSecond != Long.MIN_VALUE) {
+                return new Date(epochSecond * 1000L);
+            }
+        }
         final String[] localDateFormats = dateFormats != null ? dateFormats : DEFAULT_PATTERNS;
         final Date localStartDate = startDate != null ? startDate : DEFAULT_TWO_DIGIT_YEAR_START;
-        String v = dateValue;
+        return parse(v, localDateFormats, localStartDate);
+    }
+
+    private static String trimQuotes(final String dateValue) {
         // trim single quotes around date if present
         // see issue #5279
-        if (v.length() > 1 && v.startsWith("'") && v.endsWith("'")) {
-            v = v.substring (1, v.length() - 1);
+        if (dateValue.length() > 1 && dateValue.startsWith("'") && dateValue.endsWith("'")) {
+            return dateValue.substring (1, dateValue.length() - 1);
         }
+        return dateValue;
+    }
 
-        for (final String dateFormat : localDateFormats) {
+    private static Date parse(final String v, final String[] dateFormats, final Date startDate) {
+        for (final String dateFormat : dateFormats) {
             final SimpleDateFormat dateParser = DateFormatHolder.formatFor(dateFormat);
-            dateParser.set2DigitYearStart(localStartDate);
+            dateParser.set2DigitYearStart(startDate);
             final ParsePosition pos = new ParsePosition(0);
             final Date result = dateParser.parse(v, pos);
             if (pos.getIndex() != 0) {
@@ -239,6 +331,218 @@ public static Date parseDate(
         return null;
     }
 
+    /**
+     * Parses the canonical forms of the standard date formats. Returns the number of seconds
+     * since the epoch or {@link Long#MIN_VALUE} if the input is not in a canonical form,
+     * in which case it is left to the pattern based parser.
+     */
+    static long parseStandard(final String s) {
+        final int len = s.length();
+        int pos = 0;
+        while (pos < len && isLetter(s.charAt(pos))) {
+            pos++;
+        }
+        if (!isDayName(s, pos)) {
+            return Long.MIN_VALUE;
+        }
+        if (pos < len && s.charAt(pos) == ',') {
+            // RFC 1123: Sun, 06 Nov 1994 08:49:37 GMT
+            // RFC 1036: Sunday, 06-Nov-94 08:49:37 GMT
+            if (pos + 24 > len || s.charAt(pos + 1) != ' ') {
+                return Long.MIN_VALUE;
+            }
+            pos += 2;
+            final int day = parse2Digits(s, pos);
+            final char sep = s.charAt(pos + 2);
+            if (sep != ' ' && sep != '-' || s.charAt(pos + 6) != sep) {
+                return Long.MIN_VALUE;
+            }
+            final int month = parseMonth(s, pos + 3);
+            pos += 7;
+            int year;
+            if (sep == ' ') {
+                year = parse4Digits(s, pos);
+                pos += 4;
+            } else if (pos + 2 < len && isDigit(s.charAt(pos + 2))) {
+                year = parse4Digits(s, pos);
+                pos += 4;
+            } else {
+                // Two digit years are placed in the range of 2000 to 2099
+                year = parse2Digits(s, pos);
+                year = year >= 0 ? 2000 + year : -1;
+                pos += 2;
+            }
+            if (pos + 13 != len || s.charAt(pos) != ' ' || s.charAt(pos + 9) != ' '
+                    || !s.startsWith("GMT", pos + 10)) {
+                return Long.MIN_VALUE;
+            }
+            return toEpochSecond(year, month, day, s, pos + 1);
+        }
+        // asctime: Sun Nov  6 08:49:37 1994
+        if (pos != 3 || len < 23 || s.charAt(3) != ' ' || s.charAt(7) != ' ') {
+            return Long.MIN_VALUE;
+        }
+        final int month = parseMonth(s, 4);
+        pos = 8;
+        if (s.charAt(pos) == ' ') {
+            pos++;
+        }
+        final int day;
+        if (pos + 1 < len && isDigit(s.charAt(pos + 1))) {
+            day = parse2Digits(s, pos);
+            pos += 2;
+        } else {
+            day = isDigit(s.charAt(pos)) ? s.charAt(pos) - '0' : -1;
+            pos += 1;
+        }
+        if (pos + 14 != len || s.charAt(pos) != ' ' || s.charAt(pos + 9) != ' ') {
+            return Long.MIN_VALUE;
+        }
+        final int year = parse4Digits(s, pos + 10);
+        return toEpochSecond(year, month, day, s, pos + 1);
+    }
+
+    private static long toEpochSecond(final int year, final int month, final int day, final String s, final int pos) {
+        // HH:mm:ss
+        if (s.charAt(pos + 2) != ':' || s.charAt(pos + 5) != ':') {
+            return Long.MIN_VALUE;
+        }
+        final int hour = parse2Digits(s, pos);
+        final int minute = parse2Digits(s, pos + 3);
+        final int second = parse2Digits(s, pos + 6);
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 0 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        return daysFromCivil(year, month + 1, day) * 86400L + hour * 3600L + minute * 60L + second;
+    }
+
+    private static boolean isLetter(final char ch) {
+        return ch >= 'A' && ch <= 'Z' || ch >= 'a' && ch <= 'z';
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isDayName(final String s, final int len) {
+        final String[] names = len == 3 ? DAYS : LONG_DAYS;
+        for (final String name : names) {
+            if (name.length() == len && s.startsWith(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int parseMonth(final String s, final int pos) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (s.startsWith(MONTHS[i], pos)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parse2Digits(final String s, final int pos) {
+        final char c1 = s.charAt(pos);
+        final char c2 = s.charAt(pos + 1);
+        if (!isDigit(c1) || !isDigit(c2)) {
+            return -1;
+        }
+        return (c1 - '0') * 10 + (c2 - '0');
+    }
+
+    private static int parse4Digits(final String s, final int pos) {
+        final int high = parse2Digits(s, pos);
+        final int low = parse2Digits(s, pos + 2);
+        return high >= 0 && low >= 0 ? high * 100 + low : -1;
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int daysInMonth(final int year, final int month) {
+        switch (month) {
+            case 1:
+                return isLeapYear(year) ? 29 : 28;
+            case 3:
+            case 5:
+            case 8:
+            case 10:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days since the epoch of the given date of the proleptic Gregorian calendar,
+     * month being in the range of 1 to 12.
+     */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(y, 400);
+        final int yoe = y - era * 400;
+        final int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static String formatStandard(final long epochSecond) {
+        final FormattedDate last = lastFormattedDate;
+        if (last.epochSecond == epochSecond) {
+            return last.value;
+        }
+        final long days = Math.floorDiv(epochSecond, 86400L);
+        final int secondOfDay = (int) Math.floorMod(epochSecond, 86400L);
+        // civil from days
+        final long z = days + 719468;
+        final long era = Math.floorDiv(z, 146097L);
+        final int doe = (int) (z - era * 146097L);
+        final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final int mp = (5 * doy + 2) / 153;
+        final int day = doy - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        final long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return DateFormatHolder.formatFor(PATTERN_RFC1123).format(new Date(epochSecond * 1000L));
+        }
+        // 1970-01-01 was a Thursday
+        final int dayOfWeek = (int) Math.floorMod(days + 3, 7L);
+
+        final char[] buf = new char[29];
+        DAYS[dayOfWeek].getChars(0, 3, buf, 0);
+        buf[3] = ',';
+        buf[4] = ' ';
+        put2Digits(buf, 5, day);
+        buf[7] = ' ';
+        MONTHS[month - 1].getChars(0, 3, buf, 8);
+        buf[11] = ' ';
+        put2Digits(buf, 12, (int) (year / 100));
+        put2Digits(buf, 14, (int) (year % 100));
+        buf[16] = ' ';
+        put2Digits(buf, 17, secondOfDay / 3600);
+        buf[19] = ':';
+        put2Digits(buf, 20, secondOfDay / 60 % 60);
+        buf[22] = ':';
+        put2Digits(buf, 23, secondOfDay % 60);
+        buf[25] = ' ';
+        buf[26] = 'G';
+        buf[27] = 'M';
+        buf[28] = 'T';
+        final String value = new String(buf);
+        lastFormattedDate = new FormattedDate(epochSecond, value);
+        return value;
+    }
+
+    private static void put2Digits(final char[] buf, final int pos, final int value) {
+        buf[pos] = (char) ('0' + value / 10);
+        buf[pos + 1] = (char) ('0' + value % 10);
+    }
+
     /**
      * Formats the given date according to the RFC 1123 pattern.
      *
@@ -248,7 +552,8 @@ public static Date parseDate(
      * @see #PATTERN_RFC1123
      */
     public static String formatDate(final Date date) {
-        return formatDate(date, PATTERN_RFC1123);
+        Args.notNull(date, "Date");
+        return formatStandard(Math.floorDiv(date.getTime(), 1000L));
     }
 
     /**
@@ -267,6 +572,9 @@ public static String formatDate(final Date date) {
     public static String formatDate(final Date date, final String pattern) {
         Args.notNull(date, "Date");
         Args.notNull(pattern, "Pattern");
+        if (PATTERN_RFC1123.equals(pattern)) {
+            return formatDate(date);
+        }
         final SimpleDateFormat formatter = DateFormatHolder.formatFor(pattern);
         return formatter.format(date);
     }
@@ -284,6 +592,18 @@ public static void clearThreadLocal() {
     private DateUtils() {
     }
 
+    private static final class FormattedDate {
+
+        private final long epochSecond;
+        private final String value;
+
+        FormattedDate(final long epochSecond, final String value) {
+            this.epochSecond = epochSecond;
+            this.value = value;
+        }
+
+    }
+
     /**
      * A factory for {@link SimpleDateFormat}s. The instances are stored in a
      * threadlocal way because SimpleDateFormat is not threadsafe as noted in
@@ -0,0 +1,77 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestObservingEntityWrapper {
+
+    private static HttpEntity observe(final HttpEntity entity, final String name, final List<String> events) {
+        return new ObservingEntityWrapper(entity) {
+
+            @Override
+            protected void contentTransferred(final long len) {
+                events.add(name + ":" + len);
+            }
+
+        };
+    }
+
+    @Test
+    public void testUnwrap() throws Exception {
+        final StringEntity entity = new StringEntity("stuff", ContentType.TEXT_PLAIN);
+        final List<String> events = new ArrayList<>();
+        Assert.assertSame(entity, ObservingEntityWrapper.unwrap(entity));
+        Assert.assertSame(entity, ObservingEntityWrapper.unwrap(
+                observe(observe(entity, "inner", events), "outer", events)));
+        final HttpEntity opaque = new HttpEntityWrapper(entity);
+        Assert.assertSame(opaque, ObservingEntityWrapper.unwrap(observe(opaque, "outer", events)));
+        Assert.assertNull(ObservingEntityWrapper.unwrap(null));
+    }
+
+    @Test
+    public void testFireContentTransferred() throws Exception {
+        final StringEntity entity = new StringEntity("stuff", ContentType.TEXT_PLAIN);
+        final List<String> events = new ArrayList<>();
+        ObservingEntityWrapper.fireContentTransferred(observe(observe(entity, "inner", events), "outer", events), 5);
+        Assert.assertEquals(Arrays.asList("inner:5", "outer:5"), events);
+
+        events.clear();
+        ObservingEntityWrapper.fireContentTransferred(entity, 5);
+        Assert.assertTrue(events.isEmpty());
+    }
+
+}
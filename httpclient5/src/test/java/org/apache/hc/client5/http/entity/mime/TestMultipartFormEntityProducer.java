@@ -0,0 +1,151 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.entity.mime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestMultipartFormEntityProducer {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    static class ThrottledDataChannel implements DataStreamChannel {
+
+        private final int maxChunk;
+        private final ByteArrayOutputStream content;
+        private boolean ended;
+
+        ThrottledDataChannel(final int maxChunk) {
+            this.maxChunk = maxChunk;
+            this.content = new ByteArrayOutputStream();
+        }
+
+        @Override
+        public void requestOutput() {
+        }
+
+        @Override
+        public int write(final ByteBuffer src) {
+            final int n = Math.min(maxChunk, src.remaining());
+            for (int i = 0; i < n; i++) {
+                content.write(src.get());
+            }
+            return n;
+        }
+
+        @Override
+        public void endStream(final List<? extends Header> trailers) {
+            ended = true;
+        }
+
+        @Override
+        public void endStream() {
+            endStream(null);
+        }
+
+    }
+
+    private static byte[] produce(final AsyncEntityProducer producer) throws Exception {
+        final ThrottledDataChannel channel = new ThrottledDataChannel(100);
+        for (int i = 0; i < 100000 && !channel.ended; i++) {
+            producer.produce(channel);
+        }
+        Assert.assertTrue(channel.ended);
+        return channel.content.toByteArray();
+    }
+
+    private static byte[] writeTo(final HttpEntity entity) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testProduceFileAndTextParts() throws Exception {
+        final File file = tempFolder.newFile("stuff.bin");
+        final byte[] data = new byte[50000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Files.write(file.toPath(), data);
+
+        final MultipartEntityBuilder builder = MultipartEntityBuilder.create()
+                .setBoundary("whatever")
+                .addTextBody("p1", "blah blah", ContentType.DEFAULT_TEXT)
+                .addBinaryBody("p2", file)
+                .addBinaryBody("p3", "yada yada".getBytes(StandardCharsets.US_ASCII));
+        final HttpEntity entity = builder.build();
+        final AsyncEntityProducer producer = builder.buildAsync();
+
+        Assert.assertEquals(entity.getContentType(), producer.getContentType());
+        Assert.assertEquals(entity.getContentLength(), producer.getContentLength());
+        Assert.assertFalse(producer.isChunked());
+        Assert.assertTrue(producer.isRepeatable());
+
+        final byte[] expected = writeTo(entity);
+        Assert.assertEquals(expected.length, producer.getContentLength());
+        Assert.assertArrayEquals(expected, produce(producer));
+        Assert.assertArrayEquals(expected, produce(producer));
+    }
+
+    @Test
+    public void testProduceStreamPartOfUnknownLength() throws Exception {
+        final byte[] data = "a lot of stuff".getBytes(StandardCharsets.US_ASCII);
+        final AsyncEntityProducer producer = MultipartEntityBuilder.create()
+                .setBoundary("whatever")
+                .addTextBody("p1", "blah blah", ContentType.DEFAULT_TEXT)
+                .addBinaryBody("p2", new ByteArrayInputStream(data))
+                .buildAsync();
+        final HttpEntity entity = MultipartEntityBuilder.create()
+                .setBoundary("whatever")
+                .addTextBody("p1", "blah blah", ContentType.DEFAULT_TEXT)
+                .addBinaryBody("p2", new ByteArrayInputStream(data))
+                .build();
+
+        Assert.assertEquals(-1, producer.getContentLength());
+        Assert.assertTrue(producer.isChunked());
+        Assert.assertFalse(producer.isRepeatable());
+        Assert.assertArrayEquals(writeTo(entity), produce(producer));
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCircuitBreaker {
+
+    private HttpRoute route;
+    private List<String> transitions;
+    private AtomicLong clock;
+
+    @Before
+    public void setup() {
+        route = new HttpRoute(new HttpHost("localhost", 80));
+        transitions = new ArrayList<>();
+        clock = new AtomicLong(System.currentTimeMillis());
+    }
+
+    private CircuitBreaker create(final TimeValue openDuration) {
+        return new CircuitBreaker(10, 4, 0.5, openDuration, 2,
+                (r, from, to) -> transitions.add(from + "->" + to), clock::get);
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumNumberOfCalls() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ofMinutes(1));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+            circuitBreaker.onFailure(route);
+        }
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(route));
+        Assert.assertTrue(transitions.isEmpty());
+    }
+
+    @Test
+    public void testOpensAtFailureRateThreshold() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ofMinutes(1));
+        circuitBreaker.onSuccess(route);
+        circuitBreaker.onSuccess(route);
+        circuitBreaker.onFailure(route);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(route));
+        circuitBreaker.onFailure(route);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(route));
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertEquals(1, transitions.size());
+        Assert.assertEquals("CLOSED->OPEN", transitions.get(0));
+    }
+
+    @Test
+    public void testRollingWindowForgetsOldOutcomes() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ofMinutes(1));
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure(route);
+        }
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onSuccess(route);
+        }
+        Assert.assertEquals(0.0, circuitBreaker.getFailureRate(route), 0.0);
+        circuitBreaker.onFailure(route);
+        Assert.assertEquals(0.1, circuitBreaker.getFailureRate(route), 0.001);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(route));
+    }
+
+    @Test
+    public void testHalfOpenProbesClose() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ofMinutes(1));
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(route);
+        }
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(route));
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission(route));
+        clock.addAndGet(TimeValue.ofMinutes(1).toMilliseconds());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState(route));
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission(route));
+        circuitBreaker.onSuccess(route);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState(route));
+        circuitBreaker.onSuccess(route);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(route));
+        Assert.assertEquals(0.0, circuitBreaker.getFailureRate(route), 0.0);
+        Assert.assertEquals(3, transitions.size());
+        Assert.assertEquals("HALF_OPEN->CLOSED", transitions.get(2));
+    }
+
+    @Test
+    public void testHalfOpenProbeFailureReopens() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ZERO_MILLISECONDS);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(route);
+        }
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        circuitBreaker.onFailure(route);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(route));
+        Assert.assertEquals("HALF_OPEN->OPEN", transitions.get(transitions.size() - 1));
+    }
+
+    @Test
+    public void testRoutesAreIndependent() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ofMinutes(1));
+        final HttpRoute otherRoute = new HttpRoute(new HttpHost("otherhost", 80));
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(route);
+        }
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(otherRoute));
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(otherRoute));
+    }
+
+    @Test
+    public void testHalfOpenLostProbesTimeOut() {
+        final CircuitBreaker circuitBreaker = create(TimeValue.ofMinutes(1));
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(route);
+        }
+        clock.addAndGet(TimeValue.ofMinutes(1).toMilliseconds());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        // The outcomes of both probes are never recorded
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission(route));
+        clock.addAndGet(TimeValue.ofMinutes(1).toMilliseconds());
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertTrue(circuitBreaker.tryAcquirePermission(route));
+        Assert.assertFalse(circuitBreaker.tryAcquirePermission(route));
+        circuitBreaker.onSuccess(route);
+        circuitBreaker.onSuccess(route);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(route));
+    }
+
+}
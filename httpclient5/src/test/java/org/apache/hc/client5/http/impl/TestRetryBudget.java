@@ -0,0 +1,79 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRetryBudget {
+
+    @Test
+    public void testDepositAndWithdraw() {
+        final RetryBudget retryBudget = new RetryBudget(0.25, 0.0, 1);
+        final HttpRoute route = new HttpRoute(new HttpHost("somehost", 80));
+        Assert.assertTrue(retryBudget.tryRetry(route));
+        Assert.assertFalse(retryBudget.tryRetry(route));
+        for (int i = 0; i < 3; i++) {
+            retryBudget.onRequest(route);
+            Assert.assertFalse(retryBudget.tryRetry(route));
+        }
+        retryBudget.onRequest(route);
+        Assert.assertTrue(retryBudget.tryRetry(route));
+        Assert.assertEquals(4, retryBudget.getRetriesDenied());
+        Assert.assertEquals(4, retryBudget.getRetriesDenied(route));
+    }
+
+    @Test
+    public void testRouteBudgetsAreIndependent() {
+        final RetryBudget retryBudget = new RetryBudget(0.5, 0.0, 2);
+        final HttpRoute route1 = new HttpRoute(new HttpHost("somehost", 80));
+        final HttpRoute route2 = new HttpRoute(new HttpHost("otherhost", 80));
+        Assert.assertTrue(retryBudget.tryRetry(route1));
+        Assert.assertTrue(retryBudget.tryRetry(route1));
+        Assert.assertFalse(retryBudget.tryRetry(route1));
+        // Client-wide budget is exhausted too
+        Assert.assertFalse(retryBudget.tryRetry(route2));
+        Assert.assertEquals(1, retryBudget.getRetriesDenied(route2));
+        // Route budget is refunded when the client-wide budget denies the retry
+        Assert.assertEquals(2.0, retryBudget.getAvailableRetries(route2), 0.0);
+        retryBudget.onRequest(route1);
+        retryBudget.onRequest(route1);
+        Assert.assertTrue(retryBudget.tryRetry(route2));
+    }
+
+    @Test
+    public void testMinimumRetryRate() throws Exception {
+        final RetryBudget retryBudget = new RetryBudget(0.1, 100.0, 1);
+        Assert.assertTrue(retryBudget.tryRetry(null));
+        Assert.assertFalse(retryBudget.tryRetry(null));
+        Thread.sleep(50);
+        Assert.assertTrue(retryBudget.tryRetry(null));
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+/**
+ * Simple tests for {@link Wire} and {@link WireLogPolicy}.
+ */
+public class TestWire {
+
+    private Logger log;
+
+    @Before
+    public void setup() {
+        log = Mockito.mock(Logger.class);
+        Mockito.when(log.isDebugEnabled()).thenReturn(true);
+    }
+
+    private List<Object> captureEvents(final int count) {
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(log, Mockito.times(count)).debug(Mockito.eq("{} {}"), Mockito.eq("c-1"), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void testTextRendering() throws Exception {
+        final Wire wire = new Wire(log, "c-1");
+        wire.output("GET / HTTP/1.1\r\nHost: h\r\n");
+        final List<Object> events = captureEvents(1);
+        Assert.assertEquals(
+                ">> \"GET / HTTP/1.1[\\r][\\n]\"" + System.lineSeparator() + "c-1 >> \"Host: h[\\r][\\n]\"",
+                events.get(0).toString());
+    }
+
+    @Test
+    public void testHexDumpRendering() throws Exception {
+        final Wire wire = new Wire(log, "c-1", true, 64);
+        wire.input(ByteBuffer.wrap("OK\n".getBytes(StandardCharsets.US_ASCII)));
+        final List<Object> events = captureEvents(1);
+        Assert.assertEquals("<< OK                4f 4b 0a", events.get(0).toString());
+    }
+
+    @Test
+    public void testByteBufferPositionUnchanged() throws Exception {
+        final Wire wire = new Wire(log, "c-1", true, 64);
+        final ByteBuffer b = ByteBuffer.wrap(new byte[] {1, 2, 3});
+        wire.output(b);
+        Assert.assertEquals(0, b.position());
+        Assert.assertEquals(3, b.remaining());
+    }
+
+    @Test
+    public void testTruncation() throws Exception {
+        final Wire wire = new Wire(log, "c-1", false, 4);
+        wire.output("abcdef");
+        final List<Object> events = captureEvents(1);
+        Assert.assertEquals(">> \"abcd\" [2 more bytes not logged]", events.get(0).toString());
+    }
+
+    @Test
+    public void testOverwrittenBeforeRendering() throws Exception {
+        final Wire wire = new Wire(log, "c-1", false, 8);
+        wire.output("abcd");
+        wire.input("efgh");
+        wire.input("ijkl");
+        final List<Object> events = captureEvents(3);
+        Assert.assertEquals(">> [4 bytes overwritten before being logged]", events.get(0).toString());
+        Assert.assertEquals("<< \"efgh\"", events.get(1).toString());
+        Assert.assertEquals("<< \"ijkl\"", events.get(2).toString());
+    }
+
+    @Test
+    public void testInactive() throws Exception {
+        final Wire wire = new Wire(log, "c-1");
+        wire.setActive(false);
+        Assert.assertFalse(wire.isEnabled());
+        wire.output("abcd");
+        wire.input(new byte[] {1, 2, 3});
+        Mockito.verify(log, Mockito.never()).debug(Mockito.anyString(), Mockito.<Object>any(), Mockito.<Object>any());
+
+        wire.setActive(true);
+        wire.output("abcd");
+        captureEvents(1);
+    }
+
+    @Test
+    public void testTargetPolicy() throws Exception {
+        final WireLogPolicy policy = WireLogPolicy.forTargets(new HttpHost("somehost", 80));
+        Assert.assertTrue(policy.isEnabled(new HttpRoute(new HttpHost("somehost", 80)), "ex-1"));
+        Assert.assertFalse(policy.isEnabled(new HttpRoute(new HttpHost("otherhost", 80)), "ex-1"));
+    }
+
+    @Test
+    public void testTargetPolicyDefaultPort() throws Exception {
+        final WireLogPolicy policy = WireLogPolicy.forTargets(new HttpHost("https", "somehost", -1));
+        Assert.assertTrue(policy.isEnabled(new HttpRoute(new HttpHost("https", "somehost", 443)), "ex-1"));
+        Assert.assertFalse(policy.isEnabled(new HttpRoute(new HttpHost("https", "somehost", 8443)), "ex-1"));
+        Assert.assertFalse(policy.isEnabled(new HttpRoute(new HttpHost("http", "somehost", 443)), "ex-1"));
+    }
+
+    @Test
+    public void testSampledPolicy() throws Exception {
+        final HttpRoute route = new HttpRoute(new HttpHost("somehost", 80));
+        Assert.assertFalse(WireLogPolicy.sampled(0.0).isEnabled(route, "ex-1"));
+        Assert.assertTrue(WireLogPolicy.sampled(1.0).isEnabled(route, "ex-1"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> WireLogPolicy.sampled(1.5));
+    }
+
+}
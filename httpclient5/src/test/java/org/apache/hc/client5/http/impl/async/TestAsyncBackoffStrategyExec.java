@@ -0,0 +1,135 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.net.SocketTimeoutException;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecRuntime;
+import org.apache.hc.client5.http.classic.BackoffManager;
+import org.apache.hc.client5.http.impl.classic.DefaultBackoffStrategy;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.CancellableDependency;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestAsyncBackoffStrategyExec {
+
+    @Mock
+    private BackoffManager backoffManager;
+    @Mock
+    private AsyncExecChain chain;
+    @Mock
+    private AsyncExecRuntime execRuntime;
+    @Mock
+    private CancellableDependency cancellableDependency;
+    @Mock
+    private AsyncExecCallback asyncExecCallback;
+
+    private AsyncBackoffStrategyExec backoffExec;
+    private HttpRoute route;
+    private HttpRequest request;
+    private AsyncExecChain.Scope scope;
+
+    @Before
+    public void setup() throws Exception {
+        backoffExec = new AsyncBackoffStrategyExec(new DefaultBackoffStrategy(), backoffManager);
+        route = new HttpRoute(new HttpHost("localhost", 80));
+        request = new BasicHttpRequest("GET", "/test");
+        scope = new AsyncExecChain.Scope("test", route, request, cancellableDependency,
+                HttpClientContext.create(), execRuntime, null, null);
+    }
+
+    private AsyncExecCallback executeAndCaptureCallback() throws Exception {
+        backoffExec.execute(request, null, scope, chain, asyncExecCallback);
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain).proceed(
+                Mockito.same(request),
+                Mockito.isNull(),
+                Mockito.same(scope),
+                callbackCaptor.capture());
+        return callbackCaptor.getValue();
+    }
+
+    @Test
+    public void testProbeOnSuccessfulResponse() throws Exception {
+        final AsyncExecCallback callback = executeAndCaptureCallback();
+        final BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        callback.handleResponse(response, null);
+        callback.completed();
+
+        Mockito.verify(backoffManager).probe(route);
+        Mockito.verify(backoffManager, Mockito.never()).backOff(Mockito.any());
+        Mockito.verify(asyncExecCallback).handleResponse(response, null);
+        Mockito.verify(asyncExecCallback).completed();
+    }
+
+    @Test
+    public void testBackOffOnServiceUnavailable() throws Exception {
+        final AsyncExecCallback callback = executeAndCaptureCallback();
+        final BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_SERVICE_UNAVAILABLE);
+        callback.handleResponse(response, null);
+
+        Mockito.verify(backoffManager).backOff(route);
+        Mockito.verify(backoffManager, Mockito.never()).probe(Mockito.any());
+        Mockito.verify(asyncExecCallback).handleResponse(response, null);
+    }
+
+    @Test
+    public void testBackOffOnTimeout() throws Exception {
+        final AsyncExecCallback callback = executeAndCaptureCallback();
+        final SocketTimeoutException cause = new SocketTimeoutException();
+        callback.failed(cause);
+
+        Mockito.verify(backoffManager).backOff(route);
+        Mockito.verify(asyncExecCallback).failed(cause);
+    }
+
+    @Test
+    public void testNoBackOffOnUnrelatedFailure() throws Exception {
+        final AsyncExecCallback callback = executeAndCaptureCallback();
+        final IllegalStateException cause = new IllegalStateException();
+        callback.failed(cause);
+
+        Mockito.verifyNoInteractions(backoffManager);
+        Mockito.verify(asyncExecCallback).failed(cause);
+    }
+
+}
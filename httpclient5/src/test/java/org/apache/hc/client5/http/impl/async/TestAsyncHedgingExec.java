@@ -0,0 +1,232 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.async;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecCallback;
+import org.apache.hc.client5.http.async.AsyncExecChain;
+import org.apache.hc.client5.http.async.AsyncExecRuntime;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.CancellableDependency;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestAsyncHedgingExec {
+
+    @Mock
+    private AsyncExecChain chain;
+    @Mock
+    private AsyncExecRuntime execRuntime;
+    @Mock
+    private AsyncExecRuntime forkedExecRuntime;
+    @Mock
+    private CancellableDependency cancellableDependency;
+    @Mock
+    private AsyncExecCallback asyncExecCallback;
+    @Mock
+    private ScheduledExecutorService mockScheduler;
+
+    private ScheduledExecutorService scheduler;
+    private HttpRoute route;
+
+    @Before
+    public void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        route = new HttpRoute(new HttpHost("localhost", 80));
+    }
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+    }
+
+    private AsyncExecChain.Scope createScope(final HttpRequest request) {
+        return new AsyncExecChain.Scope("test", route, request, cancellableDependency,
+                HttpClientContext.create(), execRuntime, null, null);
+    }
+
+    @Test
+    public void testNoHedgeWhenResponseArrivesInTime() throws Exception {
+        final AsyncHedgingExec hedgingExec = new AsyncHedgingExec(scheduler, TimeValue.ofMinutes(1), null, 0.5);
+        final HttpRequest request = new BasicHttpRequest("GET", "/");
+        hedgingExec.execute(request, null, createScope(request), chain, asyncExecCallback);
+
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain).proceed(Mockito.any(), Mockito.isNull(), Mockito.any(), callbackCaptor.capture());
+        final BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        callbackCaptor.getValue().handleResponse(response, null);
+        callbackCaptor.getValue().completed();
+
+        Mockito.verify(asyncExecCallback).handleResponse(response, null);
+        Mockito.verify(asyncExecCallback).completed();
+        Mockito.verify(execRuntime, Mockito.never()).fork();
+        Assert.assertEquals(0, hedgingExec.getHedgesSent(route));
+    }
+
+    @Test
+    public void testHedgeWins() throws Exception {
+        Mockito.when(execRuntime.fork()).thenReturn(forkedExecRuntime);
+        final AsyncHedgingExec hedgingExec = new AsyncHedgingExec(scheduler, TimeValue.ofMilliseconds(1), null, 0.5);
+        final HttpRequest request = new BasicHttpRequest("GET", "/");
+        final AsyncExecChain.Scope scope = createScope(request);
+        scope.clientContext.setAttribute("my-attribute", "stuff");
+        hedgingExec.execute(request, null, scope, chain, asyncExecCallback);
+
+        final ArgumentCaptor<AsyncExecChain.Scope> scopeCaptor = ArgumentCaptor.forClass(AsyncExecChain.Scope.class);
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain, Mockito.timeout(5000).times(2)).proceed(
+                Mockito.any(), Mockito.isNull(), Mockito.any(), Mockito.any());
+        Mockito.verify(chain, Mockito.times(2)).proceed(
+                Mockito.any(), Mockito.isNull(), scopeCaptor.capture(), callbackCaptor.capture());
+        final List<AsyncExecChain.Scope> scopes = scopeCaptor.getAllValues();
+        Assert.assertSame(execRuntime, scopes.get(0).execRuntime);
+        Assert.assertSame(forkedExecRuntime, scopes.get(1).execRuntime);
+        Assert.assertSame(scope.clientContext, scopes.get(0).clientContext);
+        Assert.assertNotSame(scope.clientContext, scopes.get(1).clientContext);
+        Assert.assertEquals("stuff", scopes.get(1).clientContext.getAttribute("my-attribute"));
+        scopes.get(1).clientContext.getAuthExchange(route.getTargetHost());
+        Assert.assertNull(scope.clientContext.getAttribute(HttpClientContext.AUTH_EXCHANGE_MAP));
+
+        final AsyncExecCallback primaryCallback = callbackCaptor.getAllValues().get(0);
+        final AsyncExecCallback hedgeCallback = callbackCaptor.getAllValues().get(1);
+        final BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        hedgeCallback.handleResponse(response, null);
+        Mockito.verify(execRuntime).discardEndpoint();
+
+        Assert.assertNotNull(primaryCallback.handleResponse(new BasicHttpResponse(HttpStatus.SC_OK), null));
+        primaryCallback.completed();
+        hedgeCallback.completed();
+
+        Mockito.verify(asyncExecCallback).handleResponse(response, null);
+        Mockito.verify(asyncExecCallback, Mockito.times(1)).completed();
+        Mockito.verify(forkedExecRuntime).releaseEndpoint();
+        Assert.assertEquals(1, hedgingExec.getHedgesSent(route));
+        Assert.assertEquals(1, hedgingExec.getHedgesWon(route));
+    }
+
+    @Test
+    public void testFailureReportedAfterAllAttemptsFail() throws Exception {
+        Mockito.when(execRuntime.fork()).thenReturn(forkedExecRuntime);
+        final AsyncHedgingExec hedgingExec = new AsyncHedgingExec(scheduler, TimeValue.ofMilliseconds(1), null, 0.5);
+        final HttpRequest request = new BasicHttpRequest("GET", "/");
+        hedgingExec.execute(request, null, createScope(request), chain, asyncExecCallback);
+
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain, Mockito.timeout(5000).times(2)).proceed(
+                Mockito.any(), Mockito.isNull(), Mockito.any(), Mockito.any());
+        Mockito.verify(chain, Mockito.times(2)).proceed(
+                Mockito.any(), Mockito.isNull(), Mockito.any(), callbackCaptor.capture());
+        final Exception cause1 = new IOException("first");
+        final Exception cause2 = new IOException("second");
+        callbackCaptor.getAllValues().get(0).failed(cause1);
+        Mockito.verify(asyncExecCallback, Mockito.never()).failed(Mockito.any());
+        callbackCaptor.getAllValues().get(1).failed(cause2);
+        Mockito.verify(asyncExecCallback).failed(cause2);
+    }
+
+    @Test
+    public void testNonIdempotentRequestNotHedged() throws Exception {
+        final AsyncHedgingExec hedgingExec = new AsyncHedgingExec(scheduler, TimeValue.ofMilliseconds(1), null, 0.5);
+        final HttpRequest request = new BasicHttpRequest("POST", "/");
+        final AsyncEntityProducer entityProducer = Mockito.mock(AsyncEntityProducer.class);
+        final AsyncExecChain.Scope scope = createScope(request);
+        hedgingExec.execute(request, entityProducer, scope, chain, asyncExecCallback);
+        Mockito.verify(chain).proceed(request, entityProducer, scope, asyncExecCallback);
+    }
+
+    @Test
+    public void testHedgeBudget() throws Exception {
+        Mockito.when(execRuntime.fork()).thenReturn(forkedExecRuntime);
+        final AsyncHedgingExec hedgingExec = new AsyncHedgingExec(
+                mockScheduler, TimeValue.ZERO_MILLISECONDS, null, 0.001);
+        final HttpRequest request = new BasicHttpRequest("GET", "/");
+        for (int i = 0; i < 20; i++) {
+            hedgingExec.execute(request, null, createScope(request), chain, asyncExecCallback);
+        }
+        final ArgumentCaptor<Runnable> hedgeCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(mockScheduler, Mockito.times(20)).schedule(
+                hedgeCaptor.capture(), Mockito.anyLong(), Mockito.any());
+        for (final Runnable hedge : hedgeCaptor.getAllValues()) {
+            hedge.run();
+        }
+        Mockito.verify(chain, Mockito.times(30)).proceed(
+                Mockito.any(), Mockito.isNull(), Mockito.any(), Mockito.any());
+        Assert.assertEquals(10, hedgingExec.getHedgesSent(route));
+        Assert.assertEquals(10, hedgingExec.getHedgesDeniedByBudget());
+    }
+
+    @Test
+    public void testInformationResponsesOfHedgeNotForwardedBeforeWinner() throws Exception {
+        Mockito.when(execRuntime.fork()).thenReturn(forkedExecRuntime);
+        final AsyncHedgingExec hedgingExec = new AsyncHedgingExec(mockScheduler, TimeValue.ZERO_MILLISECONDS, null, 0.5);
+        final HttpRequest request = new BasicHttpRequest("GET", "/");
+        hedgingExec.execute(request, null, createScope(request), chain, asyncExecCallback);
+        final ArgumentCaptor<Runnable> hedgeCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(mockScheduler).schedule(hedgeCaptor.capture(), Mockito.anyLong(), Mockito.any());
+        hedgeCaptor.getValue().run();
+
+        final ArgumentCaptor<AsyncExecCallback> callbackCaptor = ArgumentCaptor.forClass(AsyncExecCallback.class);
+        Mockito.verify(chain, Mockito.times(2)).proceed(
+                Mockito.any(), Mockito.isNull(), Mockito.any(), callbackCaptor.capture());
+        final AsyncExecCallback originalCallback = callbackCaptor.getAllValues().get(0);
+        final AsyncExecCallback hedgeCallback = callbackCaptor.getAllValues().get(1);
+
+        final BasicHttpResponse original100 = new BasicHttpResponse(HttpStatus.SC_CONTINUE);
+        final BasicHttpResponse hedge103 = new BasicHttpResponse(HttpStatus.SC_EARLY_HINTS);
+        originalCallback.handleInformationResponse(original100);
+        hedgeCallback.handleInformationResponse(hedge103);
+        Mockito.verify(asyncExecCallback).handleInformationResponse(original100);
+        Mockito.verify(asyncExecCallback, Mockito.never()).handleInformationResponse(hedge103);
+
+        final BasicHttpResponse response = new BasicHttpResponse(HttpStatus.SC_OK);
+        hedgeCallback.handleResponse(response, null);
+        originalCallback.handleInformationResponse(new BasicHttpResponse(HttpStatus.SC_EARLY_HINTS));
+        Mockito.verify(asyncExecCallback).handleResponse(response, null);
+        Mockito.verify(asyncExecCallback, Mockito.times(1)).handleInformationResponse(Mockito.any());
+    }
+
+}
@@ -27,8 +27,15 @@
 
 package org.apache.hc.client5.http.impl.auth;
 
+import org.apache.hc.client5.http.auth.AuthChallenge;
 import org.apache.hc.client5.http.auth.AuthScheme;
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.ChallengeType;
+import org.apache.hc.client5.http.auth.StandardAuthScheme;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -74,4 +81,74 @@ public void testStoreNonserializable() throws Exception {
         Assert.assertNull(cache.get(new HttpHost("localhost", 80)));
     }
 
+    @Test
+    public void testStoredSchemeIsCopied() throws Exception {
+        final BasicAuthCache cache = new BasicAuthCache();
+        final HttpHost host = new HttpHost("localhost", 80);
+        final BasicScheme authScheme = new BasicScheme();
+        authScheme.processChallenge(new AuthChallenge(ChallengeType.TARGET, StandardAuthScheme.BASIC,
+                new BasicNameValuePair("realm", "test")), null);
+        final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(new AuthScope(host),
+                new UsernamePasswordCredentials("user", "pass".toCharArray()));
+        Assert.assertTrue(authScheme.isResponseReady(host, credentialsProvider, null));
+        final String authResponse = authScheme.generateAuthResponse(host, new BasicHttpRequest("GET", "/"), null);
+        cache.put(host, authScheme);
+
+        // changes to the original instance do not affect the cached state
+        authScheme.processChallenge(new AuthChallenge(ChallengeType.TARGET, StandardAuthScheme.BASIC,
+                new BasicNameValuePair("realm", "other")), null);
+
+        final AuthScheme cached1 = cache.get(host);
+        final AuthScheme cached2 = cache.get(host);
+        Assert.assertTrue(cached1 instanceof BasicScheme);
+        Assert.assertNotSame(authScheme, cached1);
+        Assert.assertNotSame(cached1, cached2);
+        Assert.assertEquals("test", cached1.getRealm());
+        Assert.assertEquals(authResponse, cached1.generateAuthResponse(host, new BasicHttpRequest("GET", "/"), null));
+
+        // changes to a returned instance do not affect the cached state
+        cached1.processChallenge(new AuthChallenge(ChallengeType.TARGET, StandardAuthScheme.BASIC,
+                new BasicNameValuePair("realm", "other")), null);
+        Assert.assertEquals("test", cache.get(host).getRealm());
+    }
+
+    static class CustomBasicScheme extends BasicScheme {
+
+        private static final long serialVersionUID = 1L;
+
+        String tag;
+
+    }
+
+    static class CustomDigestScheme extends DigestScheme {
+
+        private static final long serialVersionUID = 1L;
+
+        String tag;
+
+    }
+
+    @Test
+    public void testStoredSubclassKeepsClass() throws Exception {
+        final BasicAuthCache cache = new BasicAuthCache();
+        final HttpHost host1 = new HttpHost("localhost", 80);
+        final HttpHost host2 = new HttpHost("localhost", 8080);
+        final CustomBasicScheme basicScheme = new CustomBasicScheme();
+        basicScheme.tag = "basic";
+        final CustomDigestScheme digestScheme = new CustomDigestScheme();
+        digestScheme.tag = "digest";
+        cache.put(host1, basicScheme);
+        cache.put(host2, digestScheme);
+
+        final AuthScheme cached1 = cache.get(host1);
+        Assert.assertTrue(cached1 instanceof CustomBasicScheme);
+        Assert.assertNotSame(basicScheme, cached1);
+        Assert.assertEquals("basic", ((CustomBasicScheme) cached1).tag);
+        final AuthScheme cached2 = cache.get(host2);
+        Assert.assertTrue(cached2 instanceof CustomDigestScheme);
+        Assert.assertNotSame(digestScheme, cached2);
+        Assert.assertEquals("digest", ((CustomDigestScheme) cached2).tag);
+    }
+
 }
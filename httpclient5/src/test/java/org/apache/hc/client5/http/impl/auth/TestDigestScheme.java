@@ -723,4 +723,89 @@ public void testSerialization() throws Exception {
         Assert.assertEquals(digestScheme.getCnonce(), authScheme.getCnonce());
     }
 
+    @Test
+    public void testCopy() throws Exception {
+        final HttpRequest request = new BasicHttpRequest("Simple", "/");
+        final HttpHost host = new HttpHost("somehost", 80);
+        final AuthScope authScope = new AuthScope(host, "realm1", null);
+        final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        final Credentials creds = new UsernamePasswordCredentials("username","password".toCharArray());
+        credentialsProvider.setCredentials(authScope, creds);
+
+        final String challenge = StandardAuthScheme.DIGEST + " realm=\"realm1\", nonce=\"f2a3f18799759d4f1a1c068b92b573cb\", " +
+                "qop=\"auth\"";
+        final DigestScheme authscheme = new DigestScheme();
+        authscheme.processChallenge(parse(challenge), null);
+        Assert.assertTrue(authscheme.isResponseReady(host, credentialsProvider, null));
+        authscheme.generateAuthResponse(host, request, null);
+
+        final DigestScheme copy = authscheme.copy();
+        Assert.assertNotSame(authscheme, copy);
+        Assert.assertEquals(authscheme.getRealm(), copy.getRealm());
+        Assert.assertEquals(authscheme.getNonce(), copy.getNonce());
+        Assert.assertEquals(authscheme.isChallengeComplete(), copy.isChallengeComplete());
+        Assert.assertEquals(1, copy.getNounceCount());
+
+        final Map<String, String> table1 = parseAuthResponse(copy.generateAuthResponse(host, request, null));
+        Assert.assertEquals("00000002", table1.get("nc"));
+        Assert.assertEquals("username", table1.get("username"));
+        // nonce count is shared by copies as long as the nonce is the same
+        final Map<String, String> table2 = parseAuthResponse(authscheme.generateAuthResponse(host, request, null));
+        Assert.assertEquals("00000003", table2.get("nc"));
+
+        copy.processChallenge(parse(StandardAuthScheme.DIGEST + " realm=\"realm2\", nonce=\"abcd\""), null);
+        Assert.assertEquals("realm1", authscheme.getRealm());
+    }
+
+    @Test
+    public void testNextNonce() throws Exception {
+        final HttpRequest request = new BasicHttpRequest("Simple", "/");
+        final HttpHost host = new HttpHost("somehost", 80);
+        final AuthScope authScope = new AuthScope(host, "realm1", null);
+        final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        final Credentials creds = new UsernamePasswordCredentials("username","password".toCharArray());
+        credentialsProvider.setCredentials(authScope, creds);
+
+        final String challenge = StandardAuthScheme.DIGEST + " realm=\"realm1\", nonce=\"f2a3f18799759d4f1a1c068b92b573cb\", " +
+                "qop=\"auth\"";
+        final DigestScheme authscheme = new DigestScheme();
+        authscheme.processChallenge(parse(challenge), null);
+        Assert.assertTrue(authscheme.isResponseReady(host, credentialsProvider, null));
+        authscheme.generateAuthResponse(host, request, null);
+        authscheme.generateAuthResponse(host, request, null);
+        Assert.assertEquals(2, authscheme.getNounceCount());
+
+        Assert.assertFalse(authscheme.setNextNonce("f2a3f18799759d4f1a1c068b92b573cb"));
+        Assert.assertTrue(authscheme.setNextNonce("8c1a2f4e"));
+        final DigestScheme copy1 = authscheme.copy();
+        final DigestScheme copy2 = authscheme.copy();
+
+        final Map<String, String> table1 = parseAuthResponse(copy1.generateAuthResponse(host, request, null));
+        Assert.assertEquals("8c1a2f4e", table1.get("nonce"));
+        Assert.assertEquals("00000001", table1.get("nc"));
+        final Map<String, String> table2 = parseAuthResponse(copy2.generateAuthResponse(host, request, null));
+        Assert.assertEquals("8c1a2f4e", table2.get("nonce"));
+        Assert.assertEquals("00000002", table2.get("nc"));
+        Assert.assertEquals(table1.get("cnonce"), table2.get("cnonce"));
+    }
+
+    @Test
+    public void testDigestResponseIsStableAcrossRequests() throws Exception {
+        final HttpRequest request = new BasicHttpRequest("Simple", "/");
+        final HttpHost host = new HttpHost("somehost", 80);
+        final AuthScope authScope = new AuthScope(host, "realm1", null);
+        final BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        final Credentials creds = new UsernamePasswordCredentials("username","password".toCharArray());
+        credentialsProvider.setCredentials(authScope, creds);
+
+        final String challenge = StandardAuthScheme.DIGEST + " realm=\"realm1\", nonce=\"f2a3f18799759d4f1a1c068b92b573cb\"";
+        final DigestScheme authscheme = new DigestScheme();
+        authscheme.processChallenge(parse(challenge), null);
+        Assert.assertTrue(authscheme.isResponseReady(host, credentialsProvider, null));
+        for (int i = 0; i < 3; i++) {
+            final Map<String, String> table = parseAuthResponse(authscheme.copy().generateAuthResponse(host, request, null));
+            Assert.assertEquals("e95a7ddf37c2eab009568b1ed134f89a", table.get("response"));
+        }
+    }
+
 }
@@ -161,6 +161,28 @@ public void testAuthenticationNotRequestedSuccess2() throws Exception {
         Mockito.verify(this.authCache).put(this.defaultHost, this.authScheme);
     }
 
+    @Test
+    public void testPreemptiveDigestNextNonce() throws Exception {
+        final DigestScheme digestScheme = new DigestScheme();
+        digestScheme.initPreemptive(new UsernamePasswordCredentials("user", "pass".toCharArray()), "cnonce", "realm1");
+        Assert.assertFalse(digestScheme.setNextNonce(null));
+        this.authExchange.select(digestScheme);
+
+        final HttpResponse response1 = new BasicHttpResponse(HttpStatus.SC_OK, "OK");
+        Assert.assertFalse(this.httpAuthenticator.isChallenged(
+                this.defaultHost, ChallengeType.TARGET, response1, this.authExchange, this.context));
+        Mockito.verifyNoInteractions(this.authCache);
+
+        final HttpResponse response2 = new BasicHttpResponse(HttpStatus.SC_OK, "OK");
+        response2.setHeader("Authentication-Info", "qop=auth, nextnonce=\"abcdef\", nc=00000001");
+        Assert.assertFalse(this.httpAuthenticator.isChallenged(
+                this.defaultHost, ChallengeType.TARGET, response2, this.authExchange, this.context));
+        Assert.assertEquals(AuthExchange.State.UNCHALLENGED, this.authExchange.getState());
+        Assert.assertEquals("abcdef", digestScheme.getNonce());
+        Assert.assertEquals(0, digestScheme.getNounceCount());
+        Mockito.verify(this.authCache).put(this.defaultHost, digestScheme);
+    }
+
     @Test
     public void testAuthentication() throws Exception {
         final HttpHost host = new HttpHost("somehost", 80);
@@ -0,0 +1,102 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.classic;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import org.apache.hc.client5.http.CircuitBreakerOpenException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecRuntime;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.CircuitBreaker;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestCircuitBreakerExec {
+
+    @Mock
+    private ExecChain chain;
+    @Mock
+    private ExecRuntime endpoint;
+
+    private CircuitBreaker circuitBreaker;
+    private CircuitBreakerExec circuitBreakerExec;
+    private HttpRoute route;
+    private HttpGet request;
+    private ExecChain.Scope scope;
+
+    @Before
+    public void setup() {
+        circuitBreaker = new CircuitBreaker(10, 2, 0.5, TimeValue.ofMinutes(1), 1, null);
+        circuitBreakerExec = new CircuitBreakerExec(circuitBreaker);
+        route = new HttpRoute(new HttpHost("localhost", 80));
+        request = new HttpGet("/test");
+        scope = new ExecChain.Scope("test", route, request, endpoint, HttpClientContext.create());
+    }
+
+    @Test
+    public void testFailFastWhenOpen() throws Exception {
+        Mockito.when(chain.proceed(Mockito.same(request), Mockito.same(scope)))
+                .thenReturn(new BasicClassicHttpResponse(HttpStatus.SC_SERVICE_UNAVAILABLE))
+                .thenThrow(new SocketTimeoutException());
+
+        final ClassicHttpResponse response = circuitBreakerExec.execute(request, scope, chain);
+        Assert.assertEquals(HttpStatus.SC_SERVICE_UNAVAILABLE, response.getCode());
+        Assert.assertThrows(SocketTimeoutException.class, () -> circuitBreakerExec.execute(request, scope, chain));
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(route));
+
+        final IOException ex = Assert.assertThrows(CircuitBreakerOpenException.class, () ->
+                circuitBreakerExec.execute(request, scope, chain));
+        Assert.assertSame(route, ((CircuitBreakerOpenException) ex).getRoute());
+        Mockito.verify(chain, Mockito.times(2)).proceed(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testSuccessfulResponsesKeepCircuitClosed() throws Exception {
+        Mockito.when(chain.proceed(Mockito.same(request), Mockito.same(scope)))
+                .thenReturn(new BasicClassicHttpResponse(HttpStatus.SC_OK));
+        for (int i = 0; i < 5; i++) {
+            circuitBreakerExec.execute(request, scope, chain);
+        }
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(route));
+    }
+
+}
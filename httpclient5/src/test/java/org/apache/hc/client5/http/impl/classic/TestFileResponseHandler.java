@@ -0,0 +1,135 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.classic;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hc.client5.http.ClientProtocolException;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.entity.SyncPolicy;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link FileResponseHandler}.
+ */
+@SuppressWarnings("boxing") // test code
+public class TestFileResponseHandler {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File file;
+    private FileChannel fileChannel;
+
+    @Before
+    public void setup() throws Exception {
+        file = tempFolder.newFile();
+        fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        fileChannel.close();
+    }
+
+    private static ClassicHttpResponse response(final int status, final String content) {
+        final ClassicHttpResponse response = new BasicClassicHttpResponse(status);
+        response.setEntity(new StringEntity(content, ContentType.TEXT_PLAIN));
+        return response;
+    }
+
+    private String fileContent() throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testFullContentReplacesFile() throws Exception {
+        Files.write(file.toPath(), "some much longer stale content".getBytes(StandardCharsets.US_ASCII));
+
+        final FileResponseHandler handler = new FileResponseHandler(fileChannel, SyncPolicy.ON_COMPLETION);
+        Assert.assertEquals(5L, (long) handler.handleResponse(response(200, "stuff")));
+        Assert.assertEquals("stuff", fileContent());
+    }
+
+    @Test
+    public void testPartialContentResumesAtOffset() throws Exception {
+        Files.write(file.toPath(), "0123456".getBytes(StandardCharsets.US_ASCII));
+
+        final ClassicHttpResponse response = response(206, "789abcdef");
+        response.addHeader(HttpHeaders.CONTENT_RANGE, "bytes 7-15/16");
+        final FileResponseHandler handler = new FileResponseHandler(fileChannel, SyncPolicy.every(4));
+        Assert.assertEquals(9L, (long) handler.handleResponse(response));
+        Assert.assertEquals("0123456789abcdef", fileContent());
+    }
+
+    @Test
+    public void testPartialContentBeyondEndOfFile() throws Exception {
+        Files.write(file.toPath(), "0123".getBytes(StandardCharsets.US_ASCII));
+
+        final ClassicHttpResponse response = response(206, "89ab");
+        response.addHeader(HttpHeaders.CONTENT_RANGE, "bytes 8-11/12");
+        final FileResponseHandler handler = new FileResponseHandler(fileChannel);
+        Assert.assertThrows(IOException.class, () -> handler.handleResponse(response));
+        Assert.assertEquals("0123", fileContent());
+    }
+
+    @Test
+    public void testPartialContentInvalidContentRange() throws Exception {
+        final FileResponseHandler handler = new FileResponseHandler(fileChannel);
+        Assert.assertThrows(ClientProtocolException.class, () -> handler.handleResponse(response(206, "stuff")));
+
+        final ClassicHttpResponse response = response(206, "stuff");
+        response.addHeader(HttpHeaders.CONTENT_RANGE, "bytes */16");
+        Assert.assertThrows(ClientProtocolException.class, () -> handler.handleResponse(response));
+        Assert.assertEquals(0L, fileChannel.size());
+    }
+
+    @Test
+    public void testUnsuccessfulResponse() throws Exception {
+        final FileResponseHandler handler = new FileResponseHandler(fileChannel);
+        final HttpResponseException exception = Assert.assertThrows(HttpResponseException.class, () ->
+                handler.handleResponse(response(404, "not found")));
+        Assert.assertEquals(404, exception.getStatusCode());
+        Assert.assertEquals(0L, fileChannel.size());
+    }
+
+}
@@ -38,6 +38,7 @@
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.entity.EntityBuilder;
+import org.apache.hc.client5.http.impl.RetryBudget;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -296,4 +297,61 @@ public void testNonRepeatableRequest() throws Exception {
                 Mockito.same(scope));
     }
 
+    @Test
+    public void testRetryBudgetCreditedForEveryRequest() throws Exception {
+        final RetryBudget retryBudget = new RetryBudget(0.5, 0.0, 2);
+        final HttpRequestRetryExec budgetedExec = new HttpRequestRetryExec(retryStrategy, retryBudget);
+        final HttpRoute route = new HttpRoute(target);
+        final HttpClientContext context = HttpClientContext.create();
+        Assert.assertTrue(retryBudget.tryRetry(route));
+        Assert.assertTrue(retryBudget.tryRetry(route));
+
+        final ClassicHttpResponse response = Mockito.mock(ClassicHttpResponse.class);
+        Mockito.when(chain.proceed(
+                Mockito.any(),
+                Mockito.any())).thenReturn(response);
+        final HttpGet request = new HttpGet("/test");
+        budgetedExec.execute(request, new ExecChain.Scope("test", route, request, endpoint, context), chain);
+
+        // Non-repeatable requests are never retried but count nonetheless
+        final HttpPost post = new HttpPost("/test");
+        post.setEntity(EntityBuilder.create()
+                .setStream(new ByteArrayInputStream(new byte[]{}))
+                .build());
+        Mockito.when(chain.proceed(
+                Mockito.any(),
+                Mockito.any())).thenThrow(new IOException("Ka-boom"));
+        Assert.assertThrows(IOException.class, () ->
+                budgetedExec.execute(post, new ExecChain.Scope("test", route, post, endpoint, context), chain));
+
+        Assert.assertEquals(1.0, retryBudget.getAvailableRetries(), 0.0);
+        Assert.assertEquals(1.0, retryBudget.getAvailableRetries(route), 0.0);
+    }
+
+    @Test
+    public void testRetryBudgetDeniesRetries() throws Exception {
+        final RetryBudget retryBudget = new RetryBudget(0.5, 0.0, 2);
+        final HttpRequestRetryExec budgetedExec = new HttpRequestRetryExec(retryStrategy, retryBudget);
+        final HttpRoute route = new HttpRoute(target);
+        final HttpClientContext context = HttpClientContext.create();
+
+        final ClassicHttpResponse response = Mockito.mock(ClassicHttpResponse.class);
+        Mockito.when(chain.proceed(
+                Mockito.any(),
+                Mockito.any())).thenReturn(response);
+        Mockito.when(retryStrategy.retryRequest(
+                Mockito.any(),
+                Mockito.anyInt(),
+                Mockito.any())).thenReturn(Boolean.TRUE);
+        final HttpGet request = new HttpGet("/test");
+        final ClassicHttpResponse finalResponse = budgetedExec.execute(
+                request, new ExecChain.Scope("test", route, request, endpoint, context), chain);
+
+        // The burst allowance covers two retries, the third is denied
+        Assert.assertSame(response, finalResponse);
+        Mockito.verify(chain, Mockito.times(3)).proceed(Mockito.any(), Mockito.any());
+        Assert.assertEquals(1, retryBudget.getRetriesDenied());
+        Assert.assertEquals(1, retryBudget.getRetriesDenied(route));
+    }
+
 }
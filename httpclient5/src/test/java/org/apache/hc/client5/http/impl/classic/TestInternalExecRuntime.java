@@ -30,6 +30,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
 import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.io.ConnectionEndpoint;
@@ -47,6 +48,7 @@
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -134,6 +136,42 @@ public void testAcquireEndpointLeaseRequestTimeout() throws Exception {
                 execRuntime.acquireEndpoint("some-id", route, null, context));
     }
 
+    @Test
+    public void testAcquireEndpointEvents() throws Exception {
+        final HttpClientEventListener eventListener = Mockito.mock(HttpClientEventListener.class);
+        final HttpClientContext context = HttpClientContext.create();
+        context.setEventListener(eventListener);
+
+        Mockito.when(mgr.lease(Mockito.eq("some-id"), Mockito.eq(route), Mockito.any(), Mockito.any()))
+                .thenReturn(leaseRequest);
+        Mockito.when(leaseRequest.get(Mockito.any())).thenReturn(connectionEndpoint);
+
+        execRuntime.acquireEndpoint("some-id", route, null, context);
+
+        final InOrder inOrder = Mockito.inOrder(eventListener);
+        inOrder.verify(eventListener).leaseRequested(Mockito.eq("some-id"), Mockito.eq(route), Mockito.anyLong());
+        inOrder.verify(eventListener).leaseCompleted(Mockito.eq("some-id"), Mockito.eq(route), Mockito.anyLong());
+        Mockito.verifyNoMoreInteractions(eventListener);
+    }
+
+    @Test
+    public void testAcquireEndpointLeaseRequestTimeoutEvents() throws Exception {
+        final HttpClientEventListener eventListener = Mockito.mock(HttpClientEventListener.class);
+        final HttpClientContext context = HttpClientContext.create();
+        context.setEventListener(eventListener);
+
+        Mockito.when(mgr.lease(Mockito.eq("some-id"), Mockito.eq(route), Mockito.any(), Mockito.any()))
+                .thenReturn(leaseRequest);
+        Mockito.when(leaseRequest.get(Mockito.any())).thenThrow(new TimeoutException("timeout"));
+
+        final ConnectionRequestTimeoutException ex = Assert.assertThrows(ConnectionRequestTimeoutException.class, () ->
+                execRuntime.acquireEndpoint("some-id", route, null, context));
+
+        Mockito.verify(eventListener).leaseRequested(Mockito.eq("some-id"), Mockito.eq(route), Mockito.anyLong());
+        Mockito.verify(eventListener).leaseFailed(Mockito.eq("some-id"), Mockito.eq(route), Mockito.same(ex), Mockito.anyLong());
+        Mockito.verifyNoMoreInteractions(eventListener);
+    }
+
     @Test
     public void testAcquireEndpointLeaseRequestFailure() throws Exception {
         final HttpClientContext context = HttpClientContext.create();
@@ -31,11 +31,14 @@
 import java.io.InputStream;
 import java.util.List;
 
+import org.apache.hc.client5.http.HttpClientEventListener;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.classic.ExecRuntime;
 import org.apache.hc.core5.function.Supplier;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.impl.io.ChunkedInputStream;
 import org.apache.hc.core5.http.impl.io.SessionInputBufferImpl;
 import org.apache.hc.core5.http.io.SessionInputBuffer;
@@ -106,4 +109,38 @@ public void testGetTrailersWithChunkedInputStream() throws Exception {
         Assert.assertEquals("X-Test-Trailer-Header", header.getName());
         Assert.assertEquals("test", header.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCloseBeforeEndOfStreamReportsFailure() throws Exception {
+        final HttpClientEventListener eventListener = Mockito.mock(HttpClientEventListener.class);
+        final HttpRoute route = new HttpRoute(new HttpHost("somehost", 80));
+        final ResponseEntityProxy proxy = new ResponseEntityProxy(entity, execRuntime, eventListener, "ex-1", route);
+
+        proxy.close();
+        proxy.close();
+
+        Mockito.verify(entity, Mockito.times(2)).close();
+        Mockito.verify(eventListener).exchangeFailed(
+                Mockito.eq("ex-1"), Mockito.same(route), Mockito.any(), Mockito.anyLong());
+        Mockito.verify(eventListener, Mockito.never()).exchangeCompleted(
+                Mockito.any(), Mockito.any(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testCloseAfterEndOfStreamReportsCompletion() throws Exception {
+        final HttpClientEventListener eventListener = Mockito.mock(HttpClientEventListener.class);
+        final HttpRoute route = new HttpRoute(new HttpHost("somehost", 80));
+        Mockito.when(entity.getContent()).thenReturn(new ByteArrayInputStream("Test payload".getBytes()));
+        final ResponseEntityProxy proxy = new ResponseEntityProxy(entity, execRuntime, eventListener, "ex-1", route);
+
+        final InputStream is = proxy.getContent();
+        while (is.read() != -1) {} // read until the end
+        proxy.close();
+
+        Mockito.verify(eventListener).exchangeCompleted(
+                Mockito.eq("ex-1"), Mockito.same(route), Mockito.anyLong());
+        Mockito.verify(eventListener, Mockito.never()).exchangeFailed(
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong());
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.cookie;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.hc.client5.http.cookie.BoundedCookieStore;
+import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.client5.http.psl.DomainType;
+import org.apache.hc.client5.http.psl.PublicSuffixMatcher;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BoundedCookieStore}.
+ */
+public class TestBoundedCookieStore {
+
+    private PublicSuffixMatcher matcher;
+
+    @Before
+    public void setUp() {
+        matcher = new PublicSuffixMatcher(DomainType.ICANN, Arrays.asList("com", "org"), null);
+    }
+
+    private static BasicClientCookie cookie(final String name, final String domain) {
+        final BasicClientCookie cookie = new BasicClientCookie(name, "value");
+        cookie.setDomain(domain);
+        cookie.setPath("/");
+        return cookie;
+    }
+
+    private static Date daysFromNow(final int days) {
+        final Calendar c = Calendar.getInstance();
+        c.add(Calendar.DAY_OF_YEAR, days);
+        return c.getTime();
+    }
+
+    private static String names(final List<Cookie> cookies) {
+        final StringBuilder buf = new StringBuilder();
+        for (final Cookie cookie : cookies) {
+            if (buf.length() > 0) {
+                buf.append(',');
+            }
+            buf.append(cookie.getName());
+        }
+        return buf.toString();
+    }
+
+    @Test
+    public void testReplaceEquivalentCookie() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 2, 10);
+        store.addCookie(cookie("name1", "www.example.com"));
+        final BasicClientCookie replacement = cookie("name1", "WWW.example.com");
+        replacement.setValue("new value");
+        store.addCookie(replacement);
+        final List<Cookie> cookies = store.getCookies();
+        Assert.assertEquals(1, cookies.size());
+        Assert.assertEquals("new value", cookies.get(0).getValue());
+    }
+
+    @Test
+    public void testPerDomainLimit() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 2, 10);
+        store.addCookie(cookie("a1", "www.example.com"));
+        store.addCookie(cookie("a2", "api.example.com"));
+        store.addCookie(cookie("b1", "example.org"));
+        store.addCookie(cookie("a3", "example.com"));
+        Assert.assertEquals("a2,b1,a3", names(store.getCookies()));
+    }
+
+    @Test
+    public void testPerDomainLimitEvictsLeastRecentlyUsed() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 2, 10);
+        store.addCookie(cookie("a1", "www.example.com"));
+        store.addCookie(cookie("a2", "api.example.com"));
+        store.addCookie(cookie("a1", "www.example.com"));
+        store.addCookie(cookie("a3", "example.com"));
+        Assert.assertEquals("a1,a3", names(store.getCookies()));
+    }
+
+    @Test
+    public void testTotalLimitEvictsLeastRecentlyUsed() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 10, 3);
+        store.addCookie(cookie("a", "a.com"));
+        store.addCookie(cookie("b", "b.com"));
+        store.addCookie(cookie("c", "c.com"));
+        store.getCookies(new CookieOrigin("a.com", 80, "/", false));
+        store.addCookie(cookie("d", "d.com"));
+        Assert.assertEquals("c,a,d", names(store.getCookies()));
+    }
+
+    @Test
+    public void testMarkUsed() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 10, 3);
+        store.addCookie(cookie("a", "a.com"));
+        store.addCookie(cookie("b", "b.com"));
+        store.addCookie(cookie("c", "c.com"));
+        store.markUsed(store.getCookies(new CookieOrigin("a.com", 80, "/", false)));
+        store.markUsed(Collections.singletonList(cookie("b", "b.com")));
+        store.addCookie(cookie("d", "d.com"));
+        Assert.assertEquals("c,a,d", names(store.getCookies()));
+    }
+
+    @Test
+    public void testExpiredCookiesEvictedFirst() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 10, 3);
+        store.addCookie(cookie("a", "a.com"));
+        final BasicClientCookie expiring = cookie("b", "b.com");
+        expiring.setExpiryDate(new Date(System.currentTimeMillis() + 100));
+        store.addCookie(expiring);
+        store.addCookie(cookie("c", "c.com"));
+        Thread.sleep(500);
+        store.addCookie(cookie("d", "d.com"));
+        Assert.assertEquals("a,c,d", names(store.getCookies()));
+    }
+
+    @Test
+    public void testExpiredCookieNotAdded() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 10, 10);
+        store.addCookie(cookie("name1", "www.example.com"));
+        final BasicClientCookie expired = cookie("name1", "www.example.com");
+        expired.setExpiryDate(daysFromNow(-10));
+        store.addCookie(expired);
+        Assert.assertEquals(0, store.getCookies().size());
+    }
+
+    @Test
+    public void testClearExpired() throws Exception {
+        final BoundedCookieStore store = new BoundedCookieStore(matcher, 10, 10);
+        final BasicClientCookie cookie1 = cookie("name1", "www.example.com");
+        cookie1.setExpiryDate(daysFromNow(1));
+        store.addCookie(cookie1);
+        store.addCookie(cookie("name2", "www.example.org"));
+        Assert.assertFalse(store.clearExpired(new Date()));
+        Assert.assertTrue(store.clearExpired(daysFromNow(2)));
+        Assert.assertEquals("name2", names(store.getCookies()));
+        store.clear();
+        Assert.assertEquals(0, store.getCookies().size());
+    }
+
+}
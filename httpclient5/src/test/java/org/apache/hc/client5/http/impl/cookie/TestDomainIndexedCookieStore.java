@@ -0,0 +1,158 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.cookie;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieOrigin;
+import org.apache.hc.client5.http.cookie.DomainIndexedCookieStore;
+import org.apache.hc.client5.http.psl.DomainType;
+import org.apache.hc.client5.http.psl.PublicSuffixMatcher;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DomainIndexedCookieStore}.
+ */
+public class TestDomainIndexedCookieStore {
+
+    private DomainIndexedCookieStore store;
+
+    @Before
+    public void setUp() {
+        final PublicSuffixMatcher matcher = new PublicSuffixMatcher(DomainType.ICANN,
+                Arrays.asList("com", "uk", "co.uk"), null);
+        store = new DomainIndexedCookieStore(matcher);
+    }
+
+    private static BasicClientCookie cookie(final String name, final String domain) {
+        final BasicClientCookie cookie = new BasicClientCookie(name, "value");
+        cookie.setDomain(domain);
+        cookie.setPath("/");
+        return cookie;
+    }
+
+    private static Set<String> names(final List<Cookie> cookies) {
+        final Set<String> names = new HashSet<>();
+        for (final Cookie cookie : cookies) {
+            names.add(cookie.getName());
+        }
+        return names;
+    }
+
+    private static Date daysFromNow(final int days) {
+        final Calendar c = Calendar.getInstance();
+        c.add(Calendar.DAY_OF_YEAR, days);
+        return c.getTime();
+    }
+
+    @Test
+    public void testBasics() throws Exception {
+        store.addCookie(cookie("name1", "www.example.com"));
+        store.addCookie(cookie("name2", ".example.com"));
+        store.addCookie(cookie("name3", "other.com"));
+        Assert.assertEquals(3, store.getCookies().size());
+        store.clear();
+        Assert.assertEquals(0, store.getCookies().size());
+    }
+
+    @Test
+    public void testReplaceEquivalentCookie() throws Exception {
+        store.addCookie(cookie("name1", "www.example.com"));
+        final BasicClientCookie replacement = cookie("name1", "WWW.example.com");
+        replacement.setValue("new value");
+        store.addCookie(replacement);
+        final List<Cookie> cookies = store.getCookies();
+        Assert.assertEquals(1, cookies.size());
+        Assert.assertEquals("new value", cookies.get(0).getValue());
+    }
+
+    @Test
+    public void testLookupByOrigin() throws Exception {
+        store.addCookie(cookie("host", "www.example.com"));
+        store.addCookie(cookie("parent", ".example.com"));
+        store.addCookie(cookie("other-host", "api.example.com"));
+        store.addCookie(cookie("other-domain", "example.org"));
+        store.addCookie(cookie("uk", "www.example.co.uk"));
+        store.addCookie(cookie("suffix", "com"));
+
+        final Set<String> names = names(store.getCookies(new CookieOrigin("www.example.com", 80, "/", false)));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("host", "parent", "other-host", "suffix")), names);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("uk")),
+                names(store.getCookies(new CookieOrigin("www.example.co.uk", 80, "/", false))));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("other-domain")),
+                names(store.getCookies(new CookieOrigin("example.org", 80, "/", false))));
+        Assert.assertTrue(store.getCookies(new CookieOrigin("example.net", 80, "/", false)).isEmpty());
+    }
+
+    @Test
+    public void testExpiredCookieNotAdded() throws Exception {
+        store.addCookie(cookie("name1", "www.example.com"));
+        final BasicClientCookie expired = cookie("name1", "www.example.com");
+        expired.setExpiryDate(daysFromNow(-10));
+        store.addCookie(expired);
+        Assert.assertEquals(0, store.getCookies().size());
+    }
+
+    @Test
+    public void testLazyExpiry() throws Exception {
+        final BasicClientCookie cookie1 = cookie("name1", "www.example.com");
+        cookie1.setExpiryDate(daysFromNow(1));
+        store.addCookie(cookie1);
+        store.addCookie(cookie("name2", "www.example.com"));
+        store.addCookie(cookie("name3", "www.example.org"));
+        cookie1.setExpiryDate(daysFromNow(-1));
+
+        Assert.assertEquals(3, store.getCookies().size());
+        final List<Cookie> cookies = store.getCookies(new CookieOrigin("www.example.com", 80, "/", false));
+        Assert.assertEquals(1, cookies.size());
+        Assert.assertEquals("name2", cookies.get(0).getName());
+        Assert.assertEquals(2, store.getCookies().size());
+    }
+
+    @Test
+    public void testClearExpired() throws Exception {
+        final BasicClientCookie cookie1 = cookie("name1", "www.example.com");
+        cookie1.setExpiryDate(daysFromNow(1));
+        store.addCookie(cookie1);
+        store.addCookie(cookie("name2", "www.example.org"));
+        Assert.assertFalse(store.clearExpired(new Date()));
+        Assert.assertTrue(store.clearExpired(daysFromNow(2)));
+        final List<Cookie> cookies = store.getCookies();
+        Assert.assertEquals(1, cookies.size());
+        Assert.assertEquals("name2", cookies.get(0).getName());
+    }
+
+}
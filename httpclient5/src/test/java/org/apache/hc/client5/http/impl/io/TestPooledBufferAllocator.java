@@ -0,0 +1,117 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Simple tests for {@link PooledBufferAllocator}.
+ */
+public class TestPooledBufferAllocator {
+
+    @Test
+    public void testAllocateAndRelease() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator(16, 2);
+        final byte[] b1 = allocator.allocate();
+        final byte[] b2 = allocator.allocate();
+        final byte[] b3 = allocator.allocate();
+        Assert.assertEquals(16, b1.length);
+        Assert.assertEquals(0, allocator.getPooled());
+
+        allocator.release(b1);
+        allocator.release(b2);
+        allocator.release(b3);
+        allocator.release(new byte[8]);
+        Assert.assertEquals(2, allocator.getPooled());
+
+        Assert.assertSame(b1, allocator.allocate());
+        Assert.assertSame(b2, allocator.allocate());
+        Assert.assertEquals(0, allocator.getPooled());
+    }
+
+    @Test
+    public void testInvalidArguments() throws Exception {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new PooledBufferAllocator(0, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new PooledBufferAllocator(16, 0));
+    }
+
+    @Test
+    public void testBufferSizeMustMatchChunkSizeHint() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator(16, 2);
+        Assert.assertThrows(IllegalArgumentException.class, () -> ManagedHttpClientConnectionFactory.builder()
+                .http1Config(Http1Config.custom().setChunkSizeHint(32).build())
+                .bufferAllocator(allocator)
+                .build());
+        Assert.assertNotNull(ManagedHttpClientConnectionFactory.builder()
+                .http1Config(Http1Config.custom().setChunkSizeHint(16).build())
+                .bufferAllocator(allocator)
+                .build());
+    }
+
+    @Test
+    public void testChunkedRequestBufferReleased() throws Exception {
+        final PooledBufferAllocator allocator = new PooledBufferAllocator(16, 2);
+        final ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        final Socket socket = Mockito.mock(Socket.class);
+        Mockito.when(socket.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        Mockito.when(socket.getOutputStream()).thenReturn(outStream);
+
+        final ManagedHttpClientConnectionFactory connFactory = ManagedHttpClientConnectionFactory.builder()
+                .bufferAllocator(allocator)
+                .build();
+        final DefaultManagedHttpClientConnection conn =
+                (DefaultManagedHttpClientConnection) connFactory.createConnection(socket);
+
+        for (int i = 0; i < 2; i++) {
+            outStream.reset();
+            final ClassicHttpRequest request = new BasicClassicHttpRequest("POST", "/");
+            request.addHeader(HttpHeaders.TRANSFER_ENCODING, "chunked");
+            request.setEntity(new StringEntity("0123456789abcdefXYZ", ContentType.TEXT_PLAIN, true));
+            conn.sendRequestHeader(request);
+            conn.sendRequestEntity(request);
+            conn.flush();
+
+            final String s = new String(outStream.toByteArray(), StandardCharsets.US_ASCII);
+            Assert.assertTrue(s, s.endsWith("\r\n\r\n13\r\n0123456789abcdefXYZ\r\n0\r\n\r\n"));
+            Assert.assertEquals(1, allocator.getPooled());
+        }
+    }
+
+}
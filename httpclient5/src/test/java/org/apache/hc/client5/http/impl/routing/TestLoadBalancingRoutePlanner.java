@@ -0,0 +1,222 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.impl.routing;
+
+import java.net.InetAddress;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.BasicHttpContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for {@link LoadBalancingRoutePlanner}.
+ */
+@SuppressWarnings("unchecked") // test code
+public class TestLoadBalancingRoutePlanner {
+
+    private DnsResolver dnsResolver;
+    private ConnPoolControl<HttpRoute> connPoolControl;
+    private InetAddress address1;
+    private InetAddress address2;
+    private InetAddress address3;
+
+    @Before
+    public void setup() throws Exception {
+        dnsResolver = Mockito.mock(DnsResolver.class);
+        connPoolControl = Mockito.mock(ConnPoolControl.class);
+        address1 = InetAddress.getByAddress("somehost", new byte[] {10, 0, 0, 1});
+        address2 = InetAddress.getByAddress("somehost", new byte[] {10, 0, 0, 2});
+        address3 = InetAddress.getByAddress("somehost", new byte[] {10, 0, 0, 3});
+        Mockito.when(dnsResolver.resolve("somehost")).thenReturn(new InetAddress[] {address1, address2, address3});
+    }
+
+    private LoadBalancingRoutePlanner createPlanner(final EndpointSelectionPolicy policy) {
+        return new LoadBalancingRoutePlanner(
+                new DefaultRoutePlanner(null), dnsResolver, connPoolControl, policy, TimeValue.ofMinutes(1));
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpHost target = new HttpHost("https", "somehost", 443);
+        final HttpContext context = new BasicHttpContext();
+
+        final Set<InetAddress> seen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            final HttpRoute route = routePlanner.determineRoute(target, context);
+            Assert.assertEquals("somehost", route.getTargetHost().getHostName());
+            Assert.assertEquals(443, route.getTargetHost().getPort());
+            Assert.assertTrue(route.isSecure());
+            seen.add(route.getTargetHost().getAddress());
+        }
+        Assert.assertEquals(3, seen.size());
+    }
+
+    @Test
+    public void testLeastOutstanding() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.LEAST_OUTSTANDING);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        Mockito.when(connPoolControl.getStats(Mockito.any())).thenAnswer(invocation -> {
+            final HttpRoute route = invocation.getArgument(0);
+            final InetAddress address = route.getTargetHost().getAddress();
+            return address.equals(address2) ? new PoolStats(1, 0, 0, 5) : new PoolStats(3, 1, 0, 5);
+        });
+        for (int i = 0; i < 5; i++) {
+            final HttpRoute route = routePlanner.determineRoute(target, new BasicHttpContext());
+            Assert.assertEquals(address2, route.getTargetHost().getAddress());
+        }
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesAvoidsMostLoaded() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.POWER_OF_TWO_CHOICES);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        Mockito.when(connPoolControl.getStats(Mockito.any())).thenAnswer(invocation -> {
+            final HttpRoute route = invocation.getArgument(0);
+            final InetAddress address = route.getTargetHost().getAddress();
+            return address.equals(address3) ? new PoolStats(10, 10, 0, 20) : new PoolStats(0, 0, 0, 20);
+        });
+        for (int i = 0; i < 20; i++) {
+            final HttpRoute route = routePlanner.determineRoute(target, new BasicHttpContext());
+            Assert.assertNotEquals(address3, route.getTargetHost().getAddress());
+        }
+    }
+
+    @Test
+    public void testEjectedEndpointSkipped() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        final HttpRoute route = routePlanner.determineRoute(target, new BasicHttpContext());
+        routePlanner.ejectEndpoint(route);
+        Assert.assertTrue(routePlanner.isEjected(route));
+        for (int i = 0; i < 6; i++) {
+            final HttpRoute next = routePlanner.determineRoute(target, new BasicHttpContext());
+            Assert.assertNotEquals(route.getTargetHost().getAddress(), next.getTargetHost().getAddress());
+        }
+    }
+
+    @Test
+    public void testAllEndpointsEjected() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        for (int i = 0; i < 3; i++) {
+            routePlanner.ejectEndpoint(routePlanner.determineRoute(target, new BasicHttpContext()));
+        }
+        final HttpRoute route = routePlanner.determineRoute(target, new BasicHttpContext());
+        Assert.assertNotNull(route.getTargetHost().getAddress());
+    }
+
+    @Test
+    public void testSingleAddressUnchanged() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpHost target = new HttpHost("http", "otherhost", 80);
+        Mockito.when(dnsResolver.resolve("otherhost")).thenReturn(new InetAddress[] {address1});
+        final HttpRoute route = routePlanner.determineRoute(target, new BasicHttpContext());
+        Assert.assertEquals(target, route.getTargetHost());
+        Assert.assertNull(route.getTargetHost().getAddress());
+    }
+
+    @Test
+    public void testViaProxyUnchanged() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        final HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom().setProxy(new HttpHost("proxy", 8080)).build());
+        final HttpRoute route = routePlanner.determineRoute(target, context);
+        Assert.assertEquals(target, route.getTargetHost());
+        Mockito.verifyNoInteractions(dnsResolver);
+    }
+
+    @Test
+    public void testResolutionCached() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        for (int i = 0; i < 5; i++) {
+            routePlanner.determineRoute(target, new BasicHttpContext());
+        }
+        Mockito.verify(dnsResolver, Mockito.times(1)).resolve("somehost");
+    }
+
+    @Test
+    public void testResolutionExpired() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = new LoadBalancingRoutePlanner(
+                new DefaultRoutePlanner(null), dnsResolver, connPoolControl, EndpointSelectionPolicy.ROUND_ROBIN,
+                TimeValue.ofMinutes(1), TimeValue.ZERO_MILLISECONDS);
+        final HttpHost target = new HttpHost("http", "somehost", 80);
+        for (int i = 0; i < 3; i++) {
+            routePlanner.determineRoute(target, new BasicHttpContext());
+        }
+        Mockito.verify(dnsResolver, Mockito.times(3)).resolve("somehost");
+    }
+
+    @Test
+    public void testResolutionCacheBounded() throws Exception {
+        Mockito.when(dnsResolver.resolve(Mockito.startsWith("host"))).thenReturn(new InetAddress[] {address1, address2});
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        for (int i = 0; i < LoadBalancingRoutePlanner.MAX_CACHED_RESOLUTIONS; i++) {
+            routePlanner.determineRoute(new HttpHost("http", "host" + i, 80), new BasicHttpContext());
+        }
+        for (int i = 0; i < 2; i++) {
+            routePlanner.determineRoute(new HttpHost("http", "somehost", 80), new BasicHttpContext());
+            routePlanner.determineRoute(new HttpHost("http", "host0", 80), new BasicHttpContext());
+        }
+        // The cache is full of unexpired resolutions
+        Mockito.verify(dnsResolver, Mockito.times(2)).resolve("somehost");
+        Mockito.verify(dnsResolver, Mockito.times(1)).resolve("host0");
+    }
+
+    @Test
+    public void testEjectionByPort() throws Exception {
+        final LoadBalancingRoutePlanner routePlanner = createPlanner(EndpointSelectionPolicy.ROUND_ROBIN);
+        final HttpRoute route = routePlanner.determineRoute(new HttpHost("http", "somehost", 80), new BasicHttpContext());
+        routePlanner.ejectEndpoint(route);
+        Assert.assertTrue(routePlanner.isEjected(route));
+
+        final HttpHost otherPort = new HttpHost("http", route.getTargetHost().getAddress(), "somehost", 8080);
+        Assert.assertFalse(routePlanner.isEjected(new HttpRoute(otherPort)));
+        final Set<InetAddress> seen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            seen.add(routePlanner.determineRoute(new HttpHost("http", "somehost", 8080), new BasicHttpContext())
+                    .getTargetHost().getAddress());
+        }
+        Assert.assertTrue(seen.contains(route.getTargetHost().getAddress()));
+    }
+
+}
@@ -411,4 +411,136 @@ public void testCookieOrder() throws Exception {
         Assert.assertEquals("name1=value; name2=value; name3=value", headers1[0].getValue());
     }
 
+    private HttpClientContext createContext() {
+        final HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(HttpClientContext.HTTP_ROUTE, new HttpRoute(this.target, null, false));
+        context.setAttribute(HttpClientContext.COOKIE_STORE, this.cookieStore);
+        context.setAttribute(HttpClientContext.COOKIESPEC_REGISTRY, this.cookieSpecRegistry);
+        return context;
+    }
+
+    @Test
+    public void testCachedCookieHeader() throws Exception {
+        this.cookieStore = Mockito.spy(this.cookieStore);
+        final HttpRequestInterceptor interceptor = new RequestAddCookies(100);
+
+        final HttpRequest request1 = new BasicHttpRequest("GET", "/");
+        interceptor.process(request1, null, createContext());
+        final HttpRequest request2 = new BasicHttpRequest("GET", "/");
+        interceptor.process(request2, null, createContext());
+
+        Assert.assertEquals("name1=value1; name2=value2", request1.getFirstHeader("Cookie").getValue());
+        Assert.assertEquals("name1=value1; name2=value2", request2.getFirstHeader("Cookie").getValue());
+        Mockito.verify(this.cookieStore, Mockito.times(1)).getCookies(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testCachedCookieHeaderCacheDisabled() throws Exception {
+        this.cookieStore = Mockito.spy(this.cookieStore);
+        final HttpRequestInterceptor interceptor = new RequestAddCookies();
+
+        interceptor.process(new BasicHttpRequest("GET", "/"), null, createContext());
+        interceptor.process(new BasicHttpRequest("GET", "/"), null, createContext());
+
+        Mockito.verify(this.cookieStore, Mockito.times(2)).getCookies(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testCachedCookieHeaderStoreChanged() throws Exception {
+        final HttpRequestInterceptor interceptor = new RequestAddCookies(100);
+
+        final HttpRequest request1 = new BasicHttpRequest("GET", "/");
+        interceptor.process(request1, null, createContext());
+        Assert.assertEquals("name1=value1; name2=value2", request1.getFirstHeader("Cookie").getValue());
+
+        final BasicClientCookie cookie3 = new BasicClientCookie("name3", "value3");
+        cookie3.setDomain("localhost.local");
+        cookie3.setPath("/");
+        this.cookieStore.addCookie(cookie3);
+
+        final HttpRequest request2 = new BasicHttpRequest("GET", "/");
+        interceptor.process(request2, null, createContext());
+        Assert.assertEquals("name1=value1; name2=value2; name3=value3", request2.getFirstHeader("Cookie").getValue());
+    }
+
+    @Test
+    public void testCachedCookieHeaderCookieExpired() throws Exception {
+        final BasicClientCookie cookie3 = new BasicClientCookie("name3", "value3");
+        cookie3.setDomain("localhost.local");
+        cookie3.setPath("/");
+        cookie3.setExpiryDate(new Date(System.currentTimeMillis() + 100));
+        this.cookieStore.addCookie(cookie3);
+
+        final HttpRequestInterceptor interceptor = new RequestAddCookies(100);
+
+        final HttpRequest request1 = new BasicHttpRequest("GET", "/");
+        interceptor.process(request1, null, createContext());
+        Assert.assertEquals("name1=value1; name2=value2; name3=value3", request1.getFirstHeader("Cookie").getValue());
+
+        // Make sure the third cookie expires
+        Thread.sleep(200);
+
+        final HttpRequest request2 = new BasicHttpRequest("GET", "/");
+        interceptor.process(request2, null, createContext());
+        Assert.assertEquals("name1=value1; name2=value2", request2.getFirstHeader("Cookie").getValue());
+    }
+
+    @Test
+    public void testCachedCookieHeaderSameDirectory() throws Exception {
+        final BasicClientCookie cookie3 = new BasicClientCookie("name3", "value3");
+        cookie3.setDomain("localhost.local");
+        cookie3.setPath("/stuff/a");
+        this.cookieStore.addCookie(cookie3);
+        this.cookieStore = Mockito.spy(this.cookieStore);
+        final HttpRequestInterceptor interceptor = new RequestAddCookies(100);
+
+        final HttpRequest request1 = new BasicHttpRequest("GET", "/stuff/a");
+        interceptor.process(request1, null, createContext());
+        final HttpRequest request2 = new BasicHttpRequest("GET", "/stuff/a?p=/b");
+        interceptor.process(request2, null, createContext());
+        final HttpRequest request3 = new BasicHttpRequest("GET", "/stuff/b");
+        interceptor.process(request3, null, createContext());
+        final HttpRequest request4 = new BasicHttpRequest("GET", "/stuff/c");
+        interceptor.process(request4, null, createContext());
+
+        Assert.assertEquals("name3=value3; name1=value1; name2=value2", request1.getFirstHeader("Cookie").getValue());
+        Assert.assertEquals("name1=value1; name2=value2", request2.getFirstHeader("Cookie").getValue());
+        Assert.assertEquals("name1=value1; name2=value2", request3.getFirstHeader("Cookie").getValue());
+        Assert.assertEquals("name1=value1; name2=value2", request4.getFirstHeader("Cookie").getValue());
+        // request 2 does not match the path of cookie 3 like request 1 does,
+        // requests 3 and 4 match the same paths as request 2
+        Mockito.verify(this.cookieStore, Mockito.times(2)).getCookies(ArgumentMatchers.any());
+        Mockito.verify(this.cookieStore, Mockito.times(2)).markUsed(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testCachedCookieHeaderEviction() throws Exception {
+        this.cookieStore = Mockito.spy(this.cookieStore);
+        final HttpRequestInterceptor interceptor = new RequestAddCookies(8);
+
+        interceptor.process(new BasicHttpRequest("GET", "/0/"), null, createContext());
+        for (int i = 1; i <= 8; i++) {
+            interceptor.process(new BasicHttpRequest("GET", "/" + i + "/"), null, createContext());
+            // keep the first entry in use
+            interceptor.process(new BasicHttpRequest("GET", "/0/"), null, createContext());
+        }
+        Mockito.verify(this.cookieStore, Mockito.times(9)).getCookies(ArgumentMatchers.any());
+
+        interceptor.process(new BasicHttpRequest("GET", "/0/"), null, createContext());
+        interceptor.process(new BasicHttpRequest("GET", "/8/"), null, createContext());
+        Mockito.verify(this.cookieStore, Mockito.times(9)).getCookies(ArgumentMatchers.any());
+        interceptor.process(new BasicHttpRequest("GET", "/1/"), null, createContext());
+        Mockito.verify(this.cookieStore, Mockito.times(10)).getCookies(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testDirectoryOf() throws Exception {
+        Assert.assertEquals("/", RequestAddCookies.directoryOf("/"));
+        Assert.assertEquals("/", RequestAddCookies.directoryOf("/stuff"));
+        Assert.assertEquals("/stuff/", RequestAddCookies.directoryOf("/stuff/"));
+        Assert.assertEquals("/stuff/", RequestAddCookies.directoryOf("/stuff/a?p=/b/c"));
+        Assert.assertEquals("/", RequestAddCookies.directoryOf("?p=/b/c"));
+        Assert.assertEquals("/", RequestAddCookies.directoryOf("*"));
+    }
+
 }
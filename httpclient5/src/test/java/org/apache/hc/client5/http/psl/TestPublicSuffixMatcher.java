@@ -27,9 +27,15 @@
 
 package org.apache.hc.client5.http.psl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -138,4 +144,54 @@ public void testMatchUnicode() {
         Assert.assertTrue(matcher.matches(".xn--h-2fa.no"));
     }
 
+    @Test
+    public void testGetDomainRootWildcardAndExceptionRules() {
+        final PublicSuffixMatcher m = new PublicSuffixMatcher(DomainType.ICANN,
+                Arrays.asList("com", "*.ck", "*.kawasaki.jp", "jp"), Arrays.asList("www.ck", "city.kawasaki.jp"));
+        Assert.assertEquals("example.com", m.getDomainRoot("www.example.com"));
+        Assert.assertNull(m.getDomainRoot("com"));
+        Assert.assertNull(m.getDomainRoot("blah.ck"));
+        Assert.assertEquals("foo.blah.ck", m.getDomainRoot("a.foo.blah.ck"));
+        Assert.assertEquals("www.ck", m.getDomainRoot("www.ck"));
+        Assert.assertEquals("www.ck", m.getDomainRoot("sub.www.ck"));
+        Assert.assertEquals("kawasaki.jp", m.getDomainRoot("kawasaki.jp"));
+        Assert.assertNull(m.getDomainRoot("ward.kawasaki.jp"));
+        Assert.assertEquals("city.kawasaki.jp", m.getDomainRoot("city.kawasaki.jp"));
+        Assert.assertEquals("city.kawasaki.jp", m.getDomainRoot("www.City.Kawasaki.JP"));
+        Assert.assertEquals("foo.ward.kawasaki.jp", m.getDomainRoot("www.foo.ward.kawasaki.jp"));
+        Assert.assertEquals("other.jp", m.getDomainRoot("www.other.jp"));
+        Assert.assertEquals("org", m.getDomainRoot("www.example.org"));
+        Assert.assertNull(m.getDomainRoot("www.example.org", DomainType.ICANN));
+        Assert.assertNull(m.getDomainRoot("www.example.com", DomainType.PRIVATE));
+    }
+
+    @Test
+    public void testGetDomainRootUnicode() {
+        Assert.assertEquals("blah.h\u00E5.no", matcher.getDomainRoot("www.blah.h\u00E5.no"));
+        Assert.assertEquals("blah.xn--h-2fa.no", matcher.getDomainRoot("www.blah.xn--h-2fa.no"));
+    }
+
+    @Test
+    public void testEncodeDecode() throws Exception {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        matcher.encode(new DataOutputStream(buf));
+        final PublicSuffixMatcher decoded = PublicSuffixMatcher.decode(
+                new DataInputStream(new ByteArrayInputStream(buf.toByteArray())));
+
+        final String[] domains = { "example.XX", "www.blah.blah.example.XX", "example.appspot.com", "jp", "ac.jp",
+                "any.tokyo.jp", "metro.tokyo.jp", "blah.blah.tokyo.jp", "blah.blah.ac.jp", "garbage.garbage",
+                "*.garbage.garbage", "www.blah.h\u00E5.no", "www.blah.xn--h-2fa.no" };
+        final DomainType[] types = { null, DomainType.UNKNOWN, DomainType.ICANN, DomainType.PRIVATE };
+        for (final String domain : domains) {
+            for (final DomainType type : types) {
+                Assert.assertEquals(matcher.getDomainRoot(domain, type), decoded.getDomainRoot(domain, type));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeInvalidInput() throws Exception {
+        PublicSuffixMatcher.decode(new DataInputStream(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 })));
+    }
+
 }
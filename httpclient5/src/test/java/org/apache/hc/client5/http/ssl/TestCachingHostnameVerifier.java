@@ -0,0 +1,108 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.ssl;
+
+import java.io.ByteArrayInputStream;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+import javax.net.ssl.SSLException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+
+public class TestCachingHostnameVerifier {
+
+    private CertificateFactory certificateFactory;
+
+    @Before
+    public void setup() throws Exception {
+        certificateFactory = CertificateFactory.getInstance("X.509");
+    }
+
+    private X509Certificate certificate(final byte[] data) throws Exception {
+        return (X509Certificate) certificateFactory.generateCertificate(new ByteArrayInputStream(data));
+    }
+
+    @Test
+    public void testVerdictsCached() throws Exception {
+        final HttpClientHostnameVerifier delegate = Mockito.mock(HttpClientHostnameVerifier.class,
+                AdditionalAnswers.delegatesTo(new DefaultHostnameVerifier()));
+        final CachingHostnameVerifier verifier = new CachingHostnameVerifier(delegate);
+        final X509Certificate x509 = certificate(CertificatesToPlayWith.X509_FOO);
+
+        verifier.verify("foo.com", x509);
+        verifier.verify("foo.com", x509);
+        // An equal certificate obtained from another handshake
+        verifier.verify("foo.com", certificate(CertificatesToPlayWith.X509_FOO));
+        Mockito.verify(delegate, Mockito.times(1)).verify("foo.com", x509);
+
+        for (int i = 0; i < 2; i++) {
+            final SSLException ex = Assert.assertThrows(SSLException.class, () -> verifier.verify("bar.com", x509));
+            Assert.assertTrue(ex.getMessage().contains("bar.com"));
+        }
+        Mockito.verify(delegate, Mockito.times(1)).verify("bar.com", x509);
+
+        verifier.verify("bar.com", certificate(CertificatesToPlayWith.X509_FOO_BAR));
+        Assert.assertEquals(3, verifier.size());
+    }
+
+    @Test
+    public void testExpiredCertificateNotCached() throws Exception {
+        final HttpClientHostnameVerifier delegate = Mockito.mock(HttpClientHostnameVerifier.class,
+                AdditionalAnswers.delegatesTo(new DefaultHostnameVerifier()));
+        final CachingHostnameVerifier verifier = new CachingHostnameVerifier(delegate);
+        final X509Certificate x509 = certificate(CertificatesToPlayWith.S_GOOGLE_COM);
+
+        verifier.verify("www.google.com", x509);
+        verifier.verify("www.google.com", x509);
+        Mockito.verify(delegate, Mockito.times(2)).verify("www.google.com", x509);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() throws Exception {
+        final HttpClientHostnameVerifier delegate = Mockito.mock(HttpClientHostnameVerifier.class,
+                AdditionalAnswers.delegatesTo(new DefaultHostnameVerifier()));
+        final CachingHostnameVerifier verifier = new CachingHostnameVerifier(delegate, 2);
+        final X509Certificate x509 = certificate(CertificatesToPlayWith.X509_FOO_BAR);
+
+        verifier.verify("bar.com", x509);
+        Assert.assertThrows(SSLException.class, () -> verifier.verify("foo.com", x509));
+        verifier.verify("bar.com", x509);
+        Assert.assertThrows(SSLException.class, () -> verifier.verify("a.bar.com", x509));
+        Assert.assertEquals(2, verifier.size());
+
+        verifier.verify("bar.com", x509);
+        Mockito.verify(delegate, Mockito.times(1)).verify("bar.com", x509);
+        Assert.assertThrows(SSLException.class, () -> verifier.verify("foo.com", x509));
+        Mockito.verify(delegate, Mockito.times(2)).verify("foo.com", x509);
+    }
+
+}
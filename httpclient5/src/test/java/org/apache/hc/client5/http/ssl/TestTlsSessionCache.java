@@ -0,0 +1,133 @@
+/*
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ *
+ * This software consists of voluntary contributions made by many
+ * individuals on behalf of the Apache Software Foundation.  For more
+ * information on the Apache Software Foundation, please see
+ * <http://www.apache.org/>.
+ *
+ */
+package org.apache.hc.client5.http.ssl;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TestTlsSessionCache {
+
+    private static SSLSession mockSession(final long creationTime, final byte[] id) {
+        final SSLSession session = Mockito.mock(SSLSession.class);
+        Mockito.when(session.getCreationTime()).thenReturn(creationTime);
+        Mockito.when(session.getId()).thenReturn(id);
+        Mockito.when(session.isValid()).thenReturn(true);
+        return session;
+    }
+
+    @Test
+    public void testResumedAndFullHandshakes() {
+        final TlsSessionCache cache = new TlsSessionCache();
+        final long now = System.currentTimeMillis();
+        final SSLSession session1 = mockSession(now, new byte[] {1, 2, 3});
+
+        Assert.assertFalse(cache.handshakeCompleted("Host", 443, session1, now, 2000000L));
+        // The same session presented again
+        Assert.assertTrue(cache.handshakeCompleted("host", 443, session1, now + 10, 100000L));
+        // A session with the same id
+        Assert.assertTrue(cache.handshakeCompleted("host", 443, mockSession(now + 20, new byte[] {1, 2, 3}),
+                now + 20, 100000L));
+        // A session created before the handshake started
+        Assert.assertTrue(cache.handshakeCompleted("otherhost", 443, mockSession(now - 1000, new byte[] {4}),
+                now, 100000L));
+        // A new session
+        Assert.assertFalse(cache.handshakeCompleted("host", 8443, mockSession(now, new byte[] {5}),
+                now, 2000000L));
+
+        Assert.assertEquals(3, cache.getResumedHandshakeCount());
+        Assert.assertEquals(2, cache.getFullHandshakeCount());
+        Assert.assertEquals(300L, cache.getResumedHandshakeTime().toMicroseconds());
+        Assert.assertEquals(4L, cache.getFullHandshakeTime().toMilliseconds());
+        Assert.assertEquals(0.6, cache.getHitRate(), 0.001);
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testExpiredSessionInvalidated() {
+        final TlsSessionCache cache = new TlsSessionCache(10, TimeValue.ofSeconds(60));
+        final long now = System.currentTimeMillis();
+        final SSLSession fresh = mockSession(now, new byte[] {1});
+        final SSLSession stale = mockSession(now - 61000, new byte[] {2});
+        cache.handshakeCompleted("host1", 443, fresh, now, 0);
+        cache.handshakeCompleted("host2", 443, stale, now - 61000, 0);
+
+        cache.beforeHandshake("host1", 443);
+        cache.beforeHandshake("host2", 443);
+        Mockito.verify(fresh, Mockito.never()).invalidate();
+        Mockito.verify(stale).invalidate();
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final TlsSessionCache cache = new TlsSessionCache(2, TimeValue.ofSeconds(60));
+        final long now = System.currentTimeMillis();
+        final SSLSession session1 = mockSession(now, new byte[] {1});
+        cache.handshakeCompleted("host1", 443, session1, now, 0);
+        cache.handshakeCompleted("host2", 443, mockSession(now, new byte[] {2}), now, 0);
+        cache.handshakeCompleted("host3", 443, mockSession(now, new byte[] {3}), now, 0);
+        Assert.assertEquals(2, cache.size());
+
+        // host1 has been evicted, so its session is not recognized any more
+        Assert.assertFalse(cache.handshakeCompleted("host1", 443, session1, now, 0));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final TlsSessionCache cache = new TlsSessionCache();
+        final long now = System.currentTimeMillis();
+        final SSLSession session = mockSession(now, new byte[] {1});
+        final SSLSession rejected = mockSession(now, new byte[] {2});
+        cache.handshakeCompleted("host", 443, session, now, 0);
+        cache.invalidate("host", 443, rejected);
+        Mockito.verify(session).invalidate();
+        Mockito.verify(rejected).invalidate();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSessionContextConfigured() {
+        final TlsSessionCache cache = new TlsSessionCache(500, TimeValue.ofHours(1));
+        final SSLSessionContext sessionContext = Mockito.mock(SSLSessionContext.class);
+        Mockito.when(sessionContext.getSessionCacheSize()).thenReturn(100);
+        Mockito.when(sessionContext.getSessionTimeout()).thenReturn(86400);
+        final long now = System.currentTimeMillis();
+        final SSLSession session = mockSession(now, new byte[] {1});
+        Mockito.when(session.getSessionContext()).thenReturn(sessionContext);
+
+        cache.handshakeCompleted("host", 443, session, now, 0);
+        cache.handshakeCompleted("host", 443, session, now, 0);
+        Mockito.verify(sessionContext).setSessionCacheSize(500);
+        Mockito.verify(sessionContext).setSessionTimeout(3600);
+    }
+
+}
@@ -27,8 +27,12 @@
 
 package org.apache.hc.client5.http.utils;
 
+import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
 
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.message.BasicHeader;
@@ -142,4 +146,81 @@ public void testIsAfter() throws Exception {
         message1.setHeader(new BasicHeader(HttpHeaders.DATE, "Wednesday, 25-Dec-2017 00:00:00 GMT"));
         MatcherAssert.assertThat(DateUtils.isAfter(message1, message2, HttpHeaders.DATE), CoreMatchers.equalTo(false));
     }
+
+    private static final String[] PATTERNS = {
+            DateUtils.PATTERN_RFC1123, DateUtils.PATTERN_RFC1036, DateUtils.PATTERN_ASCTIME };
+
+    @Test
+    public void testStandardDateParse() throws Exception {
+        final Instant instant = Instant.parse("1994-11-06T08:49:37Z");
+        Assert.assertEquals(instant, DateUtils.parseStandardDate("Sun, 06 Nov 1994 08:49:37 GMT"));
+        Assert.assertEquals(instant, DateUtils.parseStandardDate("Sunday, 06-Nov-1994 08:49:37 GMT"));
+        Assert.assertEquals(instant, DateUtils.parseStandardDate("Sun Nov  6 08:49:37 1994"));
+        Assert.assertEquals(instant, DateUtils.parseStandardDate("'Sun, 06 Nov 1994 08:49:37 GMT'"));
+        Assert.assertEquals(Instant.parse("2094-11-06T08:49:37Z"),
+                DateUtils.parseStandardDate("Sunday, 06-Nov-94 08:49:37 GMT"));
+        Assert.assertNull(DateUtils.parseStandardDate("huh?"));
+        Assert.assertNull(DateUtils.parseStandardDate(""));
+    }
+
+    @Test
+    public void testStandardDateParseMatchesPatternParser() throws Exception {
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final Date date = new Date((random.nextLong() % 4000000000L) * 1000L);
+            for (final String pattern : PATTERNS) {
+                final SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+                format.setTimeZone(DateUtils.GMT);
+                final String s = format.format(date);
+                Assert.assertEquals(s, DateUtils.parseDate(s, PATTERNS), DateUtils.parseDate(s));
+            }
+        }
+    }
+
+    @Test
+    public void testNonCanonicalDateParseMatchesPatternParser() throws Exception {
+        final String[] values = {
+                "Mon, 06 Nov 1994 08:49:37 GMT",
+                "Sun, 6 Nov 1994 08:49:37 GMT",
+                "Sun, 06 nov 1994 08:49:37 GMT",
+                "Sun, 06 Nov 1994 08:49:37 UTC",
+                "Sun, 06 Nov 1994 08:49:37 +0100",
+                "Sun, 06 Nov 1994 08:49:37 GMT trailing",
+                "Sun, 31 Feb 1994 08:49:37 GMT",
+                "Sun, 06 Nov 1994 25:49:37 GMT",
+                "Sun, 06 Nov 94 08:49:37 GMT",
+                "Sun, 06 Nov 1500 08:49:37 GMT",
+                "Sunday, 06 Nov 1994 08:49:37 GMT",
+                "Sunday, 06-Nov-94 08:49:37 GMT",
+                "Sunday, 06-Nov-994 08:49:37 GMT",
+                "Wednesday, 25-Dec-2017 00:00:00 GMT",
+                "Sun Nov 6 08:49:37 1994",
+                "Sun Nov 06 08:49:37 1994",
+                "Sunday Nov  6 08:49:37 1994",
+                "Sun Nov  6 08:49:37 94",
+                "Sun, 06 Nov 1994 08:49:37 G",
+                "Sun,",
+                "Sun"
+        };
+        for (final String value : values) {
+            Assert.assertEquals(value, DateUtils.parseDate(value, PATTERNS), DateUtils.parseDate(value));
+        }
+    }
+
+    @Test
+    public void testFormatStandardDate() throws Exception {
+        final SimpleDateFormat format = new SimpleDateFormat(DateUtils.PATTERN_RFC1123, Locale.US);
+        format.setTimeZone(DateUtils.GMT);
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            // years 1653 to 9892
+            final Date date = new Date(-10000000000000L + (long) (random.nextDouble() * 260000000000000L));
+            Assert.assertEquals(format.format(date), DateUtils.formatDate(date));
+            Assert.assertEquals(format.format(date), DateUtils.formatStandardDate(date.toInstant()));
+        }
+        final Instant instant = Instant.parse("1994-11-06T08:49:37Z");
+        Assert.assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", DateUtils.formatStandardDate(instant));
+        Assert.assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", DateUtils.formatStandardDate(instant.plusMillis(999)));
+    }
+
 }